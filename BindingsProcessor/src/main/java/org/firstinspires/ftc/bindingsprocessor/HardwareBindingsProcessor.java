@@ -0,0 +1,337 @@
+package org.firstinspires.ftc.bindingsprocessor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/*
+ * Generates hardware binding classes for TeamCode at build time.
+ *
+ * For every class annotated with @HardwareConfig, this writes a class next to it named after it
+ * with "Bindings" appended (nested classes are flattened with underscores, so ConceptX.Robot
+ * becomes ConceptX_RobotBindings).  Its static bind(hardwareMap, target) method assigns each
+ * @Device and @Motor field of target directly, looks every device up exactly once, and collects
+ * all the missing ones before throwing, so one run of the OpMode reports every configuration
+ * mistake.  Only then does it set the bulk caching mode and the motors' direction, run mode and
+ * zero power behavior.  No reflection is used at run time.
+ *
+ * Mistakes that can be caught without a robot are reported as compile errors instead: annotated
+ * fields that are private, static or final, fields whose type is not a HardwareDevice (or not a
+ * DcMotor for @Motor), empty device names, and annotated fields outside a @HardwareConfig class.
+ *
+ * The annotations live in TeamCode (org.firstinspires.ftc.teamcode.bindings) and are read here by
+ * name, so this processor needs neither the annotations nor the FTC SDK on its own classpath.
+ */
+public class HardwareBindingsProcessor extends AbstractProcessor {
+
+    static final String BINDINGS_PACKAGE = "org.firstinspires.ftc.teamcode.bindings";
+    static final String HARDWARE_CONFIG = BINDINGS_PACKAGE + ".HardwareConfig";
+    static final String DEVICE = BINDINGS_PACKAGE + ".Device";
+    static final String MOTOR = BINDINGS_PACKAGE + ".Motor";
+    static final String HARDWARE_BINDER = BINDINGS_PACKAGE + ".HardwareBinder";
+    static final String HARDWARE_DEVICE = "com.qualcomm.robotcore.hardware.HardwareDevice";
+    static final String DC_MOTOR = "com.qualcomm.robotcore.hardware.DcMotor";
+    static final String HARDWARE_MAP = "com.qualcomm.robotcore.hardware.HardwareMap";
+    static final String SUFFIX = "Bindings";
+
+    /** One annotated field and the settings read from its annotation. */
+    private static class Binding {
+        final VariableElement field;
+        final String deviceName;
+        final boolean optional;
+        final boolean motor;
+        String direction;
+        String mode;
+        String zeroPower;
+        boolean resetEncoder;
+
+        Binding(VariableElement field, String deviceName, boolean optional, boolean motor) {
+            this.field = field;
+            this.deviceName = deviceName;
+            this.optional = optional;
+            this.motor = motor;
+        }
+    }
+
+    private Elements elements;
+    private Types types;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new LinkedHashSet<>(Arrays.asList(HARDWARE_CONFIG, DEVICE, MOTOR));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+
+        for (String fieldAnnotation : new String[] {DEVICE, MOTOR}) {
+            TypeElement annotation = elements.getTypeElement(fieldAnnotation);
+            if (annotation == null) {
+                continue;
+            }
+            for (Element field : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (findAnnotation(field.getEnclosingElement(), HARDWARE_CONFIG) == null) {
+                    error(field, "@%s fields must be declared in a class annotated with @HardwareConfig",
+                            annotation.getSimpleName());
+                }
+            }
+        }
+
+        TypeElement config = elements.getTypeElement(HARDWARE_CONFIG);
+        if (config == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(config)) {
+            TypeElement type = (TypeElement) element;
+            List<Binding> bindings = collect(type);
+            if (bindings != null) {
+                write(type, bindings);
+            }
+        }
+        return true;
+    }
+
+    // Read and check the annotated fields; null if anything is wrong, after reporting it
+    private List<Binding> collect(TypeElement type) {
+        boolean ok = true;
+        if (type.getKind() != ElementKind.CLASS) {
+            error(type, "@HardwareConfig must be applied to a class");
+            return null;
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                error(type, "@HardwareConfig classes and the classes enclosing them must not be private");
+                ok = false;
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                error(type, "nested @HardwareConfig classes must be static");
+                ok = false;
+            }
+        }
+
+        TypeElement hardwareDevice = elements.getTypeElement(HARDWARE_DEVICE);
+        TypeElement dcMotor = elements.getTypeElement(DC_MOTOR);
+        List<Binding> bindings = new ArrayList<>();
+        for (Element element : type.getEnclosedElements()) {
+            if (element.getKind() != ElementKind.FIELD) {
+                continue;
+            }
+            VariableElement field = (VariableElement) element;
+            AnnotationMirror device = findAnnotation(field, DEVICE);
+            AnnotationMirror motor = findAnnotation(field, MOTOR);
+            if (device == null && motor == null) {
+                continue;
+            }
+            if (device != null && motor != null) {
+                error(field, "use either @Device or @Motor, not both");
+                ok = false;
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                error(field, "bound fields must not be private, static or final");
+                ok = false;
+            }
+
+            AnnotationMirror mirror = motor != null ? motor : device;
+            Map<? extends ExecutableElement, ? extends AnnotationValue> values = elements.getElementValuesWithDefaults(mirror);
+            String name = (String) value(values, "value");
+            if (name.trim().isEmpty()) {
+                error(field, "the device name must not be empty");
+                ok = false;
+            }
+
+            TypeElement required = motor != null ? dcMotor : hardwareDevice;
+            if (required != null && !types.isAssignable(types.erasure(field.asType()), types.erasure(required.asType()))) {
+                error(field, "@%s fields must be a %s", motor != null ? "Motor" : "Device", required.getSimpleName());
+                ok = false;
+            }
+
+            Binding binding = new Binding(field, name, (Boolean) value(values, "optional"), motor != null);
+            if (motor != null) {
+                binding.direction = enumConstant(value(values, "direction"));
+                binding.mode = enumConstant(value(values, "mode"));
+                binding.zeroPower = enumConstant(value(values, "zeroPower"));
+                binding.resetEncoder = (Boolean) value(values, "resetEncoder");
+            }
+            bindings.add(binding);
+        }
+
+        AnnotationMirror mirror = findAnnotation(type, HARDWARE_CONFIG);
+        if (bindings.isEmpty()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "@HardwareConfig class has no @Device or @Motor fields", type, mirror);
+        }
+        return ok ? bindings : null;
+    }
+
+    private void write(TypeElement type, List<Binding> bindings) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String simpleName = bindingsName(type);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String bulkCaching = enumConstant(value(elements.getElementValuesWithDefaults(
+                findAnnotation(type, HARDWARE_CONFIG)), "bulkCaching"));
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                if (!packageName.isEmpty()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("import " + HARDWARE_MAP + ";");
+                if (!packageName.equals(BINDINGS_PACKAGE)) {
+                    out.println("import " + HARDWARE_BINDER + ";");
+                }
+                out.println();
+                out.println("/*");
+                out.println(" * Generated by HardwareBindingsProcessor from");
+                out.println(" * " + type.getQualifiedName() + ".");
+                out.println(" * Do not edit; change the annotations on " + type.getSimpleName() + " instead.");
+                out.println(" */");
+                out.println("public final class " + simpleName + " {");
+                out.println();
+                out.println("    private " + simpleName + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    /**");
+                out.println("     * Look up every device of target once, then set the bulk caching mode and motor settings.");
+                out.println("     * Throws MissingDevicesException naming every required device that is missing or of the");
+                out.println("     * wrong type, before any hardware is touched.");
+                out.println("     */");
+                out.println("    public static HardwareBinder bind(HardwareMap hardwareMap, " + type.getQualifiedName() + " target) {");
+                out.println("        HardwareBinder binder = new HardwareBinder(hardwareMap, " + literal(type.getSimpleName().toString()) + ");");
+                for (Binding b : bindings) {
+                    out.println("        target." + b.field.getSimpleName() + " = binder." + (b.optional ? "optional" : "require")
+                            + "(" + types.erasure(b.field.asType()) + ".class, " + literal(b.deviceName) + ");");
+                }
+                out.println("        binder.throwIfMissing();");
+                out.println();
+                out.println("        binder.setBulkCachingMode(" + bulkCaching + ");");
+                for (Binding b : bindings) {
+                    if (b.motor) {
+                        writeMotorSetup(out, b);
+                    }
+                }
+                out.println("        return binder;");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            error(type, "could not write %s: %s", qualifiedName, e.getMessage());
+        }
+    }
+
+    private void writeMotorSetup(PrintWriter out, Binding b) {
+        List<String> calls = new ArrayList<>();
+        if (!b.direction.endsWith(".FORWARD")) {
+            calls.add("setDirection(" + b.direction + ")");
+        }
+        if (b.resetEncoder) {
+            calls.add("setMode(" + DC_MOTOR + ".RunMode.STOP_AND_RESET_ENCODER)");
+        }
+        calls.add("setMode(" + b.mode + ")");
+        if (!b.zeroPower.endsWith(".UNKNOWN")) {
+            calls.add("setZeroPowerBehavior(" + b.zeroPower + ")");
+        }
+
+        String indent = "        ";
+        if (b.optional) {
+            out.println(indent + "if (target." + b.field.getSimpleName() + " != null) {");
+            indent += "    ";
+        }
+        for (String call : calls) {
+            out.println(indent + "target." + b.field.getSimpleName() + "." + call + ";");
+        }
+        if (b.optional) {
+            out.println("        }");
+        }
+    }
+
+    // Outer_InnerBindings for nested classes, so two OpModes can each nest a class named Robot
+    private static String bindingsName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, e.getSimpleName() + "_");
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String qualifiedName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(qualifiedName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object value(Map<? extends ExecutableElement, ? extends AnnotationValue> values, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalArgumentException("annotation has no element " + name);
+    }
+
+    // An enum annotation value as a fully qualified constant, e.g. ...DcMotor.RunMode.RUN_USING_ENCODER
+    private static String enumConstant(Object value) {
+        VariableElement constant = (VariableElement) value;
+        TypeElement enumType = (TypeElement) constant.getEnclosingElement();
+        return enumType.getQualifiedName() + "." + constant.getSimpleName();
+    }
+
+    private static String literal(String s) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private void error(Element element, String format, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+}
@@ -0,0 +1,87 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * This OpMode illustrates binding a robot's hardware with code generated at build time, instead of
+ * calling hardwareMap.get() with a string for each device.
+ *
+ * The Robot class below declares each device as an annotated field.  When TeamCode is built, the
+ * BindingsProcessor generates ConceptHardwareBindings_RobotBindings, whose bind() fills in every
+ * field with a single lookup, then sets bulk caching on the hubs and the direction, run mode and
+ * zero power behavior of each motor.  If devices are missing or configured as the wrong type,
+ * bind() throws before touching any hardware, and the message on the Driver Station lists all of
+ * them at once.  Annotating a private field, or putting @Motor on something that isn't a motor,
+ * fails the build.
+ *
+ * The OpMode then drives the two motors tank style from gamepad1, and shows the heading and
+ * distance sensor readings.  The distance sensor is optional, so the OpMode also runs without it.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Hardware Bindings", group = "Concept")
+@Disabled
+public class ConceptHardwareBindings extends LinearOpMode {
+
+    @HardwareConfig(bulkCaching = LynxModule.BulkCachingMode.MANUAL)
+    static class Robot {
+        @Motor(value = "left_drive", direction = DcMotorSimple.Direction.REVERSE,
+               mode = DcMotor.RunMode.RUN_USING_ENCODER, zeroPower = DcMotor.ZeroPowerBehavior.BRAKE,
+               resetEncoder = true)
+        DcMotorEx leftDrive;
+
+        @Motor(value = "right_drive",
+               mode = DcMotor.RunMode.RUN_USING_ENCODER, zeroPower = DcMotor.ZeroPowerBehavior.BRAKE,
+               resetEncoder = true)
+        DcMotorEx rightDrive;
+
+        @Device("imu")
+        IMU imu;
+
+        @Device("claw")
+        Servo claw;
+
+        @Device(value = "sensor_distance", optional = true)
+        DistanceSensor distance;
+    }
+
+    @Override
+    public void runOpMode() {
+        Robot robot = new Robot();
+        HardwareBinder hardware = ConceptHardwareBindings_RobotBindings.bind(hardwareMap, robot);
+
+        telemetry.addData(">", "Touch START to drive");
+        telemetry.update();
+        waitForStart();
+
+        while (opModeIsActive()) {
+            // MANUAL bulk caching: one bulk read per hub per loop
+            hardware.clearBulkCache();
+
+            robot.leftDrive.setPower(-gamepad1.left_stick_y);
+            robot.rightDrive.setPower(-gamepad1.right_stick_y);
+            robot.claw.setPosition(gamepad1.right_trigger);
+
+            telemetry.addData("Encoders", "left %d  right %d",
+                    robot.leftDrive.getCurrentPosition(), robot.rightDrive.getCurrentPosition());
+            telemetry.addData("Heading", "%.1f deg", robot.imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES));
+            if (robot.distance != null) {
+                telemetry.addData("Distance", "%.1f cm", robot.distance.getDistance(DistanceUnit.CM));
+            }
+            telemetry.update();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Binds a field of a @HardwareConfig class to the device with this name in the active
+ * configuration.  The field may be of any HardwareDevice type, and must not be private, static or
+ * final.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Device {
+
+    /** The device name in the robot configuration. */
+    String value();
+
+    /** If true, a missing device leaves the field null instead of failing the bind. */
+    boolean optional() default false;
+}
@@ -0,0 +1,78 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * The run-time half of the generated hardware bindings.
+ *
+ * Generated bind() methods look each device up through require() or optional(), which never throw;
+ * missing devices are collected and reported together by throwIfMissing().  The binder is then
+ * returned to the OpMode, which keeps it for the hubs:
+ *
+ *     Robot robot = new Robot();
+ *     HardwareBinder hardware = RobotBindings.bind(hardwareMap, robot);
+ *     waitForStart();
+ *     while (opModeIsActive()) {
+ *         hardware.clearBulkCache();      // only needed with BulkCachingMode.MANUAL
+ *         ...
+ *     }
+ */
+public class HardwareBinder {
+
+    private final HardwareMap hardwareMap;
+    private final String configName;
+    private final List<String> missing = new ArrayList<>();
+    private List<LynxModule> hubs = Collections.emptyList();
+
+    public HardwareBinder(HardwareMap hardwareMap, String configName) {
+        this.hardwareMap = hardwareMap;
+        this.configName = configName;
+    }
+
+    /** The device, or null after recording it as missing. */
+    public <T> T require(Class<T> type, String name) {
+        T device = hardwareMap.tryGet(type, name);
+        if (device == null) {
+            HardwareDevice other = hardwareMap.tryGet(HardwareDevice.class, name);
+            missing.add(name + " (" + type.getSimpleName() + "): "
+                    + (other == null ? "not in the configuration" : "configured as a " + other.getDeviceName()));
+        }
+        return device;
+    }
+
+    /** The device, or null if it isn't configured. */
+    public <T> T optional(Class<T> type, String name) {
+        return hardwareMap.tryGet(type, name);
+    }
+
+    /** Throw a MissingDevicesException listing every device require() couldn't find. */
+    public void throwIfMissing() {
+        if (!missing.isEmpty()) {
+            throw new MissingDevicesException(configName, new ArrayList<>(missing));
+        }
+    }
+
+    public void setBulkCachingMode(LynxModule.BulkCachingMode mode) {
+        hubs = hardwareMap.getAll(LynxModule.class);
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).setBulkCachingMode(mode);
+        }
+    }
+
+    /** With MANUAL bulk caching, call once at the top of every loop, before reading any sensor. */
+    public void clearBulkCache() {
+        for (int i = 0; i < hubs.size(); i++) {
+            hubs.get(i).clearBulkCache();
+        }
+    }
+
+    public List<LynxModule> getHubs() {
+        return hubs;
+    }
+}
@@ -0,0 +1,26 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Marks a class whose @Device and @Motor fields are bound to the hardware map by generated code.
+ *
+ * The BindingsProcessor module generates a class named after this one with "Bindings" appended;
+ * call its static bind(hardwareMap, target) once during init.  Nested classes must be static, and
+ * their bindings are named after the enclosing classes too, e.g. ConceptX_RobotBindings.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface HardwareConfig {
+
+    /**
+     * The bulk caching mode set on every hub.  With MANUAL, call clearBulkCache() on the returned
+     * HardwareBinder at the top of every loop.
+     */
+    LynxModule.BulkCachingMode bulkCaching() default LynxModule.BulkCachingMode.AUTO;
+}
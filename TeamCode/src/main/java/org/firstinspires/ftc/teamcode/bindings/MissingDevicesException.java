@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Thrown by a generated bind() when required devices are missing from the active configuration.
+ * The message lists every one of them, so a single run of the OpMode shows all the configuration
+ * mistakes rather than only the first.
+ */
+public class MissingDevicesException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> missing;
+
+    public MissingDevicesException(String configName, List<String> missing) {
+        super(message(configName, missing));
+        this.missing = Collections.unmodifiableList(missing);
+    }
+
+    /** One entry per missing device, e.g. "left_drive (DcMotorEx): not in the configuration". */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    private static String message(String configName, List<String> missing) {
+        StringBuilder message = new StringBuilder();
+        message.append(configName).append(": ").append(missing.size())
+                .append(missing.size() == 1 ? " device is" : " devices are")
+                .append(" missing from the active configuration");
+        for (String device : missing) {
+            message.append("\n  ").append(device);
+        }
+        return message.toString();
+    }
+}
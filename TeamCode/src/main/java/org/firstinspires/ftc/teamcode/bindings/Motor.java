@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.bindings;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ * Binds a DcMotor (or DcMotorEx) field of a @HardwareConfig class, and sets the motor up once all
+ * devices have been found:
+ *
+ *     @Motor(value = "left_drive", direction = DcMotorSimple.Direction.REVERSE,
+ *            mode = DcMotor.RunMode.RUN_USING_ENCODER, resetEncoder = true)
+ *     DcMotorEx leftDrive;
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Motor {
+
+    /** The device name in the robot configuration. */
+    String value();
+
+    DcMotorSimple.Direction direction() default DcMotorSimple.Direction.FORWARD;
+
+    DcMotor.RunMode mode() default DcMotor.RunMode.RUN_WITHOUT_ENCODER;
+
+    /** UNKNOWN leaves the motor's zero power behavior as it is. */
+    DcMotor.ZeroPowerBehavior zeroPower() default DcMotor.ZeroPowerBehavior.UNKNOWN;
+
+    /** Reset the encoder to zero before setting the run mode. */
+    boolean resetEncoder() default false;
+
+    /** If true, a missing motor leaves the field null instead of failing the bind. */
+    boolean optional() default false;
+}
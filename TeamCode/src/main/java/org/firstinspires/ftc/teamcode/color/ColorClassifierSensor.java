@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.color;
+
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * Classifies what a color sensor is looking at using a calibrated ColorLut.
+ *
+ * The table's calibration gain is applied to the sensor once, up front.  If the sensor also has a
+ * distance channel (REV Color Sensor V2/V3) and the table has a maximum distance, the distance is
+ * read first and, when nothing is close enough, NO_OBJECT is returned without reading the colors:
+ * a far-away "object" is just the background, and its color is meaningless.  Sensors with no
+ * distance channel, such as the Modern Robotics color sensor, always classify the color.
+ */
+public class ColorClassifierSensor {
+
+    /** Returned by classify() when the distance channel says nothing is in front of the sensor. */
+    public static final int NO_OBJECT = -1;
+
+    private final NormalizedColorSensor sensor;
+    private final DistanceSensor distanceSensor;
+    private final ColorLut lut;
+
+    private double lastDistanceCm = Double.NaN;
+    private NormalizedRGBA lastColors;
+
+    public ColorClassifierSensor(NormalizedColorSensor sensor, ColorLut lut) {
+        this.sensor = sensor;
+        this.lut = lut;
+        this.distanceSensor = sensor instanceof DistanceSensor ? (DistanceSensor) sensor : null;
+        sensor.setGain(lut.getGain());
+    }
+
+    /** Read the sensor and return a ColorLut class index, ColorLut.UNKNOWN, or NO_OBJECT. */
+    public int classify() {
+        if (distanceSensor != null && lut.getMaxDistanceCm() > 0) {
+            lastDistanceCm = distanceSensor.getDistance(DistanceUnit.CM);
+            if (lastDistanceCm > lut.getMaxDistanceCm()) {
+                return NO_OBJECT;
+            }
+        }
+        lastColors = sensor.getNormalizedColors();
+        return lut.classify(lastColors.red, lastColors.green, lastColors.blue);
+    }
+
+    /** A readable name for a result of classify(). */
+    public String getName(int result) {
+        return result == NO_OBJECT ? "no object" : lut.getClassName(result);
+    }
+
+    public ColorLut getLut() {
+        return lut;
+    }
+
+    /** The distance read by the last classify(), or NaN if the distance channel isn't used. */
+    public double getLastDistanceCm() {
+        return lastDistanceCm;
+    }
+
+    /** The colors read by the last classify() that got as far as reading them, or null. */
+    public NormalizedRGBA getLastColors() {
+        return lastColors;
+    }
+}
@@ -0,0 +1,185 @@
+package org.firstinspires.ftc.teamcode.color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * A compiled color classifier: a quantized RGB cube in which every cell holds a class index.
+ *
+ * Classifying a reading is a clamp, a shift and one array index, instead of an HSV conversion and a
+ * chain of hand-tuned thresholds.  Tables are built from labelled samples by ColorLutBuilder, and
+ * carry the sensor gain they were calibrated at so the same gain can be applied when they are used.
+ *
+ * Class 0 is always UNKNOWN: a color unlike any calibration sample.  Classes 1..n are the labels
+ * given to ColorLutBuilder, in the order they were first seen.
+ */
+public class ColorLut {
+
+    public static final int UNKNOWN = 0;
+
+    private static final int MAGIC = 0x434C5554;  // "CLUT"
+    private static final int VERSION = 1;
+
+    private final int bits;
+    private final int levels;
+    private final boolean normalizeBrightness;
+    private final float gain;
+    private final float maxDistanceCm;
+    private final String[] classNames;
+    private final byte[] table;
+
+    ColorLut(int bits, boolean normalizeBrightness, float gain, float maxDistanceCm, String[] classNames, byte[] table) {
+        if (bits < 2 || bits > 7) {
+            throw new IllegalArgumentException("bits per channel must be between 2 and 7");
+        }
+        if (table.length != 1 << (3 * bits)) {
+            throw new IllegalArgumentException("table size does not match bits per channel");
+        }
+        if (classNames.length > 127) {
+            throw new IllegalArgumentException("at most 127 classes are supported");
+        }
+        this.bits = bits;
+        this.levels = 1 << bits;
+        this.normalizeBrightness = normalizeBrightness;
+        this.gain = gain;
+        this.maxDistanceCm = maxDistanceCm;
+        this.classNames = classNames;
+        this.table = table;
+    }
+
+    /** Classify normalized (0 - 1) red, green and blue values. */
+    public int classify(float red, float green, float blue) {
+        return table[cellIndex(red, green, blue)];
+    }
+
+    /** The sensor gain the table was calibrated at. */
+    public float getGain() {
+        return gain;
+    }
+
+    /**
+     * Readings taken with the object farther away than this are not classified at all; see
+     * ColorClassifierSensor.  Zero means the distance channel is not used.
+     */
+    public float getMaxDistanceCm() {
+        return maxDistanceCm;
+    }
+
+    /** Number of classes, not counting UNKNOWN. */
+    public int getClassCount() {
+        return classNames.length;
+    }
+
+    public String getClassName(int classIndex) {
+        if (classIndex == UNKNOWN) {
+            return "unknown";
+        }
+        return classNames[classIndex - 1];
+    }
+
+    /** The class index for a label, or UNKNOWN if the table has no such label. */
+    public int getClassIndex(String name) {
+        for (int i = 0; i < classNames.length; i++) {
+            if (classNames[i].equals(name)) {
+                return i + 1;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    int cellIndex(float red, float green, float blue) {
+        if (normalizeBrightness) {
+            float max = Math.max(red, Math.max(green, blue));
+            if (max > 1e-6f) {
+                red /= max;
+                green /= max;
+                blue /= max;
+            }
+        }
+        return (quantize(red) << (2 * bits)) | (quantize(green) << bits) | quantize(blue);
+    }
+
+    int quantize(float value) {
+        int q = (int) (value * levels);
+        return q < 0 ? 0 : (q >= levels ? levels - 1 : q);
+    }
+
+    int getBits() {
+        return bits;
+    }
+
+    boolean isNormalizeBrightness() {
+        return normalizeBrightness;
+    }
+
+    /** Fraction of the table's cells that map to some class; a rough measure of coverage. */
+    public double getCoverage() {
+        int known = 0;
+        for (byte cell : table) {
+            if (cell != UNKNOWN) {
+                known++;
+            }
+        }
+        return (double) known / table.length;
+    }
+
+    public void save(File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(bits);
+            out.writeBoolean(normalizeBrightness);
+            out.writeFloat(gain);
+            out.writeFloat(maxDistanceCm);
+            out.writeInt(classNames.length);
+            for (String name : classNames) {
+                out.writeUTF(name);
+            }
+            out.write(table);
+        } finally {
+            out.close();
+        }
+    }
+
+    public static ColorLut load(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a color lookup table");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported color lookup table version " + version);
+            }
+            int bits = in.readInt();
+            boolean normalize = in.readBoolean();
+            float gain = in.readFloat();
+            float maxDistanceCm = in.readFloat();
+            String[] names = new String[in.readInt()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readUTF();
+            }
+            if (bits < 2 || bits > 7) {
+                throw new IOException("corrupt color lookup table: " + bits + " bits per channel");
+            }
+            byte[] table = new byte[1 << (3 * bits)];
+            in.readFully(table);
+            return new ColorLut(bits, normalize, gain, maxDistanceCm, names, table);
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ColorLut" + Arrays.toString(classNames) + " " + levels + "^3 gain=" + gain;
+    }
+}
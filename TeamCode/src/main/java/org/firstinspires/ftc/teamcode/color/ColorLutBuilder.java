@@ -0,0 +1,160 @@
+package org.firstinspires.ftc.teamcode.color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Collects labelled color samples and compiles them into a ColorLut.
+ *
+ * Every sample votes for the table cell it falls in.  Cells with votes take the label with the most
+ * votes; the rest of the table is then filled by a breadth-first flood outward from the labelled
+ * cells, so each empty cell takes the label of the nearest labelled cell.  Cells farther than
+ * maxSpreadCells from every sample stay UNKNOWN, which is what keeps an unfamiliar color from being
+ * forced into the closest class.  The flood visits each cell once, so fitting is linear in the
+ * table size regardless of how many samples were recorded.
+ */
+public class ColorLutBuilder {
+
+    public static final int DEFAULT_BITS = 5;
+    public static final int DEFAULT_MAX_SPREAD_CELLS = 3;
+
+    private final int bits;
+    private final boolean normalizeBrightness;
+    private final List<String> labels = new ArrayList<>();
+    private final List<int[]> votes = new ArrayList<>();
+    private final ColorLut quantizer;
+    private int sampleCount = 0;
+
+    private float gain = 1;
+    private float maxDistanceCm = 0;
+    private int maxSpreadCells = DEFAULT_MAX_SPREAD_CELLS;
+
+    public ColorLutBuilder() {
+        this(DEFAULT_BITS, true);
+    }
+
+    /**
+     * @param bits                bits per channel; the table has 2^(3 * bits) cells
+     * @param normalizeBrightness scale each reading so its largest channel is 1 before lookup, which
+     *                            makes classification much less sensitive to distance and lighting
+     */
+    public ColorLutBuilder(int bits, boolean normalizeBrightness) {
+        this.bits = bits;
+        this.normalizeBrightness = normalizeBrightness;
+        // An empty table, used only for its quantization
+        this.quantizer = new ColorLut(bits, normalizeBrightness, 1, 0, new String[0], new byte[1 << (3 * bits)]);
+    }
+
+    public ColorLutBuilder setGain(float gain) {
+        this.gain = gain;
+        return this;
+    }
+
+    public ColorLutBuilder setMaxDistanceCm(float maxDistanceCm) {
+        this.maxDistanceCm = maxDistanceCm;
+        return this;
+    }
+
+    public ColorLutBuilder setMaxSpreadCells(int cells) {
+        this.maxSpreadCells = cells;
+        return this;
+    }
+
+    public void addSample(String label, float red, float green, float blue) {
+        int classIndex = labels.indexOf(label);
+        if (classIndex < 0) {
+            labels.add(label);
+            votes.add(new int[1 << (3 * bits)]);
+            classIndex = labels.size() - 1;
+        }
+        votes.get(classIndex)[quantizer.cellIndex(red, green, blue)]++;
+        sampleCount++;
+    }
+
+    /** Forget every sample recorded for a label. */
+    public void clear(String label) {
+        int classIndex = labels.indexOf(label);
+        if (classIndex >= 0) {
+            int[] counts = votes.get(classIndex);
+            for (int i = 0; i < counts.length; i++) {
+                sampleCount -= counts[i];
+                counts[i] = 0;
+            }
+        }
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getSampleCount(String label) {
+        int classIndex = labels.indexOf(label);
+        if (classIndex < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int count : votes.get(classIndex)) {
+            total += count;
+        }
+        return total;
+    }
+
+    public ColorLut build() {
+        int levels = 1 << bits;
+        int cells = 1 << (3 * bits);
+        byte[] table = new byte[cells];
+        byte[] distance = new byte[cells];
+        int[] queue = new int[cells];
+        int head = 0;
+        int tail = 0;
+
+        // Seed: each cell with samples takes its majority label
+        for (int cell = 0; cell < cells; cell++) {
+            int best = 0;
+            int bestVotes = 0;
+            for (int c = 0; c < votes.size(); c++) {
+                int v = votes.get(c)[cell];
+                if (v > bestVotes) {
+                    bestVotes = v;
+                    best = c + 1;
+                }
+            }
+            if (best != ColorLut.UNKNOWN) {
+                table[cell] = (byte) best;
+                queue[tail++] = cell;
+            }
+        }
+
+        // Flood outward one cell at a time, along the six axis directions
+        int mask = levels - 1;
+        int[] steps = { 1, -1, levels, -levels, levels * levels, -levels * levels };
+        while (head < tail) {
+            int cell = queue[head++];
+            if (distance[cell] >= maxSpreadCells) {
+                continue;
+            }
+            int r = cell >>> (2 * bits);
+            int g = (cell >>> bits) & mask;
+            int b = cell & mask;
+            for (int s = 0; s < steps.length; s++) {
+                boolean inside;
+                switch (s) {
+                    case 0:  inside = b < mask; break;
+                    case 1:  inside = b > 0;    break;
+                    case 2:  inside = g < mask; break;
+                    case 3:  inside = g > 0;    break;
+                    case 4:  inside = r < mask; break;
+                    default: inside = r > 0;    break;
+                }
+                int next = cell + steps[s];
+                if (inside && table[next] == ColorLut.UNKNOWN) {
+                    table[next] = table[cell];
+                    distance[next] = (byte) (distance[cell] + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        return new ColorLut(bits, normalizeBrightness, gain, maxDistanceCm, labels.toArray(new String[0]), table);
+    }
+}
@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode.color;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.IOException;
+
+/*
+ * This OpMode illustrates classifying game elements with a color sensor using a lookup table
+ * calibrated by UtilityColorCalibration, rather than HSV conversion and threshold chains.
+ *
+ * The sensor is expected to be configured with a name of "sensor_color".
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Color Classifier", group = "Concept")
+@Disabled
+public class ConceptColorClassifier extends LinearOpMode {
+
+    @Override
+    public void runOpMode() {
+        ColorLut lut;
+        try {
+            lut = ColorLut.load(AppUtil.getInstance().getSettingsFile(UtilityColorCalibration.LUT_FILE_NAME));
+        } catch (IOException e) {
+            telemetry.addData("Error", "No color table; run Utility: Color Calibration first");
+            telemetry.update();
+            waitForStart();
+            return;
+        }
+
+        ColorClassifierSensor classifier = new ColorClassifierSensor(
+                hardwareMap.get(NormalizedColorSensor.class, "sensor_color"), lut);
+        int purple = lut.getClassIndex("purple");
+
+        telemetry.addData("Table", lut);
+        telemetry.update();
+        waitForStart();
+
+        while (opModeIsActive()) {
+            int result = classifier.classify();
+
+            telemetry.addData("Seeing", classifier.getName(result));
+            telemetry.addData("Purple?", result == purple);
+            telemetry.addData("Distance (cm)", "%.2f", classifier.getLastDistanceCm());
+            telemetry.update();
+        }
+    }
+}
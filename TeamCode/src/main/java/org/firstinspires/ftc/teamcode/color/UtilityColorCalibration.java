@@ -0,0 +1,114 @@
+package org.firstinspires.ftc.teamcode.color;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.NormalizedColorSensor;
+import com.qualcomm.robotcore.hardware.NormalizedRGBA;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/*
+ * This OpMode records labelled color sensor samples, compiles them into a ColorLut, and saves it
+ * to the Robot Controller so ConceptColorClassifier (or your own code) can load it.
+ *
+ * The sensor is expected to be configured with a name of "sensor_color".
+ *
+ * Controls (gamepad1):
+ *   dpad up/down       adjust the sensor gain (only until the first sample is recorded)
+ *   dpad left/right    choose which label to record
+ *   A (hold)           record samples for the chosen label; move the object around while holding
+ *   B                  clear the chosen label's samples
+ *   X                  set the "object present" distance from the current reading, plus a margin
+ *   Y                  compile the table and save it
+ *
+ * Record each game element at the distances and angles it will really be seen at.  Recording the
+ * empty intake or the floor as its own label is also useful.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Color Calibration", group = "Utility")
+@Disabled
+public class UtilityColorCalibration extends LinearOpMode {
+
+    public static final String LUT_FILE_NAME = "color_lut.bin";
+
+    private static final String[] LABELS = { "purple", "green", "empty" };
+    private static final float DISTANCE_MARGIN_CM = 0.5f;
+
+    @Override
+    public void runOpMode() {
+        NormalizedColorSensor colorSensor = hardwareMap.get(NormalizedColorSensor.class, "sensor_color");
+        DistanceSensor distanceSensor = colorSensor instanceof DistanceSensor ? (DistanceSensor) colorSensor : null;
+
+        ColorLutBuilder builder = new ColorLutBuilder();
+        float gain = 2;
+        float maxDistanceCm = 0;
+        int label = 0;
+        String status = "";
+
+        waitForStart();
+
+        while (opModeIsActive()) {
+            if (builder.getSampleCount() == 0) {
+                if (gamepad1.dpad_up) {
+                    gain += 0.005;
+                } else if (gamepad1.dpad_down && gain > 1) {
+                    gain -= 0.005;
+                }
+            }
+            colorSensor.setGain(gain);
+
+            if (gamepad1.dpadRightWasPressed()) {
+                label = (label + 1) % LABELS.length;
+            } else if (gamepad1.dpadLeftWasPressed()) {
+                label = (label + LABELS.length - 1) % LABELS.length;
+            }
+
+            NormalizedRGBA colors = colorSensor.getNormalizedColors();
+            double distanceCm = distanceSensor == null ? Double.NaN : distanceSensor.getDistance(DistanceUnit.CM);
+
+            if (gamepad1.a) {
+                builder.addSample(LABELS[label], colors.red, colors.green, colors.blue);
+            }
+            if (gamepad1.bWasPressed()) {
+                builder.clear(LABELS[label]);
+            }
+            if (gamepad1.xWasPressed() && distanceSensor != null) {
+                maxDistanceCm = (float) distanceCm + DISTANCE_MARGIN_CM;
+            }
+            if (gamepad1.yWasPressed()) {
+                status = save(builder.setGain(gain).setMaxDistanceCm(maxDistanceCm).build());
+            }
+
+            telemetry.addData("Label", "%s  (%d samples)", LABELS[label], builder.getSampleCount(LABELS[label]));
+            telemetry.addData("Gain", builder.getSampleCount() == 0 ? "%.2f" : "%.2f (locked)", gain);
+            telemetry.addData("RGB", "%.3f %.3f %.3f", colors.red, colors.green, colors.blue);
+            if (distanceSensor != null) {
+                telemetry.addData("Distance", "%.2f cm (object when below %.2f)", distanceCm, maxDistanceCm);
+            }
+            for (String name : LABELS) {
+                telemetry.addData(name, builder.getSampleCount(name));
+            }
+            telemetry.addLine(status);
+            telemetry.update();
+        }
+    }
+
+    private String save(ColorLut lut) {
+        File file = AppUtil.getInstance().getSettingsFile(LUT_FILE_NAME);
+        try {
+            lut.save(file);
+            return String.format(Locale.US, "Saved %s (%.0f%% of colors classified)", file.getName(),
+                    lut.getCoverage() * 100);
+        } catch (IOException e) {
+            return "Save failed: " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.vision.VisionPortal;
+
+/*
+ * This OpMode illustrates streaming live values and a camera preview to the dashboard.
+ *
+ * Connect a laptop to the robot's Wi-Fi and browse to http://192.168.43.1:8080/dashboard
+ * (the same server that hosts Blocks and OnBotJava).  Every channel declared below appears in a
+ * table that updates roughly 50 times a second, far faster than Driver Station telemetry.
+ *
+ * The OpMode loop only copies numbers into a preallocated snapshot; it never waits on the network.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Dashboard", group = "Concept")
+@Disabled
+public class ConceptDashboard extends LinearOpMode {
+
+    private static final boolean USE_WEBCAM = true;
+
+    @Override
+    public void runOpMode() {
+        DashboardChannels channels = new DashboardChannels(
+                "loopMs", "leftStickY", "rightStickX", "batteryVolts", "cameraFps");
+        int loopMs = channels.indexOf("loopMs");
+        int leftStickY = channels.indexOf("leftStickY");
+        int rightStickX = channels.indexOf("rightStickX");
+        int batteryVolts = channels.indexOf("batteryVolts");
+        int cameraFps = channels.indexOf("cameraFps");
+
+        DashboardFrameProcessor preview = new DashboardFrameProcessor();
+        VisionPortal visionPortal = null;
+        if (USE_WEBCAM) {
+            visionPortal = VisionPortal.easyCreateWithDefaults(
+                    hardwareMap.get(WebcamName.class, "Webcam 1"), preview);
+        }
+
+        VoltageSensor battery = hardwareMap.voltageSensor.iterator().next();
+
+        Dashboard dashboard = Dashboard.getInstance();
+        dashboard.attach(channels);
+        dashboard.attach(preview.getFrames());
+
+        telemetry.addData(">", "Browse to http://<robot-ip>:8080" + Dashboard.PAGE_URI);
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        long lastNanos = System.nanoTime();
+        int loops = 0;
+        while (opModeIsActive()) {
+            long now = System.nanoTime();
+            channels.set(loopMs, (now - lastNanos) / 1e6);
+            lastNanos = now;
+
+            channels.set(leftStickY, -gamepad1.left_stick_y);
+            channels.set(rightStickX, gamepad1.right_stick_x);
+            channels.set(cameraFps, visionPortal == null ? 0 : visionPortal.getFps());
+
+            // Reading the hub voltage is a bus transaction, so do it only every 50 loops
+            if (loops++ % 50 == 0) {
+                channels.set(batteryVolts, battery.getVoltage());
+            }
+            channels.publish();
+
+            telemetry.addData("Dashboard clients", dashboard.getClientCount());
+            telemetry.addData("Dropped packets", dashboard.getDroppedPackets());
+            telemetry.update();
+            sleep(10);
+        }
+
+        dashboard.detach(channels);
+        dashboard.detach(preview.getFrames());
+        if (visionPortal != null) {
+            visionPortal.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import android.content.Context;
+
+import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.WebHandlerManager;
+
+import org.firstinspires.ftc.ftccommon.external.OnCreate;
+import org.firstinspires.ftc.ftccommon.external.OnDestroy;
+import org.firstinspires.ftc.ftccommon.external.WebHandlerRegistrar;
+import org.firstinspires.ftc.robotcore.internal.webserver.WebHandler;
+
+import java.io.IOException;
+
+import fi.iki.elonen.NanoHTTPD;
+
+/*
+ * Ties the dashboard into the Robot Controller app.
+ *
+ * The SDK calls the annotated static methods below as the app starts and stops, so no changes to
+ * FtcRobotControllerActivity are needed:
+ *
+ *   - @OnCreate starts the binary WebSocket stream on DashboardServer.DEFAULT_PORT.
+ *   - @WebHandlerRegistrar adds a page at http://<robot-ip>:8080/dashboard to the existing
+ *     Robot Controller web server (the one that hosts Blocks and OnBotJava).  The page connects to
+ *     the stream and shows every channel plus the camera preview.
+ *   - @OnDestroy shuts the stream down.
+ *
+ * OpModes attach their DashboardChannels and DashboardFrames with Dashboard.getInstance().attach()
+ * and should detach them when they stop.
+ */
+public class Dashboard {
+
+    public static final String TAG = "Dashboard";
+    public static final String PAGE_URI = "/dashboard";
+
+    private static final Dashboard instance = new Dashboard();
+
+    private final DashboardServer server = new DashboardServer();
+
+    public static Dashboard getInstance() {
+        return instance;
+    }
+
+    private Dashboard() {
+    }
+
+    public void attach(DashboardChannels channels) {
+        server.attach(channels);
+    }
+
+    public void attach(DashboardFrames frames) {
+        server.attach(frames);
+    }
+
+    public void detach(DashboardChannels channels) {
+        server.detach(channels);
+    }
+
+    public void detach(DashboardFrames frames) {
+        server.detach(frames);
+    }
+
+    public int getClientCount() {
+        return server.getClientCount();
+    }
+
+    public long getDroppedPackets() {
+        return server.getDroppedPackets();
+    }
+
+    @OnCreate
+    public static void start(Context context) {
+        try {
+            instance.server.start();
+            RobotLog.ii(TAG, "dashboard stream listening on port %d", instance.server.getLocalPort());
+        } catch (IOException e) {
+            RobotLog.ee(TAG, e, "unable to start dashboard stream");
+        }
+    }
+
+    @OnDestroy
+    public static void stop(Context context) {
+        instance.server.stop();
+    }
+
+    @WebHandlerRegistrar
+    public static void registerPage(Context context, WebHandlerManager manager) {
+        manager.register(PAGE_URI, new WebHandler() {
+            @Override
+            public NanoHTTPD.Response getResponse(NanoHTTPD.IHTTPSession session) {
+                return NanoHTTPD.newFixedLengthResponse(NanoHTTPD.Response.Status.OK, "text/html", PAGE);
+            }
+        });
+    }
+
+    private static final String PAGE = "<!DOCTYPE html>\n"
+            + "<html><head><meta charset='utf-8'><title>Robot Dashboard</title>\n"
+            + "<style>body{font-family:monospace;background:#111;color:#eee}td{padding:0 1em}"
+            + "img{border:1px solid #444}</style></head><body>\n"
+            + "<div id='status'>connecting...</div><img id='preview'><table id='channels'></table>\n"
+            + "<script>\n"
+            + "var names=[], cells=[], lastUrl=null;\n"
+            + "var table=document.getElementById('channels'), img=document.getElementById('preview');\n"
+            + "var status=document.getElementById('status');\n"
+            + "function connect(){\n"
+            + " var ws=new WebSocket('ws://'+location.hostname+':" + DashboardServer.DEFAULT_PORT + "');\n"
+            + " ws.binaryType='arraybuffer';\n"
+            + " ws.onopen=function(){status.textContent='connected';};\n"
+            + " ws.onclose=function(){status.textContent='disconnected';setTimeout(connect,1000);};\n"
+            + " ws.onmessage=function(e){\n"
+            + "  var v=new DataView(e.data), type=v.getUint8(0), p=1;\n"
+            + "  if(type==0){\n"
+            + "   var n=v.getUint16(p); p+=2; names=[]; cells=[]; table.innerHTML='';\n"
+            + "   for(var i=0;i<n;i++){var len=v.getUint16(p); p+=2;\n"
+            + "    names.push(new TextDecoder().decode(new Uint8Array(e.data,p,len))); p+=len;\n"
+            + "    var row=table.insertRow(); row.insertCell().textContent=names[i]; cells.push(row.insertCell());}\n"
+            + "  } else if(type==1){\n"
+            + "   p+=12; var n=v.getUint16(p); p+=2;\n"
+            + "   for(var i=0;i<n&&i<cells.length;i++){cells[i].textContent=v.getFloat32(p).toFixed(3); p+=4;}\n"
+            + "  } else if(type==2){\n"
+            + "   var blob=new Blob([new Uint8Array(e.data,17)],{type:'image/jpeg'});\n"
+            + "   if(lastUrl) URL.revokeObjectURL(lastUrl); lastUrl=URL.createObjectURL(blob); img.src=lastUrl;\n"
+            + "  }\n"
+            + " };\n"
+            + "}\n"
+            + "connect();\n"
+            + "</script></body></html>\n";
+}
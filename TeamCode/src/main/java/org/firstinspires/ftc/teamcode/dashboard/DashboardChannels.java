@@ -0,0 +1,102 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import java.util.Arrays;
+
+/*
+ * A fixed set of named numeric telemetry channels that an OpMode streams to the dashboard.
+ *
+ * The OpMode thread calls set() as often as it likes and publish() once per loop.  publish() copies
+ * the current values into a preallocated snapshot and hands it to the dashboard through a
+ * SnapshotBuffer, so it never blocks and never allocates, no matter how slow the connected
+ * browsers are.  The dashboard picks up whichever snapshot is newest when it next sends.
+ *
+ * Channels are identified by the index returned from indexOf(), which lets the hot loop skip the
+ * name lookup:
+ *
+ *     DashboardChannels channels = new DashboardChannels("heading", "leftPower", "rightPower");
+ *     int heading = channels.indexOf("heading");
+ *     Dashboard.getInstance().attach(channels);
+ *     while (opModeIsActive()) {
+ *         channels.set(heading, imu.getRobotYawPitchRollAngles().getYaw());
+ *         channels.publish();
+ *     }
+ */
+public class DashboardChannels {
+
+    /** One published set of channel values. */
+    public static class Sample {
+        public long sequence;
+        public long timestampNanos;
+        public final double[] values;
+
+        Sample(int count) {
+            values = new double[count];
+        }
+    }
+
+    private final String[] names;
+    private final double[] working;
+    private final SnapshotBuffer<Sample> buffer;
+    private long sequence = 0;
+
+    public DashboardChannels(String... names) {
+        if (names.length == 0 || names.length > 0xFFFF) {
+            throw new IllegalArgumentException("channel count must be between 1 and 65535");
+        }
+        this.names = Arrays.copyOf(names, names.length);
+        this.working = new double[names.length];
+        this.buffer = new SnapshotBuffer<>(new Sample(names.length), new Sample(names.length), new Sample(names.length));
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int channel) {
+        return names[channel];
+    }
+
+    /** Look up a channel index by name, or -1 if there is no such channel. */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Set a channel value.  Call from the OpMode thread only. */
+    public void set(int channel, double value) {
+        working[channel] = value;
+    }
+
+    /** Set a channel value by name.  Slower than set(int, double); avoid inside tight loops. */
+    public void set(String name, double value) {
+        int channel = indexOf(name);
+        if (channel >= 0) {
+            working[channel] = value;
+        }
+    }
+
+    /** Make the current channel values available to the dashboard.  Call from the OpMode thread only. */
+    public void publish() {
+        Sample sample = buffer.back();
+        System.arraycopy(working, 0, sample.values, 0, working.length);
+        sample.sequence = ++sequence;
+        sample.timestampNanos = System.nanoTime();
+        buffer.publish();
+    }
+
+    /*
+     * The dashboard's side of the buffer.  These must only ever be called from the single
+     * dashboard broadcast thread.
+     */
+    boolean acquire() {
+        return buffer.acquire();
+    }
+
+    Sample latest() {
+        return buffer.front();
+    }
+}
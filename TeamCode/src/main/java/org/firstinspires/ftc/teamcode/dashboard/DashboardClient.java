@@ -0,0 +1,325 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * One connected dashboard browser.
+ *
+ * Each client has a sender thread and a reader thread.  The broadcast thread never writes to the
+ * socket itself; it drops the newest packet of each kind into a one-deep mailbox and wakes the
+ * sender.  If the sender is still busy pushing an older packet down a slow Wi-Fi link when a newer
+ * one arrives, the older unsent one is replaced and counted as dropped.  Memory per client is
+ * therefore bounded no matter how far behind the client falls.
+ *
+ * Only the small subset of RFC 6455 needed here is implemented: the upgrade handshake, unfragmented
+ * binary frames from the server, and ping/close handling for frames from the browser.
+ *
+ * Sockets have no write timeout, so a sender can sit in write() for as long as a stalled browser
+ * stops reading.  close() therefore never writes: it closes the socket, which makes the blocked
+ * write throw.  The close frame is only sent in reply to one from the browser, which is reading,
+ * and only if no other write is in progress.
+ */
+class DashboardClient {
+
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    private static final int OPCODE_BINARY = 0x2;
+    private static final int OPCODE_CLOSE  = 0x8;
+    private static final int OPCODE_PING   = 0x9;
+    private static final int OPCODE_PONG   = 0xA;
+
+    private static final int MAX_CLIENT_PAYLOAD = 64 * 1024;
+
+    private final Socket socket;
+    private final DashboardServer server;
+    private final AtomicReference<byte[]> pendingSchema = new AtomicReference<>();
+    private final AtomicReference<byte[]> pendingTelemetry = new AtomicReference<>();
+    private final AtomicReference<byte[]> pendingFrame = new AtomicReference<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicBoolean open = new AtomicBoolean(true);
+    private volatile Thread senderThread;
+    private volatile long droppedPackets = 0;
+    private volatile long sentPackets = 0;
+
+    DashboardClient(Socket socket, DashboardServer server) {
+        this.socket = socket;
+        this.server = server;
+    }
+
+    /** Perform the HTTP upgrade handshake.  Returns false (and closes the socket) if it is not a WebSocket request. */
+    boolean handshake() throws IOException {
+        // Read the request unbuffered so no bytes belonging to the first WebSocket frame are consumed
+        InputStream in = socket.getInputStream();
+        String requestLine = readLine(in);
+        String key = null;
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+
+        OutputStream out = socket.getOutputStream();
+        if (requestLine == null || !requestLine.startsWith("GET ") || key == null) {
+            out.write(("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes(US_ASCII));
+            out.flush();
+            socket.close();
+            return false;
+        }
+
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(US_ASCII));
+        out.flush();
+        return true;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                return line.toString();
+            }
+            if (c != '\r') {
+                if (line.length() > 8192) {
+                    throw new IOException("request header too long");
+                }
+                line.append((char) c);
+            }
+        }
+        return line.length() == 0 ? null : line.toString();
+    }
+
+    void start(String name) {
+        Thread sender = new Thread(new Runnable() {
+            @Override public void run() {
+                sendLoop();
+            }
+        }, name + "-send");
+        Thread reader = new Thread(new Runnable() {
+            @Override public void run() {
+                readLoop();
+            }
+        }, name + "-read");
+        sender.setDaemon(true);
+        reader.setDaemon(true);
+        senderThread = sender;
+        sender.start();
+        reader.start();
+    }
+
+    boolean isOpen() {
+        return open.get();
+    }
+
+    long getDroppedPackets() {
+        return droppedPackets;
+    }
+
+    long getSentPackets() {
+        return sentPackets;
+    }
+
+    void offerSchema(byte[] packet) {
+        pendingSchema.set(packet);
+        // A new schema makes any queued telemetry for the old channel layout meaningless
+        pendingTelemetry.set(null);
+        wake();
+    }
+
+    void offerTelemetry(byte[] packet) {
+        if (pendingTelemetry.getAndSet(packet) != null) {
+            droppedPackets++;
+        }
+        wake();
+    }
+
+    void offerFrame(byte[] packet) {
+        if (pendingFrame.getAndSet(packet) != null) {
+            droppedPackets++;
+        }
+        wake();
+    }
+
+    /** Close the connection without waiting on the socket, so it is safe to call from any thread. */
+    void close() {
+        if (!open.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+        wake();
+        server.onClientClosed(this);
+    }
+
+    // Answer the browser's close frame, unless a sender is mid-write and the frame would interleave
+    private void replyToClose() {
+        if (!writeLock.tryLock()) {
+            return;
+        }
+        try {
+            writeFrame(OPCODE_CLOSE, new byte[0], 0);
+        } catch (IOException ignored) {
+            // The peer is most likely already gone
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void wake() {
+        Thread sender = senderThread;
+        if (sender != null) {
+            LockSupport.unpark(sender);
+        }
+    }
+
+    private void sendLoop() {
+        try {
+            while (open.get()) {
+                byte[] packet = pendingSchema.getAndSet(null);
+                if (packet == null) packet = pendingTelemetry.getAndSet(null);
+                if (packet == null) packet = pendingFrame.getAndSet(null);
+
+                if (packet == null) {
+                    LockSupport.parkNanos(50_000_000L);
+                    continue;
+                }
+                writeLock.lock();
+                try {
+                    writeFrame(OPCODE_BINARY, packet, packet.length);
+                } finally {
+                    writeLock.unlock();
+                }
+                sentPackets++;
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void readLoop() {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] payload = new byte[125];
+            while (open.get()) {
+                int b0 = in.readUnsignedByte();
+                int b1 = in.readUnsignedByte();
+                int opcode = b0 & 0x0F;
+                boolean masked = (b1 & 0x80) != 0;
+                long length = b1 & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                if (length > MAX_CLIENT_PAYLOAD || length < 0) {
+                    break;
+                }
+                byte[] mask = new byte[4];
+                if (masked) {
+                    in.readFully(mask);
+                }
+                if (length > payload.length) {
+                    payload = new byte[(int) length];
+                }
+                in.readFully(payload, 0, (int) length);
+                if (masked) {
+                    for (int i = 0; i < length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+                }
+
+                if (opcode == OPCODE_CLOSE) {
+                    replyToClose();
+                    break;
+                } else if (opcode == OPCODE_PING) {
+                    writeLock.lock();
+                    try {
+                        writeFrame(OPCODE_PONG, payload, (int) length);
+                    } finally {
+                        writeLock.unlock();
+                    }
+                }
+                // Text, binary and pong frames from the browser are ignored
+            }
+        } catch (IOException ignored) {
+            // Connection dropped
+        }
+        close();
+    }
+
+    private void writeFrame(int opcode, byte[] payload, int length) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        byte[] header = new byte[10];
+        int headerLength;
+        header[0] = (byte) (0x80 | opcode);
+        if (length < 126) {
+            header[1] = (byte) length;
+            headerLength = 2;
+        } else if (length <= 0xFFFF) {
+            header[1] = 126;
+            header[2] = (byte) (length >>> 8);
+            header[3] = (byte) length;
+            headerLength = 4;
+        } else {
+            header[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                header[2 + i] = (byte) (((long) length) >>> (56 - 8 * i));
+            }
+            headerLength = 10;
+        }
+        out.write(header, 0, headerLength);
+        out.write(payload, 0, length);
+        out.flush();
+    }
+
+    static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            return base64(sha1.digest((key + WEBSOCKET_GUID).getBytes(US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 unavailable", e);
+        }
+    }
+
+    // java.util.Base64 is not available on every Control Hub / phone API level we support
+    private static String base64(byte[] data) {
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        StringBuilder result = new StringBuilder((data.length + 2) / 3 * 4);
+        for (int i = 0; i < data.length; i += 3) {
+            int n = (data[i] & 0xFF) << 16;
+            if (i + 1 < data.length) n |= (data[i + 1] & 0xFF) << 8;
+            if (i + 2 < data.length) n |= (data[i + 2] & 0xFF);
+            result.append(alphabet.charAt((n >>> 18) & 0x3F));
+            result.append(alphabet.charAt((n >>> 12) & 0x3F));
+            result.append(i + 1 < data.length ? alphabet.charAt((n >>> 6) & 0x3F) : '=');
+            result.append(i + 2 < data.length ? alphabet.charAt(n & 0x3F) : '=');
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s sent=%d dropped=%d", socket.getRemoteSocketAddress(), sentPackets, droppedPackets);
+    }
+}
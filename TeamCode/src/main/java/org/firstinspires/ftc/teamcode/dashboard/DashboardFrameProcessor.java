@@ -0,0 +1,99 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.android.Utils;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.ByteArrayOutputStream;
+
+/*
+ * A VisionProcessor that publishes a downscaled JPEG preview of the camera stream to the dashboard.
+ *
+ * Add it to a VisionPortal alongside your other processors.  At most maxFps frames per second are
+ * resized and encoded; all other frames pass straight through, so the cost to the vision pipeline
+ * is one small resize and JPEG encode every few frames.  The resized image and the Bitmap are
+ * allocated on the first encoded frame and reused after that, and only replaced if the camera's
+ * frame size changes.  The encode buffer starts at 32 KB and only grows if a frame doesn't fit.
+ */
+public class DashboardFrameProcessor implements VisionProcessor {
+
+    private final DashboardFrames frames = new DashboardFrames();
+    private final int targetWidth;
+    private final int jpegQuality;
+    private final long minFrameIntervalNanos;
+
+    private final Mat scaled = new Mat();
+    private final Size scaledSize = new Size();
+    private Bitmap bitmap;
+    private final ExposedByteArrayOutputStream jpeg = new ExposedByteArrayOutputStream(32 * 1024);
+    private long lastEncodeNanos = 0;
+
+    public DashboardFrameProcessor() {
+        this(320, 50, 10);
+    }
+
+    /**
+     * @param targetWidth width in pixels of the preview; height keeps the camera aspect ratio
+     * @param jpegQuality JPEG quality, 0 - 100
+     * @param maxFps      upper bound on preview frames encoded per second
+     */
+    public DashboardFrameProcessor(int targetWidth, int jpegQuality, double maxFps) {
+        this.targetWidth = targetWidth;
+        this.jpegQuality = jpegQuality;
+        this.minFrameIntervalNanos = (long) (1e9 / maxFps);
+    }
+
+    /** The frame source to attach to the dashboard. */
+    public DashboardFrames getFrames() {
+        return frames;
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        if (captureTimeNanos - lastEncodeNanos < minFrameIntervalNanos) {
+            return null;
+        }
+        lastEncodeNanos = captureTimeNanos;
+
+        int width = Math.min(targetWidth, frame.cols());
+        int height = Math.max(1, frame.rows() * width / frame.cols());
+        scaledSize.width = width;
+        scaledSize.height = height;
+        Imgproc.resize(frame, scaled, scaledSize, 0, 0, Imgproc.INTER_AREA);
+
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        Utils.matToBitmap(scaled, bitmap);
+
+        jpeg.reset();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, jpegQuality, jpeg);
+        frames.publish(jpeg.buffer(), jpeg.size(), width, height, captureTimeNanos);
+        return null;
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+    }
+
+    // Lets us hand the encoder's internal array to DashboardFrames without the copy toByteArray() makes
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
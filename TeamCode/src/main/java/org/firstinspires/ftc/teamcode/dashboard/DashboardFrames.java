@@ -0,0 +1,62 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+/*
+ * Hands encoded camera preview frames from the vision thread to the dashboard.
+ *
+ * This works the same way as DashboardChannels: the producer writes into a preallocated slot and
+ * publishes it, and the dashboard only ever sends the newest frame.  Slot buffers grow to fit the
+ * largest JPEG seen so far and are then reused, so steady-state publishing does not allocate.
+ */
+public class DashboardFrames {
+
+    /** One encoded preview frame. */
+    public static class Frame {
+        public long sequence;
+        public long captureTimeNanos;
+        public int width;
+        public int height;
+        public byte[] data = new byte[0];
+        public int length;
+
+        /** Make sure data can hold at least the given number of bytes, discarding its contents. */
+        public byte[] ensureCapacity(int capacity) {
+            if (data.length < capacity) {
+                data = new byte[capacity + capacity / 4];
+            }
+            return data;
+        }
+    }
+
+    private final SnapshotBuffer<Frame> buffer = new SnapshotBuffer<>(new Frame(), new Frame(), new Frame());
+    private long sequence = 0;
+
+    /** The frame the producer should fill in next.  Call from the producer thread only. */
+    public Frame back() {
+        return buffer.back();
+    }
+
+    /** Make the back frame available to the dashboard.  Call from the producer thread only. */
+    public void publish() {
+        buffer.back().sequence = ++sequence;
+        buffer.publish();
+    }
+
+    /** Copy an encoded frame into the back slot and publish it.  Call from the producer thread only. */
+    public void publish(byte[] jpeg, int length, int width, int height, long captureTimeNanos) {
+        Frame frame = buffer.back();
+        System.arraycopy(jpeg, 0, frame.ensureCapacity(length), 0, length);
+        frame.length = length;
+        frame.width = width;
+        frame.height = height;
+        frame.captureTimeNanos = captureTimeNanos;
+        publish();
+    }
+
+    boolean acquire() {
+        return buffer.acquire();
+    }
+
+    Frame latest() {
+        return buffer.front();
+    }
+}
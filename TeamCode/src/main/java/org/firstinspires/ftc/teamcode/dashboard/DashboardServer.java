@@ -0,0 +1,274 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * A small WebSocket server that streams dashboard channels and camera preview frames.
+ *
+ * The robot controller's own web server only speaks JSON text over its WebSocket namespaces, so
+ * binary telemetry is served from this separate listener instead.  Dashboard.java starts it with the
+ * app and registers the browser page on the main web server.  The class itself depends only on
+ * java.net, so it can be started and exercised from a desktop JVM with any WebSocket client.
+ *
+ * A single broadcast thread wakes every telemetryPeriodMs, picks up the newest published snapshot
+ * (if there is one it has not already sent), packs it once, and offers the same packet to every
+ * client.  See DashboardClient for how slow clients drop rather than queue.
+ *
+ * All multi-byte values are big-endian.  Packet layouts, by leading type byte:
+ *
+ *   0 SCHEMA     u16 channelCount, then per channel: u16 utf8Length, utf8 name
+ *   1 TELEMETRY  u32 sequence, i64 timestampNanos, u16 channelCount, f32 value[channelCount]
+ *   2 FRAME      u32 sequence, i64 captureTimeNanos, u16 width, u16 height, jpeg bytes
+ */
+public class DashboardServer {
+
+    public static final int DEFAULT_PORT = 8081;
+    public static final int DEFAULT_TELEMETRY_PERIOD_MS = 20;
+    public static final int MAX_CLIENTS = 4;
+
+    static final byte PACKET_SCHEMA    = 0;
+    static final byte PACKET_TELEMETRY = 1;
+    static final byte PACKET_FRAME     = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final int port;
+    private final long telemetryPeriodMs;
+    private final List<DashboardClient> clients = new CopyOnWriteArrayList<>();
+    private final AtomicReference<DashboardChannels> channels = new AtomicReference<>();
+    private final AtomicReference<DashboardFrames> frames = new AtomicReference<>();
+
+    private volatile ServerSocket serverSocket;
+    private volatile boolean running = false;
+    private Thread acceptThread;
+    private Thread broadcastThread;
+    private int clientCounter = 0;
+
+    // Owned by the broadcast thread
+    private DashboardChannels schemaChannels;
+    private volatile byte[] schemaPacket;
+
+    public DashboardServer() {
+        this(DEFAULT_PORT, DEFAULT_TELEMETRY_PERIOD_MS);
+    }
+
+    public DashboardServer(int port, long telemetryPeriodMs) {
+        this.port = port;
+        this.telemetryPeriodMs = telemetryPeriodMs;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(port));
+        serverSocket = socket;
+        running = true;
+
+        acceptThread = new Thread(new Runnable() {
+            @Override public void run() {
+                acceptLoop();
+            }
+        }, "Dashboard-accept");
+        broadcastThread = new Thread(new Runnable() {
+            @Override public void run() {
+                broadcastLoop();
+            }
+        }, "Dashboard-broadcast");
+        acceptThread.setDaemon(true);
+        broadcastThread.setDaemon(true);
+        broadcastThread.setPriority(Thread.MIN_PRIORITY);
+        acceptThread.start();
+        broadcastThread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        for (DashboardClient client : clients) {
+            client.close();
+        }
+        broadcastThread.interrupt();
+        try {
+            acceptThread.join(500);
+            broadcastThread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** The port actually bound, which differs from the requested one when 0 was requested. */
+    public int getLocalPort() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? port : socket.getLocalPort();
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /** Total packets replaced before a slow client could send them, summed over connected clients. */
+    public long getDroppedPackets() {
+        long dropped = 0;
+        for (DashboardClient client : clients) {
+            dropped += client.getDroppedPackets();
+        }
+        return dropped;
+    }
+
+    /** Stream the given channels.  Replaces any previously attached set. */
+    public void attach(DashboardChannels channels) {
+        this.channels.set(channels);
+    }
+
+    /** Stream preview frames from the given source.  Replaces any previously attached source. */
+    public void attach(DashboardFrames frames) {
+        this.frames.set(frames);
+    }
+
+    /** Stop streaming the given channels, if they are the ones attached. */
+    public void detach(DashboardChannels channels) {
+        this.channels.compareAndSet(channels, null);
+    }
+
+    /** Stop streaming the given frames, if they are the ones attached. */
+    public void detach(DashboardFrames frames) {
+        this.frames.compareAndSet(frames, null);
+    }
+
+    void onClientClosed(DashboardClient client) {
+        clients.remove(client);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket = null;
+            try {
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(2000);
+                DashboardClient client = new DashboardClient(socket, this);
+                if (clients.size() >= MAX_CLIENTS || !client.handshake()) {
+                    socket.close();
+                    continue;
+                }
+                socket.setSoTimeout(0);
+                clients.add(client);
+                byte[] schema = schemaPacket;
+                if (schema != null) {
+                    client.offerSchema(schema);
+                }
+                client.start("Dashboard-client-" + (++clientCounter));
+            } catch (IOException e) {
+                if (socket != null) {
+                    try {
+                        socket.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                // accept() throws once the server socket is closed by stop()
+            }
+        }
+    }
+
+    private void broadcastLoop() {
+        while (running) {
+            try {
+                broadcastOnce();
+                Thread.sleep(telemetryPeriodMs);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /** Send whatever is new since the last call.  Only called from the broadcast thread. */
+    void broadcastOnce() {
+        DashboardChannels current = channels.get();
+        if (current != schemaChannels) {
+            schemaChannels = current;
+            schemaPacket = current == null ? null : encodeSchema(current);
+            if (schemaPacket != null) {
+                for (DashboardClient client : clients) {
+                    client.offerSchema(schemaPacket);
+                }
+            }
+        }
+
+        if (current != null && current.acquire() && !clients.isEmpty()) {
+            byte[] packet = encodeTelemetry(current.latest());
+            for (DashboardClient client : clients) {
+                client.offerTelemetry(packet);
+            }
+        }
+
+        DashboardFrames source = frames.get();
+        if (source != null && source.acquire() && !clients.isEmpty()) {
+            byte[] packet = encodeFrame(source.latest());
+            for (DashboardClient client : clients) {
+                client.offerFrame(packet);
+            }
+        }
+    }
+
+    static byte[] encodeSchema(DashboardChannels channels) {
+        byte[][] names = new byte[channels.size()][];
+        int length = 1 + 2;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = channels.getName(i).getBytes(UTF_8);
+            length += 2 + names[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(PACKET_SCHEMA);
+        buffer.putShort((short) names.length);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+        return buffer.array();
+    }
+
+    static byte[] encodeTelemetry(DashboardChannels.Sample sample) {
+        int count = sample.values.length;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + 2 + 4 * count);
+        buffer.put(PACKET_TELEMETRY);
+        buffer.putInt((int) sample.sequence);
+        buffer.putLong(sample.timestampNanos);
+        buffer.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            buffer.putFloat((float) sample.values[i]);
+        }
+        return buffer.array();
+    }
+
+    static byte[] encodeFrame(DashboardFrames.Frame frame) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + 2 + 2 + frame.length);
+        buffer.put(PACKET_FRAME);
+        buffer.putInt((int) frame.sequence);
+        buffer.putLong(frame.captureTimeNanos);
+        buffer.putShort((short) frame.width);
+        buffer.putShort((short) frame.height);
+        buffer.put(frame.data, 0, frame.length);
+        return buffer.array();
+    }
+}
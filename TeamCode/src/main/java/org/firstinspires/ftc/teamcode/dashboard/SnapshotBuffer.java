@@ -0,0 +1,59 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * A lock-free triple buffer that hands the most recent snapshot from one producer thread to one
+ * consumer thread.
+ *
+ * The producer fills the object returned by back() and calls publish().  The consumer calls
+ * acquire(), which returns true when a newer snapshot than the one it last saw is available, and
+ * then reads front().  Neither side ever waits on the other: if the producer publishes faster than
+ * the consumer reads, the intermediate snapshots are simply overwritten.
+ *
+ * All three slot objects are created up front, so publishing and acquiring never allocate.
+ */
+public class SnapshotBuffer<T> {
+
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH      = 0x4;
+
+    private final Object[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    private int back  = 0;   // owned by the producer
+    private int front = 2;   // owned by the consumer
+
+    public SnapshotBuffer(T first, T second, T third) {
+        slots = new Object[] { first, second, third };
+    }
+
+    /** The slot the producer may write into.  Only call this from the producer thread. */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /** Make the back slot visible to the consumer.  Only call this from the producer thread. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Swap in the latest published snapshot, if there is one the consumer has not yet seen.
+     * Only call this from the consumer thread.
+     */
+    public boolean acquire() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return true;
+    }
+
+    /** The slot most recently acquired by the consumer.  Only call this from the consumer thread. */
+    @SuppressWarnings("unchecked")
+    public T front() {
+        return (T) slots[front];
+    }
+}
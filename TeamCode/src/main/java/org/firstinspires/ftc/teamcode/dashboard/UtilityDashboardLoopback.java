@@ -0,0 +1,221 @@
+package org.firstinspires.ftc.teamcode.dashboard;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/*
+ * This OpMode checks DashboardServer end to end over the loopback interface, with no browser.
+ *
+ * A server is started on a free port and two plain-socket WebSocket clients connect to it:
+ *
+ *   - a well-behaved one, which checks the upgrade handshake against the example in RFC 6455,
+ *     receives the channel schema and a telemetry packet with the published values, and then
+ *     closes the connection and gets the server's close frame back;
+ *   - a stalled one, with a tiny receive buffer, which completes the handshake and then never
+ *     reads, while large preview frames are published, so its sender ends up blocked in write().
+ *
+ * The check passes if the good client's packets decode to what was published, publishing never
+ * waits on the stalled client, the stalled client's frames are dropped rather than queued, and
+ * stop() returns promptly even though a sender is blocked.
+ *
+ * It needs nothing but a free port on the loopback interface.  The stall comes from the client's
+ * receive buffer, shrunk before it connects, rather than from a slow network, so it is repeatable.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Dashboard Loopback", group = "Utility")
+@Disabled
+public class UtilityDashboardLoopback extends LinearOpMode {
+
+    static final String SAMPLE_KEY = "dGhlIHNhbXBsZSBub25jZQ==";
+    static final String SAMPLE_ACCEPT = "s3pPLMBiTxaQ9kYGzzhZRbK+xOo=";
+    static final int FRAME_BYTES = 256 * 1024;
+    static final long STALL_MS = 500;
+    static final double MAX_STOP_MS = 1000;
+    static final double MAX_PUBLISH_MS = 5;
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    public static class Result {
+        public boolean handshakeOk;
+        public boolean schemaOk;
+        public boolean telemetryOk;
+        public boolean closeAnswered;
+        public long framesPublished;
+        public long framesDropped;
+        public double maxPublishMs;
+        public double stopMs;
+        public String error;
+
+        public boolean passed() {
+            return error == null && handshakeOk && schemaOk && telemetryOk && closeAnswered
+                    && framesDropped > 0 && maxPublishMs <= MAX_PUBLISH_MS && stopMs <= MAX_STOP_MS;
+        }
+    }
+
+    public static Result check() {
+        Result result = new Result();
+        DashboardServer server = new DashboardServer(0, 10);
+        Socket good = null;
+        Socket stalled = null;
+        try {
+            server.start();
+            DashboardChannels channels = new DashboardChannels("x", "y");
+            DashboardFrames frames = new DashboardFrames();
+            server.attach(channels);
+
+            // A client that reads everything, then closes
+            good = connect(server.getLocalPort(), 0);
+            result.handshakeOk = handshake(good);
+            DataInputStream in = new DataInputStream(good.getInputStream());
+            byte[] schema = readFrame(in, 0x2);
+            result.schemaOk = schema.length == 1 + 2 + 2 + 1 + 2 + 1 && schema[0] == DashboardServer.PACKET_SCHEMA
+                    && schema[5] == 'x' && schema[8] == 'y';
+            channels.set(0, 1.5);
+            channels.set(1, -2);
+            channels.publish();
+            ByteBuffer telemetry = ByteBuffer.wrap(readFrame(in, 0x2));
+            result.telemetryOk = telemetry.get() == DashboardServer.PACKET_TELEMETRY && telemetry.getInt() == 1
+                    && telemetry.getLong() > 0 && telemetry.getShort() == 2
+                    && telemetry.getFloat() == 1.5f && telemetry.getFloat() == -2f;
+            writeMaskedClose(good.getOutputStream());
+            readFrame(in, 0x8);
+            result.closeAnswered = true;
+
+            // A client that stops reading while large frames are published
+            server.attach(frames);
+            stalled = connect(server.getLocalPort(), 4096);
+            handshake(stalled);
+            byte[] jpeg = new byte[FRAME_BYTES];
+            long end = System.nanoTime() + STALL_MS * 1000000;
+            while (System.nanoTime() < end) {
+                long start = System.nanoTime();
+                frames.publish(jpeg, jpeg.length, 640, 480, start);
+                result.maxPublishMs = Math.max(result.maxPublishMs, (System.nanoTime() - start) / 1e6);
+                result.framesPublished++;
+                Thread.sleep(5);
+            }
+            result.framesDropped = server.getDroppedPackets();
+        } catch (IOException | InterruptedException e) {
+            result.error = e.toString();
+        } finally {
+            long start = System.nanoTime();
+            server.stop();
+            result.stopMs = (System.nanoTime() - start) / 1e6;
+            close(good);
+            close(stalled);
+        }
+        return result;
+    }
+
+    private static Socket connect(int port, int receiveBufferBytes) throws IOException {
+        Socket socket = new Socket();
+        if (receiveBufferBytes > 0) {
+            socket.setReceiveBufferSize(receiveBufferBytes);
+        }
+        socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 2000);
+        socket.setSoTimeout(2000);
+        return socket;
+    }
+
+    private static boolean handshake(Socket socket) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /dashboard HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: " + SAMPLE_KEY + "\r\n"
+                + "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(US_ASCII));
+        out.flush();
+
+        InputStream in = socket.getInputStream();
+        boolean switching = false;
+        boolean accepted = false;
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            switching |= line.startsWith("HTTP/1.1 101");
+            accepted |= line.equals("Sec-WebSocket-Accept: " + SAMPLE_ACCEPT);
+        }
+        return switching && accepted;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.write(c);
+            }
+        }
+        return c == -1 && line.size() == 0 ? null : new String(line.toByteArray(), US_ASCII);
+    }
+
+    /** Reads one unmasked server frame and returns its payload, failing if the opcode isn't the expected one. */
+    private static byte[] readFrame(DataInputStream in, int opcode) throws IOException {
+        int b0 = in.readUnsignedByte();
+        int b1 = in.readUnsignedByte();
+        long length = b1 & 0x7F;
+        if (length == 126) {
+            length = in.readUnsignedShort();
+        } else if (length == 127) {
+            length = in.readLong();
+        }
+        byte[] payload = new byte[(int) length];
+        in.readFully(payload);
+        if ((b0 & 0x0F) != opcode) {
+            throw new IOException("expected opcode " + opcode + ", got " + (b0 & 0x0F));
+        }
+        return payload;
+    }
+
+    private static void writeMaskedClose(OutputStream out) throws IOException {
+        // Client frames must be masked; an empty payload makes the mask key irrelevant
+        out.write(new byte[] { (byte) 0x88, (byte) 0x80, 1, 2, 3, 4 });
+        out.flush();
+    }
+
+    private static void close(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the check");
+        telemetry.update();
+        waitForStart();
+
+        Result result = check();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        if (result.error != null) {
+            telemetry.addData("Error", result.error);
+        }
+        telemetry.addData("Handshake / schema / telemetry / close", "%b / %b / %b / %b", result.handshakeOk,
+                result.schemaOk, result.telemetryOk, result.closeAnswered);
+        telemetry.addData("Stalled client", "%d frames published, %d dropped", result.framesPublished,
+                result.framesDropped);
+        telemetry.addData("Slowest publish", "%.2f ms (limit %.0f)", result.maxPublishMs, MAX_PUBLISH_MS);
+        telemetry.addData("stop()", "%.0f ms (limit %.0f)", result.stopMs, MAX_STOP_MS);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import java.lang.reflect.Method;
+
+/*
+ * Counts bytes allocated by the current thread, for checking that a loop doesn't create garbage.
+ *
+ * On the Robot Controller this uses Android's per-thread allocation counting (android.os.Debug);
+ * on a desktop JVM it uses the HotSpot ThreadMXBean.  Both are reached through reflection so the
+ * same code runs in either place.  Each reading itself allocates a few bytes, so measure around a
+ * long loop and divide, rather than around a single operation.
+ */
+public class AllocationCounter {
+
+    private final Object target;
+    private final Method read;
+    private final Object[] args;
+
+    public AllocationCounter() {
+        Object target = null;
+        Method read = null;
+        Object[] args = new Object[0];
+        try {
+            Class<?> debug = Class.forName("android.os.Debug");
+            debug.getMethod("startAllocCounting").invoke(null);
+            read = debug.getMethod("getThreadAllocSize");
+        } catch (Exception | LinkageError notAndroid) {
+            try {
+                Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+                target = factory.getMethod("getThreadMXBean").invoke(null);
+                Class<?> bean = Class.forName("com.sun.management.ThreadMXBean");
+                read = bean.getMethod("getThreadAllocatedBytes", long.class);
+                args = new Object[] { Thread.currentThread().getId() };
+            } catch (Exception | LinkageError unsupported) {
+                read = null;
+            }
+        }
+        this.target = target;
+        this.read = read;
+        this.args = args;
+    }
+
+    public boolean isSupported() {
+        return read != null && bytes() >= 0;
+    }
+
+    /** Total bytes allocated by the thread that created this counter, or -1 if unsupported. */
+    public long bytes() {
+        if (read == null) {
+            return -1;
+        }
+        try {
+            Object value = read.invoke(target, args);
+            return ((Number) value).longValue();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /** Turn Android allocation counting back off. */
+    public void close() {
+        try {
+            Class.forName("android.os.Debug").getMethod("stopAllocCounting").invoke(null);
+        } catch (Exception | LinkageError ignored) {
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+/*
+ * Angle helpers shared by the geometry types.  All angles are radians.
+ */
+public final class Angles {
+
+    private static final double TWO_PI = 2 * Math.PI;
+
+    private Angles() {
+    }
+
+    /** Wrap to [-pi, pi). */
+    public static double normalize(double radians) {
+        if (radians >= -Math.PI && radians < Math.PI) {
+            return radians;
+        }
+        double wrapped = radians - TWO_PI * Math.floor((radians + Math.PI) / TWO_PI);
+        // Floating point can land exactly on +pi
+        return wrapped >= Math.PI ? wrapped - TWO_PI : wrapped;
+    }
+
+    /** The shortest signed turn from one angle to another. */
+    public static double difference(double to, double from) {
+        return normalize(to - from);
+    }
+}
@@ -0,0 +1,65 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+/*
+ * A fixed-size free list of reusable objects, for scratch geometry that is needed for part of a
+ * loop iteration and then given back.
+ *
+ *     private final Pool<Pose2> poses = new Pool<>(8, new Pool.Factory<Pose2>() {
+ *         public Pose2 create() { return new Pose2(); }
+ *     });
+ *     ...
+ *     Pose2 scratch = poses.obtain();
+ *     ...
+ *     poses.release(scratch);
+ *
+ * Every object is created up front.  If the pool runs dry, obtain() creates a new object rather
+ * than fail, and counts it, so a non-zero getMissCount() means the pool should be bigger or an
+ * object isn't being released.  A pool is not thread-safe; give each thread its own.
+ */
+public class Pool<T> {
+
+    public interface Factory<T> {
+        T create();
+    }
+
+    private final Factory<T> factory;
+    private final Object[] free;
+    private int count;
+    private long misses = 0;
+
+    public Pool(int capacity, Factory<T> factory) {
+        this.factory = factory;
+        this.free = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            free[i] = factory.create();
+        }
+        this.count = capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (count == 0) {
+            misses++;
+            return factory.create();
+        }
+        T item = (T) free[--count];
+        free[count] = null;
+        return item;
+    }
+
+    /** Give an object back.  Objects beyond the pool's capacity are left for the garbage collector. */
+    public void release(T item) {
+        if (count < free.length) {
+            free[count++] = item;
+        }
+    }
+
+    public int available() {
+        return count;
+    }
+
+    /** Number of times obtain() found the pool empty and had to allocate. */
+    public long getMissCount() {
+        return misses;
+    }
+}
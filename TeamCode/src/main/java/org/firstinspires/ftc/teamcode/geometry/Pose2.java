@@ -0,0 +1,190 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+
+import java.util.Locale;
+
+/*
+ * A mutable planar pose: a position in meters and a heading.
+ *
+ * The SDK's Pose2D is immutable and stores its own units, so code that tracks a pose every loop
+ * creates a new one each time.  A Pose2 is updated in place instead.  Operations write into this
+ * pose and return it for chaining; the only methods that allocate are toPose2D() and toString().
+ *
+ *     Pose2 robot = new Pose2();
+ *     Pose2 error = new Pose2();
+ *     while (opModeIsActive()) {
+ *         robot.set(pinpoint.getPosition());     // reads the Pose2D without creating another
+ *         error.set(target).relativeTo(robot);   // target as seen from the robot
+ *         ...
+ *     }
+ */
+public class Pose2 {
+
+    public final Vector2 position = new Vector2();
+    public final Rotation2 rotation = new Rotation2();
+
+    public Pose2() {
+    }
+
+    public Pose2(double x, double y, double heading) {
+        set(x, y, heading);
+    }
+
+    public Pose2 set(double x, double y, double heading) {
+        position.set(x, y);
+        rotation.set(heading);
+        return this;
+    }
+
+    public Pose2 set(Pose2 other) {
+        position.set(other.position);
+        rotation.set(other.rotation);
+        return this;
+    }
+
+    /** Copy an SDK pose, converting to meters and radians. */
+    public Pose2 set(Pose2D pose) {
+        return set(pose.getX(DistanceUnit.METER), pose.getY(DistanceUnit.METER), pose.getHeading(AngleUnit.RADIANS));
+    }
+
+    /** The planar part of an SDK 3D pose, such as an AprilTag detection's robotPose: x, y and yaw. */
+    public Pose2 set(Pose3D pose) {
+        Position p = pose.getPosition();
+        return set(p.unit.toMeters(p.x), p.unit.toMeters(p.y), pose.getOrientation().getYaw(AngleUnit.RADIANS));
+    }
+
+    /** Set from values in the given units. */
+    public Pose2 set(double x, double y, DistanceUnit distanceUnit, double heading, AngleUnit angleUnit) {
+        return set(distanceUnit.toMeters(x), distanceUnit.toMeters(y), angleUnit.toRadians(heading));
+    }
+
+    /** A new SDK pose with the same value.  Allocates. */
+    public Pose2D toPose2D(DistanceUnit distanceUnit, AngleUnit angleUnit) {
+        return new Pose2D(distanceUnit, distanceUnit.fromMeters(position.x), distanceUnit.fromMeters(position.y),
+                angleUnit, angleUnit.fromRadians(rotation.angle));
+    }
+
+    public double getX() {
+        return position.x;
+    }
+
+    public double getY() {
+        return position.y;
+    }
+
+    public double getHeading() {
+        return rotation.angle;
+    }
+
+    public double getX(DistanceUnit unit) {
+        return unit.fromMeters(position.x);
+    }
+
+    public double getY(DistanceUnit unit) {
+        return unit.fromMeters(position.y);
+    }
+
+    public double getHeading(AngleUnit unit) {
+        return unit.fromRadians(rotation.angle);
+    }
+
+    /** Apply other, expressed in this pose's frame: this = this * other. */
+    public Pose2 transformBy(Pose2 other) {
+        double c = rotation.cos;
+        double s = rotation.sin;
+        position.add(c * other.position.x - s * other.position.y, s * other.position.x + c * other.position.y);
+        rotation.rotateBy(other.rotation);
+        return this;
+    }
+
+    /** Express this pose in the frame of origin: this = origin^-1 * this. */
+    public Pose2 relativeTo(Pose2 origin) {
+        double oc = origin.rotation.cos;
+        double os = origin.rotation.sin;
+        position.subtract(origin.position).rotate(oc, -os);
+        rotation.set(rotation.angle - origin.rotation.angle,
+                rotation.cos * oc + rotation.sin * os, rotation.sin * oc - rotation.cos * os);
+        return this;
+    }
+
+    /** Replace this pose with its inverse, so that pose * inverse is the identity. */
+    public Pose2 invert() {
+        rotation.invert();
+        position.rotate(rotation.cos, rotation.sin).scale(-1);
+        return this;
+    }
+
+    /**
+     * Move along a robot-relative twist, following the constant-curvature arc it describes
+     * (the pose exponential).
+     */
+    public Pose2 exp(Twist2 twist) {
+        double theta = twist.dTheta;
+        double sinTheta = Math.sin(theta);
+        double cosTheta = Math.cos(theta);
+        double s;
+        double c;
+        if (Math.abs(theta) < 1e-6) {
+            s = 1 - theta * theta / 6;
+            c = theta / 2;
+        } else {
+            s = sinTheta / theta;
+            c = (1 - cosTheta) / theta;
+        }
+        double forward = s * twist.dx - c * twist.dy;
+        double left = c * twist.dx + s * twist.dy;
+        double rc = rotation.cos;
+        double rs = rotation.sin;
+        position.add(forward * rc - left * rs, forward * rs + left * rc);
+        rotation.set(rotation.angle + theta, rc * cosTheta - rs * sinTheta, rs * cosTheta + rc * sinTheta);
+        return this;
+    }
+
+    /** The twist that carries this pose to end along a constant-curvature arc (the pose logarithm). */
+    public Twist2 log(Pose2 end, Twist2 into) {
+        double dTheta = Angles.difference(end.rotation.angle, rotation.angle);
+        double ex = end.position.x - position.x;
+        double ey = end.position.y - position.y;
+        // The displacement in this pose's frame
+        double lx = ex * rotation.cos + ey * rotation.sin;
+        double ly = -ex * rotation.sin + ey * rotation.cos;
+
+        double half = dTheta / 2;
+        double a;
+        if (Math.abs(dTheta) < 1e-6) {
+            a = 1 - dTheta * dTheta / 12;
+        } else {
+            a = half * Math.sin(dTheta) / (1 - Math.cos(dTheta));
+        }
+        return into.set(a * lx + half * ly, -half * lx + a * ly, dTheta);
+    }
+
+    /** Convert a point from this pose's frame to the parent frame, writing the result into out. */
+    public Vector2 toParent(Vector2 local, Vector2 out) {
+        double lx = local.x;
+        double ly = local.y;
+        return out.set(position.x + lx * rotation.cos - ly * rotation.sin,
+                       position.y + lx * rotation.sin + ly * rotation.cos);
+    }
+
+    /** Convert a point from the parent frame into this pose's frame, writing the result into out. */
+    public Vector2 toLocal(Vector2 point, Vector2 out) {
+        double dx = point.x - position.x;
+        double dy = point.y - position.y;
+        return out.set(dx * rotation.cos + dy * rotation.sin, -dx * rotation.sin + dy * rotation.cos);
+    }
+
+    public double distanceTo(Pose2 other) {
+        return position.distanceTo(other.position);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "(%.3f m, %.3f m, %.2f deg)", position.x, position.y, rotation.getDegrees());
+    }
+}
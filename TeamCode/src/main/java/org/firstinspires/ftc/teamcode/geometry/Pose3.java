@@ -0,0 +1,75 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/*
+ * A mutable 3D pose: a position in meters and a rotation.
+ *
+ * set(Pose3D) reads an AprilTag detection's robotPose (or any SDK Pose3D) field by field, without
+ * the intermediate objects that Position.toUnit() would create.  toPose3D() allocates, since the
+ * SDK types are immutable.
+ */
+public class Pose3 {
+
+    public final Vector3 position = new Vector3();
+    public final Rotation3 rotation = new Rotation3();
+
+    public Pose3 set(Pose3 other) {
+        position.set(other.position);
+        rotation.set(other.rotation);
+        return this;
+    }
+
+    public Pose3 set(Pose3D pose) {
+        position.set(pose.getPosition());
+        rotation.set(pose.getOrientation());
+        return this;
+    }
+
+    /** The planar part of this pose: x, y and yaw. */
+    public Pose2 toPose2(Pose2 into) {
+        return into.set(position.x, position.y, rotation.getYaw());
+    }
+
+    /** A new SDK pose with the same value.  Allocates. */
+    public Pose3D toPose3D(DistanceUnit distanceUnit, AngleUnit angleUnit, long acquisitionTime) {
+        Position p = new Position(distanceUnit, distanceUnit.fromMeters(position.x), distanceUnit.fromMeters(position.y),
+                distanceUnit.fromMeters(position.z), acquisitionTime);
+        YawPitchRollAngles o = new YawPitchRollAngles(angleUnit, angleUnit.fromRadians(rotation.getYaw()),
+                angleUnit.fromRadians(rotation.getPitch()), angleUnit.fromRadians(rotation.getRoll()), acquisitionTime);
+        return new Pose3D(p, o);
+    }
+
+    /** Apply other, expressed in this pose's frame: this = this * other. */
+    public Pose3 transformBy(Pose3 other) {
+        // position += R * other.position, using position itself as the scratch vector
+        double px = position.x;
+        double py = position.y;
+        double pz = position.z;
+        rotation.rotate(position.set(other.position));
+        position.x += px;
+        position.y += py;
+        position.z += pz;
+        rotation.multiply(other.rotation);
+        return this;
+    }
+
+    /** Convert a point from this pose's frame to the parent frame, in place. */
+    public Vector3 toParent(Vector3 point) {
+        return rotation.rotate(point).add(position);
+    }
+
+    /** Convert a point from the parent frame into this pose's frame, in place. */
+    public Vector3 toLocal(Vector3 point) {
+        return rotation.unrotate(point.subtract(position));
+    }
+
+    @Override
+    public String toString() {
+        return position + ", " + rotation;
+    }
+}
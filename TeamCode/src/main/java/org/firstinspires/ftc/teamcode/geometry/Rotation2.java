@@ -0,0 +1,82 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import java.util.Locale;
+
+/*
+ * A mutable planar rotation, counter-clockwise positive.
+ *
+ * The angle's cosine and sine are kept alongside it, so rotating vectors and composing rotations
+ * costs multiplications rather than trigonometry.  The angle is always normalized to [-pi, pi).
+ */
+public class Rotation2 {
+
+    double angle;
+    double cos = 1;
+    double sin = 0;
+
+    public Rotation2() {
+    }
+
+    public Rotation2(double radians) {
+        set(radians);
+    }
+
+    public Rotation2 set(double radians) {
+        angle = Angles.normalize(radians);
+        cos = Math.cos(angle);
+        sin = Math.sin(angle);
+        return this;
+    }
+
+    public Rotation2 set(Rotation2 other) {
+        angle = other.angle;
+        cos = other.cos;
+        sin = other.sin;
+        return this;
+    }
+
+    // Set from an angle whose cosine and sine are already known, skipping the trigonometry
+    Rotation2 set(double radians, double cos, double sin) {
+        this.angle = Angles.normalize(radians);
+        this.cos = cos;
+        this.sin = sin;
+        return this;
+    }
+
+    /** Turn by a further angle. */
+    public Rotation2 rotateBy(double radians) {
+        return set(angle + radians);
+    }
+
+    /** Compose with another rotation: this, then other. */
+    public Rotation2 rotateBy(Rotation2 other) {
+        return set(angle + other.angle, cos * other.cos - sin * other.sin, sin * other.cos + cos * other.sin);
+    }
+
+    public Rotation2 invert() {
+        angle = angle == -Math.PI ? -Math.PI : -angle;
+        sin = -sin;
+        return this;
+    }
+
+    public double getRadians() {
+        return angle;
+    }
+
+    public double getDegrees() {
+        return Math.toDegrees(angle);
+    }
+
+    public double cos() {
+        return cos;
+    }
+
+    public double sin() {
+        return sin;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%.2f deg", getDegrees());
+    }
+}
@@ -0,0 +1,144 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Quaternion;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+import java.util.Locale;
+
+/*
+ * A mutable 3D rotation, stored as a unit quaternion in doubles.
+ *
+ * Yaw, pitch and roll follow the SDK's YawPitchRollAngles convention: yaw about Z, then pitch about
+ * the new X, then roll about the new Y, all counter-clockwise positive looking down the axis.
+ */
+public class Rotation3 {
+
+    public double w = 1;
+    public double x;
+    public double y;
+    public double z;
+
+    public Rotation3() {
+    }
+
+    public Rotation3 set(double w, double x, double y, double z) {
+        this.w = w;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return normalize();
+    }
+
+    public Rotation3 set(Rotation3 other) {
+        w = other.w;
+        x = other.x;
+        y = other.y;
+        z = other.z;
+        return this;
+    }
+
+    public Rotation3 set(Quaternion q) {
+        return set(q.w, q.x, q.y, q.z);
+    }
+
+    public Rotation3 set(YawPitchRollAngles angles) {
+        return setYawPitchRoll(angles.getYaw(AngleUnit.RADIANS), angles.getPitch(AngleUnit.RADIANS), angles.getRoll(AngleUnit.RADIANS));
+    }
+
+    /** Radians; see the class comment for the axis order. */
+    public Rotation3 setYawPitchRoll(double yaw, double pitch, double roll) {
+        double cz = Math.cos(yaw / 2);
+        double sz = Math.sin(yaw / 2);
+        double cx = Math.cos(pitch / 2);
+        double sx = Math.sin(pitch / 2);
+        double cy = Math.cos(roll / 2);
+        double sy = Math.sin(roll / 2);
+        // q = qz(yaw) * qx(pitch) * qy(roll)
+        w = cz * cx * cy - sz * sx * sy;
+        x = cz * sx * cy - sz * cx * sy;
+        y = cz * cx * sy + sz * sx * cy;
+        z = sz * cx * cy + cz * sx * sy;
+        return this;
+    }
+
+    /** A rotation of angle radians about a unit axis. */
+    public Rotation3 setAxisAngle(double ax, double ay, double az, double angle) {
+        double s = Math.sin(angle / 2);
+        return set(Math.cos(angle / 2), ax * s, ay * s, az * s);
+    }
+
+    public double getYaw() {
+        // R12 = 2(xy - wz), R22 = 1 - 2(x^2 + z^2)
+        return Math.atan2(-2 * (x * y - w * z), 1 - 2 * (x * x + z * z));
+    }
+
+    public double getPitch() {
+        // R32 = 2(yz + wx)
+        double sinPitch = 2 * (y * z + w * x);
+        return Math.asin(Math.max(-1, Math.min(1, sinPitch)));
+    }
+
+    public double getRoll() {
+        // R31 = 2(xz - wy), R33 = 1 - 2(x^2 + y^2)
+        return Math.atan2(-2 * (x * z - w * y), 1 - 2 * (x * x + y * y));
+    }
+
+    /** Compose: this = this * other, i.e. apply other in this rotation's frame. */
+    public Rotation3 multiply(Rotation3 other) {
+        double nw = w * other.w - x * other.x - y * other.y - z * other.z;
+        double nx = w * other.x + x * other.w + y * other.z - z * other.y;
+        double ny = w * other.y - x * other.z + y * other.w + z * other.x;
+        double nz = w * other.z + x * other.y - y * other.x + z * other.w;
+        w = nw;
+        x = nx;
+        y = ny;
+        z = nz;
+        return this;
+    }
+
+    public Rotation3 invert() {
+        x = -x;
+        y = -y;
+        z = -z;
+        return this;
+    }
+
+    /** Rotate v in place. */
+    public Vector3 rotate(Vector3 v) {
+        // v' = v + 2w (q x v) + 2 q x (q x v)
+        double tx = 2 * (y * v.z - z * v.y);
+        double ty = 2 * (z * v.x - x * v.z);
+        double tz = 2 * (x * v.y - y * v.x);
+        return v.set(v.x + w * tx + (y * tz - z * ty),
+                     v.y + w * ty + (z * tx - x * tz),
+                     v.z + w * tz + (x * ty - y * tx));
+    }
+
+    /** Apply the inverse rotation to v in place. */
+    public Vector3 unrotate(Vector3 v) {
+        invert();
+        rotate(v);
+        invert();
+        return v;
+    }
+
+    private Rotation3 normalize() {
+        double n = Math.sqrt(w * w + x * x + y * y + z * z);
+        if (n > 0) {
+            w /= n;
+            x /= n;
+            y /= n;
+            z /= n;
+        } else {
+            w = 1;
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "yaw %.2f, pitch %.2f, roll %.2f deg",
+                Math.toDegrees(getYaw()), Math.toDegrees(getPitch()), Math.toDegrees(getRoll()));
+    }
+}
@@ -0,0 +1,45 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import java.util.Locale;
+
+/*
+ * A mutable robot-relative motion: meters forward (dx) and left (dy), and radians turned
+ * counter-clockwise (dTheta), taken along a constant-curvature arc.  Also used for velocities, in
+ * m/s and rad/s.
+ */
+public class Twist2 {
+
+    public double dx;
+    public double dy;
+    public double dTheta;
+
+    public Twist2() {
+    }
+
+    public Twist2(double dx, double dy, double dTheta) {
+        set(dx, dy, dTheta);
+    }
+
+    public Twist2 set(double dx, double dy, double dTheta) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dTheta = dTheta;
+        return this;
+    }
+
+    public Twist2 set(Twist2 other) {
+        return set(other.dx, other.dy, other.dTheta);
+    }
+
+    public Twist2 scale(double factor) {
+        dx *= factor;
+        dy *= factor;
+        dTheta *= factor;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "(%.3f m, %.3f m, %.2f deg)", dx, dy, Math.toDegrees(dTheta));
+    }
+}
@@ -0,0 +1,196 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+
+/*
+ * This OpMode measures how much garbage typical per-loop pose math creates, written the way the
+ * samples do it with the SDK's immutable types, and written with the mutable geometry types.
+ *
+ * Each iteration does the same work both ways: take the robot pose from a localizer, compute the
+ * error to a target pose in the robot's frame, advance the pose by an odometry twist, and read an
+ * AprilTag robotPose into a planar pose.  The bytes allocated by this thread and the time taken are
+ * measured over many iterations and reported per iteration.  The geometry version should allocate
+ * nothing at all.
+ *
+ * Run it on the Robot Controller for the figures that matter.  On a desktop JVM, AllocationCounter
+ * reads the HotSpot ThreadMXBean instead, and HotSpot's escape analysis removes some short-lived
+ * SDK objects that ART would allocate, so the SDK version can look cheaper there than it is.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Geometry Allocation Benchmark", group = "Utility")
+@Disabled
+public class UtilityGeometryAllocationBenchmark extends LinearOpMode {
+
+    static final int WARMUP = 50000;
+    static final int ITERATIONS = 200000;
+
+    /** Bytes and time per iteration for each style; bytes are -1 where counting is unsupported. */
+    public static class Result {
+        public double sdkBytesPerOp;
+        public double sdkNanosPerOp;
+        public double geometryBytesPerOp;
+        public double geometryNanosPerOp;
+        public double checksumDifference;
+
+        public boolean passed() {
+            return geometryBytesPerOp >= 0 && geometryBytesPerOp < 1 && checksumDifference < 1e-6;
+        }
+    }
+
+    // Results are stored here so neither version can be optimized away
+    static Pose2D sdkSink;
+    static double sdkChecksum;
+    static double geometryChecksum;
+
+    public static Result benchmark() {
+        final Pose3D tagPose = new Pose3D(new Position(DistanceUnit.INCH, 30, -12, 8, 0),
+                new YawPitchRollAngles(AngleUnit.DEGREES, 35, 0, 0, 0));
+        final Pose2D target = new Pose2D(DistanceUnit.INCH, 48, 24, AngleUnit.DEGREES, 90);
+        final SdkStyle sdk = new SdkStyle(tagPose, target);
+        final GeometryStyle geometry = new GeometryStyle(tagPose, target);
+
+        Result result = new Result();
+        AllocationCounter counter = new AllocationCounter();
+        long[] measured = new long[2];
+
+        measure(new Runnable() {
+            @Override public void run() {
+                for (int i = 0; i < WARMUP; i++) {
+                    sdk.iterate(i);
+                }
+            }
+        }, counter, measured);
+        measure(new Runnable() {
+            @Override public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    sdk.iterate(i);
+                }
+            }
+        }, counter, measured);
+        result.sdkBytesPerOp = measured[0] < 0 ? -1 : (double) measured[0] / ITERATIONS;
+        result.sdkNanosPerOp = (double) measured[1] / ITERATIONS;
+
+        measure(new Runnable() {
+            @Override public void run() {
+                for (int i = 0; i < WARMUP; i++) {
+                    geometry.iterate(i);
+                }
+            }
+        }, counter, measured);
+        measure(new Runnable() {
+            @Override public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    geometry.iterate(i);
+                }
+            }
+        }, counter, measured);
+        result.geometryBytesPerOp = measured[0] < 0 ? -1 : (double) measured[0] / ITERATIONS;
+        result.geometryNanosPerOp = (double) measured[1] / ITERATIONS;
+        counter.close();
+
+        // Both versions integrate the same twists, so they must end in the same place
+        result.checksumDifference = Math.abs(sdkChecksum - geometryChecksum);
+        return result;
+    }
+
+    private static void measure(Runnable loop, AllocationCounter counter, long[] out) {
+        long bytesBefore = counter.bytes();
+        long start = System.nanoTime();
+        loop.run();
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = counter.bytes();
+        out[0] = bytesBefore < 0 ? -1 : bytesAfter - bytesBefore;
+        out[1] = elapsed;
+    }
+
+    // The loop as the samples write it: every intermediate value is a new SDK object
+    static class SdkStyle {
+        private final Pose3D tagPose;
+        private final Pose2D target;
+        private Pose2D pose = new Pose2D(DistanceUnit.MM, 0, 0, AngleUnit.RADIANS, 0);
+
+        SdkStyle(Pose3D tagPose, Pose2D target) {
+            this.tagPose = tagPose;
+            this.target = target;
+        }
+
+        void iterate(int i) {
+            double heading = pose.getHeading(AngleUnit.RADIANS);
+            double dx = target.getX(DistanceUnit.MM) - pose.getX(DistanceUnit.MM);
+            double dy = target.getY(DistanceUnit.MM) - pose.getY(DistanceUnit.MM);
+            Pose2D error = new Pose2D(DistanceUnit.MM,
+                    dx * Math.cos(heading) + dy * Math.sin(heading),
+                    -dx * Math.sin(heading) + dy * Math.cos(heading),
+                    AngleUnit.RADIANS, AngleUnit.normalizeRadians(target.getHeading(AngleUnit.RADIANS) - heading));
+
+            double forward = 2 + (i & 7);
+            double left = 0.5;
+            double turn = 0.002;
+            double x = pose.getX(DistanceUnit.MM) + forward * Math.cos(heading + turn / 2) - left * Math.sin(heading + turn / 2);
+            double y = pose.getY(DistanceUnit.MM) + forward * Math.sin(heading + turn / 2) + left * Math.cos(heading + turn / 2);
+            pose = new Pose2D(DistanceUnit.MM, x, y, AngleUnit.RADIANS, AngleUnit.normalizeRadians(heading + turn));
+
+            Position tag = tagPose.getPosition().toUnit(DistanceUnit.MM);
+            YawPitchRollAngles orientation = tagPose.getOrientation();
+            Pose2D fromTag = new Pose2D(DistanceUnit.MM, tag.x, tag.y, AngleUnit.DEGREES, orientation.getYaw(AngleUnit.DEGREES));
+
+            sdkSink = fromTag;
+            sdkChecksum = pose.getX(DistanceUnit.METER) + pose.getY(DistanceUnit.METER) + error.getHeading(AngleUnit.RADIANS);
+        }
+    }
+
+    // The same loop with mutable geometry: all objects are created once, up front
+    static class GeometryStyle {
+        private final Pose3D tagPose;
+        private final Pose2 target = new Pose2();
+        private final Pose2 pose = new Pose2();
+        private final Pose2 error = new Pose2();
+        private final Pose2 fromTag = new Pose2();
+        private final Twist2 twist = new Twist2();
+
+        GeometryStyle(Pose3D tagPose, Pose2D target) {
+            this.tagPose = tagPose;
+            this.target.set(target);
+        }
+
+        void iterate(int i) {
+            error.set(target).relativeTo(pose);
+
+            // The SDK version above approximates the arc with its midpoint heading, which matches the
+            // exponential to well within the checksum tolerance for such small turns
+            twist.set((2 + (i & 7)) / 1000.0, 0.5 / 1000.0, 0.002);
+            pose.exp(twist);
+
+            fromTag.set(tagPose);
+
+            geometryChecksum = pose.getX() + pose.getY() + error.getHeading();
+        }
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the benchmark");
+        telemetry.update();
+        waitForStart();
+
+        Result result = benchmark();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("SDK types", "%.1f bytes, %.0f ns per iteration", result.sdkBytesPerOp, result.sdkNanosPerOp);
+        telemetry.addData("Geometry types", "%.1f bytes, %.0f ns per iteration", result.geometryBytesPerOp, result.geometryNanosPerOp);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import java.util.Locale;
+
+/*
+ * A mutable 2D vector in meters.
+ *
+ * Every operation writes its result into this vector and returns it, so calls chain without
+ * creating objects:
+ *
+ *     error.set(target).subtract(current).rotate(-heading);
+ */
+public class Vector2 {
+
+    public double x;
+    public double y;
+
+    public Vector2() {
+    }
+
+    public Vector2(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public Vector2 set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+
+    public Vector2 setPolar(double length, double angle) {
+        this.x = length * Math.cos(angle);
+        this.y = length * Math.sin(angle);
+        return this;
+    }
+
+    public Vector2 add(Vector2 other) {
+        x += other.x;
+        y += other.y;
+        return this;
+    }
+
+    public Vector2 add(double dx, double dy) {
+        x += dx;
+        y += dy;
+        return this;
+    }
+
+    public Vector2 subtract(Vector2 other) {
+        x -= other.x;
+        y -= other.y;
+        return this;
+    }
+
+    public Vector2 scale(double factor) {
+        x *= factor;
+        y *= factor;
+        return this;
+    }
+
+    /** Rotate counter-clockwise by angle radians. */
+    public Vector2 rotate(double angle) {
+        return rotate(Math.cos(angle), Math.sin(angle));
+    }
+
+    public Vector2 rotate(Rotation2 rotation) {
+        return rotate(rotation.cos, rotation.sin);
+    }
+
+    public Vector2 rotate(double cos, double sin) {
+        double nx = x * cos - y * sin;
+        y = x * sin + y * cos;
+        x = nx;
+        return this;
+    }
+
+    /** Scale to unit length; a zero vector is left unchanged. */
+    public Vector2 normalize() {
+        double length = length();
+        if (length > 0) {
+            x /= length;
+            y /= length;
+        }
+        return this;
+    }
+
+    public double dot(Vector2 other) {
+        return x * other.x + y * other.y;
+    }
+
+    /** The z component of the 3D cross product: positive when other is counter-clockwise of this. */
+    public double cross(Vector2 other) {
+        return x * other.y - y * other.x;
+    }
+
+    public double length() {
+        return Math.hypot(x, y);
+    }
+
+    public double angle() {
+        return Math.atan2(y, x);
+    }
+
+    public double distanceTo(Vector2 other) {
+        return Math.hypot(other.x - x, other.y - y);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "(%.3f, %.3f) m", x, y);
+    }
+}
@@ -0,0 +1,92 @@
+package org.firstinspires.ftc.teamcode.geometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+
+import java.util.Locale;
+
+/*
+ * A mutable 3D vector in meters.  Operations write into this vector and return it.
+ */
+public class Vector3 {
+
+    public double x;
+    public double y;
+    public double z;
+
+    public Vector3() {
+    }
+
+    public Vector3(double x, double y, double z) {
+        set(x, y, z);
+    }
+
+    public Vector3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public Vector3 set(Vector3 other) {
+        return set(other.x, other.y, other.z);
+    }
+
+    /** Copy an SDK position, converting from its own unit to meters. */
+    public Vector3 set(Position position) {
+        return set(position.unit.toMeters(position.x), position.unit.toMeters(position.y), position.unit.toMeters(position.z));
+    }
+
+    public Vector3 add(Vector3 other) {
+        x += other.x;
+        y += other.y;
+        z += other.z;
+        return this;
+    }
+
+    public Vector3 subtract(Vector3 other) {
+        x -= other.x;
+        y -= other.y;
+        z -= other.z;
+        return this;
+    }
+
+    public Vector3 scale(double factor) {
+        x *= factor;
+        y *= factor;
+        z *= factor;
+        return this;
+    }
+
+    /** this = this x other */
+    public Vector3 cross(Vector3 other) {
+        return set(y * other.z - z * other.y, z * other.x - x * other.z, x * other.y - y * other.x);
+    }
+
+    public double dot(Vector3 other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    public double length() {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+
+    public Vector3 normalize() {
+        double length = length();
+        if (length > 0) {
+            scale(1 / length);
+        }
+        return this;
+    }
+
+    public double distanceTo(Vector3 other) {
+        double dx = other.x - x;
+        double dy = other.y - y;
+        double dz = other.z - z;
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "(%.3f, %.3f, %.3f) m", x, y, z);
+    }
+}
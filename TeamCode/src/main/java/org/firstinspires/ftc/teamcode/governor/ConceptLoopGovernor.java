@@ -0,0 +1,88 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorRange;
+
+import java.util.List;
+
+/*
+ * This OpMode illustrates keeping a control loop on its deadline by shedding optional work when the
+ * robot is overloaded.
+ *
+ * The loop reads AprilTags, runs a color locator, polls a distance sensor and sends telemetry, which
+ * together can push the loop period well past the 20 ms target.  A LoopGovernor watches the period
+ * and, in order, slows telemetry, raises AprilTag decimation, polls the distance sensor less often
+ * and finally disables the color locator.  When the loop has headroom again, each is restored in
+ * reverse order.  Every change is written to the robot log and listed on the Driver Station.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Loop Governor", group = "Concept")
+@Disabled
+public class ConceptLoopGovernor extends LinearOpMode {
+
+    private static final double LOOP_DEADLINE_MS = 20;
+
+    @Override
+    public void runOpMode() {
+        AprilTagProcessor aprilTag = new AprilTagProcessor.Builder().build();
+        aprilTag.setDecimation(2);
+
+        ColorBlobLocatorProcessor colorLocator = new ColorBlobLocatorProcessor.Builder()
+                .setTargetColorRange(ColorRange.ARTIFACT_PURPLE)
+                .setContourMode(ColorBlobLocatorProcessor.ContourMode.EXTERNAL_ONLY)
+                .setBlurSize(5)
+                .build();
+
+        VisionPortal visionPortal = new VisionPortal.Builder()
+                .setCamera(hardwareMap.get(WebcamName.class, "Webcam 1"))
+                .addProcessors(aprilTag, colorLocator)
+                .build();
+
+        DistanceSensor distanceSensor = hardwareMap.get(DistanceSensor.class, "sensor_distance");
+        PollRate distanceRate = new PollRate(1);
+
+        LoopGovernor governor = new LoopGovernor(new LoopGovernor.Policy().setDeadlineMs(LOOP_DEADLINE_MS));
+        governor.addShedder(Shedders.pauseTelemetry(telemetry, 1000))
+                .addShedder(Shedders.aprilTagDecimation(aprilTag, 2, 3))
+                .addShedder(Shedders.reducePollRate(distanceRate, 5, "distance sensor"))
+                .addShedder(Shedders.disableProcessor(visionPortal, colorLocator, "color locator"));
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        double distanceCm = 0;
+        while (opModeIsActive()) {
+            governor.update();
+
+            List<AprilTagDetection> detections = aprilTag.getDetections();
+            List<ColorBlobLocatorProcessor.Blob> blobs = colorLocator.getBlobs();
+            if (distanceRate.shouldPoll()) {
+                distanceCm = distanceSensor.getDistance(DistanceUnit.CM);
+            }
+
+            governor.addTo(telemetry);
+            telemetry.addData("Tags / blobs", "%d / %d", detections.size(), blobs.size());
+            telemetry.addData("Distance", "%.1f cm", distanceCm);
+            for (String action : governor.getRecentActions()) {
+                telemetry.addLine(action);
+            }
+            telemetry.update();
+        }
+
+        governor.restoreAll();
+        visionPortal.close();
+    }
+}
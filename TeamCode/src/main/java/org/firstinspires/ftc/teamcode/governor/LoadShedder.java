@@ -0,0 +1,18 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+/*
+ * One way of reducing per-loop work that the LoopGovernor can switch on when the loop overruns and
+ * switch off again when there is headroom.
+ *
+ * shed() and restore() are always called in pairs, from the thread that calls
+ * LoopGovernor.update(), and should be cheap: they change a setting, they don't do the work.
+ */
+public interface LoadShedder {
+
+    /** A short description for logs and telemetry, e.g. "AprilTag decimation 2 -> 3". */
+    String getName();
+
+    void shed();
+
+    void restore();
+}
@@ -0,0 +1,259 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Watches the control loop period and sheds optional work when the loop can't keep its deadline.
+ *
+ * Call update() once per loop.  The governor keeps an exponentially smoothed loop period.  When it
+ * stays above the deadline for a few consecutive loops, the next LoadShedder in the list is
+ * applied; when it stays comfortably below the deadline for a longer stretch, the most recently
+ * applied shedder is restored.  Shedders should therefore be added in the order they should be
+ * given up: least valuable first.
+ *
+ * The asymmetric thresholds and loop counts, plus a minimum hold time between changes, keep the
+ * governor from oscillating when the period sits right at the deadline.
+ *
+ *     LoopGovernor governor = new LoopGovernor(new LoopGovernor.Policy().setDeadlineMs(10));
+ *     governor.addShedder(Shedders.pauseTelemetry(telemetry, 1000));
+ *     governor.addShedder(Shedders.aprilTagDecimation(aprilTag, 2, 3));
+ *     governor.addShedder(Shedders.disableProcessor(visionPortal, colorLocator, "color locator"));
+ *     while (opModeIsActive()) {
+ *         governor.update();
+ *         ...
+ *     }
+ *     governor.restoreAll();
+ */
+public class LoopGovernor {
+
+    public static final String TAG = "LoopGovernor";
+
+    private static final int LOG_SIZE = 16;
+
+    /** Tuning for when to shed and restore. */
+    public static class Policy {
+        double deadlineMs = 10;
+        double shedRatio = 1.0;
+        double restoreRatio = 0.7;
+        int shedAfterLoops = 5;
+        int restoreAfterLoops = 50;
+        double minHoldMs = 250;
+        double smoothing = 0.2;
+
+        /** The loop period the OpMode is trying to hold. */
+        public Policy setDeadlineMs(double deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        /** Shed once the smoothed period exceeds deadline * ratio. */
+        public Policy setShedRatio(double ratio) {
+            this.shedRatio = ratio;
+            return this;
+        }
+
+        /** Restore once the smoothed period drops below deadline * ratio.  Must be below the shed ratio. */
+        public Policy setRestoreRatio(double ratio) {
+            this.restoreRatio = ratio;
+            return this;
+        }
+
+        /** How many consecutive over-deadline loops trigger a shed. */
+        public Policy setShedAfterLoops(int loops) {
+            this.shedAfterLoops = loops;
+            return this;
+        }
+
+        /** How many consecutive loops with headroom trigger a restore. */
+        public Policy setRestoreAfterLoops(int loops) {
+            this.restoreAfterLoops = loops;
+            return this;
+        }
+
+        /** Minimum time between two successive shed or restore actions, to let each one take effect. */
+        public Policy setMinHoldMs(double ms) {
+            this.minHoldMs = ms;
+            return this;
+        }
+
+        /** Weight of the newest sample in the smoothed period, between 0 and 1. */
+        public Policy setSmoothing(double alpha) {
+            this.smoothing = alpha;
+            return this;
+        }
+    }
+
+    /** Notified of every shed and restore; by default these go to the robot log. */
+    public interface Listener {
+        void onShed(LoadShedder shedder, int level, double periodMs);
+
+        void onRestore(LoadShedder shedder, int level, double periodMs);
+    }
+
+    private final Policy policy;
+    private final List<LoadShedder> shedders = new ArrayList<>();
+    private final String[] log = new String[LOG_SIZE];
+    private Listener listener;
+
+    private int level = 0;
+    private long lastNanos = 0;
+    private long lastChangeNanos = 0;
+    private double smoothedMs = 0;
+    private double maxMs = 0;
+    private int overLoops = 0;
+    private int underLoops = 0;
+    private long loops = 0;
+    private long overruns = 0;
+    private int logCount = 0;
+
+    public LoopGovernor(Policy policy) {
+        if (policy.restoreRatio >= policy.shedRatio) {
+            throw new IllegalArgumentException("restore ratio must be below shed ratio");
+        }
+        this.policy = policy;
+    }
+
+    public LoopGovernor addShedder(LoadShedder shedder) {
+        shedders.add(shedder);
+        return this;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Call once per loop iteration.  Returns true if a shedder was applied or restored. */
+    public boolean update() {
+        return update(System.nanoTime());
+    }
+
+    /** As update(), with an explicit timestamp, for driving the governor from a simulated clock. */
+    public boolean update(long nowNanos) {
+        if (lastNanos == 0) {
+            lastNanos = nowNanos;
+            lastChangeNanos = nowNanos;
+            return false;
+        }
+        return updatePeriod(nowNanos, (nowNanos - lastNanos) / 1e6);
+    }
+
+    private boolean updatePeriod(long nowNanos, double periodMs) {
+        lastNanos = nowNanos;
+        loops++;
+        if (periodMs > policy.deadlineMs) {
+            overruns++;
+        }
+        if (periodMs > maxMs) {
+            maxMs = periodMs;
+        }
+        smoothedMs = smoothedMs == 0 ? periodMs : smoothedMs + policy.smoothing * (periodMs - smoothedMs);
+
+        if (smoothedMs > policy.deadlineMs * policy.shedRatio) {
+            overLoops++;
+            underLoops = 0;
+        } else if (smoothedMs < policy.deadlineMs * policy.restoreRatio) {
+            underLoops++;
+            overLoops = 0;
+        } else {
+            overLoops = 0;
+            underLoops = 0;
+        }
+
+        if ((nowNanos - lastChangeNanos) / 1e6 < policy.minHoldMs) {
+            return false;
+        }
+        if (overLoops >= policy.shedAfterLoops && level < shedders.size()) {
+            LoadShedder shedder = shedders.get(level++);
+            shedder.shed();
+            changed(nowNanos);
+            record("shed", shedder);
+            if (listener != null) {
+                listener.onShed(shedder, level, smoothedMs);
+            } else {
+                RobotLog.ii(TAG, "shed level %d (%s), loop %.1f ms > %.1f ms", level, shedder.getName(), smoothedMs, policy.deadlineMs);
+            }
+            return true;
+        }
+        if (underLoops >= policy.restoreAfterLoops && level > 0) {
+            restoreLast();
+            changed(nowNanos);
+            return true;
+        }
+        return false;
+    }
+
+    /** Undo every applied shedder, e.g. at the end of the OpMode. */
+    public void restoreAll() {
+        while (level > 0) {
+            restoreLast();
+        }
+        overLoops = 0;
+        underLoops = 0;
+    }
+
+    private void restoreLast() {
+        LoadShedder shedder = shedders.get(--level);
+        shedder.restore();
+        record("restore", shedder);
+        if (listener != null) {
+            listener.onRestore(shedder, level, smoothedMs);
+        } else {
+            RobotLog.ii(TAG, "restored %s, now level %d, loop %.1f ms", shedder.getName(), level, smoothedMs);
+        }
+    }
+
+    /** Number of shedders currently applied. */
+    public int getLevel() {
+        return level;
+    }
+
+    public double getSmoothedPeriodMs() {
+        return smoothedMs;
+    }
+
+    public double getMaxPeriodMs() {
+        return maxMs;
+    }
+
+    public long getLoopCount() {
+        return loops;
+    }
+
+    /** Number of individual loops that exceeded the deadline. */
+    public long getOverrunCount() {
+        return overruns;
+    }
+
+    /** The most recent shed and restore actions, oldest first. */
+    public List<String> getRecentActions() {
+        List<String> actions = new ArrayList<>();
+        int count = Math.min(logCount, LOG_SIZE);
+        for (int i = logCount - count; i < logCount; i++) {
+            actions.add(log[i % LOG_SIZE]);
+        }
+        return actions;
+    }
+
+    public void addTo(Telemetry telemetry) {
+        telemetry.addData("Loop", "%.1f ms (max %.1f, deadline %.1f)", smoothedMs, maxMs, policy.deadlineMs);
+        telemetry.addData("Overruns", "%d of %d loops", overruns, loops);
+        telemetry.addData("Shed level", "%d of %d", level, shedders.size());
+    }
+
+    private void changed(long nowNanos) {
+        lastChangeNanos = nowNanos;
+        overLoops = 0;
+        underLoops = 0;
+    }
+
+    private void record(String action, LoadShedder shedder) {
+        log[logCount % LOG_SIZE] = String.format(Locale.US, "%s %s at %.1f ms", action, shedder.getName(), smoothedMs);
+        logCount++;
+    }
+}
@@ -0,0 +1,40 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+/*
+ * Decides which loops a slow sensor read should happen on, so the rate can be turned down by the
+ * LoopGovernor without touching the code that does the read:
+ *
+ *     PollRate distanceRate = new PollRate(1);
+ *     ...
+ *     if (distanceRate.shouldPoll()) {
+ *         distance = distanceSensor.getDistance(DistanceUnit.CM);
+ *     }
+ *
+ * With a divisor of n the read happens on every nth call.
+ */
+public class PollRate {
+
+    private volatile int divisor;
+    private int counter = 0;
+
+    public PollRate(int divisor) {
+        setDivisor(divisor);
+    }
+
+    public int getDivisor() {
+        return divisor;
+    }
+
+    public void setDivisor(int divisor) {
+        this.divisor = Math.max(1, divisor);
+    }
+
+    /** Call once per loop; returns true on the loops where the sensor should be read. */
+    public boolean shouldPoll() {
+        if (++counter >= divisor) {
+            counter = 0;
+            return true;
+        }
+        return false;
+    }
+}
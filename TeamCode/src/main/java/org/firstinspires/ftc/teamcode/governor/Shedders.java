@@ -0,0 +1,97 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+
+import java.util.Locale;
+
+/*
+ * Ready-made LoadShedders for the usual sources of loop overrun.
+ */
+public final class Shedders {
+
+    private Shedders() {
+    }
+
+    /**
+     * Raise AprilTag decimation.  Detection range drops, but so does the vision thread's CPU use,
+     * which on a Control Hub competes directly with the OpMode thread.
+     */
+    public static LoadShedder aprilTagDecimation(final AprilTagProcessor aprilTag, final float normal, final float reduced) {
+        return new LoadShedder() {
+            @Override public String getName() {
+                return String.format(Locale.US, "AprilTag decimation %.0f -> %.0f", normal, reduced);
+            }
+
+            @Override public void shed() {
+                aprilTag.setDecimation(reduced);
+            }
+
+            @Override public void restore() {
+                aprilTag.setDecimation(normal);
+            }
+        };
+    }
+
+    /** Disable a vision processor entirely through VisionPortal.setProcessorEnabled(). */
+    public static LoadShedder disableProcessor(final VisionPortal portal, final VisionProcessor processor, final String label) {
+        return new LoadShedder() {
+            @Override public String getName() {
+                return "disable " + label;
+            }
+
+            @Override public void shed() {
+                portal.setProcessorEnabled(processor, false);
+            }
+
+            @Override public void restore() {
+                portal.setProcessorEnabled(processor, true);
+            }
+        };
+    }
+
+    /** Poll a sensor less often; see PollRate. */
+    public static LoadShedder reducePollRate(final PollRate rate, final int reducedDivisor, final String label) {
+        return new LoadShedder() {
+            private int normalDivisor;
+
+            @Override public String getName() {
+                return String.format(Locale.US, "poll %s every %d loops", label, reducedDivisor);
+            }
+
+            @Override public void shed() {
+                normalDivisor = rate.getDivisor();
+                rate.setDivisor(reducedDivisor);
+            }
+
+            @Override public void restore() {
+                rate.setDivisor(normalDivisor);
+            }
+        };
+    }
+
+    /**
+     * Stretch the Driver Station telemetry interval.  telemetry.update() becomes nearly free on
+     * loops that don't transmit, which is almost all of them once the interval is long.
+     */
+    public static LoadShedder pauseTelemetry(final Telemetry telemetry, final int reducedIntervalMs) {
+        return new LoadShedder() {
+            private int normalIntervalMs;
+
+            @Override public String getName() {
+                return String.format(Locale.US, "telemetry every %d ms", reducedIntervalMs);
+            }
+
+            @Override public void shed() {
+                normalIntervalMs = telemetry.getMsTransmissionInterval();
+                telemetry.setMsTransmissionInterval(reducedIntervalMs);
+            }
+
+            @Override public void restore() {
+                telemetry.setMsTransmissionInterval(normalIntervalMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package org.firstinspires.ftc.teamcode.governor;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * This OpMode exercises LoopGovernor against a simulated load, with no hardware or camera needed.
+ *
+ * A simulated loop costs a fixed base time plus the cost of each optional workload that is currently
+ * enabled.  Part-way through, an external spike (standing in for a burst of vision or I2C traffic)
+ * pushes the loop far past its deadline.  The governor should shed workloads until the loop is back
+ * under the deadline, and restore all of them once the spike has passed.  The simulation runs on a
+ * virtual clock, so it completes instantly; simulate() can also be called from a desktop JVM.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Loop Governor Simulation", group = "Utility")
+@Disabled
+public class UtilityLoopGovernorSimulation extends LinearOpMode {
+
+    static final double DEADLINE_MS = 10;
+    static final double BASE_MS = 2;
+    static final double SPIKE_MS = 7.5;
+
+    /** A simulated optional workload with a fixed per-loop cost. */
+    static class Workload implements LoadShedder {
+        final String name;
+        final double costMs;
+        boolean enabled = true;
+
+        Workload(String name, double costMs) {
+            this.name = name;
+            this.costMs = costMs;
+        }
+
+        @Override public String getName() {
+            return name;
+        }
+
+        @Override public void shed() {
+            enabled = false;
+        }
+
+        @Override public void restore() {
+            enabled = true;
+        }
+    }
+
+    /** The outcome of one simulation. */
+    public static class Result {
+        public final List<String> actions = new ArrayList<>();
+        public int levelBeforeSpike;
+        public int maxLevel;
+        public int levelAtEnd;
+        public double worstPeriodOnceShedMs;
+
+        public boolean passed() {
+            return levelBeforeSpike == 0 && maxLevel > 0 && levelAtEnd == 0 && worstPeriodOnceShedMs <= DEADLINE_MS;
+        }
+    }
+
+    public static Result simulate() {
+        final Workload[] workloads = {
+                new Workload("telemetry", 1),
+                new Workload("apriltag decimation", 1.5),
+                new Workload("sensor polling", 0.5),
+                new Workload("color locator", 1),
+        };
+
+        final Result result = new Result();
+        LoopGovernor governor = new LoopGovernor(new LoopGovernor.Policy().setDeadlineMs(DEADLINE_MS));
+        for (Workload workload : workloads) {
+            governor.addShedder(workload);
+        }
+        governor.setListener(new LoopGovernor.Listener() {
+            @Override public void onShed(LoadShedder shedder, int level, double periodMs) {
+                result.actions.add(String.format(Locale.US, "shed %s -> level %d (%.1f ms)", shedder.getName(), level, periodMs));
+            }
+
+            @Override public void onRestore(LoadShedder shedder, int level, double periodMs) {
+                result.actions.add(String.format(Locale.US, "restore %s -> level %d (%.1f ms)", shedder.getName(), level, periodMs));
+            }
+        });
+
+        // Normally the loop costs 2 + 4 = 6 ms.  The spike takes it to 13.5 ms, which only fits the
+        // 10 ms deadline once every workload is shed.
+        final int calmLoops = 500;
+        final int spikeLoops = 500;
+        final int recoveryLoops = 2000;
+        long now = 1;
+        governor.update(now);
+
+        for (int i = 0; i < calmLoops + spikeLoops + recoveryLoops; i++) {
+            boolean spike = i >= calmLoops && i < calmLoops + spikeLoops;
+            boolean allShed = governor.getLevel() == workloads.length;
+
+            double period = BASE_MS + (spike ? SPIKE_MS : 0);
+            for (Workload workload : workloads) {
+                if (workload.enabled) {
+                    period += workload.costMs;
+                }
+            }
+            now += (long) (period * 1e6);
+            governor.update(now);
+
+            if (i == calmLoops - 1) {
+                result.levelBeforeSpike = governor.getLevel();
+            }
+            result.maxLevel = Math.max(result.maxLevel, governor.getLevel());
+            if (spike && allShed) {
+                result.worstPeriodOnceShedMs = Math.max(result.worstPeriodOnceShedMs, period);
+            }
+        }
+        result.levelAtEnd = governor.getLevel();
+        return result;
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the simulation");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Level before spike", "%d (expected 0)", result.levelBeforeSpike);
+        telemetry.addData("Max shed level", result.maxLevel);
+        telemetry.addData("Level at end", "%d (expected 0)", result.levelAtEnd);
+        telemetry.addData("Worst loop once shed", "%.1f ms (deadline %.1f)", result.worstPeriodOnceShedMs, DEADLINE_MS);
+        for (String action : result.actions) {
+            telemetry.addLine(action);
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.firstinspires.ftc.teamcode.init;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+import com.qualcomm.hardware.gobilda.GoBildaPinpointDriver;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.realtime.OpModeStopCondition;
+
+/*
+ * This OpMode illustrates shortening OpMode init by running independent device setup concurrently.
+ *
+ * The samples each set up their devices one after another in runOpMode().  Here the same steps are
+ * handed to an InitOrchestrator, labelled with the hub or I2C bus they use:
+ *
+ *   - the drive motors on the Control Hub
+ *   - the IMU on Control Hub I2C bus 0
+ *   - the OctoQuad on Expansion Hub I2C bus 1, whose flash write is skipped when it already
+ *     holds the desired configuration
+ *   - the Pinpoint on Expansion Hub I2C bus 2
+ *
+ * If the OpMode is stopped while init is still running, no further steps are started.  The
+ * per-device timeline is shown on the Driver Station so you can see which steps dominate.
+ * Edit the lane names to match where each device is plugged in on your robot.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Parallel Init", group = "Concept")
+@Disabled
+public class ConceptParallelInit extends LinearOpMode {
+
+    private static final int ODO_LEFT  = 0;
+    private static final int ODO_RIGHT = 1;
+    private static final int ODO_PERP  = 2;
+    private static final int VELOCITY_SAMPLE_INTERVAL_MS = 50;
+
+    private DcMotor leftDrive;
+    private DcMotor rightDrive;
+    private IMU imu;
+    private OctoQuad octoquad;
+    private GoBildaPinpointDriver pinpoint;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        // If the OpMode is stopped during init, don't start any more steps
+        InitOrchestrator init = new InitOrchestrator().setStopCondition(new OpModeStopCondition(this));
+
+        init.add("drive motors", "Control Hub", new InitTask.Step() {
+            @Override public void run() {
+                leftDrive  = hardwareMap.get(DcMotor.class, "left_drive");
+                rightDrive = hardwareMap.get(DcMotor.class, "right_drive");
+                leftDrive.setDirection(DcMotor.Direction.REVERSE);
+                leftDrive.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+                rightDrive.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+                leftDrive.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+                rightDrive.setMode(DcMotor.RunMode.RUN_USING_ENCODER);
+            }
+        });
+
+        init.add("imu", "Control Hub I2C 0", new InitTask.Step() {
+            @Override public void run() {
+                imu = hardwareMap.get(IMU.class, "imu");
+                imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(
+                        RevHubOrientationOnRobot.LogoFacingDirection.UP,
+                        RevHubOrientationOnRobot.UsbFacingDirection.FORWARD)));
+            }
+        });
+        init.add("imu yaw", "Control Hub I2C 0", new InitTask.Step() {
+            @Override public void run() {
+                imu.resetYaw();
+            }
+        }, "imu");
+
+        init.add("octoquad", "Expansion Hub I2C 1", new InitTask.Step() {
+            @Override public void run() {
+                octoquad = hardwareMap.get(OctoQuad.class, "octoquad");
+            }
+        });
+        // The OctoQuad loads its parameters from flash at power-up, so if the live values already
+        // match what we want, flash already holds them too.
+        init.addConfigured("octoquad flash", "Expansion Hub I2C 1", new InitTask.Check() {
+            @Override public boolean alreadyConfigured() {
+                return octoquad.getSingleEncoderDirection(ODO_LEFT)  == OctoQuad.EncoderDirection.REVERSE
+                    && octoquad.getSingleEncoderDirection(ODO_RIGHT) == OctoQuad.EncoderDirection.FORWARD
+                    && octoquad.getSingleEncoderDirection(ODO_PERP)  == OctoQuad.EncoderDirection.FORWARD
+                    && octoquad.getSingleVelocitySampleInterval(ODO_LEFT)  == VELOCITY_SAMPLE_INTERVAL_MS
+                    && octoquad.getSingleVelocitySampleInterval(ODO_RIGHT) == VELOCITY_SAMPLE_INTERVAL_MS
+                    && octoquad.getSingleVelocitySampleInterval(ODO_PERP)  == VELOCITY_SAMPLE_INTERVAL_MS;
+            }
+        }, new InitTask.Step() {
+            @Override public void run() {
+                octoquad.setSingleEncoderDirection(ODO_LEFT,  OctoQuad.EncoderDirection.REVERSE);
+                octoquad.setSingleEncoderDirection(ODO_RIGHT, OctoQuad.EncoderDirection.FORWARD);
+                octoquad.setSingleEncoderDirection(ODO_PERP,  OctoQuad.EncoderDirection.FORWARD);
+                octoquad.setAllVelocitySampleIntervals(VELOCITY_SAMPLE_INTERVAL_MS);
+                octoquad.saveParametersToFlash();
+            }
+        }, "octoquad");
+        init.add("octoquad reset", "Expansion Hub I2C 1", new InitTask.Step() {
+            @Override public void run() {
+                octoquad.resetAllPositions();
+            }
+        }, "octoquad flash");
+
+        init.add("pinpoint", "Expansion Hub I2C 2", new InitTask.Step() {
+            @Override public void run() {
+                pinpoint = hardwareMap.get(GoBildaPinpointDriver.class, "pinpoint");
+                pinpoint.setOffsets(-84.0, -168.0, DistanceUnit.MM);
+                pinpoint.setEncoderResolution(GoBildaPinpointDriver.GoBildaOdometryPods.goBILDA_4_BAR_POD);
+                pinpoint.setEncoderDirections(GoBildaPinpointDriver.EncoderDirection.FORWARD,
+                                              GoBildaPinpointDriver.EncoderDirection.FORWARD);
+                pinpoint.resetPosAndIMU();
+            }
+        });
+
+        InitReport report = init.run(5000);
+
+        report.addTo(telemetry);
+        if (!report.isSuccess()) {
+            telemetry.addData("FAILED", report.getFailures());
+        }
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        while (opModeIsActive()) {
+            report.addTo(telemetry);
+            telemetry.update();
+            sleep(100);
+        }
+    }
+}
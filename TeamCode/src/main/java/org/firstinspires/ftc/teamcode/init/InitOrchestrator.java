@@ -0,0 +1,252 @@
+package org.firstinspires.ftc.teamcode.init;
+
+import org.firstinspires.ftc.teamcode.realtime.StopCondition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Runs hardware setup steps as a dependency graph, overlapping the ones that don't share a bus.
+ *
+ * Most of the time spent in OpMode init is waiting on devices: resetting encoders, initializing the
+ * IMU, writing sensor configuration to flash.  Steps on different hubs or different I2C buses don't
+ * contend with each other, so there is no reason to wait for one to finish before starting the next.
+ *
+ *     InitOrchestrator init = new InitOrchestrator();
+ *     init.add("imu", "CH I2C 0", new InitTask.Step() {
+ *         public void run() { imu.initialize(parameters); }
+ *     });
+ *     init.add("drive", "Control Hub", new InitTask.Step() {
+ *         public void run() { resetDriveEncoders(); }
+ *     });
+ *     init.addConfigured("octoquad", "EH I2C 1", octoQuadMatches, octoQuadConfigure);
+ *     init.add("heading", null, zeroHeading, "imu");   // runs after "imu" completes
+ *     InitReport report = init.run(5000);
+ *
+ * Steps in the same lane never run at the same time.  A step only starts once every step it depends
+ * on has succeeded; if a dependency fails, everything downstream of it is marked BLOCKED instead of
+ * being run against a half-initialized device.  Failures never throw out of run(): inspect the
+ * returned InitReport, or call throwIfFailed() on it.
+ *
+ * If the timeout expires, run() returns without waiting for the steps still running.  They are
+ * interrupted, and reported TIMED_OUT, but a step that ignores the interrupt may go on talking to
+ * its device while the OpMode carries on; steps that never started are reported NOT_STARTED.
+ * With a stop condition set, e.g. an OpModeStopCondition, run() stops starting new steps once it
+ * says to stop, waits only for the steps already running, and reports the rest NOT_STARTED.
+ */
+public class InitOrchestrator {
+
+    public static final int DEFAULT_THREADS = 4;
+
+    private static final long STOP_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final Map<String, InitTask> tasks = new LinkedHashMap<>();
+    private final int threads;
+    private StopCondition stopCondition;
+
+    public InitOrchestrator() {
+        this(DEFAULT_THREADS);
+    }
+
+    public InitOrchestrator(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /** Add a step that always runs. */
+    public InitOrchestrator add(String name, String lane, InitTask.Step step, String... dependsOn) {
+        return put(new InitTask(name, lane, null, step, dependsOn));
+    }
+
+    /**
+     * Add a step that writes persistent configuration (e.g. saveParametersToFlash()).  The check runs
+     * first, in the same lane; if it reports the device already holds the desired configuration, the
+     * write is skipped, saving both time and flash wear.
+     */
+    public InitOrchestrator addConfigured(String name, String lane, InitTask.Check check, InitTask.Step configure, String... dependsOn) {
+        return put(new InitTask(name, lane, check, configure, dependsOn));
+    }
+
+    /**
+     * Checked while run() waits; once it says to stop, e.g. when the OpMode is stopped during init, no
+     * new steps are started.  Steps already running are left to finish.
+     */
+    public InitOrchestrator setStopCondition(StopCondition stopCondition) {
+        this.stopCondition = stopCondition;
+        return this;
+    }
+
+    private InitOrchestrator put(InitTask task) {
+        if (tasks.containsKey(task.name)) {
+            throw new IllegalArgumentException("duplicate init step: " + task.name);
+        }
+        tasks.put(task.name, task);
+        return this;
+    }
+
+    /**
+     * Run every step, returning once all have finished or the timeout expires.
+     *
+     * @throws IllegalArgumentException if a step depends on an unknown step or the graph has a cycle
+     */
+    public InitReport run(long timeoutMs) throws InterruptedException {
+        validate();
+
+        final LinkedBlockingQueue<InitTask> completed = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private int count = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Init-" + (++count));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        List<InitTask> pending = new ArrayList<>(tasks.values());
+        Set<String> busyLanes = new HashSet<>();
+        int running = 0;
+        long origin = System.nanoTime();
+        long deadline = origin + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        boolean stopped = false;
+
+        try {
+            while (!pending.isEmpty() || running > 0) {
+                stopped |= stopCondition != null && stopCondition.shouldStop();
+                if (!stopped) {
+                    running += startReady(pending, busyLanes, executor, completed);
+                }
+                if (running == 0) {
+                    // Whatever is left can never start: blocked by a failure, or stopped
+                    for (InitTask task : pending) {
+                        task.transition(InitTask.Status.PENDING,
+                                stopped ? InitTask.Status.NOT_STARTED : InitTask.Status.BLOCKED);
+                    }
+                    pending.clear();
+                    break;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                // Wake now and then to check the stop condition
+                long wait = stopCondition == null ? remaining : Math.min(remaining, STOP_POLL_NANOS);
+                InitTask done = completed.poll(wait, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    continue;
+                }
+                running--;
+                if (done.lane != null) {
+                    busyLanes.remove(done.lane);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Give up on whatever hasn't finished; execute() won't overwrite these
+        List<InitTask> snapshots = new ArrayList<>();
+        for (InitTask task : tasks.values()) {
+            if (!task.transition(InitTask.Status.RUNNING, InitTask.Status.TIMED_OUT)) {
+                task.transition(InitTask.Status.PENDING, InitTask.Status.NOT_STARTED);
+            }
+            snapshots.add(task.snapshot());
+        }
+        return new InitReport(snapshots, origin, System.nanoTime() - origin);
+    }
+
+    // Start every pending step whose dependencies have succeeded and whose lane is free
+    private int startReady(List<InitTask> pending, Set<String> busyLanes, ExecutorService executor,
+                           final LinkedBlockingQueue<InitTask> completed) {
+        int started = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            final InitTask task = pending.get(i);
+            boolean ready = true;
+            boolean blocked = false;
+            for (String dependency : task.dependsOn) {
+                InitTask other = tasks.get(dependency);
+                if (!other.finished()) {
+                    ready = false;
+                } else if (!other.succeeded()) {
+                    blocked = true;
+                }
+            }
+            if (blocked) {
+                task.transition(InitTask.Status.PENDING, InitTask.Status.BLOCKED);
+                pending.remove(i--);
+                continue;
+            }
+            if (!ready || (task.lane != null && busyLanes.contains(task.lane))) {
+                continue;
+            }
+
+            pending.remove(i--);
+            if (task.lane != null) {
+                busyLanes.add(task.lane);
+            }
+            // The task stays PENDING until a pool thread actually picks it up
+            executor.execute(new Runnable() {
+                @Override public void run() {
+                    task.execute();
+                    completed.add(task);
+                }
+            });
+            started++;
+        }
+        return started;
+    }
+
+    private void validate() {
+        Map<String, Integer> inDegree = new HashMap<>();
+        for (InitTask task : tasks.values()) {
+            for (String dependency : task.dependsOn) {
+                if (!tasks.containsKey(dependency)) {
+                    throw new IllegalArgumentException("init step '" + task.name + "' depends on unknown step '" + dependency + "'");
+                }
+            }
+            inDegree.put(task.name, task.dependsOn.size());
+        }
+
+        // Kahn's algorithm: if we can't peel off every step, what is left contains a cycle
+        List<String> ready = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            String name = ready.remove(ready.size() - 1);
+            visited++;
+            for (InitTask task : tasks.values()) {
+                if (task.dependsOn.contains(name)) {
+                    int degree = inDegree.get(task.name) - 1;
+                    inDegree.put(task.name, degree);
+                    if (degree == 0) {
+                        ready.add(task.name);
+                    }
+                }
+            }
+        }
+        if (visited != tasks.size()) {
+            List<String> cyclic = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
+                if (entry.getValue() > 0) {
+                    cyclic.add(entry.getKey());
+                }
+            }
+            throw new IllegalArgumentException("init steps have a dependency cycle: " + cyclic);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.firstinspires.ftc.teamcode.init;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * The outcome of one InitOrchestrator run: a per-device timeline plus overall timing.
+ *
+ * getSerialNanos() is the sum of every step's own duration, i.e. roughly how long init would have
+ * taken had the steps been run one after another as the samples do; comparing it with
+ * getWallNanos() shows what running independent steps concurrently saved.
+ */
+public class InitReport {
+
+    private final List<InitTask> tasks;
+    private final long originNanos;
+    private final long wallNanos;
+
+    InitReport(List<InitTask> tasks, long originNanos, long wallNanos) {
+        this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+        this.originNanos = originNanos;
+        this.wallNanos = wallNanos;
+    }
+
+    public List<InitTask> getTasks() {
+        return tasks;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getSerialNanos() {
+        long total = 0;
+        for (InitTask task : tasks) {
+            total += task.getDurationNanos();
+        }
+        return total;
+    }
+
+    public boolean isSuccess() {
+        for (InitTask task : tasks) {
+            if (!task.succeeded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The names of every step that did not complete, with the reason. */
+    public List<String> getFailures() {
+        List<String> failures = new ArrayList<>();
+        for (InitTask task : tasks) {
+            if (!task.succeeded()) {
+                String reason = task.error != null ? String.valueOf(task.error.getMessage()) : task.getStatus().toString();
+                failures.add(task.name + ": " + reason);
+            }
+        }
+        return failures;
+    }
+
+    /** Throw an IllegalStateException listing every failed step, if there were any. */
+    public void throwIfFailed() {
+        List<String> failures = getFailures();
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException("hardware init failed: " + failures);
+            for (InitTask task : tasks) {
+                if (task.error != null) {
+                    exception.addSuppressed(task.error);
+                }
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * One line per step: start and end offset in milliseconds, lane and status.  A step still running
+     * when the report was made ends at "--"; one that never started shows neither.
+     */
+    public String timeline() {
+        StringBuilder builder = new StringBuilder();
+        for (InitTask task : tasks) {
+            builder.append(formatTask(task)).append('\n');
+        }
+        builder.append(String.format(Locale.US, "wall %.1f ms, serial %.1f ms", wallNanos / 1e6, getSerialNanos() / 1e6));
+        return builder.toString();
+    }
+
+    public void addTo(Telemetry telemetry) {
+        telemetry.addData("Init", "%.0f ms (serial %.0f ms)", wallNanos / 1e6, getSerialNanos() / 1e6);
+        for (InitTask task : tasks) {
+            telemetry.addLine(formatTask(task));
+        }
+    }
+
+    private String formatTask(InitTask task) {
+        return String.format(Locale.US, "%7s -%7s ms  %-20s %-20s %s", offset(task.startNanos),
+                offset(task.endNanos), task.name, task.lane == null ? "-" : task.lane, task.getStatus());
+    }
+
+    private String offset(long nanos) {
+        return nanos == 0 ? "--" : String.format(Locale.US, "%.1f", (nanos - originNanos) / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return timeline();
+    }
+}
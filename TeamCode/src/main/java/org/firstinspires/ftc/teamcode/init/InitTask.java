@@ -0,0 +1,150 @@
+package org.firstinspires.ftc.teamcode.init;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * One device setup step in an InitOrchestrator graph, together with its recorded timing.
+ *
+ * The lane names the shared resource the step talks over, such as one hub ("Control Hub") or one I2C
+ * bus ("Control Hub I2C 1").  Steps in the same lane run one after another; steps in different lanes
+ * run concurrently once their dependencies are done.  A null lane means the step uses no shared
+ * resource at all.
+ *
+ * The tasks in an InitReport are snapshots taken when run() returned, so they don't change
+ * afterwards even if a timed-out step is still running.
+ */
+public class InitTask {
+
+    /** A unit of setup work. */
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    /** Reports whether a device already holds the desired persistent configuration. */
+    public interface Check {
+        boolean alreadyConfigured() throws Exception;
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        DONE,
+        /** The check found the device already configured, so the (flash) write was skipped. */
+        SKIPPED,
+        FAILED,
+        /** Not run because a dependency failed or timed out. */
+        BLOCKED,
+        /**
+         * Started, but not finished before the orchestrator's timeout.  The step may still be running,
+         * and talking to its device, after run() has returned; its eventual outcome is not recorded.
+         */
+        TIMED_OUT,
+        /** Never started, because the run timed out or was stopped first. */
+        NOT_STARTED
+    }
+
+    final String name;
+    final String lane;
+    final Step step;
+    final Check check;
+    final List<String> dependsOn;
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+    volatile long startNanos;
+    volatile long endNanos;
+    volatile String threadName;
+    volatile Throwable error;
+
+    InitTask(String name, String lane, Check check, Step step, String[] dependsOn) {
+        this.name = name;
+        this.lane = lane;
+        this.check = check;
+        this.step = step;
+        this.dependsOn = Collections.unmodifiableList(Arrays.asList(dependsOn));
+    }
+
+    // A detached copy of the task's current state, for the report
+    private InitTask(InitTask task) {
+        this(task.name, task.lane, null, null, new String[0]);
+        status.set(task.status.get());
+        startNanos = task.startNanos;
+        endNanos = task.endNanos;
+        threadName = task.threadName;
+        error = task.error;
+    }
+
+    InitTask snapshot() {
+        return new InitTask(this);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public List<String> getDependencies() {
+        return dependsOn;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /** Move from one status to another, unless something else changed it first. */
+    boolean transition(Status from, Status to) {
+        return status.compareAndSet(from, to);
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getDurationNanos() {
+        return endNanos > startNanos ? endNanos - startNanos : 0;
+    }
+
+    boolean succeeded() {
+        Status current = status.get();
+        return current == Status.DONE || current == Status.SKIPPED;
+    }
+
+    boolean finished() {
+        Status current = status.get();
+        return current != Status.PENDING && current != Status.RUNNING;
+    }
+
+    /** Runs the step, unless the orchestrator has already given up on it. */
+    void execute() {
+        if (!transition(Status.PENDING, Status.RUNNING)) {
+            return;
+        }
+        threadName = Thread.currentThread().getName();
+        startNanos = System.nanoTime();
+        Status outcome;
+        try {
+            if (check != null && check.alreadyConfigured()) {
+                outcome = Status.SKIPPED;
+            } else {
+                step.run();
+                outcome = Status.DONE;
+            }
+        } catch (Throwable t) {
+            error = t;
+            outcome = Status.FAILED;
+        } finally {
+            endNanos = System.nanoTime();
+        }
+        // Once the orchestrator has marked the step TIMED_OUT, that stands
+        transition(Status.RUNNING, outcome);
+    }
+}
@@ -0,0 +1,163 @@
+package org.firstinspires.ftc.teamcode.init;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+/*
+ * This OpMode checks InitOrchestrator against fake devices with known setup delays, so no robot
+ * hardware needs to be configured.
+ *
+ * The fake robot has two hubs' worth of motors, an IMU, an OctoQuad whose flash already holds the
+ * desired configuration, and a color sensor whose flash does not.  The expected wall time is the
+ * longest lane, not the sum of all delays, and exactly one flash write should happen.
+ *
+ * A second run has a step that hangs past a short timeout, ignoring the interrupt, with another
+ * step queued behind it in the same lane.  The hung step should be reported TIMED_OUT and the other
+ * NOT_STARTED, and the report should still say so after the hung step finally returns.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Init Timing Check", group = "Utility")
+@Disabled
+public class UtilityInitTimingCheck extends LinearOpMode {
+
+    /** A stand-in device whose setup just takes time. */
+    static class FakeDevice {
+        final String name;
+        final long setupMs;
+        int storedConfig;
+        int flashWrites = 0;
+
+        FakeDevice(String name, long setupMs, int storedConfig) {
+            this.name = name;
+            this.setupMs = setupMs;
+            this.storedConfig = storedConfig;
+        }
+
+        void setup() throws InterruptedException {
+            Thread.sleep(setupMs);
+        }
+
+        void writeFlash(int config) throws InterruptedException {
+            Thread.sleep(setupMs);
+            storedConfig = config;
+            flashWrites++;
+        }
+    }
+
+    /** The outcome of one simulated init. */
+    public static class Result {
+        public InitReport report;
+        public long longestLaneMs;
+        public int flashWrites;
+        public InitReport timeoutReport;
+        public InitTask.Status hungStatus;
+        public InitTask.Status queuedStatus;
+        public boolean queuedRan;
+
+        public boolean passed() {
+            double wallMs = report.getWallNanos() / 1e6;
+            return report.isSuccess()
+                    && wallMs < longestLaneMs * 1.5
+                    && flashWrites == 1
+                    && hungStatus == InitTask.Status.TIMED_OUT
+                    && queuedStatus == InitTask.Status.NOT_STARTED
+                    && !queuedRan;
+        }
+    }
+
+    public static Result simulate() throws InterruptedException {
+        final int desiredConfig = 42;
+        final FakeDevice controlMotors   = new FakeDevice("control motors", 120, 0);
+        final FakeDevice expansionMotors = new FakeDevice("expansion motors", 120, 0);
+        final FakeDevice imu             = new FakeDevice("imu", 300, 0);
+        final FakeDevice octoquad        = new FakeDevice("octoquad", 250, desiredConfig);
+        final FakeDevice colorSensor     = new FakeDevice("color sensor", 80, 7);
+
+        InitOrchestrator init = new InitOrchestrator();
+        init.add("control motors", "Control Hub", setup(controlMotors));
+        init.add("expansion motors", "Expansion Hub", setup(expansionMotors));
+        init.add("imu", "Control Hub I2C 0", setup(imu));
+        init.add("imu yaw", "Control Hub I2C 0", setup(new FakeDevice("imu yaw", 20, 0)), "imu");
+        init.addConfigured("octoquad flash", "Expansion Hub I2C 1",
+                matches(octoquad, desiredConfig), flash(octoquad, desiredConfig));
+        init.addConfigured("color flash", "Expansion Hub I2C 2",
+                matches(colorSensor, desiredConfig), flash(colorSensor, desiredConfig));
+        init.add("color gain", "Expansion Hub I2C 2", setup(colorSensor), "color flash");
+
+        Result result = new Result();
+        result.report = init.run(5000);
+        // Control Hub I2C 0 is the longest lane: imu then imu yaw
+        result.longestLaneMs = imu.setupMs + 20;
+        result.flashWrites = octoquad.flashWrites + colorSensor.flashWrites;
+
+        // A step that overruns the timeout and won't be interrupted
+        final boolean[] queuedRan = new boolean[1];
+        InitOrchestrator hung = new InitOrchestrator();
+        hung.add("hung", "Control Hub", new InitTask.Step() {
+            @Override public void run() {
+                long end = System.nanoTime() + 300000000L;
+                while (System.nanoTime() < end) {
+                    Thread.yield();
+                }
+            }
+        });
+        hung.add("queued", "Control Hub", new InitTask.Step() {
+            @Override public void run() {
+                queuedRan[0] = true;
+            }
+        });
+        result.timeoutReport = hung.run(100);
+        // Let the hung step finish; the report must not change
+        Thread.sleep(400);
+        result.hungStatus = result.timeoutReport.getTasks().get(0).getStatus();
+        result.queuedStatus = result.timeoutReport.getTasks().get(1).getStatus();
+        result.queuedRan = queuedRan[0];
+        return result;
+    }
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        telemetry.addData(">", "Touch START to run the simulated init");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Expected wall time", "about %d ms", result.longestLaneMs);
+        telemetry.addData("Flash writes", "%d (expected 1)", result.flashWrites);
+        telemetry.addData("After timeout", "%s, %s (expected TIMED_OUT, NOT_STARTED)", result.hungStatus,
+                result.queuedStatus);
+        result.report.addTo(telemetry);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+
+    private static InitTask.Step setup(final FakeDevice device) {
+        return new InitTask.Step() {
+            @Override public void run() throws InterruptedException {
+                device.setup();
+            }
+        };
+    }
+
+    private static InitTask.Check matches(final FakeDevice device, final int config) {
+        return new InitTask.Check() {
+            @Override public boolean alreadyConfigured() {
+                return device.storedConfig == config;
+            }
+        };
+    }
+
+    private static InitTask.Step flash(final FakeDevice device, final int config) {
+        return new InitTask.Step() {
+            @Override public void run() throws InterruptedException {
+                device.writeFlash(config);
+            }
+        };
+    }
+}
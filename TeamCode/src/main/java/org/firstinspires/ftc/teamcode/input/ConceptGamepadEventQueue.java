@@ -0,0 +1,79 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+
+/*
+ * This OpMode illustrates handling gamepad input as a queue of timestamped events, and measuring
+ * how long it takes the robot to respond to a button press.
+ *
+ * A GamepadSampler thread watches gamepad1 and gamepad2 at 1 kHz and queues every press and
+ * release.  The OpMode loop below deliberately runs slowly (every 100 ms) to show that even very
+ * quick taps of the A button are all counted, where polling gamepad1.a once per loop misses most
+ * of them.
+ *
+ * Each A press toggles the "left_drive" motor, and the time from the packet arriving to the
+ * setPower() call is recorded by an InputLatencyTracker and shown on the Driver Station.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Gamepad Event Queue", group = "Concept")
+@Disabled
+public class ConceptGamepadEventQueue extends LinearOpMode {
+
+    @Override
+    public void runOpMode() {
+        DcMotor motor = hardwareMap.get(DcMotor.class, "left_drive");
+
+        GamepadSampler input = new GamepadSampler(gamepad1, gamepad2);
+        InputLatencyTracker latency = new InputLatencyTracker();
+        GamepadEvent event = new GamepadEvent();
+
+        input.start();
+
+        telemetry.addData(">", "Touch START, then tap A as quickly as you can");
+        telemetry.update();
+        waitForStart();
+
+        // Ignore anything pressed while waiting for START
+        input.clearEvents();
+
+        int queuedPresses = 0;
+        int polledPresses = 0;
+        boolean wasA = false;
+        boolean motorOn = false;
+
+        while (opModeIsActive()) {
+            while (input.poll(event)) {
+                if (event.isPress(0, GamepadButton.A)) {
+                    queuedPresses++;
+                    motorOn = !motorOn;
+                    motor.setPower(motorOn ? 0.3 : 0.0);
+                    latency.record(event.timestampNanos);
+                }
+            }
+
+            // The traditional approach, for comparison
+            if (gamepad1.a && !wasA) {
+                polledPresses++;
+            }
+            wasA = gamepad1.a;
+
+            telemetry.addData("A presses (event queue)", queuedPresses);
+            telemetry.addData("A presses (polled in loop)", polledPresses);
+            telemetry.addData("Left stick Y", "%.2f", input.getAxis(0, GamepadAxis.LEFT_STICK_Y));
+            telemetry.addData("Packets", input.getPacketCount(0));
+            telemetry.addData("Queue overflows", input.getQueue().getOverflowCount());
+            telemetry.addData("Press to setPower latency", latency.toString());
+            telemetry.update();
+
+            sleep(100);
+        }
+
+        input.stop();
+        motor.setPower(0);
+    }
+}
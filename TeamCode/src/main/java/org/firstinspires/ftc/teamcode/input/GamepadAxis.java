@@ -0,0 +1,33 @@
+package org.firstinspires.ftc.teamcode.input;
+
+/*
+ * The analog gamepad inputs, each quantized to a signed byte and packed into one 64-bit state word.
+ *
+ * Quantizing to 1/127 steps is finer than the resolution the Driver Station actually sends, and it
+ * lets a complete gamepad snapshot be published with two primitive writes (an int of buttons and a
+ * long of axes) rather than by copying a Gamepad object.
+ */
+public enum GamepadAxis {
+    LEFT_STICK_X, LEFT_STICK_Y, RIGHT_STICK_X, RIGHT_STICK_Y,
+    LEFT_TRIGGER, RIGHT_TRIGGER,
+    TOUCHPAD_FINGER_1_X, TOUCHPAD_FINGER_1_Y;
+
+    private final int shift = ordinal() * 8;
+
+    /** Extract this axis from a packed axes word, in the range -1 to 1. */
+    public float get(long axes) {
+        return ((byte) (axes >>> shift)) / 127f;
+    }
+
+    /** Return the packed axes word with this axis replaced by the given value. */
+    public long set(long axes, float value) {
+        long quantized = quantize(value) & 0xFFL;
+        return (axes & ~(0xFFL << shift)) | (quantized << shift);
+    }
+
+    static int quantize(float value) {
+        if (value > 1f) value = 1f;
+        if (value < -1f) value = -1f;
+        return Math.round(value * 127f);
+    }
+}
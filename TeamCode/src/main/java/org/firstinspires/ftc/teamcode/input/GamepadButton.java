@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.input;
+
+/*
+ * The digital gamepad inputs tracked by the input layer, each assigned one bit of a packed state
+ * word.  PlayStation aliases (cross, circle, ...) map onto the same bits as their Logitech/Xbox
+ * names, since the SDK keeps both sets of fields in sync.
+ *
+ * The triggers are analog, but are also given a bit here (pressed beyond TRIGGER_THRESHOLD) so that
+ * trigger pulls generate press/release events like any other button.
+ */
+public enum GamepadButton {
+    A, B, X, Y,
+    DPAD_UP, DPAD_DOWN, DPAD_LEFT, DPAD_RIGHT,
+    LEFT_BUMPER, RIGHT_BUMPER,
+    LEFT_STICK_BUTTON, RIGHT_STICK_BUTTON,
+    BACK, START, GUIDE,
+    TOUCHPAD, TOUCHPAD_FINGER_1, TOUCHPAD_FINGER_2,
+    LEFT_TRIGGER, RIGHT_TRIGGER;
+
+    public static final float TRIGGER_THRESHOLD = 0.5f;
+
+    private static final GamepadButton[] VALUES = values();
+
+    public final int mask = 1 << ordinal();
+
+    public boolean isSet(int buttons) {
+        return (buttons & mask) != 0;
+    }
+
+    /** Look up a button by ordinal without the allocation values() makes. */
+    public static GamepadButton fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,31 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import java.util.Locale;
+
+/*
+ * A single button press or release.  Instances are meant to be reused: GamepadEventQueue.poll()
+ * fills in a caller-owned event rather than returning a new one.
+ */
+public class GamepadEvent {
+
+    /** 0 for gamepad1, 1 for gamepad2. */
+    public int pad;
+    public GamepadButton button;
+    public boolean pressed;
+
+    /** System.nanoTime() at which the sampler first saw the packet carrying this change. */
+    public long timestampNanos;
+
+    public boolean isPress(int pad, GamepadButton button) {
+        return pressed && this.pad == pad && this.button == button;
+    }
+
+    public boolean isRelease(int pad, GamepadButton button) {
+        return !pressed && this.pad == pad && this.button == button;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "gamepad%d %s %s @%d", pad + 1, button, pressed ? "pressed" : "released", timestampNanos);
+    }
+}
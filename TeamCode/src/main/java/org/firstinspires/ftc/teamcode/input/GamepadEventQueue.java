@@ -0,0 +1,80 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A bounded, lock-free, single-producer / single-consumer ring buffer of gamepad events.
+ *
+ * Events are stored in parallel primitive arrays, so neither offering nor polling allocates.  The
+ * producer (the GamepadSampler thread) never waits: if the OpMode stops draining the queue and it
+ * fills up, new events are discarded and counted in getOverflowCount().
+ */
+public class GamepadEventQueue {
+
+    private final int mask;
+    private final long[] timestamps;
+    private final int[] codes;
+
+    private final AtomicLong head = new AtomicLong(0);  // next slot to read; written by the consumer
+    private final AtomicLong tail = new AtomicLong(0);  // next slot to write; written by the producer
+    private volatile long overflowCount = 0;
+
+    /** @param capacity maximum number of undelivered events; rounded up to a power of two */
+    public GamepadEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mask = size - 1;
+        timestamps = new long[size];
+        codes = new int[size];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Add an event.  Returns false if the queue was full.  Call from the producer thread only. */
+    public boolean offer(int pad, GamepadButton button, boolean pressed, long timestampNanos) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            overflowCount++;
+            return false;
+        }
+        int slot = (int) (t & mask);
+        timestamps[slot] = timestampNanos;
+        codes[slot] = encode(pad, button, pressed);
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Remove the oldest event into the given holder.  Returns false if there are none.  Call from the consumer thread only. */
+    public boolean poll(GamepadEvent into) {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int slot = (int) (h & mask);
+        int code = codes[slot];
+        into.timestampNanos = timestamps[slot];
+        into.pad = code >>> 16;
+        into.button = GamepadButton.fromOrdinal((code >>> 1) & 0x7FFF);
+        into.pressed = (code & 1) != 0;
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /** Discard all pending events.  Call from the consumer thread only. */
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    private static int encode(int pad, GamepadButton button, boolean pressed) {
+        return (pad << 16) | (button.ordinal() << 1) | (pressed ? 1 : 0);
+    }
+}
@@ -0,0 +1,24 @@
+package org.firstinspires.ftc.teamcode.input;
+
+/*
+ * A source of gamepad state for the GamepadSampler.
+ *
+ * LiveGamepadFeed reads the OpMode's gamepad1/gamepad2; SyntheticGamepadFeed is driven by code, so
+ * the sampler, event queue and latency tracker can be exercised without a Driver Station.
+ */
+public interface GamepadFeed {
+
+    int GAMEPAD_COUNT = 2;
+
+    /** The packed button word (see GamepadButton) for gamepad 0 or 1. */
+    int buttons(int pad);
+
+    /** The packed axes word (see GamepadAxis) for gamepad 0 or 1. */
+    long axes(int pad);
+
+    /**
+     * A value that changes every time a new packet for this gamepad is received, so the sampler can
+     * tell a fresh packet carrying the same state from no packet at all.
+     */
+    long packetStamp(int pad);
+}
@@ -0,0 +1,191 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Samples gamepad state on its own thread, independent of the OpMode loop, and turns every button
+ * change into a timestamped event.
+ *
+ * Polling gamepad booleans once per OpMode loop (as ConceptGamepadEdgeDetection does) cannot see a
+ * tap that starts and ends between two loop iterations.  The sampler polls at a much higher rate
+ * (1 kHz by default), well above the rate at which the Driver Station sends packets, so every
+ * packet's state is observed and every edge is queued with the time it arrived.
+ *
+ * The OpMode thread drains events with poll(), and can read the latest packed state words through
+ * getButtons()/getAxes() instead of reading the Gamepad fields directly:
+ *
+ *     GamepadSampler input = new GamepadSampler(gamepad1, gamepad2);
+ *     input.start();
+ *     GamepadEvent event = new GamepadEvent();
+ *     while (opModeIsActive()) {
+ *         while (input.poll(event)) {
+ *             if (event.isPress(0, GamepadButton.A)) { ... }
+ *         }
+ *     }
+ *     input.stop();
+ */
+public class GamepadSampler {
+
+    public static final long DEFAULT_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final GamepadFeed feed;
+    private final long periodNanos;
+    private final GamepadEventQueue queue;
+
+    private final int[] lastButtons = new int[GamepadFeed.GAMEPAD_COUNT];
+    private final long[] lastStamps = new long[GamepadFeed.GAMEPAD_COUNT];
+
+    // Published state, written only by the sampler thread
+    private volatile int buttons0, buttons1;
+    private volatile long axes0, axes1;
+    private volatile long packets0, packets1;
+    private volatile long packetNanos0, packetNanos1;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public GamepadSampler(Gamepad gamepad1, Gamepad gamepad2) {
+        this(new LiveGamepadFeed(gamepad1, gamepad2), DEFAULT_PERIOD_NANOS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public GamepadSampler(GamepadFeed feed, long periodNanos, int queueCapacity) {
+        this.feed = feed;
+        this.periodNanos = periodNanos;
+        this.queue = new GamepadEventQueue(queueCapacity);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        for (int pad = 0; pad < GamepadFeed.GAMEPAD_COUNT; pad++) {
+            // Buttons already held at start are treated as the baseline, not as new presses
+            lastButtons[pad] = feed.buttons(pad);
+            lastStamps[pad] = feed.packetStamp(pad);
+            publish(pad, lastButtons[pad], feed.axes(pad), System.nanoTime());
+        }
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override public void run() {
+                sampleLoop();
+            }
+        }, "GamepadSampler");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY + 1);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Take the oldest pending event.  Call from one consumer thread only, normally the OpMode thread. */
+    public boolean poll(GamepadEvent into) {
+        return queue.poll(into);
+    }
+
+    /** Drop any events that have not been polled yet, e.g. presses made during init. */
+    public void clearEvents() {
+        queue.clear();
+    }
+
+    public GamepadEventQueue getQueue() {
+        return queue;
+    }
+
+    /** The latest packed button word for gamepad 0 or 1. */
+    public int getButtons(int pad) {
+        return pad == 0 ? buttons0 : buttons1;
+    }
+
+    /** The latest packed axes word for gamepad 0 or 1. */
+    public long getAxes(int pad) {
+        return pad == 0 ? axes0 : axes1;
+    }
+
+    public boolean isDown(int pad, GamepadButton button) {
+        return button.isSet(getButtons(pad));
+    }
+
+    public float getAxis(int pad, GamepadAxis axis) {
+        return axis.get(getAxes(pad));
+    }
+
+    /** Number of distinct packets seen for gamepad 0 or 1. */
+    public long getPacketCount(int pad) {
+        return pad == 0 ? packets0 : packets1;
+    }
+
+    /** System.nanoTime() at which the most recent packet for gamepad 0 or 1 was seen. */
+    public long getLastPacketNanos(int pad) {
+        return pad == 0 ? packetNanos0 : packetNanos1;
+    }
+
+    private void sampleLoop() {
+        long next = System.nanoTime();
+        while (running) {
+            sampleOnce(System.nanoTime());
+
+            next += periodNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            } else {
+                // Fell behind (e.g. a GC pause); don't try to catch up with a burst of samples
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    /** Take one sample of both gamepads.  Called from the sampler thread, or directly when driving the sampler by hand. */
+    void sampleOnce(long nowNanos) {
+        for (int pad = 0; pad < GamepadFeed.GAMEPAD_COUNT; pad++) {
+            long stamp = feed.packetStamp(pad);
+            int buttons = feed.buttons(pad);
+            long axes = feed.axes(pad);
+            if (stamp == lastStamps[pad] && buttons == lastButtons[pad]) {
+                continue;
+            }
+            lastStamps[pad] = stamp;
+
+            int changed = buttons ^ lastButtons[pad];
+            while (changed != 0) {
+                int bit = Integer.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                queue.offer(pad, GamepadButton.fromOrdinal(bit), (buttons & (1 << bit)) != 0, nowNanos);
+            }
+            lastButtons[pad] = buttons;
+            publish(pad, buttons, axes, nowNanos);
+        }
+    }
+
+    private void publish(int pad, int buttons, long axes, long nowNanos) {
+        if (pad == 0) {
+            buttons0 = buttons;
+            axes0 = axes;
+            packetNanos0 = nowNanos;
+            packets0++;
+        } else {
+            buttons1 = buttons;
+            axes1 = axes;
+            packetNanos1 = nowNanos;
+            packets1++;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+ * Measures end-to-end latency from a gamepad packet arriving to the motor (or servo) command that
+ * responds to it.
+ *
+ * Call record() with the event's timestamp immediately after issuing the command the event caused.
+ * Samples go into a fixed histogram of 0.25 ms buckets up to 250 ms, so recording is a couple of
+ * array writes and percentiles can be read at any time without sorting or allocating.
+ *
+ * The measured interval starts when the sampler notices the packet, so it covers queueing, the
+ * OpMode loop and the command itself.  Time spent before that (Driver Station, Wi-Fi and the SDK's
+ * event loop) is not visible on the robot and is not included.
+ */
+public class InputLatencyTracker {
+
+    private static final long BUCKET_NANOS = 250_000L;
+    private static final int BUCKETS = 1000;
+
+    private final int[] histogram = new int[BUCKETS + 1];  // last bucket collects everything larger
+    private long count = 0;
+    private long totalNanos = 0;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos = 0;
+
+    /** Record one sample measured from eventNanos (a GamepadEvent timestamp) to now. */
+    public void record(long eventNanos) {
+        recordInterval(System.nanoTime() - eventNanos);
+    }
+
+    public void recordInterval(long latencyNanos) {
+        if (latencyNanos < 0) {
+            latencyNanos = 0;
+        }
+        int bucket = (int) Math.min(BUCKETS, latencyNanos / BUCKET_NANOS);
+        histogram[bucket]++;
+        count++;
+        totalNanos += latencyNanos;
+        if (latencyNanos < minNanos) minNanos = latencyNanos;
+        if (latencyNanos > maxNanos) maxNanos = latencyNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMs() {
+        return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    public double getMinMs() {
+        return count == 0 ? 0 : minNanos / 1e6;
+    }
+
+    public double getMaxMs() {
+        return maxNanos / 1e6;
+    }
+
+    /** The latency below which the given fraction (0 - 1) of samples fall, to bucket resolution. */
+    public double getPercentileMs(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return Math.min((i + 1) * BUCKET_NANOS, maxNanos) / 1e6;
+            }
+        }
+        return getMaxMs();
+    }
+
+    public void reset() {
+        Arrays.fill(histogram, 0);
+        count = 0;
+        totalNanos = 0;
+        minNanos = Long.MAX_VALUE;
+        maxNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "n=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                count, getMeanMs(), getPercentileMs(0.5), getPercentileMs(0.95), getPercentileMs(0.99), getMaxMs());
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/*
+ * Reads packed state straight from the OpMode's Gamepad objects.
+ *
+ * The SDK updates the Gamepad fields (which are volatile) from its event loop as packets arrive from
+ * the Driver Station, so they can safely be read from the sampler thread.
+ */
+public class LiveGamepadFeed implements GamepadFeed {
+
+    private final Gamepad[] gamepads;
+
+    public LiveGamepadFeed(Gamepad gamepad1, Gamepad gamepad2) {
+        this.gamepads = new Gamepad[] { gamepad1, gamepad2 };
+    }
+
+    @Override
+    public int buttons(int pad) {
+        return packButtons(gamepads[pad]);
+    }
+
+    @Override
+    public long axes(int pad) {
+        return packAxes(gamepads[pad]);
+    }
+
+    @Override
+    public long packetStamp(int pad) {
+        return gamepads[pad].timestamp;
+    }
+
+    public static int packButtons(Gamepad gamepad) {
+        int buttons = 0;
+        if (gamepad.a)                  buttons |= GamepadButton.A.mask;
+        if (gamepad.b)                  buttons |= GamepadButton.B.mask;
+        if (gamepad.x)                  buttons |= GamepadButton.X.mask;
+        if (gamepad.y)                  buttons |= GamepadButton.Y.mask;
+        if (gamepad.dpad_up)            buttons |= GamepadButton.DPAD_UP.mask;
+        if (gamepad.dpad_down)          buttons |= GamepadButton.DPAD_DOWN.mask;
+        if (gamepad.dpad_left)          buttons |= GamepadButton.DPAD_LEFT.mask;
+        if (gamepad.dpad_right)         buttons |= GamepadButton.DPAD_RIGHT.mask;
+        if (gamepad.left_bumper)        buttons |= GamepadButton.LEFT_BUMPER.mask;
+        if (gamepad.right_bumper)       buttons |= GamepadButton.RIGHT_BUMPER.mask;
+        if (gamepad.left_stick_button)  buttons |= GamepadButton.LEFT_STICK_BUTTON.mask;
+        if (gamepad.right_stick_button) buttons |= GamepadButton.RIGHT_STICK_BUTTON.mask;
+        if (gamepad.back)               buttons |= GamepadButton.BACK.mask;
+        if (gamepad.start)              buttons |= GamepadButton.START.mask;
+        if (gamepad.guide)              buttons |= GamepadButton.GUIDE.mask;
+        if (gamepad.touchpad)           buttons |= GamepadButton.TOUCHPAD.mask;
+        if (gamepad.touchpad_finger_1)  buttons |= GamepadButton.TOUCHPAD_FINGER_1.mask;
+        if (gamepad.touchpad_finger_2)  buttons |= GamepadButton.TOUCHPAD_FINGER_2.mask;
+        if (gamepad.left_trigger  > GamepadButton.TRIGGER_THRESHOLD) buttons |= GamepadButton.LEFT_TRIGGER.mask;
+        if (gamepad.right_trigger > GamepadButton.TRIGGER_THRESHOLD) buttons |= GamepadButton.RIGHT_TRIGGER.mask;
+        return buttons;
+    }
+
+    public static long packAxes(Gamepad gamepad) {
+        long axes = 0;
+        axes = GamepadAxis.LEFT_STICK_X.set(axes, gamepad.left_stick_x);
+        axes = GamepadAxis.LEFT_STICK_Y.set(axes, gamepad.left_stick_y);
+        axes = GamepadAxis.RIGHT_STICK_X.set(axes, gamepad.right_stick_x);
+        axes = GamepadAxis.RIGHT_STICK_Y.set(axes, gamepad.right_stick_y);
+        axes = GamepadAxis.LEFT_TRIGGER.set(axes, gamepad.left_trigger);
+        axes = GamepadAxis.RIGHT_TRIGGER.set(axes, gamepad.right_trigger);
+        axes = GamepadAxis.TOUCHPAD_FINGER_1_X.set(axes, gamepad.touchpad_finger_1_x);
+        axes = GamepadAxis.TOUCHPAD_FINGER_1_Y.set(axes, gamepad.touchpad_finger_1_y);
+        return axes;
+    }
+}
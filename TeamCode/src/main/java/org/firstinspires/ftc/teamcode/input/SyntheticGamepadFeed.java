@@ -0,0 +1,61 @@
+package org.firstinspires.ftc.teamcode.input;
+
+/*
+ * A GamepadFeed whose state is set by code instead of by the Driver Station.
+ *
+ * Use it to check the input layer off-robot, or to replay a scripted sequence of presses.  Every
+ * call to set() or tap() counts as a newly received packet.
+ */
+public class SyntheticGamepadFeed implements GamepadFeed {
+
+    private final int[] buttons = new int[GAMEPAD_COUNT];
+    private final long[] axes = new long[GAMEPAD_COUNT];
+    private final long[] stamps = new long[GAMEPAD_COUNT];
+
+    /** Replace the complete state of one gamepad. */
+    public synchronized void set(int pad, int buttons, long axes) {
+        this.buttons[pad] = buttons;
+        this.axes[pad] = axes;
+        stamps[pad]++;
+    }
+
+    public synchronized void press(int pad, GamepadButton button) {
+        set(pad, buttons[pad] | button.mask, axes[pad]);
+    }
+
+    public synchronized void release(int pad, GamepadButton button) {
+        set(pad, buttons[pad] & ~button.mask, axes[pad]);
+    }
+
+    public synchronized void setAxis(int pad, GamepadAxis axis, float value) {
+        set(pad, buttons[pad], axis.set(axes[pad], value));
+    }
+
+    /**
+     * Press and release a button, holding it for the given time.  With a hold shorter than the
+     * OpMode loop period, this is exactly the kind of tap that polling in the loop misses.
+     */
+    public void tap(int pad, GamepadButton button, long holdNanos) throws InterruptedException {
+        press(pad, button);
+        long end = System.nanoTime() + holdNanos;
+        while (System.nanoTime() < end) {
+            Thread.sleep(0, 100_000);
+        }
+        release(pad, button);
+    }
+
+    @Override
+    public synchronized int buttons(int pad) {
+        return buttons[pad];
+    }
+
+    @Override
+    public synchronized long axes(int pad) {
+        return axes[pad];
+    }
+
+    @Override
+    public synchronized long packetStamp(int pad) {
+        return stamps[pad];
+    }
+}
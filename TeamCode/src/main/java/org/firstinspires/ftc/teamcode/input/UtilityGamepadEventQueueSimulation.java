@@ -0,0 +1,171 @@
+package org.firstinspires.ftc.teamcode.input;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+/*
+ * This OpMode checks the gamepad input layer against scripted taps, with no Driver Station needed.
+ *
+ * A SyntheticGamepadFeed plays a script of short taps on both gamepads, each held for 3 ms, well
+ * under the 20 ms OpMode loop period.  A GamepadSampler samples it every millisecond, and a
+ * simulated OpMode loop drains the event queue every 20 ms and also polls the button word the way
+ * a loop reading gamepad fields would.  Every press and release should be queued, in order, stamped
+ * with the sample time at which it first appeared, while plain polling misses most of the taps.
+ *
+ * Two further checks: with a small queue that is never drained, events beyond its capacity are
+ * dropped and counted rather than blocking the sampler; and an InputLatencyTracker fed the
+ * latencies 1 ms to 100 ms reports the matching percentiles.
+ *
+ * Everything runs on a virtual clock, driving the sampler by hand rather than starting its
+ * thread, so the simulation completes instantly and every timestamp can be checked exactly.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Gamepad Event Queue Simulation", group = "Utility")
+@Disabled
+public class UtilityGamepadEventQueueSimulation extends LinearOpMode {
+
+    static final long SAMPLE_NANOS = 1000000;
+    static final long LOOP_NANOS = 20000000;
+    static final long HOLD_NANOS = 3000000;
+    static final long TAP_SPACING_NANOS = 37000000;
+    static final int TAPS = 40;
+    static final int SMALL_QUEUE = 16;
+    static final double PERCENTILE_TOLERANCE_MS = 0.25;
+
+    private static final GamepadButton[] SCRIPT_BUTTONS = {
+            GamepadButton.A, GamepadButton.B, GamepadButton.DPAD_UP, GamepadButton.RIGHT_BUMPER
+    };
+
+    public static class Result {
+        public int expectedEvents;
+        public int queuedEvents;
+        public int outOfOrder;
+        public int wrongTimestamps;
+        public int tapsSeenByPolling;
+        public int smallQueueQueued;
+        public long smallQueueOverflow;
+        public double p50Ms, p95Ms, p99Ms;
+
+        public boolean passed() {
+            return queuedEvents == expectedEvents && outOfOrder == 0 && wrongTimestamps == 0
+                    && tapsSeenByPolling < TAPS
+                    && smallQueueQueued == SMALL_QUEUE && smallQueueOverflow == 2L * TAPS - SMALL_QUEUE
+                    && Math.abs(p50Ms - 50) <= PERCENTILE_TOLERANCE_MS
+                    && Math.abs(p95Ms - 95) <= PERCENTILE_TOLERANCE_MS
+                    && Math.abs(p99Ms - 99) <= PERCENTILE_TOLERANCE_MS;
+        }
+    }
+
+    public static Result simulate() {
+        Result result = new Result();
+        result.expectedEvents = 2 * TAPS;
+
+        // Scripted taps, drained by a 20 ms loop
+        SyntheticGamepadFeed feed = new SyntheticGamepadFeed();
+        GamepadSampler sampler = new GamepadSampler(feed, SAMPLE_NANOS, 4 * TAPS);
+        GamepadEvent event = new GamepadEvent();
+        long end = TAPS * TAP_SPACING_NANOS + LOOP_NANOS;
+        int nextEvent = 0;
+        boolean[] seen = new boolean[TAPS];
+        for (long now = SAMPLE_NANOS; now <= end; now += SAMPLE_NANOS) {
+            applyScript(feed, now);
+            sampler.sampleOnce(now);
+
+            if (now % LOOP_NANOS == 0) {
+                while (sampler.poll(event)) {
+                    int tap = nextEvent / 2;
+                    boolean press = nextEvent % 2 == 0;
+                    if (tap >= TAPS || event.pad != tap % 2 || event.button != buttonFor(tap) || event.pressed != press) {
+                        result.outOfOrder++;
+                    } else if (event.timestampNanos != firstSampleAtOrAfter(tapStart(tap) + (press ? 0 : HOLD_NANOS))) {
+                        result.wrongTimestamps++;
+                    }
+                    nextEvent++;
+                    result.queuedEvents++;
+                }
+                // What a loop reading the gamepad fields directly would have noticed
+                for (int tap = 0; tap < TAPS; tap++) {
+                    if (sampler.isDown(tap % 2, buttonFor(tap)) && now >= tapStart(tap)
+                            && now < tapStart(tap) + HOLD_NANOS + SAMPLE_NANOS) {
+                        seen[tap] = true;
+                    }
+                }
+            }
+        }
+        for (boolean tapSeen : seen) {
+            if (tapSeen) {
+                result.tapsSeenByPolling++;
+            }
+        }
+
+        // The same taps into a small queue that nobody drains
+        SyntheticGamepadFeed floodFeed = new SyntheticGamepadFeed();
+        GamepadSampler flooded = new GamepadSampler(floodFeed, SAMPLE_NANOS, SMALL_QUEUE);
+        for (long now = SAMPLE_NANOS; now <= end; now += SAMPLE_NANOS) {
+            applyScript(floodFeed, now);
+            flooded.sampleOnce(now);
+        }
+        result.smallQueueQueued = flooded.getQueue().size();
+        result.smallQueueOverflow = flooded.getQueue().getOverflowCount();
+
+        // Percentiles of a known distribution
+        InputLatencyTracker tracker = new InputLatencyTracker();
+        for (int ms = 100; ms >= 1; ms--) {
+            tracker.recordInterval(ms * 1000000L);
+        }
+        result.p50Ms = tracker.getPercentileMs(0.50);
+        result.p95Ms = tracker.getPercentileMs(0.95);
+        result.p99Ms = tracker.getPercentileMs(0.99);
+        return result;
+    }
+
+    // Tap n is on gamepad n % 2, pressed at tapStart(n) and released HOLD_NANOS later
+    private static void applyScript(SyntheticGamepadFeed feed, long now) {
+        for (int tap = 0; tap < TAPS; tap++) {
+            long start = tapStart(tap);
+            if (now - SAMPLE_NANOS < start && now >= start) {
+                feed.press(tap % 2, buttonFor(tap));
+            }
+            if (now - SAMPLE_NANOS < start + HOLD_NANOS && now >= start + HOLD_NANOS) {
+                feed.release(tap % 2, buttonFor(tap));
+            }
+        }
+    }
+
+    private static long tapStart(int tap) {
+        // Offset so taps fall at varying points between loop iterations
+        return (tap + 1) * TAP_SPACING_NANOS + 500000;
+    }
+
+    private static GamepadButton buttonFor(int tap) {
+        return SCRIPT_BUTTONS[tap % SCRIPT_BUTTONS.length];
+    }
+
+    private static long firstSampleAtOrAfter(long nanos) {
+        return (nanos + SAMPLE_NANOS - 1) / SAMPLE_NANOS * SAMPLE_NANOS;
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the simulation");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Events queued", "%d of %d (%d out of order, %d mistimed)", result.queuedEvents,
+                result.expectedEvents, result.outOfOrder, result.wrongTimestamps);
+        telemetry.addData("Taps seen by polling", "%d of %d", result.tapsSeenByPolling, TAPS);
+        telemetry.addData("Small queue", "%d queued, %d dropped (capacity %d)", result.smallQueueQueued,
+                result.smallQueueOverflow, SMALL_QUEUE);
+        telemetry.addData("Latency percentiles", "p50 %.2f, p95 %.2f, p99 %.2f ms (expected 50, 95, 99)",
+                result.p50Ms, result.p95Ms, result.p99Ms);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
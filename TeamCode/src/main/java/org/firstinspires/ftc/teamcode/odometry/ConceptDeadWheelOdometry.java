@@ -0,0 +1,74 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+import java.util.List;
+
+/*
+ * This OpMode illustrates three-wheel dead-wheel odometry computed on the Robot Controller from
+ * hub encoder ports, with no Pinpoint or OctoQuad localizer.
+ *
+ * The odometry pods are plugged into the encoder ports of three motor ports, configured here as
+ * "odo_left", "odo_right" and "odo_perp" (they can share ports with drive motors).  The hubs are put
+ * in MANUAL bulk caching mode and the cache is cleared once per loop, so all three encoders come
+ * from a single bulk read per hub.
+ *
+ * To read the pods from an OctoQuad instead, replace the encoder source with
+ *     new OctoQuadEncoderSource(octoquad, ODO_LEFT, ODO_RIGHT, ODO_PERP)
+ *
+ * Measure the offsets with UtilityOdometryCalibration and enter them below.  Press gamepad1 A to
+ * reset the pose to the origin.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Dead Wheel Odometry", group = "Concept")
+@Disabled
+public class ConceptDeadWheelOdometry extends LinearOpMode {
+
+    // goBILDA 4-bar pod: 2000 ticks per revolution on a 32 mm wheel
+    private static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+    private static final double LEFT_OFFSET_MM = 168;
+    private static final double RIGHT_OFFSET_MM = -168;
+    private static final double PERP_OFFSET_MM = -84;
+
+    @Override
+    public void runOpMode() {
+        List<LynxModule> hubs = hardwareMap.getAll(LynxModule.class);
+        MotorEncoderSource.enableBulkCaching(hardwareMap);
+
+        MotorEncoderSource encoders = MotorEncoderSource.fromNames(hardwareMap, "odo_left", "odo_right", "odo_perp");
+        encoders.setReversed(0, true);   // Adjust so each pod counts up driving forward / strafing left
+
+        ThreeWheelOdometry odometry = new ThreeWheelOdometry(encoders, TICKS_PER_MM, DistanceUnit.MM,
+                LEFT_OFFSET_MM, RIGHT_OFFSET_MM, PERP_OFFSET_MM);
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        long loops = 0;
+        long start = System.nanoTime();
+        while (opModeIsActive()) {
+            for (LynxModule hub : hubs) {
+                hub.clearBulkCache();
+            }
+            odometry.update();
+            loops++;
+
+            if (gamepad1.aWasPressed()) {
+                odometry.setPose(0, 0, DistanceUnit.MM, 0, AngleUnit.DEGREES);
+            }
+
+            odometry.addTo(telemetry);
+            telemetry.addData("Loop", "%.1f ms average", (System.nanoTime() - start) / 1e6 / loops);
+            telemetry.update();
+        }
+    }
+}
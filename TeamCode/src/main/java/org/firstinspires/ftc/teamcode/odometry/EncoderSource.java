@@ -0,0 +1,19 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+/*
+ * Supplies raw encoder counts for the odometry wheels.
+ *
+ * Implementations must not allocate in read(): it is called on every loop.
+ */
+public interface EncoderSource {
+
+    /** Number of encoders this source reads. */
+    int size();
+
+    /**
+     * Copy the current count of every encoder into positions, in the order the encoders were given.
+     * Returns false if the read failed (e.g. a bad CRC), in which case positions is left untouched
+     * and the odometry skips the update.
+     */
+    boolean read(int[] positions);
+}
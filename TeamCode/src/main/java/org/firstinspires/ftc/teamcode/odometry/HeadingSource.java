@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+/*
+ * Supplies the robot's heading: counter-clockwise positive, in radians.
+ */
+public interface HeadingSource {
+    double getHeadingRadians();
+}
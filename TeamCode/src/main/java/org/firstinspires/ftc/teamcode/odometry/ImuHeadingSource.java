@@ -0,0 +1,22 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/*
+ * Heading from an initialized IMU's yaw.  Each read is an I2C transaction.
+ */
+public class ImuHeadingSource implements HeadingSource {
+
+    private final IMU imu;
+
+    public ImuHeadingSource(IMU imu) {
+        this.imu = imu;
+    }
+
+    @Override
+    public double getHeadingRadians() {
+        return imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
+    }
+}
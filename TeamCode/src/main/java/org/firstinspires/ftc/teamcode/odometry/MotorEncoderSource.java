@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+/*
+ * Reads odometry pods plugged into the encoder ports of a Control Hub or Expansion Hub.
+ *
+ * Each getCurrentPosition() is a separate command to the hub unless bulk caching is on, so put the
+ * hubs in bulk caching mode first.  enableBulkCaching() sets MANUAL mode; in that case call
+ * LynxModule.clearBulkCache() on every hub once at the top of each loop, before the odometry
+ * update.  In AUTO mode nothing else is needed, but reading the same encoder twice in one loop
+ * triggers a second bulk read.
+ *
+ * Encoder ports are often shared with drive motors, whose direction also flips the encoder count.
+ * Use setReversed() to fix the odometry sign without touching the motor's direction.
+ */
+public class MotorEncoderSource implements EncoderSource {
+
+    private final DcMotor[] motors;
+    private final int[] signs;
+
+    /** The motors (or motor ports) whose encoder ports hold the odometry pods. */
+    public MotorEncoderSource(DcMotor... motors) {
+        this.motors = motors;
+        this.signs = new int[motors.length];
+        for (int i = 0; i < signs.length; i++) {
+            signs[i] = 1;
+        }
+    }
+
+    /** Convenience: look the motors up by name in the hardware map. */
+    public static MotorEncoderSource fromNames(HardwareMap hardwareMap, String... names) {
+        DcMotor[] motors = new DcMotor[names.length];
+        for (int i = 0; i < names.length; i++) {
+            motors[i] = hardwareMap.get(DcMotor.class, names[i]);
+        }
+        return new MotorEncoderSource(motors);
+    }
+
+    /** Put every hub in MANUAL bulk caching mode.  The OpMode must then clear the caches each loop. */
+    public static void enableBulkCaching(HardwareMap hardwareMap) {
+        for (LynxModule hub : hardwareMap.getAll(LynxModule.class)) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+    }
+
+    public MotorEncoderSource setReversed(int index, boolean reversed) {
+        signs[index] = reversed ? -1 : 1;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return motors.length;
+    }
+
+    @Override
+    public boolean read(int[] positions) {
+        for (int i = 0; i < motors.length; i++) {
+            positions[i] = signs[i] * motors[i].getCurrentPosition();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.hardware.digitalchickenlabs.OctoQuad;
+
+/*
+ * Reads odometry pods plugged into an OctoQuad.
+ *
+ * All eight channels come back in one I2C transaction into a reused EncoderDataBlock, so there is
+ * no per-channel cost.  Set the encoder directions on the OctoQuad itself (see SensorOctoQuad).
+ * A block that fails its CRC is reported as a failed read, and the odometry skips that update
+ * rather than integrate a corrupted count.
+ */
+public class OctoQuadEncoderSource implements EncoderSource {
+
+    private final OctoQuad octoquad;
+    private final int[] channels;
+    private final OctoQuad.EncoderDataBlock block = new OctoQuad.EncoderDataBlock();
+
+    /** The OctoQuad channels holding the odometry pods, e.g. ODO_LEFT, ODO_RIGHT, ODO_PERP. */
+    public OctoQuadEncoderSource(OctoQuad octoquad, int... channels) {
+        this.octoquad = octoquad;
+        this.channels = channels;
+    }
+
+    @Override
+    public int size() {
+        return channels.length;
+    }
+
+    @Override
+    public boolean read(int[] positions) {
+        octoquad.readAllEncoderData(block);
+        if (!block.isDataValid()) {
+            return false;
+        }
+        for (int i = 0; i < channels.length; i++) {
+            positions[i] = block.positions[channels[i]];
+        }
+        return true;
+    }
+}
@@ -0,0 +1,193 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose2D;
+import org.firstinspires.ftc.teamcode.geometry.Pose2;
+
+/*
+ * Common state and integration for dead-wheel odometry.
+ *
+ * Subclasses turn encoder deltas into a robot-relative motion (forward, left, counter-clockwise
+ * rotation) and hand it to integrate(), which applies it to the field pose with the pose exponential:
+ * the robot is assumed to move along a constant-curvature arc during the update rather than a
+ * straight line, so the pose stays accurate while turning and driving at the same time.
+ *
+ * Distances are kept in millimeters and angles in radians internally, matching the Pinpoint and
+ * OctoQuad localizers.  Field X points forward from the starting pose, Y to the left.  State is held
+ * in primitive fields and update() does not allocate; getPose() does, so in the control loop use the
+ * unit getters or getPose(Pose2).
+ */
+public abstract class Odometry {
+
+    private static final double SMALL_ANGLE = 1e-6;
+
+    protected final EncoderSource encoders;
+    protected final int[] positions;
+    protected final int[] lastPositions;
+    private final int rolloverShift;
+
+    private double x;
+    private double y;
+    private double heading;
+    private double xVelocity;
+    private double yVelocity;
+    private double headingVelocity;
+    private long lastNanos = 0;
+    private boolean initialized = false;
+    private long updates = 0;
+    private long failedReads = 0;
+
+    /**
+     * @param counterBits width of the hardware counter, so deltas survive rollover; 32 for the hubs
+     *                    and the OctoQuad, 16 for encoders that wrap at 65536
+     */
+    protected Odometry(EncoderSource encoders, int counterBits) {
+        if (counterBits < 2 || counterBits > 32) {
+            throw new IllegalArgumentException("counter bits must be between 2 and 32");
+        }
+        this.encoders = encoders;
+        this.positions = new int[encoders.size()];
+        this.lastPositions = new int[encoders.size()];
+        this.rolloverShift = 32 - counterBits;
+    }
+
+    /** Read the encoders and advance the pose.  Call once per loop. */
+    public void update() {
+        update(System.nanoTime());
+    }
+
+    /** As update(), with an explicit timestamp, for driving odometry from a simulated clock. */
+    public void update(long nowNanos) {
+        if (!encoders.read(positions)) {
+            failedReads++;
+            return;
+        }
+        if (!initialized) {
+            System.arraycopy(positions, 0, lastPositions, 0, positions.length);
+            initialized = true;
+            lastNanos = nowNanos;
+            reset();
+            return;
+        }
+
+        double prevX = x;
+        double prevY = y;
+        double prevHeading = heading;
+        compute();
+        System.arraycopy(positions, 0, lastPositions, 0, positions.length);
+
+        double dt = (nowNanos - lastNanos) / 1e9;
+        lastNanos = nowNanos;
+        if (dt > 0) {
+            xVelocity = (x - prevX) / dt;
+            yVelocity = (y - prevY) / dt;
+            headingVelocity = AngleUnit.normalizeRadians(heading - prevHeading) / dt;
+        }
+        updates++;
+    }
+
+    /** Turn the change from lastPositions to positions into a call to integrate(). */
+    protected abstract void compute();
+
+    /** Called on the first successful read, e.g. to latch a starting IMU heading. */
+    protected void reset() {
+    }
+
+    /** The change in encoder i since the last update, correct across counter rollover. */
+    protected final int delta(int i) {
+        return ((positions[i] - lastPositions[i]) << rolloverShift) >> rolloverShift;
+    }
+
+    /**
+     * Apply a robot-relative motion.
+     *
+     * @param dForward mm moved forward
+     * @param dLeft    mm moved to the left
+     * @param dHeading radians turned counter-clockwise
+     */
+    protected final void integrate(double dForward, double dLeft, double dHeading) {
+        // Pose exponential: integrate the twist along a constant-curvature arc
+        double s;
+        double c;
+        if (Math.abs(dHeading) < SMALL_ANGLE) {
+            s = 1 - dHeading * dHeading / 6;
+            c = dHeading / 2;
+        } else {
+            s = Math.sin(dHeading) / dHeading;
+            c = (1 - Math.cos(dHeading)) / dHeading;
+        }
+        double forward = s * dForward - c * dLeft;
+        double left = c * dForward + s * dLeft;
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        x += forward * cos - left * sin;
+        y += forward * sin + left * cos;
+        heading = AngleUnit.normalizeRadians(heading + dHeading);
+    }
+
+    /** Set the current pose, e.g. to the known starting position on the field. */
+    public void setPose(double x, double y, DistanceUnit distanceUnit, double heading, AngleUnit angleUnit) {
+        this.x = distanceUnit.toMm(x);
+        this.y = distanceUnit.toMm(y);
+        this.heading = AngleUnit.normalizeRadians(angleUnit.toRadians(heading));
+    }
+
+    public void setPose(Pose2D pose) {
+        setPose(pose.getX(DistanceUnit.MM), pose.getY(DistanceUnit.MM), DistanceUnit.MM,
+                pose.getHeading(AngleUnit.RADIANS), AngleUnit.RADIANS);
+    }
+
+    public double getX(DistanceUnit unit) {
+        return unit.fromMm(x);
+    }
+
+    public double getY(DistanceUnit unit) {
+        return unit.fromMm(y);
+    }
+
+    public double getHeading(AngleUnit unit) {
+        return unit.fromRadians(heading);
+    }
+
+    /** Field-relative velocity over the last update. */
+    public double getXVelocity(DistanceUnit unit) {
+        return unit.fromMm(xVelocity);
+    }
+
+    public double getYVelocity(DistanceUnit unit) {
+        return unit.fromMm(yVelocity);
+    }
+
+    public double getHeadingVelocity(AngleUnit unit) {
+        return unit.fromRadians(headingVelocity);
+    }
+
+    /** The pose as an SDK Pose2D.  Allocates; use the getters in tight loops. */
+    public Pose2D getPose() {
+        return new Pose2D(DistanceUnit.MM, x, y, AngleUnit.RADIANS, heading);
+    }
+
+    /** Copy the pose into a reusable Pose2, in meters and radians, without allocating. */
+    public Pose2 getPose(Pose2 into) {
+        return into.set(x / 1000, y / 1000, heading);
+    }
+
+    public long getUpdateCount() {
+        return updates;
+    }
+
+    /** Number of updates skipped because the encoder read failed. */
+    public long getFailedReadCount() {
+        return failedReads;
+    }
+
+    public void addTo(Telemetry telemetry) {
+        telemetry.addData("Position", "X %.1f  Y %.1f in", getX(DistanceUnit.INCH), getY(DistanceUnit.INCH));
+        telemetry.addData("Heading", "%.1f deg", getHeading(AngleUnit.DEGREES));
+        telemetry.addData("Velocity", "X %.1f  Y %.1f in/s  %.1f deg/s",
+                getXVelocity(DistanceUnit.INCH), getYVelocity(DistanceUnit.INCH), getHeadingVelocity(AngleUnit.DEGREES));
+    }
+}
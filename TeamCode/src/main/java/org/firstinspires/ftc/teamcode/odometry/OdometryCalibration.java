@@ -0,0 +1,92 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * Measures odometry wheel offsets by turning the robot in place.
+ *
+ * When the robot spins about its center without translating, a parallel wheel at lateral offset o
+ * travels -o * turn and a perpendicular wheel at forward offset p travels p * turn.  Dividing each
+ * wheel's travel by the total turn, measured by the IMU, gives its offset directly; the track width
+ * of a three-wheel setup is the difference between the two parallel offsets.
+ *
+ * Turn several full revolutions: errors in the IMU heading and any drift of the center are divided
+ * by the total turn.  Small translations cancel out if the robot ends roughly where it started.
+ *
+ *     calibration.start();
+ *     while (turning) calibration.update();
+ *     double trackWidth = calibration.getOffset(0, DistanceUnit.MM) - calibration.getOffset(1, DistanceUnit.MM);
+ */
+public class OdometryCalibration {
+
+    public static final double MIN_TURNS = 3;
+
+    private final EncoderSource encoders;
+    private final HeadingSource headingSource;
+    private final double mmPerTick;
+    private final boolean[] perpendicular;
+    private final int[] startPositions;
+    private final int[] positions;
+    private double lastHeading;
+    private double totalTurn;
+
+    /**
+     * @param perpendicular for each encoder, in order, whether it is a perpendicular wheel
+     */
+    public OdometryCalibration(EncoderSource encoders, HeadingSource headingSource,
+                               double ticksPerMm, boolean... perpendicular) {
+        if (perpendicular.length != encoders.size()) {
+            throw new IllegalArgumentException("need one perpendicular flag per encoder");
+        }
+        this.encoders = encoders;
+        this.headingSource = headingSource;
+        this.mmPerTick = 1 / ticksPerMm;
+        this.perpendicular = perpendicular;
+        this.startPositions = new int[encoders.size()];
+        this.positions = new int[encoders.size()];
+    }
+
+    public void start() {
+        encoders.read(startPositions);
+        System.arraycopy(startPositions, 0, positions, 0, positions.length);
+        lastHeading = headingSource.getHeadingRadians();
+        totalTurn = 0;
+    }
+
+    /** Call every loop while the robot turns, fast enough that it turns less than half a revolution between calls. */
+    public void update() {
+        encoders.read(positions);
+        double heading = headingSource.getHeadingRadians();
+        totalTurn += AngleUnit.normalizeRadians(heading - lastHeading);
+        lastHeading = heading;
+    }
+
+    /** Total counter-clockwise turn since start(), unwrapped. */
+    public double getTotalTurn(AngleUnit unit) {
+        return unit.fromRadians(totalTurn);
+    }
+
+    public boolean hasEnoughTurn() {
+        return Math.abs(totalTurn) >= MIN_TURNS * 2 * Math.PI;
+    }
+
+    /** Distance wheel index has travelled since start(). */
+    public double getTravel(int index, DistanceUnit unit) {
+        // int subtraction wraps, so this is correct across a 32-bit rollover
+        return unit.fromMm((positions[index] - startPositions[index]) * mmPerTick);
+    }
+
+    /**
+     * The measured offset of wheel index: lateral (left positive) for a parallel wheel, forward for
+     * a perpendicular wheel.  NaN until the robot has turned.
+     */
+    public double getOffset(int index, DistanceUnit unit) {
+        if (totalTurn == 0) {
+            return Double.NaN;
+        }
+        double travel = getTravel(index, DistanceUnit.MM);
+        double offset = perpendicular[index] ? travel / totalTurn : -travel / totalTurn;
+        return unit.fromMm(offset);
+    }
+}
@@ -0,0 +1,71 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * Odometry from two parallel wheels and one perpendicular wheel.
+ *
+ * The encoder source must return the left, right and perpendicular wheel, in that order.  Each
+ * parallel wheel should count up when the robot drives forward, and the perpendicular wheel when it
+ * strafes left.  Offsets are measured from the robot's center of rotation:
+ *
+ *   - leftOffset:  how far the left wheel is to the left of center (positive)
+ *   - rightOffset: how far the right wheel is to the left of center (negative, it's on the right)
+ *   - perpOffset:  how far the perpendicular wheel is forward of center (negative if behind)
+ *
+ * UtilityOdometryCalibration measures all three by spinning the robot in place.
+ *
+ *     ThreeWheelOdometry odometry = new ThreeWheelOdometry(
+ *             new OctoQuadEncoderSource(octoquad, ODO_LEFT, ODO_RIGHT, ODO_PERP),
+ *             ThreeWheelOdometry.ticksPerMm(2000, 48), DistanceUnit.MM, 168, -168, -84);
+ */
+public class ThreeWheelOdometry extends Odometry {
+
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+    private static final int PERP = 2;
+
+    private final double mmPerTick;
+    private final double leftOffset;
+    private final double rightOffset;
+    private final double perpOffset;
+
+    public ThreeWheelOdometry(EncoderSource encoders, double ticksPerMm, DistanceUnit offsetUnit,
+                              double leftOffset, double rightOffset, double perpOffset) {
+        this(encoders, 32, ticksPerMm, offsetUnit, leftOffset, rightOffset, perpOffset);
+    }
+
+    public ThreeWheelOdometry(EncoderSource encoders, int counterBits, double ticksPerMm, DistanceUnit offsetUnit,
+                              double leftOffset, double rightOffset, double perpOffset) {
+        super(encoders, counterBits);
+        if (encoders.size() != 3) {
+            throw new IllegalArgumentException("three-wheel odometry needs exactly 3 encoders, got " + encoders.size());
+        }
+        this.mmPerTick = 1 / ticksPerMm;
+        this.leftOffset = offsetUnit.toMm(leftOffset);
+        this.rightOffset = offsetUnit.toMm(rightOffset);
+        this.perpOffset = offsetUnit.toMm(perpOffset);
+        if (this.leftOffset <= this.rightOffset) {
+            throw new IllegalArgumentException("the left wheel must be to the left of the right wheel");
+        }
+    }
+
+    /** Encoder ticks per millimeter of travel for a wheel of the given diameter. */
+    public static double ticksPerMm(double ticksPerRevolution, double wheelDiameterMm) {
+        return ticksPerRevolution / (Math.PI * wheelDiameterMm);
+    }
+
+    @Override
+    protected void compute() {
+        double dLeft = delta(LEFT) * mmPerTick;
+        double dRight = delta(RIGHT) * mmPerTick;
+        double dPerp = delta(PERP) * mmPerTick;
+
+        // A parallel wheel at lateral offset o reads forward - o * dHeading;
+        // the perpendicular wheel at forward offset p reads left + p * dHeading
+        double dHeading = (dRight - dLeft) / (leftOffset - rightOffset);
+        double dForward = (dLeft * -rightOffset + dRight * leftOffset) / (leftOffset - rightOffset);
+        double dStrafe = dPerp - perpOffset * dHeading;
+        integrate(dForward, dStrafe, dHeading);
+    }
+}
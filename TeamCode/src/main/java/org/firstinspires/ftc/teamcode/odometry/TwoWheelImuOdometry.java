@@ -0,0 +1,63 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * Odometry from one parallel wheel, one perpendicular wheel and the IMU's heading.
+ *
+ * The encoder source must return the parallel wheel, then the perpendicular wheel.  The parallel
+ * wheel should count up when the robot drives forward, the perpendicular wheel when it strafes
+ * left.  Offsets are measured from the robot's center of rotation:
+ *
+ *   - parallelOffset: how far the parallel wheel is to the left of center (negative if right)
+ *   - perpOffset:     how far the perpendicular wheel is forward of center (negative if behind)
+ *
+ * Heading comes from the IMU instead of a second parallel wheel, so it doesn't drift with wheel
+ * slip, but each IMU read is an I2C transaction and allocates inside the SDK.  The encoder side of
+ * the update does not allocate.
+ */
+public class TwoWheelImuOdometry extends Odometry {
+
+    private static final int PARALLEL = 0;
+    private static final int PERP = 1;
+
+    private final HeadingSource headingSource;
+    private final double mmPerTick;
+    private final double parallelOffset;
+    private final double perpOffset;
+    private double lastImuHeading;
+
+    public TwoWheelImuOdometry(EncoderSource encoders, HeadingSource headingSource, double ticksPerMm,
+                               DistanceUnit offsetUnit, double parallelOffset, double perpOffset) {
+        this(encoders, 32, headingSource, ticksPerMm, offsetUnit, parallelOffset, perpOffset);
+    }
+
+    public TwoWheelImuOdometry(EncoderSource encoders, int counterBits, HeadingSource headingSource, double ticksPerMm,
+                               DistanceUnit offsetUnit, double parallelOffset, double perpOffset) {
+        super(encoders, counterBits);
+        if (encoders.size() != 2) {
+            throw new IllegalArgumentException("two-wheel odometry needs exactly 2 encoders, got " + encoders.size());
+        }
+        this.headingSource = headingSource;
+        this.mmPerTick = 1 / ticksPerMm;
+        this.parallelOffset = offsetUnit.toMm(parallelOffset);
+        this.perpOffset = offsetUnit.toMm(perpOffset);
+    }
+
+    @Override
+    protected void reset() {
+        lastImuHeading = headingSource.getHeadingRadians();
+    }
+
+    @Override
+    protected void compute() {
+        double imuHeading = headingSource.getHeadingRadians();
+        double dHeading = AngleUnit.normalizeRadians(imuHeading - lastImuHeading);
+        lastImuHeading = imuHeading;
+
+        double dParallel = delta(PARALLEL) * mmPerTick;
+        double dPerp = delta(PERP) * mmPerTick;
+        integrate(dParallel + parallelOffset * dHeading, dPerp - perpOffset * dHeading, dHeading);
+    }
+}
@@ -0,0 +1,89 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+import java.util.List;
+
+/*
+ * This OpMode measures the offsets of three odometry pods, for ThreeWheelOdometry.
+ *
+ * Configure the pods as in ConceptDeadWheelOdometry, and the IMU as "imu" with the hub orientation
+ * set below.  After START, turn the robot in place, either by hand or with a drive OpMode's
+ * controls, at least OdometryCalibration.MIN_TURNS full turns, keeping its center as still as you
+ * can.  Then press gamepad1 A.  The measured offsets and track width are shown; copy them into
+ * your odometry setup.  Press B to start over.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Odometry Calibration", group = "Utility")
+@Disabled
+public class UtilityOdometryCalibration extends LinearOpMode {
+
+    private static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+
+    @Override
+    public void runOpMode() {
+        List<LynxModule> hubs = hardwareMap.getAll(LynxModule.class);
+        MotorEncoderSource.enableBulkCaching(hardwareMap);
+        MotorEncoderSource encoders = MotorEncoderSource.fromNames(hardwareMap, "odo_left", "odo_right", "odo_perp");
+        encoders.setReversed(0, true);   // Must match the setup in your odometry OpMode
+
+        IMU imu = hardwareMap.get(IMU.class, "imu");
+        imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(
+                RevHubOrientationOnRobot.LogoFacingDirection.UP,
+                RevHubOrientationOnRobot.UsbFacingDirection.FORWARD)));
+
+        OdometryCalibration calibration = new OdometryCalibration(encoders, new ImuHeadingSource(imu),
+                TICKS_PER_MM, false, false, true);
+
+        telemetry.addData(">", "Touch START, then turn the robot in place");
+        telemetry.update();
+        waitForStart();
+
+        clearCaches(hubs);
+        calibration.start();
+        boolean done = false;
+        while (opModeIsActive()) {
+            if (!done) {
+                clearCaches(hubs);
+                calibration.update();
+                if (gamepad1.aWasPressed()) {
+                    done = true;
+                }
+            } else if (gamepad1.bWasPressed()) {
+                clearCaches(hubs);
+                calibration.start();
+                done = false;
+            }
+
+            double turns = calibration.getTotalTurn(AngleUnit.DEGREES) / 360;
+            telemetry.addData("Turned", "%.2f turns%s", turns, calibration.hasEnoughTurn() ? "" : " (keep turning)");
+            if (done) {
+                double left = calibration.getOffset(0, DistanceUnit.MM);
+                double right = calibration.getOffset(1, DistanceUnit.MM);
+                telemetry.addData("Left offset", "%.1f mm", left);
+                telemetry.addData("Right offset", "%.1f mm", right);
+                telemetry.addData("Perp offset", "%.1f mm", calibration.getOffset(2, DistanceUnit.MM));
+                telemetry.addData("Track width", "%.1f mm", left - right);
+                telemetry.addData(">", "Press B to measure again");
+            } else {
+                telemetry.addData(">", "Press A when done turning");
+            }
+            telemetry.update();
+        }
+    }
+
+    private static void clearCaches(List<LynxModule> hubs) {
+        for (LynxModule hub : hubs) {
+            hub.clearBulkCache();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.firstinspires.ftc.teamcode.odometry;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+
+/*
+ * This OpMode checks ThreeWheelOdometry, TwoWheelImuOdometry and OdometryCalibration against
+ * simulated wheel paths, so no robot hardware needs to be configured.
+ *
+ * A simulated mecanum robot drives a path that mixes straight runs, arcs, and strafing while
+ * turning.  The true pose is integrated in fine substeps; the odometry wheels see only the
+ * resulting encoder counts, quantized to whole ticks and started just below the 32-bit rollover
+ * point so every counter wraps during the run.  The odometry runs at a 5 ms loop, and its final
+ * pose is compared with the truth.  The calibration routine is then checked by spinning the robot
+ * in place and comparing the measured wheel offsets with the simulated ones.  Finally, the update
+ * cost is timed.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Odometry Simulation", group = "Utility")
+@Disabled
+public class UtilityOdometrySimulation extends LinearOpMode {
+
+    static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+    static final double LEFT_OFFSET = 170;
+    static final double RIGHT_OFFSET = -165;
+    static final double PERP_OFFSET = -90;
+    static final long LOOP_NANOS = 5000000;
+    static final int SUBSTEPS = 50;
+    static final int START_COUNT = Integer.MAX_VALUE - 20000;
+
+    static final double MAX_POSITION_ERROR_MM = 5;
+    static final double MAX_HEADING_ERROR_DEG = 0.5;
+    static final double MAX_OFFSET_ERROR_MM = 1;
+    static final double MAX_UPDATE_MICROS = 20;
+
+    /** A simulated robot with three odometry wheels, exposing their counts as an EncoderSource. */
+    static class SimulatedRobot {
+        // True pose, mm and radians
+        double x, y, heading;
+        // Exact wheel travel in ticks; counts are these rounded to whole ticks
+        double left, right, perp;
+
+        /** Move for dt seconds at a robot-relative velocity, in fine constant-twist substeps. */
+        void drive(double forward, double strafe, double turn, double dt) {
+            double h = dt / SUBSTEPS;
+            for (int i = 0; i < SUBSTEPS; i++) {
+                double df = forward * h;
+                double dl = strafe * h;
+                double dh = turn * h;
+                left += (df - LEFT_OFFSET * dh) * TICKS_PER_MM;
+                right += (df - RIGHT_OFFSET * dh) * TICKS_PER_MM;
+                perp += (dl + PERP_OFFSET * dh) * TICKS_PER_MM;
+
+                // Exact arc for a constant twist over the substep
+                double s = Math.abs(dh) < 1e-9 ? 1 : Math.sin(dh) / dh;
+                double c = Math.abs(dh) < 1e-9 ? 0 : (1 - Math.cos(dh)) / dh;
+                double fx = s * df - c * dl;
+                double fy = c * df + s * dl;
+                x += fx * Math.cos(heading) - fy * Math.sin(heading);
+                y += fx * Math.sin(heading) + fy * Math.cos(heading);
+                heading += dh;
+            }
+        }
+
+        int count(double travel) {
+            // Wraps exactly as a 32-bit hardware counter would
+            return (int) ((long) START_COUNT + Math.round(travel));
+        }
+
+        EncoderSource threeWheels() {
+            return new EncoderSource() {
+                @Override public int size() {
+                    return 3;
+                }
+
+                @Override public boolean read(int[] positions) {
+                    positions[0] = count(left);
+                    positions[1] = count(right);
+                    positions[2] = count(perp);
+                    return true;
+                }
+            };
+        }
+
+        EncoderSource twoWheels() {
+            return new EncoderSource() {
+                @Override public int size() {
+                    return 2;
+                }
+
+                @Override public boolean read(int[] positions) {
+                    positions[0] = count(left);
+                    positions[1] = count(perp);
+                    return true;
+                }
+            };
+        }
+
+        HeadingSource imu() {
+            return new HeadingSource() {
+                @Override public double getHeadingRadians() {
+                    return AngleUnit.normalizeRadians(heading);
+                }
+            };
+        }
+    }
+
+    /** The outcome of one simulated run. */
+    public static class Result {
+        public double pathLengthMm;
+        public double threeWheelErrorMm;
+        public double threeWheelHeadingErrorDeg;
+        public double twoWheelErrorMm;
+        public double twoWheelHeadingErrorDeg;
+        public double leftOffsetErrorMm;
+        public double rightOffsetErrorMm;
+        public double perpOffsetErrorMm;
+        public double microsPerUpdate;
+
+        public boolean passed() {
+            return threeWheelErrorMm < MAX_POSITION_ERROR_MM
+                    && threeWheelHeadingErrorDeg < MAX_HEADING_ERROR_DEG
+                    && twoWheelErrorMm < MAX_POSITION_ERROR_MM
+                    && twoWheelHeadingErrorDeg < MAX_HEADING_ERROR_DEG
+                    && leftOffsetErrorMm < MAX_OFFSET_ERROR_MM
+                    && rightOffsetErrorMm < MAX_OFFSET_ERROR_MM
+                    && perpOffsetErrorMm < MAX_OFFSET_ERROR_MM
+                    && microsPerUpdate < MAX_UPDATE_MICROS;
+        }
+    }
+
+    // Each segment: seconds, forward mm/s, strafe mm/s, turn rad/s
+    private static final double[][] PATH = {
+            {1.5, 1200, 0, 0},
+            {2.0, 900, 0, 1.6},
+            {1.0, 0, 800, 0},
+            {2.5, 600, 400, -2.2},
+            {1.5, -1000, 0, 0.8},
+            {3.0, 300, -700, 3.0},
+            {1.0, 0, 0, -4.0},
+            {2.0, 1100, 200, 0.4},
+    };
+
+    public static Result simulate() {
+        Result result = new Result();
+        SimulatedRobot robot = new SimulatedRobot();
+        ThreeWheelOdometry three = new ThreeWheelOdometry(robot.threeWheels(), TICKS_PER_MM, DistanceUnit.MM,
+                LEFT_OFFSET, RIGHT_OFFSET, PERP_OFFSET);
+        TwoWheelImuOdometry two = new TwoWheelImuOdometry(robot.twoWheels(), robot.imu(), TICKS_PER_MM, DistanceUnit.MM,
+                LEFT_OFFSET, PERP_OFFSET);
+
+        long now = 0;
+        three.update(now);
+        two.update(now);
+        double dt = LOOP_NANOS / 1e9;
+        for (double[] segment : PATH) {
+            int loops = (int) Math.round(segment[0] / dt);
+            for (int i = 0; i < loops; i++) {
+                robot.drive(segment[1], segment[2], segment[3], dt);
+                now += LOOP_NANOS;
+                three.update(now);
+                two.update(now);
+            }
+            result.pathLengthMm += segment[0] * Math.hypot(segment[1], segment[2]);
+        }
+        result.threeWheelErrorMm = positionError(three, robot);
+        result.threeWheelHeadingErrorDeg = headingError(three, robot);
+        result.twoWheelErrorMm = positionError(two, robot);
+        result.twoWheelHeadingErrorDeg = headingError(two, robot);
+
+        // Calibration: spin in place for five turns, wobbling the center a little
+        SimulatedRobot spinner = new SimulatedRobot();
+        OdometryCalibration calibration = new OdometryCalibration(spinner.threeWheels(), spinner.imu(),
+                TICKS_PER_MM, false, false, true);
+        calibration.start();
+        int spinLoops = (int) Math.round(5 * 2 * Math.PI / 3.0 / dt);
+        for (int i = 0; i < spinLoops; i++) {
+            double wobble = 30 * Math.sin(2 * Math.PI * i / spinLoops);
+            spinner.drive(wobble, 0, 3.0, dt);
+            calibration.update();
+        }
+        result.leftOffsetErrorMm = Math.abs(calibration.getOffset(0, DistanceUnit.MM) - LEFT_OFFSET);
+        result.rightOffsetErrorMm = Math.abs(calibration.getOffset(1, DistanceUnit.MM) - RIGHT_OFFSET);
+        result.perpOffsetErrorMm = Math.abs(calibration.getOffset(2, DistanceUnit.MM) - PERP_OFFSET);
+
+        result.microsPerUpdate = timeUpdates(robot);
+        return result;
+    }
+
+    private static double timeUpdates(SimulatedRobot robot) {
+        ThreeWheelOdometry odometry = new ThreeWheelOdometry(robot.threeWheels(), TICKS_PER_MM, DistanceUnit.MM,
+                LEFT_OFFSET, RIGHT_OFFSET, PERP_OFFSET);
+        int updates = 200000;
+        long start = 0;
+        for (int i = 0; i < 2 * updates; i++) {
+            if (i == updates) {
+                // The first half is warmup
+                start = System.nanoTime();
+            }
+            robot.left += 7;
+            robot.right += 9;
+            robot.perp -= 3;
+            odometry.update(i * LOOP_NANOS);
+        }
+        return (System.nanoTime() - start) / 1e3 / updates;
+    }
+
+    private static double positionError(Odometry odometry, SimulatedRobot robot) {
+        return Math.hypot(odometry.getX(DistanceUnit.MM) - robot.x, odometry.getY(DistanceUnit.MM) - robot.y);
+    }
+
+    private static double headingError(Odometry odometry, SimulatedRobot robot) {
+        return Math.abs(Math.toDegrees(AngleUnit.normalizeRadians(odometry.getHeading(AngleUnit.RADIANS) - robot.heading)));
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the simulation");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Path length", "%.0f mm", result.pathLengthMm);
+        telemetry.addData("Three-wheel error", "%.2f mm, %.3f deg", result.threeWheelErrorMm, result.threeWheelHeadingErrorDeg);
+        telemetry.addData("Two-wheel + IMU error", "%.2f mm, %.3f deg", result.twoWheelErrorMm, result.twoWheelHeadingErrorDeg);
+        telemetry.addData("Calibration error", "left %.2f, right %.2f, perp %.2f mm",
+                result.leftOffsetErrorMm, result.rightOffsetErrorMm, result.perpOffsetErrorMm);
+        telemetry.addData("Update cost", "%.2f us", result.microsPerUpdate);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.util.Range;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.geometry.Vector2;
+import org.firstinspires.ftc.teamcode.odometry.MotorEncoderSource;
+import org.firstinspires.ftc.teamcode.odometry.ThreeWheelOdometry;
+
+import java.util.List;
+
+/*
+ * This OpMode illustrates driving a mecanum robot across the field along a planned path, replanning
+ * around obstacles as they are seen.
+ *
+ * The field is modeled as an OccupancyGrid with the center structure as a static obstacle.  The
+ * robot tracks its pose with three-wheel odometry, as in ConceptDeadWheelOdometry, and follows the
+ * planned Path by steering toward a point a short distance ahead of its closest point on the path,
+ * holding its heading.  A distance sensor on the front of the robot stands in for vision: whenever
+ * it sees something closer than 50 cm, an obstacle the size of a robot is added to the grid at
+ * that spot and the path is replanned from the current pose.  Replanning takes a few milliseconds,
+ * so it is done right in the loop.
+ *
+ * The start pose and goal are in meters, in the SDK's field coordinates.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@Autonomous(name = "Concept: Path Planner", group = "Concept")
+@Disabled
+public class ConceptPathPlanner extends LinearOpMode {
+
+    private static final double START_X = -1.2;
+    private static final double START_Y = -1.2;
+    private static final double GOAL_X = 1.2;
+    private static final double GOAL_Y = 1.2;
+
+    private static final double CLEARANCE = 0.26;      // Half the robot's width plus a margin
+    private static final double OBSTACLE_RADIUS = 0.23;
+    private static final double SEEN_WITHIN = 0.5;
+    private static final double LOOKAHEAD = 0.2;
+    private static final double DRIVE_GAIN = 3.0;      // Power per meter of error
+    private static final double TURN_GAIN = 2.0;       // Power per radian of error
+    private static final double MAX_POWER = 0.6;
+    private static final double ARRIVED = 0.03;
+
+    // See ConceptDeadWheelOdometry
+    private static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+
+    private DcMotor leftFront, rightFront, leftBack, rightBack;
+
+    @Override
+    public void runOpMode() {
+        leftFront = hardwareMap.get(DcMotor.class, "left_front_drive");
+        rightFront = hardwareMap.get(DcMotor.class, "right_front_drive");
+        leftBack = hardwareMap.get(DcMotor.class, "left_back_drive");
+        rightBack = hardwareMap.get(DcMotor.class, "right_back_drive");
+        leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
+        leftBack.setDirection(DcMotorSimple.Direction.REVERSE);
+        DistanceSensor distanceSensor = hardwareMap.get(DistanceSensor.class, "sensor_distance");
+
+        List<LynxModule> hubs = hardwareMap.getAll(LynxModule.class);
+        MotorEncoderSource.enableBulkCaching(hardwareMap);
+        ThreeWheelOdometry odometry = new ThreeWheelOdometry(
+                MotorEncoderSource.fromNames(hardwareMap, "odo_left", "odo_right", "odo_perp"),
+                TICKS_PER_MM, DistanceUnit.MM, 168, -168, -84);
+        odometry.setPose(START_X, START_Y, DistanceUnit.METER, 0, AngleUnit.RADIANS);
+
+        // Build the field model and plan once during init
+        OccupancyGrid field = OccupancyGrid.ftcField(0.05);
+        field.addStaticRectangle(-0.6, -0.4, 0.6, 0.4);
+        field.precompute();
+        PathPlanner planner = new PathPlanner(field).setClearance(CLEARANCE);
+        Path path = new Path();
+        PathPlanner.Status status = planner.plan(START_X, START_Y, GOAL_X, GOAL_Y, path);
+
+        telemetry.addData("Plan", "%s in %.1f ms, %.2f m", status, planner.getLastPlanMs(), path.getLength());
+        telemetry.addData(">", "Touch START to drive to the goal");
+        telemetry.update();
+        waitForStart();
+
+        Vector2 target = new Vector2();
+        int replans = 0;
+        while (opModeIsActive()) {
+            for (LynxModule hub : hubs) {
+                hub.clearBulkCache();
+            }
+            odometry.update();
+            double x = odometry.getX(DistanceUnit.METER);
+            double y = odometry.getY(DistanceUnit.METER);
+            double heading = odometry.getHeading(AngleUnit.RADIANS);
+
+            // Anything close in front of the robot becomes an obstacle, and the path is replanned
+            double seen = distanceSensor.getDistance(DistanceUnit.METER);
+            if (seen < SEEN_WITHIN) {
+                double reach = seen + OBSTACLE_RADIUS;
+                field.addCircle(x + reach * Math.cos(heading), y + reach * Math.sin(heading), OBSTACLE_RADIUS);
+                status = planner.plan(x, y, GOAL_X, GOAL_Y, path);
+                replans++;
+            }
+
+            if (status != PathPlanner.Status.FOUND || Math.hypot(GOAL_X - x, GOAL_Y - y) < ARRIVED) {
+                drive(0, 0, 0);
+            } else {
+                // Steer toward a point just ahead of the closest point on the path
+                double s = path.nearest(x, y);
+                path.pointAt(Math.min(path.getLength(), s + LOOKAHEAD), target);
+                double dx = target.x - x;
+                double dy = target.y - y;
+                double forward = dx * Math.cos(heading) + dy * Math.sin(heading);
+                double left = -dx * Math.sin(heading) + dy * Math.cos(heading);
+                double turn = AngleUnit.normalizeRadians(0 - heading);
+                drive(DRIVE_GAIN * forward, DRIVE_GAIN * left, TURN_GAIN * turn);
+            }
+
+            telemetry.addData("Plan", "%s in %.1f ms, %d replans", status, planner.getLastPlanMs(), replans);
+            telemetry.addData("Path", "%.2f of %.2f m", path.nearest(x, y), path.getLength());
+            odometry.addTo(telemetry);
+            telemetry.update();
+        }
+        drive(0, 0, 0);
+    }
+
+    // Robot-relative mecanum drive, scaled so no wheel exceeds MAX_POWER
+    private void drive(double forward, double left, double turn) {
+        double lf = forward - left - turn;
+        double rf = forward + left + turn;
+        double lb = forward + left - turn;
+        double rb = forward - left + turn;
+        double max = Math.max(Math.max(Math.abs(lf), Math.abs(rf)), Math.max(Math.abs(lb), Math.abs(rb)));
+        double scale = max > MAX_POWER ? MAX_POWER / max : 1;
+        leftFront.setPower(Range.clip(lf * scale, -1, 1));
+        rightFront.setPower(Range.clip(rf * scale, -1, 1));
+        leftBack.setPower(Range.clip(lb * scale, -1, 1));
+        rightBack.setPower(Range.clip(rb * scale, -1, 1));
+    }
+}
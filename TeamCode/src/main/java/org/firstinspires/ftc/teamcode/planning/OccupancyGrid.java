@@ -0,0 +1,339 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+/*
+ * A field model for path planning: a grid of square cells, each holding the distance from its center
+ * to the nearest obstacle or field wall.
+ *
+ * Obstacles come in two layers.  Static obstacles (field elements that never move) are added once
+ * during init, after which precompute() runs an exact Euclidean distance transform over the whole
+ * grid.  Dynamic obstacles (other robots, game pieces, anything seen by vision during the match) are
+ * stamped into a copy of that field: each one only updates the cells within getInfluence() of it, so
+ * adding one costs a few hundred cell updates, and clearDynamic() restores the static field with a
+ * single array copy.
+ *
+ * Planning then never looks at obstacles directly.  A robot approximated by a disc of radius r can
+ * stand in any cell whose distance is at least r, and a straight line is drivable if every point on
+ * it is, which isSegmentClear() checks by stepping along the line by the free distance at each point.
+ *
+ * Coordinates are in meters.  Distances are accurate to about half a cell, and are capped at the
+ * influence distance, so a clearance must not exceed it.
+ */
+public class OccupancyGrid {
+
+    /** The side of a square FTC field, in meters. */
+    public static final double FTC_FIELD_SIZE = 3.6576;
+    public static final double DEFAULT_INFLUENCE = 0.6;
+
+    private static final double FAR = 1e12;
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final double influence;
+
+    private final boolean[] staticOccupied;
+    private final float[] staticDistance;
+    private final float[] distance;
+    private boolean staticDirty = true;
+    private int dynamicCount = 0;
+    private long version = 0;
+
+    // Distance transform scratch space, allocated once
+    private final double[] squared;
+    private final double[] lineIn;
+    private final double[] lineOut;
+    private final int[] hullVertex;
+    private final double[] hullBoundary;
+
+    /**
+     * @param minX      the field's lower X edge, meters
+     * @param minY      the field's lower Y edge, meters
+     * @param influence how far from an obstacle distances are tracked, meters; at least the largest
+     *                  clearance that will be planned with
+     */
+    public OccupancyGrid(double minX, double minY, double width, double height, double cellSize, double influence) {
+        if (cellSize <= 0 || width < cellSize || height < cellSize) {
+            throw new IllegalArgumentException("the field must be at least one cell in each direction");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize - 1e-9);
+        this.rows = (int) Math.ceil(height / cellSize - 1e-9);
+        this.influence = influence;
+
+        int cells = columns * rows;
+        staticOccupied = new boolean[cells];
+        staticDistance = new float[cells];
+        distance = new float[cells];
+        squared = new double[cells];
+        int longest = Math.max(columns, rows);
+        lineIn = new double[longest];
+        lineOut = new double[longest];
+        hullVertex = new int[longest];
+        hullBoundary = new double[longest + 1];
+    }
+
+    /** A full FTC field centered on the origin, as in the SDK's field coordinate system. */
+    public static OccupancyGrid ftcField(double cellSize) {
+        return new OccupancyGrid(-FTC_FIELD_SIZE / 2, -FTC_FIELD_SIZE / 2, FTC_FIELD_SIZE, FTC_FIELD_SIZE,
+                cellSize, DEFAULT_INFLUENCE);
+    }
+
+    // ---- Static obstacles ------------------------------------------------------------------------
+
+    /** Mark every cell whose center lies in the rectangle as a static obstacle. */
+    public void addStaticRectangle(double x0, double y0, double x1, double y1) {
+        int c0 = Math.max(0, column(Math.min(x0, x1)));
+        int c1 = Math.min(columns - 1, column(Math.max(x0, x1)));
+        int r0 = Math.max(0, row(Math.min(y0, y1)));
+        int r1 = Math.min(rows - 1, row(Math.max(y0, y1)));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                staticOccupied[r * columns + c] = true;
+            }
+        }
+        staticDirty = true;
+    }
+
+    /** Mark every cell whose center lies in the circle as a static obstacle. */
+    public void addStaticCircle(double x, double y, double radius) {
+        int c0 = Math.max(0, column(x - radius));
+        int c1 = Math.min(columns - 1, column(x + radius));
+        int r0 = Math.max(0, row(y - radius));
+        int r1 = Math.min(rows - 1, row(y + radius));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                double dx = centerX(c) - x;
+                double dy = centerY(r) - y;
+                if (dx * dx + dy * dy <= radius * radius) {
+                    staticOccupied[r * columns + c] = true;
+                }
+            }
+        }
+        staticDirty = true;
+    }
+
+    /**
+     * Compute the static distance field.  Call once during init, after adding the static obstacles;
+     * it is also run on demand if they have changed.  Clears the dynamic obstacles.
+     */
+    public void precompute() {
+        // Exact squared Euclidean distance transform, in cells (Felzenszwalb and Huttenlocher):
+        // a 1D transform down every column, then along every row of the result
+        for (int c = 0; c < columns; c++) {
+            for (int r = 0; r < rows; r++) {
+                lineIn[r] = staticOccupied[r * columns + c] ? 0 : FAR;
+            }
+            transform(rows);
+            for (int r = 0; r < rows; r++) {
+                squared[r * columns + c] = lineOut[r];
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(squared, r * columns, lineIn, 0, columns);
+            transform(columns);
+            for (int c = 0; c < columns; c++) {
+                int i = r * columns + c;
+                // From the center of this cell to the edge of the nearest occupied one
+                double d = staticOccupied[i] ? 0 : Math.max(0, (Math.sqrt(lineOut[c]) - 0.5) * cellSize);
+                double wall = Math.min(Math.min(centerX(c) - minX, minX + columns * cellSize - centerX(c)),
+                        Math.min(centerY(r) - minY, minY + rows * cellSize - centerY(r)));
+                staticDistance[i] = (float) Math.min(influence, Math.min(d, wall));
+            }
+        }
+        staticDirty = false;
+        clearDynamic();
+    }
+
+    // One lower envelope of parabolas over lineIn[0..n), into lineOut
+    private void transform(int n) {
+        int k = 0;
+        hullVertex[0] = 0;
+        hullBoundary[0] = -FAR;
+        hullBoundary[1] = FAR;
+        for (int q = 1; q < n; q++) {
+            double s = intersection(q, hullVertex[k]);
+            // Intersections are always above -FAR, so this stops at k == 0
+            while (s <= hullBoundary[k]) {
+                k--;
+                s = intersection(q, hullVertex[k]);
+            }
+            k++;
+            hullVertex[k] = q;
+            hullBoundary[k] = s;
+            hullBoundary[k + 1] = FAR;
+        }
+        k = 0;
+        for (int q = 0; q < n; q++) {
+            while (hullBoundary[k + 1] < q) {
+                k++;
+            }
+            int v = hullVertex[k];
+            lineOut[q] = (double) (q - v) * (q - v) + lineIn[v];
+        }
+    }
+
+    // Where the parabolas rooted at q and v cross
+    private double intersection(int q, int v) {
+        return ((lineIn[q] + (double) q * q) - (lineIn[v] + (double) v * v)) / (2.0 * (q - v));
+    }
+
+    // ---- Dynamic obstacles -----------------------------------------------------------------------
+
+    /** Add a round obstacle, such as another robot, for the rest of this plan or until clearDynamic(). */
+    public void addCircle(double x, double y, double radius) {
+        ensurePrecomputed();
+        double reach = radius + influence;
+        int c0 = Math.max(0, column(x - reach));
+        int c1 = Math.min(columns - 1, column(x + reach));
+        int r0 = Math.max(0, row(y - reach));
+        int r1 = Math.min(rows - 1, row(y + reach));
+        for (int r = r0; r <= r1; r++) {
+            double dy = centerY(r) - y;
+            int base = r * columns;
+            for (int c = c0; c <= c1; c++) {
+                double dx = centerX(c) - x;
+                double d = Math.sqrt(dx * dx + dy * dy) - radius;
+                lower(base + c, d);
+            }
+        }
+        dynamicCount++;
+        version++;
+    }
+
+    /** Add an axis-aligned rectangular obstacle. */
+    public void addRectangle(double x0, double y0, double x1, double y1) {
+        ensurePrecomputed();
+        double left = Math.min(x0, x1);
+        double right = Math.max(x0, x1);
+        double bottom = Math.min(y0, y1);
+        double top = Math.max(y0, y1);
+        int c0 = Math.max(0, column(left - influence));
+        int c1 = Math.min(columns - 1, column(right + influence));
+        int r0 = Math.max(0, row(bottom - influence));
+        int r1 = Math.min(rows - 1, row(top + influence));
+        for (int r = r0; r <= r1; r++) {
+            double cy = centerY(r);
+            double dy = Math.max(0, Math.max(bottom - cy, cy - top));
+            int base = r * columns;
+            for (int c = c0; c <= c1; c++) {
+                double cx = centerX(c);
+                double dx = Math.max(0, Math.max(left - cx, cx - right));
+                lower(base + c, Math.sqrt(dx * dx + dy * dy));
+            }
+        }
+        dynamicCount++;
+        version++;
+    }
+
+    private void lower(int i, double d) {
+        if (d < distance[i]) {
+            distance[i] = (float) Math.max(0, d);
+        }
+    }
+
+    /** Remove every dynamic obstacle, leaving only the static field. */
+    public void clearDynamic() {
+        ensurePrecomputed();
+        System.arraycopy(staticDistance, 0, distance, 0, distance.length);
+        dynamicCount = 0;
+        version++;
+    }
+
+    void ensurePrecomputed() {
+        if (staticDirty) {
+            precompute();
+        }
+    }
+
+    // ---- Queries ---------------------------------------------------------------------------------
+
+    /** Distance from (x, y) to the nearest obstacle or wall, capped at the influence distance; 0 off the field. */
+    public double getDistance(double x, double y) {
+        ensurePrecomputed();
+        int c = column(x);
+        int r = row(y);
+        if (c < 0 || c >= columns || r < 0 || r >= rows) {
+            return 0;
+        }
+        return distance[r * columns + c];
+    }
+
+    /** True if a disc of the given radius centered at (x, y) touches no obstacle. */
+    public boolean isClear(double x, double y, double clearance) {
+        return getDistance(x, y) >= clearance;
+    }
+
+    /** True if a disc of the given radius can move along the straight line from (x0, y0) to (x1, y1). */
+    public boolean isSegmentClear(double x0, double y0, double x1, double y1, double clearance) {
+        ensurePrecomputed();
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double length = Math.sqrt(dx * dx + dy * dy);
+        double minStep = cellSize * 0.5;
+        double t = 0;
+        while (true) {
+            double x = x0 + dx * (length > 0 ? t / length : 0);
+            double y = y0 + dy * (length > 0 ? t / length : 0);
+            double free = getDistance(x, y) - clearance;
+            if (free < 0) {
+                return false;
+            }
+            if (t >= length) {
+                return true;
+            }
+            // Nothing is closer than free, so it is safe to skip ahead that far
+            t = Math.min(length, t + Math.max(minStep, free));
+        }
+    }
+
+    /** Changes every time an obstacle is added or cleared, so planners can tell when to replan. */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getDynamicCount() {
+        return dynamicCount;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public double getInfluence() {
+        return influence;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int column(double x) {
+        return (int) Math.floor((x - minX) / cellSize);
+    }
+
+    public int row(double y) {
+        return (int) Math.floor((y - minY) / cellSize);
+    }
+
+    public double centerX(int column) {
+        return minX + (column + 0.5) * cellSize;
+    }
+
+    public double centerY(int row) {
+        return minY + (row + 0.5) * cellSize;
+    }
+
+    /** The distance field, indexed row * getColumns() + column; for planners in this package. */
+    float[] distances() {
+        ensurePrecomputed();
+        return distance;
+    }
+}
@@ -0,0 +1,245 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+import org.firstinspires.ftc.teamcode.geometry.Vector2;
+
+import java.util.Arrays;
+
+/*
+ * A planned path: a chain of straight lines and circular arcs, each starting where the previous
+ * one ends and leaving in the same direction, so a follower can drive it without stopping at the
+ * corners.
+ *
+ * Positions along the path are given by arc length s, in meters from the start.  pointAt(),
+ * headingAt() and curvatureAt() evaluate the path there, and nearest() projects the robot's
+ * position onto it, which is what a pure pursuit or feedforward follower needs each loop.
+ *
+ * The segments are stored in parallel primitive arrays that are reused from plan to plan, so
+ * replanning into the same Path does not allocate unless it needs more segments than ever before.
+ * The waypoints are the corners the segments were built from, for display.
+ */
+public class Path {
+
+    private static final int LINE = 0;
+    private static final int ARC = 1;
+
+    private int count = 0;
+    private int[] type;
+    private double[] startS;
+    private double[] length;
+    // Lines: start point and unit direction.  Arcs: center, radius, start angle and signed sweep.
+    private double[] a;
+    private double[] b;
+    private double[] c;
+    private double[] d;
+    private double[] e;
+
+    private int waypointCount = 0;
+    private double[] waypointX;
+    private double[] waypointY;
+
+    public Path() {
+        this(32);
+    }
+
+    public Path(int capacity) {
+        capacity = Math.max(2, capacity);
+        type = new int[capacity];
+        startS = new double[capacity];
+        length = new double[capacity];
+        a = new double[capacity];
+        b = new double[capacity];
+        c = new double[capacity];
+        d = new double[capacity];
+        e = new double[capacity];
+        waypointX = new double[capacity];
+        waypointY = new double[capacity];
+    }
+
+    public void clear() {
+        count = 0;
+        waypointCount = 0;
+    }
+
+    void addWaypoint(double x, double y) {
+        if (waypointCount == waypointX.length) {
+            waypointX = Arrays.copyOf(waypointX, waypointCount * 2);
+            waypointY = Arrays.copyOf(waypointY, waypointCount * 2);
+        }
+        waypointX[waypointCount] = x;
+        waypointY[waypointCount] = y;
+        waypointCount++;
+    }
+
+    void addLine(double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double len = Math.sqrt(dx * dx + dy * dy);
+        if (len < 1e-9) {
+            return;
+        }
+        int i = append(LINE, len);
+        a[i] = x0;
+        b[i] = y0;
+        c[i] = dx / len;
+        d[i] = dy / len;
+    }
+
+    /** An arc around (centerX, centerY), from startAngle through sweep radians (positive is counter-clockwise). */
+    void addArc(double centerX, double centerY, double radius, double startAngle, double sweep) {
+        double len = Math.abs(sweep) * radius;
+        if (len < 1e-9) {
+            return;
+        }
+        int i = append(ARC, len);
+        a[i] = centerX;
+        b[i] = centerY;
+        c[i] = radius;
+        d[i] = startAngle;
+        e[i] = sweep;
+    }
+
+    private int append(int segmentType, double segmentLength) {
+        if (count == type.length) {
+            int capacity = count * 2;
+            type = Arrays.copyOf(type, capacity);
+            startS = Arrays.copyOf(startS, capacity);
+            length = Arrays.copyOf(length, capacity);
+            a = Arrays.copyOf(a, capacity);
+            b = Arrays.copyOf(b, capacity);
+            c = Arrays.copyOf(c, capacity);
+            d = Arrays.copyOf(d, capacity);
+            e = Arrays.copyOf(e, capacity);
+        }
+        int i = count++;
+        type[i] = segmentType;
+        length[i] = segmentLength;
+        startS[i] = i == 0 ? 0 : startS[i - 1] + length[i - 1];
+        return i;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** Total length in meters. */
+    public double getLength() {
+        return count == 0 ? 0 : startS[count - 1] + length[count - 1];
+    }
+
+    public int getSegmentCount() {
+        return count;
+    }
+
+    public boolean isArc(int segment) {
+        return type[segment] == ARC;
+    }
+
+    public double getSegmentLength(int segment) {
+        return length[segment];
+    }
+
+    public int getWaypointCount() {
+        return waypointCount;
+    }
+
+    public double getWaypointX(int i) {
+        return waypointX[i];
+    }
+
+    public double getWaypointY(int i) {
+        return waypointY[i];
+    }
+
+    /** The point s meters along the path, clamped to its ends. */
+    public Vector2 pointAt(double s, Vector2 into) {
+        if (count == 0) {
+            return into.set(0, 0);
+        }
+        int i = segmentAt(s);
+        double u = clamp(s - startS[i], 0, length[i]);
+        if (type[i] == LINE) {
+            return into.set(a[i] + c[i] * u, b[i] + d[i] * u);
+        }
+        double angle = d[i] + Math.signum(e[i]) * u / c[i];
+        return into.set(a[i] + c[i] * Math.cos(angle), b[i] + c[i] * Math.sin(angle));
+    }
+
+    /** The direction of travel s meters along the path, in radians counter-clockwise from +X. */
+    public double headingAt(double s) {
+        if (count == 0) {
+            return 0;
+        }
+        int i = segmentAt(s);
+        if (type[i] == LINE) {
+            return Math.atan2(d[i], c[i]);
+        }
+        double sign = Math.signum(e[i]);
+        double angle = d[i] + sign * clamp(s - startS[i], 0, length[i]) / c[i];
+        return angle + sign * Math.PI / 2;
+    }
+
+    /** Signed curvature s meters along the path, 1/meters, positive turning left. */
+    public double curvatureAt(double s) {
+        if (count == 0) {
+            return 0;
+        }
+        int i = segmentAt(s);
+        return type[i] == LINE ? 0 : Math.signum(e[i]) / c[i];
+    }
+
+    /** The arc length of the point on the path closest to (x, y). */
+    public double nearest(double x, double y) {
+        double bestS = 0;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            double u;
+            double px;
+            double py;
+            if (type[i] == LINE) {
+                u = clamp((x - a[i]) * c[i] + (y - b[i]) * d[i], 0, length[i]);
+                px = a[i] + c[i] * u;
+                py = b[i] + d[i] * u;
+            } else {
+                // Angle from the start of the arc, measured in the direction of travel
+                double sign = Math.signum(e[i]);
+                double turned = sign * (Math.atan2(y - b[i], x - a[i]) - d[i]);
+                turned -= 2 * Math.PI * Math.floor(turned / (2 * Math.PI));
+                double sweep = Math.abs(e[i]);
+                if (turned > sweep) {
+                    // Past the end: snap to whichever end is closer in angle
+                    turned = turned - sweep < 2 * Math.PI - turned ? sweep : 0;
+                }
+                u = turned * c[i];
+                double angle = d[i] + sign * turned;
+                px = a[i] + c[i] * Math.cos(angle);
+                py = b[i] + c[i] * Math.sin(angle);
+            }
+            double dx = x - px;
+            double dy = y - py;
+            double distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestS = startS[i] + u;
+            }
+        }
+        return bestS;
+    }
+
+    private int segmentAt(double s) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (startS[mid] <= s) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private static double clamp(double v, double min, double max) {
+        return v < min ? min : (v > max ? max : v);
+    }
+}
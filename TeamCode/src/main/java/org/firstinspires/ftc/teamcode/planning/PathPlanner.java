@@ -0,0 +1,398 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+import java.util.Arrays;
+
+/*
+ * Plans collision-free paths across an OccupancyGrid.
+ *
+ * Two searches are available.  A_STAR, the default, is classic A* over the 8-connected grid.
+ * THETA_STAR is Lazy Theta*, which lets each cell take any earlier cell in clear line of sight as
+ * its parent, so paths run at any angle instead of in 45 degree steps.  Once smoothed, A* paths are
+ * usually within a few percent of Theta* ones, and the line of sight checks make Theta* two to
+ * four times slower, so prefer it only where the extra length matters.  Either way the result is
+ * smoothed by a PathSmoother into lines and arcs.
+ *
+ *     OccupancyGrid field = OccupancyGrid.ftcField(0.05);
+ *     field.addStaticRectangle(-0.6, -0.35, 0.6, 0.35);   // the center structure
+ *     field.precompute();
+ *     PathPlanner planner = new PathPlanner(field).setClearance(0.25);
+ *     Path path = new Path();
+ *     ...
+ *     field.clearDynamic();
+ *     field.addCircle(otherRobotX, otherRobotY, 0.23);     // e.g. from vision, every loop
+ *     if (planner.plan(x, y, goalX, goalY, path) != PathPlanner.Status.FOUND) { ... }
+ *
+ * The robot is treated as a disc of radius clearance, and cells closer than that to an obstacle are
+ * blocked.  All search state lives in primitive arrays sized to the grid and allocated once; a
+ * generation counter marks which entries belong to the current search, so nothing is cleared
+ * between plans and planning does not allocate.  A planner is not thread safe; give each thread
+ * its own, sharing the grid only while no obstacles are being added.
+ */
+public class PathPlanner {
+
+    public enum Mode {
+        A_STAR,
+        THETA_STAR
+    }
+
+    public enum Status {
+        FOUND,
+        NO_PATH,
+        START_BLOCKED,
+        GOAL_BLOCKED,
+        OUT_OF_BOUNDS
+    }
+
+    private static final double SQRT2 = Math.sqrt(2);
+    // Slightly prefers cells nearer the goal among equal-cost ones, which saves many expansions
+    private static final double TIE_BREAK = 1 + 1e-3;
+    private static final int[] DX = {1, 0, -1, 0, 1, -1, -1, 1};
+    private static final int[] DY = {0, 1, 0, -1, 1, 1, -1, -1};
+
+    private final OccupancyGrid grid;
+    private final PathSmoother smoother;
+    private final int columns;
+    private final int rows;
+
+    private Mode mode = Mode.A_STAR;
+    private double clearance = 0.25;
+
+    // Per-cell search state, valid where seen[cell] == generation
+    private final float[] cost;
+    private final int[] parent;
+    private final int[] seen;
+    private final int[] closed;
+    private final int[] heapIndex;
+    private int generation = 0;
+
+    // Binary min-heap of open cells
+    private final int[] heap;
+    private final float[] heapKey;
+    private int heapSize;
+
+    // The cell chain of the last plan, in meters, start first
+    private final double[] chainX;
+    private final double[] chainY;
+
+    private Status lastStatus = Status.NO_PATH;
+    private int lastExpanded = 0;
+    private long lastPlanNanos = 0;
+
+    public PathPlanner(OccupancyGrid grid) {
+        this.grid = grid;
+        this.columns = grid.getColumns();
+        this.rows = grid.getRows();
+        int cells = columns * rows;
+        cost = new float[cells];
+        parent = new int[cells];
+        seen = new int[cells];
+        closed = new int[cells];
+        heapIndex = new int[cells];
+        heap = new int[cells];
+        heapKey = new float[cells];
+        chainX = new double[cells + 2];
+        chainY = new double[cells + 2];
+        smoother = new PathSmoother(grid, cells + 2);
+    }
+
+    public PathPlanner setMode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /** The robot's radius plus any safety margin, in meters.  At most the grid's influence distance. */
+    public PathPlanner setClearance(double meters) {
+        if (meters > grid.getInfluence()) {
+            throw new IllegalArgumentException("clearance exceeds the grid's influence distance");
+        }
+        this.clearance = meters;
+        return this;
+    }
+
+    /** The largest radius used to round corners, in meters; 0 leaves every corner sharp. */
+    public PathPlanner setMaxTurnRadius(double meters) {
+        smoother.setMaxRadius(meters);
+        return this;
+    }
+
+    /**
+     * Plan from (startX, startY) to (goalX, goalY), in meters, into path.  If the robot has been
+     * pushed closer to an obstacle than the clearance, the path first leads it out to the nearest
+     * clear cell.  On anything but FOUND, path is left empty.
+     */
+    public Status plan(double startX, double startY, double goalX, double goalY, Path path) {
+        long begin = System.nanoTime();
+        path.clear();
+        lastExpanded = 0;
+        lastStatus = search(startX, startY, goalX, goalY, path);
+        lastPlanNanos = System.nanoTime() - begin;
+        return lastStatus;
+    }
+
+    public Status getLastStatus() {
+        return lastStatus;
+    }
+
+    /** Cells expanded by the last search, a measure of how hard it was. */
+    public int getLastExpanded() {
+        return lastExpanded;
+    }
+
+    /** Time taken by the last plan(), including smoothing. */
+    public double getLastPlanMs() {
+        return lastPlanNanos / 1e6;
+    }
+
+    private Status search(double startX, double startY, double goalX, double goalY, Path path) {
+        float[] distance = grid.distances();
+        int startColumn = grid.column(startX);
+        int startRow = grid.row(startY);
+        int goalColumn = grid.column(goalX);
+        int goalRow = grid.row(goalY);
+        if (!inBounds(startColumn, startRow) || !inBounds(goalColumn, goalRow)) {
+            return Status.OUT_OF_BOUNDS;
+        }
+        int goal = goalRow * columns + goalColumn;
+        if (distance[goal] < clearance) {
+            return Status.GOAL_BLOCKED;
+        }
+        int start = startRow * columns + startColumn;
+        if (distance[start] < clearance) {
+            start = nearestClear(startColumn, startRow, distance);
+            if (start < 0) {
+                return Status.START_BLOCKED;
+            }
+        }
+
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        boolean theta = mode == Mode.THETA_STAR;
+        heapSize = 0;
+        seen[start] = generation;
+        cost[start] = 0;
+        parent[start] = start;
+        push(start, (float) heuristic(start, goal, theta));
+
+        while (heapSize > 0) {
+            int cell = pop();
+            closed[cell] = generation;
+            lastExpanded++;
+            if (theta && parent[cell] != cell && !lineOfSight(parent[cell], cell)) {
+                repairParent(cell, distance);
+            }
+            if (cell == goal) {
+                buildChain(startX, startY, start, goal, goalX, goalY, path);
+                return Status.FOUND;
+            }
+
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int k = 0; k < 8; k++) {
+                int nc = column + DX[k];
+                int nr = row + DY[k];
+                if (!inBounds(nc, nr)) {
+                    continue;
+                }
+                int next = nr * columns + nc;
+                if (distance[next] < clearance || closed[next] == generation) {
+                    continue;
+                }
+                if (k >= 4 && (distance[row * columns + nc] < clearance || distance[nr * columns + column] < clearance)) {
+                    // Don't cut the corner of a blocked cell
+                    continue;
+                }
+                int from;
+                float candidate;
+                if (theta) {
+                    // Lazy Theta*: assume the grandparent can see the neighbor, check on expansion
+                    from = parent[cell];
+                    candidate = (float) (cost[from] + cells(from, next));
+                } else {
+                    from = cell;
+                    candidate = (float) (cost[cell] + (k < 4 ? 1 : SQRT2));
+                }
+                if (seen[next] != generation) {
+                    seen[next] = generation;
+                    cost[next] = candidate;
+                    parent[next] = from;
+                    push(next, (float) (candidate + heuristic(next, goal, theta)));
+                } else if (candidate < cost[next]) {
+                    cost[next] = candidate;
+                    parent[next] = from;
+                    decrease(next, (float) (candidate + heuristic(next, goal, theta)));
+                }
+            }
+        }
+        return Status.NO_PATH;
+    }
+
+    // The parent assumed when this cell was queued can't see it; take the best expanded neighbor
+    private void repairParent(int cell, float[] distance) {
+        int column = cell % columns;
+        int row = cell / columns;
+        float best = Float.MAX_VALUE;
+        for (int k = 0; k < 8; k++) {
+            int nc = column + DX[k];
+            int nr = row + DY[k];
+            if (!inBounds(nc, nr)) {
+                continue;
+            }
+            int neighbor = nr * columns + nc;
+            if (closed[neighbor] != generation || distance[neighbor] < clearance) {
+                continue;
+            }
+            float candidate = (float) (cost[neighbor] + (k < 4 ? 1 : SQRT2));
+            if (candidate < best) {
+                best = candidate;
+                parent[cell] = neighbor;
+            }
+        }
+        cost[cell] = best;
+    }
+
+    // The nearest clear cell to a start inside the clearance zone, or -1
+    private int nearestClear(int column, int row, float[] distance) {
+        int reach = (int) Math.ceil(clearance / grid.getCellSize()) + 1;
+        int best = -1;
+        int bestSquared = Integer.MAX_VALUE;
+        for (int dr = -reach; dr <= reach; dr++) {
+            for (int dc = -reach; dc <= reach; dc++) {
+                int c = column + dc;
+                int r = row + dr;
+                int squared = dc * dc + dr * dr;
+                if (inBounds(c, r) && squared < bestSquared && distance[r * columns + c] >= clearance) {
+                    best = r * columns + c;
+                    bestSquared = squared;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Waypoints: the actual start, the clear cell it was moved out to if any, the centers of the
+    // cells in between, and the actual goal
+    private void buildChain(double startX, double startY, int start, int goal, double goalX, double goalY, Path path) {
+        boolean snapped = start != grid.row(startY) * columns + grid.column(startX);
+        int between = 0;
+        for (int cell = goal; cell != start; cell = parent[cell]) {
+            between++;
+        }
+        // between counts the goal cell but not the start one
+        int total = 2 + (snapped ? 1 : 0) + Math.max(0, between - 1);
+        int i = total - 1;
+        chainX[i] = goalX;
+        chainY[i] = goalY;
+        if (goal != start) {
+            for (int cell = parent[goal]; cell != start; cell = parent[cell]) {
+                i--;
+                chainX[i] = grid.centerX(cell % columns);
+                chainY[i] = grid.centerY(cell / columns);
+            }
+        }
+        if (snapped) {
+            chainX[1] = grid.centerX(start % columns);
+            chainY[1] = grid.centerY(start / columns);
+        }
+        chainX[0] = startX;
+        chainY[0] = startY;
+        smoother.smooth(chainX, chainY, total, clearance, path);
+    }
+
+    private boolean lineOfSight(int from, int to) {
+        return grid.isSegmentClear(grid.centerX(from % columns), grid.centerY(from / columns),
+                grid.centerX(to % columns), grid.centerY(to / columns), clearance);
+    }
+
+    private double cells(int from, int to) {
+        double dx = from % columns - to % columns;
+        double dy = from / columns - to / columns;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private double heuristic(int cell, int goal, boolean theta) {
+        double dx = Math.abs(cell % columns - goal % columns);
+        double dy = Math.abs(cell / columns - goal / columns);
+        if (theta) {
+            return TIE_BREAK * Math.sqrt(dx * dx + dy * dy);
+        }
+        // Octile distance: the exact cost of an unobstructed 8-connected path
+        return TIE_BREAK * (Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy));
+    }
+
+    private boolean inBounds(int column, int row) {
+        return column >= 0 && column < columns && row >= 0 && row < rows;
+    }
+
+    // ---- Heap ------------------------------------------------------------------------------------
+
+    private void push(int cell, float key) {
+        int i = heapSize++;
+        heap[i] = cell;
+        heapKey[i] = key;
+        heapIndex[cell] = i;
+        siftUp(i);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            move(heapSize, 0);
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void decrease(int cell, float key) {
+        int i = heapIndex[cell];
+        heapKey[i] = key;
+        siftUp(i);
+    }
+
+    private void siftUp(int i) {
+        int cell = heap[i];
+        float key = heapKey[i];
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) {
+                break;
+            }
+            move(up, i);
+            i = up;
+        }
+        heap[i] = cell;
+        heapKey[i] = key;
+        heapIndex[cell] = i;
+    }
+
+    private void siftDown(int i) {
+        int cell = heap[i];
+        float key = heapKey[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (heapKey[child] >= key) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        heap[i] = cell;
+        heapKey[i] = key;
+        heapIndex[cell] = i;
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        heapKey[to] = heapKey[from];
+        heapIndex[heap[to]] = to;
+    }
+}
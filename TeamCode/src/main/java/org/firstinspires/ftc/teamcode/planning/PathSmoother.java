@@ -0,0 +1,127 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+/*
+ * Turns a planner's chain of cells into a Path a robot can drive.
+ *
+ * First, waypoints that can be skipped are: from each kept waypoint the line is extended to the
+ * furthest following one that is still in clear line of sight.  That straightens the staircase an
+ * 8-connected A* search produces, and leaves Theta* paths almost unchanged.  Then each remaining
+ * corner is rounded with the largest circular arc, up to the maximum turn radius, that fits in the
+ * neighboring legs and keeps the robot's clearance; the arc cuts the inside of the corner, so it
+ * is checked against the distance field and shrunk until it is clear.  Corners where no useful arc
+ * fits are left sharp, for the follower to turn in place.
+ */
+class PathSmoother {
+
+    private final OccupancyGrid grid;
+    private double maxRadius = 0.3;
+    private double[] keptX;
+    private double[] keptY;
+
+    PathSmoother(OccupancyGrid grid, int capacity) {
+        this.grid = grid;
+        this.keptX = new double[capacity];
+        this.keptY = new double[capacity];
+    }
+
+    void setMaxRadius(double meters) {
+        this.maxRadius = meters;
+    }
+
+    void smooth(double[] x, double[] y, int n, double clearance, Path into) {
+        into.clear();
+        int m = shortcut(x, y, n, clearance);
+        for (int i = 0; i < m; i++) {
+            into.addWaypoint(keptX[i], keptY[i]);
+        }
+        fillet(m, clearance, into);
+    }
+
+    private int shortcut(double[] x, double[] y, int n, double clearance) {
+        keptX[0] = x[0];
+        keptY[0] = y[0];
+        int m = 1;
+        int i = 0;
+        while (i < n - 1) {
+            int j = i + 1;
+            while (j + 1 < n && grid.isSegmentClear(x[i], y[i], x[j + 1], y[j + 1], clearance)) {
+                j++;
+            }
+            keptX[m] = x[j];
+            keptY[m] = y[j];
+            m++;
+            i = j;
+        }
+        return m;
+    }
+
+    private void fillet(int m, double clearance, Path into) {
+        double minRadius = grid.getCellSize();
+        double cursorX = keptX[0];
+        double cursorY = keptY[0];
+        for (int k = 1; k < m - 1; k++) {
+            double cornerX = keptX[k];
+            double cornerY = keptY[k];
+            double inX = cornerX - cursorX;
+            double inY = cornerY - cursorY;
+            double inLength = Math.sqrt(inX * inX + inY * inY);
+            double outX = keptX[k + 1] - cornerX;
+            double outY = keptY[k + 1] - cornerY;
+            double outLength = Math.sqrt(outX * outX + outY * outY);
+            if (inLength < 1e-9 || outLength < 1e-9) {
+                continue;
+            }
+            inX /= inLength;
+            inY /= inLength;
+            outX /= outLength;
+            outY /= outLength;
+
+            double turn = Math.atan2(inX * outY - inY * outX, inX * outX + inY * outY);
+            if (Math.abs(turn) < 1e-6) {
+                continue;
+            }
+            // The arc may use all of the incoming leg left over from the previous corner, but only
+            // half of the outgoing one, leaving the rest for the next corner
+            double half = Math.tan(Math.abs(turn) / 2);
+            double tangentLimit = Math.min(inLength, k + 1 == m - 1 ? outLength : outLength / 2);
+            double radius = Math.min(maxRadius, tangentLimit / half);
+
+            boolean rounded = false;
+            for (; radius >= minRadius; radius /= 2) {
+                double t = radius * half;
+                double entryX = cornerX - inX * t;
+                double entryY = cornerY - inY * t;
+                double side = Math.signum(turn);
+                double centerX = entryX - side * inY * radius;
+                double centerY = entryY + side * inX * radius;
+                double startAngle = Math.atan2(entryY - centerY, entryX - centerX);
+                if (isArcClear(centerX, centerY, radius, startAngle, turn, clearance)) {
+                    into.addLine(cursorX, cursorY, entryX, entryY);
+                    into.addArc(centerX, centerY, radius, startAngle, turn);
+                    cursorX = cornerX + outX * t;
+                    cursorY = cornerY + outY * t;
+                    rounded = true;
+                    break;
+                }
+            }
+            if (!rounded) {
+                into.addLine(cursorX, cursorY, cornerX, cornerY);
+                cursorX = cornerX;
+                cursorY = cornerY;
+            }
+        }
+        into.addLine(cursorX, cursorY, keptX[m - 1], keptY[m - 1]);
+    }
+
+    private boolean isArcClear(double centerX, double centerY, double radius, double startAngle, double sweep,
+                               double clearance) {
+        int steps = (int) Math.ceil(Math.abs(sweep) * radius / (grid.getCellSize() / 2));
+        for (int i = 0; i <= steps; i++) {
+            double angle = startAngle + sweep * i / steps;
+            if (!grid.isClear(centerX + radius * Math.cos(angle), centerY + radius * Math.sin(angle), clearance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
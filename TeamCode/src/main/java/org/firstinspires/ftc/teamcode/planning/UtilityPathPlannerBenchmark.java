@@ -0,0 +1,268 @@
+package org.firstinspires.ftc.teamcode.planning;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.teamcode.geometry.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * This OpMode benchmarks PathPlanner on a set of field scenarios, so no robot hardware needs to be
+ * configured.  Run it on the Control Hub to see real planning times.
+ *
+ * Each scenario sets up a full FTC field on a 5 cm grid with static field elements and dynamic
+ * obstacles (robots of 23 cm radius), then plans for a robot needing 25 cm of clearance with both
+ * A* and Theta*, many times over.  "Replan" measures what happens when vision reports a new robot
+ * in the way: clearing and re-adding every dynamic obstacle, adding one on the old path, and
+ * planning again.
+ *
+ * For each scenario and search, the median and worst plan times, path length (against the straight
+ * line distance), cells expanded and number of drivable segments are reported.  Every path is also
+ * checked by walking along it in 1 cm steps and measuring its clearance.  The run passes if every
+ * scenario finds a path exactly when one exists, every path keeps its clearance, and the median
+ * plan time stays under 5 ms.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Path Planner Benchmark", group = "Utility")
+@Disabled
+public class UtilityPathPlannerBenchmark extends LinearOpMode {
+
+    static final double CELL_SIZE = 0.05;
+    static final double CLEARANCE = 0.25;
+    static final double ROBOT_RADIUS = 0.23;
+    static final int WARMUP = 20;
+    static final int RUNS = 50;
+    static final double MAX_MEDIAN_MS = 5;
+    static final double HALF = OccupancyGrid.FTC_FIELD_SIZE / 2;
+
+    /** A field layout, start and goal. */
+    abstract static class Scenario {
+        final String name;
+        final double startX, startY, goalX, goalY;
+        final boolean reachable;
+        boolean replan = false;
+
+        Scenario(String name, double startX, double startY, double goalX, double goalY, boolean reachable) {
+            this.name = name;
+            this.startX = startX;
+            this.startY = startY;
+            this.goalX = goalX;
+            this.goalY = goalY;
+            this.reachable = reachable;
+        }
+
+        void addStatic(OccupancyGrid grid) {
+        }
+
+        void addDynamic(OccupancyGrid grid) {
+        }
+    }
+
+    /** The outcome of one scenario with one search. */
+    public static class ScenarioResult {
+        public String name;
+        public PathPlanner.Mode mode;
+        public PathPlanner.Status status;
+        public boolean expectedStatus;
+        public double medianMs;
+        public double maxMs;
+        public double length;
+        public double straightLength;
+        public int expanded;
+        public int segments;
+        public double minClearance;
+        public boolean clear;
+
+        public boolean passed() {
+            return expectedStatus && clear && medianMs < MAX_MEDIAN_MS;
+        }
+    }
+
+    public static class Result {
+        public final List<ScenarioResult> scenarios = new ArrayList<>();
+        public double distanceTransformMs;
+
+        public boolean passed() {
+            for (ScenarioResult scenario : scenarios) {
+                if (!scenario.passed()) {
+                    return false;
+                }
+            }
+            return !scenarios.isEmpty();
+        }
+    }
+
+    static List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("Open field", -1.5, -1.5, 1.5, 1.5, true) {
+        });
+        scenarios.add(new Scenario("Center structure", 0.1, -1.3, -0.1, 1.3, true) {
+            @Override void addStatic(OccupancyGrid grid) {
+                centerStructure(grid);
+            }
+        });
+        scenarios.add(new Scenario("Traffic", -1.4, -0.9, 1.45, 0.8, true) {
+            @Override void addStatic(OccupancyGrid grid) {
+                centerStructure(grid);
+            }
+
+            @Override void addDynamic(OccupancyGrid grid) {
+                traffic(grid);
+            }
+        });
+        scenarios.add(new Scenario("Narrow gap", -1.2, -1.2, -1.2, 1.2, true) {
+            @Override void addStatic(OccupancyGrid grid) {
+                // A wall across the field with a 70 cm opening at the far side
+                grid.addStaticRectangle(-HALF, -0.05, 0.9, 0.05);
+                grid.addStaticRectangle(1.6, -0.05, HALF, 0.05);
+            }
+        });
+        scenarios.add(new Scenario("Maze", 0, -1.5, 0, 1.5, true) {
+            @Override void addStatic(OccupancyGrid grid) {
+                grid.addStaticRectangle(-HALF, -0.95, 0.8, -0.85);
+                grid.addStaticRectangle(-0.8, -0.05, HALF, 0.05);
+                grid.addStaticRectangle(-HALF, 0.85, 0.8, 0.95);
+            }
+        });
+        scenarios.add(new Scenario("Blocked", 0, -1.0, 0, 1.0, false) {
+            @Override void addStatic(OccupancyGrid grid) {
+                grid.addStaticRectangle(-HALF, -0.05, HALF, 0.05);
+            }
+        });
+        Scenario replan = new Scenario("Replan", -1.4, -0.9, 1.45, 0.8, true) {
+            @Override void addStatic(OccupancyGrid grid) {
+                centerStructure(grid);
+            }
+
+            @Override void addDynamic(OccupancyGrid grid) {
+                traffic(grid);
+            }
+        };
+        replan.replan = true;
+        scenarios.add(replan);
+        return scenarios;
+    }
+
+    // Roughly the size of a center structure, with four posts around it
+    static void centerStructure(OccupancyGrid grid) {
+        grid.addStaticRectangle(-0.6, -0.4, 0.6, 0.4);
+        grid.addStaticCircle(-1.2, -1.2, 0.08);
+        grid.addStaticCircle(1.2, -1.2, 0.08);
+        grid.addStaticCircle(-1.2, 1.2, 0.08);
+        grid.addStaticCircle(1.2, 1.2, 0.08);
+    }
+
+    static void traffic(OccupancyGrid grid) {
+        grid.addCircle(-1.45, 1.3, ROBOT_RADIUS);
+        grid.addCircle(0.0, -1.45, ROBOT_RADIUS);
+        grid.addCircle(1.45, -0.2, ROBOT_RADIUS);
+        grid.addCircle(-1.0, 0.1, ROBOT_RADIUS);
+        grid.addCircle(0.5, 1.2, ROBOT_RADIUS);
+    }
+
+    public static Result benchmark() {
+        Result result = new Result();
+        long[] times = new long[RUNS];
+        Vector2 point = new Vector2();
+
+        for (Scenario scenario : scenarios()) {
+            OccupancyGrid grid = OccupancyGrid.ftcField(CELL_SIZE);
+            scenario.addStatic(grid);
+            long start = System.nanoTime();
+            grid.precompute();
+            result.distanceTransformMs = Math.max(result.distanceTransformMs, (System.nanoTime() - start) / 1e6);
+            scenario.addDynamic(grid);
+
+            for (PathPlanner.Mode mode : PathPlanner.Mode.values()) {
+                PathPlanner planner = new PathPlanner(grid).setMode(mode).setClearance(CLEARANCE);
+                Path path = new Path();
+
+                // For the replan scenario, put a robot in the middle of the original path
+                double blockerX = 0;
+                double blockerY = 0;
+                if (scenario.replan) {
+                    grid.clearDynamic();
+                    scenario.addDynamic(grid);
+                    planner.plan(scenario.startX, scenario.startY, scenario.goalX, scenario.goalY, path);
+                    path.pointAt(path.getLength() / 2, point);
+                    blockerX = point.x;
+                    blockerY = point.y;
+                }
+
+                for (int run = 0; run < WARMUP + RUNS; run++) {
+                    long begin = System.nanoTime();
+                    if (scenario.replan) {
+                        grid.clearDynamic();
+                        scenario.addDynamic(grid);
+                        grid.addCircle(blockerX, blockerY, ROBOT_RADIUS);
+                    }
+                    planner.plan(scenario.startX, scenario.startY, scenario.goalX, scenario.goalY, path);
+                    if (run >= WARMUP) {
+                        times[run - WARMUP] = System.nanoTime() - begin;
+                    }
+                }
+                Arrays.sort(times);
+
+                ScenarioResult r = new ScenarioResult();
+                r.name = scenario.name;
+                r.mode = mode;
+                r.status = planner.getLastStatus();
+                r.expectedStatus = (r.status == PathPlanner.Status.FOUND) == scenario.reachable;
+                r.medianMs = times[RUNS / 2] / 1e6;
+                r.maxMs = times[RUNS - 1] / 1e6;
+                r.length = path.getLength();
+                r.straightLength = Math.hypot(scenario.goalX - scenario.startX, scenario.goalY - scenario.startY);
+                r.expanded = planner.getLastExpanded();
+                r.segments = path.getSegmentCount();
+                r.minClearance = minClearance(grid, path, point);
+                r.clear = path.isEmpty() || r.minClearance >= CLEARANCE - CELL_SIZE;
+                if (!path.isEmpty()) {
+                    // The path must start and end exactly where asked
+                    path.pointAt(0, point);
+                    r.clear &= Math.hypot(point.x - scenario.startX, point.y - scenario.startY) < 1e-6;
+                    path.pointAt(path.getLength(), point);
+                    r.clear &= Math.hypot(point.x - scenario.goalX, point.y - scenario.goalY) < 1e-6;
+                }
+                result.scenarios.add(r);
+            }
+        }
+        return result;
+    }
+
+    // The least clearance anywhere along the path, walking it in 1 cm steps
+    private static double minClearance(OccupancyGrid grid, Path path, Vector2 point) {
+        double min = Double.MAX_VALUE;
+        for (double s = 0; s <= path.getLength(); s += 0.01) {
+            path.pointAt(s, point);
+            min = Math.min(min, grid.getDistance(point.x, point.y));
+        }
+        return path.isEmpty() ? 0 : min;
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the benchmark");
+        telemetry.update();
+        waitForStart();
+
+        Result result = benchmark();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Distance transform", "%.2f ms", result.distanceTransformMs);
+        for (ScenarioResult r : result.scenarios) {
+            telemetry.addData(r.name + " " + (r.mode == PathPlanner.Mode.A_STAR ? "A*" : "Theta*"),
+                    "%s %.2f/%.2f ms, %.2f m (%.2f), %d cells, %d segs%s",
+                    r.status, r.medianMs, r.maxMs, r.length, r.straightLength, r.expanded, r.segments,
+                    r.clear ? "" : " NOT CLEAR");
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
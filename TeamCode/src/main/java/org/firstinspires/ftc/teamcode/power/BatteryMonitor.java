@@ -0,0 +1,393 @@
+package org.firstinspires.ftc.teamcode.power;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.util.Range;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.firstinspires.ftc.teamcode.governor.LoadShedder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Samples the battery voltage on its own thread, at a low fixed rate, so that motor commands can be
+ * compensated for the battery and brownouts can be headed off, without the control loop ever
+ * waiting on a voltage read.
+ *
+ * Each sample goes through a low-pass filter, and the filtered voltage gives a scale factor,
+ * nominal / filtered, that is kept ready for the loop to apply to every motor power:
+ * compensate(power) for open-loop power, compensate(powers) for a drivetrain's wheels together, or
+ * voltsToPower(volts) for feedforward terms worked out in volts.  A path driven at power 0.5 then
+ * covers the same ground on a fresh battery as on a tired one.
+ *
+ * A sample below the brownout voltage counts as a dip.  On the next update() after a dip (or the
+ * first one once the minimum hold time has passed), the next LoadShedder in the list is applied,
+ * much as LoopGovernor does for loop overruns; once there has been no dip for a while and the
+ * voltage has recovered, the most recently applied shedder is restored.  limitPower() makes a
+ * shedder that caps the power compensate() hands out, which is the most direct way to cut the
+ * current draw.  Shedders are applied and restored from update(), so on the loop thread, never the
+ * sampler's.
+ *
+ *     BatteryMonitor battery = new BatteryMonitor(new HubVoltageSource(hardwareMap), new BatteryMonitor.Policy());
+ *     battery.addShedder(battery.limitPower(0.6));
+ *     battery.start();
+ *     while (opModeIsActive()) {
+ *         battery.update();
+ *         motor.setPower(battery.compensate(power));
+ *     }
+ *     battery.stop();
+ */
+public class BatteryMonitor {
+
+    public static final String TAG = "BatteryMonitor";
+
+    /** Tuning for sampling, compensation and brownout shedding. */
+    public static class Policy {
+        double samplePeriodMs = 50;
+        double filterSeconds = 0.5;
+        double nominalVolts = 12;
+        double maxScale = 1.5;
+        double brownoutVolts = 9;
+        double restoreVolts = 11;
+        double restoreAfterMs = 2000;
+        double minHoldMs = 250;
+
+        /** How often the sampler reads the voltage. */
+        public Policy setSamplePeriodMs(double ms) {
+            this.samplePeriodMs = ms;
+            return this;
+        }
+
+        /** Time constant of the low-pass filter. */
+        public Policy setFilterSeconds(double seconds) {
+            this.filterSeconds = seconds;
+            return this;
+        }
+
+        /** The voltage the robot's powers and gains were tuned at; the scale is 1 there. */
+        public Policy setNominalVolts(double volts) {
+            this.nominalVolts = volts;
+            return this;
+        }
+
+        /** Upper limit on the scale, so a bad reading can't send every motor to full power. */
+        public Policy setMaxScale(double scale) {
+            this.maxScale = scale;
+            return this;
+        }
+
+        /** A sample below this is a dip, and sheds load. */
+        public Policy setBrownoutVolts(double volts) {
+            this.brownoutVolts = volts;
+            return this;
+        }
+
+        /** Restore only once the filtered voltage is back above this.  Must be above the brownout voltage. */
+        public Policy setRestoreVolts(double volts) {
+            this.restoreVolts = volts;
+            return this;
+        }
+
+        /** How long without a dip before a restore. */
+        public Policy setRestoreAfterMs(double ms) {
+            this.restoreAfterMs = ms;
+            return this;
+        }
+
+        /** Minimum time between two successive shed or restore actions. */
+        public Policy setMinHoldMs(double ms) {
+            this.minHoldMs = ms;
+            return this;
+        }
+    }
+
+    /** Notified of every shed and restore; by default these go to the robot log. */
+    public interface Listener {
+        void onShed(LoadShedder shedder, int level, double volts);
+
+        void onRestore(LoadShedder shedder, int level, double volts);
+    }
+
+    private final VoltageSource source;
+    private final Policy policy;
+    private final long periodNanos;
+    private final List<LoadShedder> shedders = new ArrayList<>();
+    private Listener listener;
+
+    // Written only by whoever calls sample(): the sampler thread once started
+    private long lastSampleNanos = 0;
+    private volatile double volts = 0;
+    private volatile double filteredVolts = 0;
+    private volatile double scale = 1;
+    private volatile double minVolts = Double.POSITIVE_INFINITY;
+    private volatile long samples = 0;
+    private volatile long dips = 0;
+    private volatile long lastDipNanos = 0;
+
+    // Written only by the thread calling update()
+    private volatile double powerLimit = 1;
+    private int level = 0;
+    private long handledDips = 0;
+    private long lastChangeNanos = 0;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public BatteryMonitor(VoltageSource source, Policy policy) {
+        if (policy.restoreVolts <= policy.brownoutVolts) {
+            throw new IllegalArgumentException("restore voltage must be above brownout voltage");
+        }
+        this.source = source;
+        this.policy = policy;
+        this.periodNanos = (long) (policy.samplePeriodMs * 1e6);
+    }
+
+    /** A monitor on the hubs' voltage sensors with the default policy. */
+    public static BatteryMonitor fromHardwareMap(HardwareMap hardwareMap) {
+        return new BatteryMonitor(new HubVoltageSource(hardwareMap), new Policy());
+    }
+
+    public BatteryMonitor addShedder(LoadShedder shedder) {
+        shedders.add(shedder);
+        return this;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Takes a first sample, so the scale is valid straight away, and starts the sampler thread. */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        sample(System.nanoTime());
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override public void run() {
+                sampleLoop();
+            }
+        }, "BatteryMonitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sampleLoop() {
+        long next = System.nanoTime() + periodNanos;
+        while (running) {
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            sample(System.nanoTime());
+            next += periodNanos;
+            if (next < System.nanoTime()) {
+                next = System.nanoTime() + periodNanos;
+            }
+        }
+    }
+
+    /**
+     * Read and filter one sample.  Called by the sampler thread; call it directly instead of start()
+     * to drive the monitor from a simulated clock.
+     */
+    public void sample(long nowNanos) {
+        double reading = source.getVoltage();
+        if (reading <= 0) {
+            return;
+        }
+        double filtered = filteredVolts;
+        if (samples == 0) {
+            filtered = reading;
+        } else {
+            double dt = (nowNanos - lastSampleNanos) / 1e9;
+            filtered += (1 - Math.exp(-dt / policy.filterSeconds)) * (reading - filtered);
+        }
+        lastSampleNanos = nowNanos;
+        volts = reading;
+        filteredVolts = filtered;
+        scale = Math.min(policy.maxScale, policy.nominalVolts / filtered);
+        if (reading < minVolts) {
+            minVolts = reading;
+        }
+        if (reading < policy.brownoutVolts) {
+            lastDipNanos = nowNanos;
+            dips++;
+        }
+        samples++;
+    }
+
+    /** Call once per loop.  Only looks at the latest sample; returns true if a shedder was applied or restored. */
+    public boolean update() {
+        return update(System.nanoTime());
+    }
+
+    /** As update(), with an explicit timestamp, for driving the monitor from a simulated clock. */
+    public boolean update(long nowNanos) {
+        if (lastChangeNanos == 0) {
+            lastChangeNanos = nowNanos;
+        }
+        long dipCount = dips;
+        boolean newDip = dipCount != handledDips;
+        if (newDip && level == shedders.size()) {
+            // Nothing left to shed
+            handledDips = dipCount;
+            newDip = false;
+        }
+        boolean held = (nowNanos - lastChangeNanos) / 1e6 >= policy.minHoldMs;
+
+        // A dip during the hold time stays pending until the hold is over
+        if (newDip && held) {
+            handledDips = dipCount;
+            LoadShedder shedder = shedders.get(level++);
+            shedder.shed();
+            lastChangeNanos = nowNanos;
+            if (listener != null) {
+                listener.onShed(shedder, level, volts);
+            } else {
+                RobotLog.ii(TAG, "brownout at %.2f V, shed level %d (%s)", volts, level, shedder.getName());
+            }
+            return true;
+        }
+        if (level > 0 && held && filteredVolts >= policy.restoreVolts
+                && (nowNanos - lastDipNanos) / 1e6 >= policy.restoreAfterMs) {
+            restoreLast();
+            lastChangeNanos = nowNanos;
+            return true;
+        }
+        return false;
+    }
+
+    /** Undo every applied shedder, e.g. at the end of the OpMode. */
+    public void restoreAll() {
+        while (level > 0) {
+            restoreLast();
+        }
+        handledDips = dips;
+    }
+
+    private void restoreLast() {
+        LoadShedder shedder = shedders.get(--level);
+        shedder.restore();
+        if (listener != null) {
+            listener.onRestore(shedder, level, filteredVolts);
+        } else {
+            RobotLog.ii(TAG, "restored %s, now level %d, battery %.2f V", shedder.getName(), level, filteredVolts);
+        }
+    }
+
+    /** A shedder that caps the magnitude of every power compensate() returns. */
+    public LoadShedder limitPower(final double limit) {
+        return new LoadShedder() {
+            private double normalLimit;
+
+            @Override public String getName() {
+                return String.format(Locale.US, "limit power to %.2f", limit);
+            }
+
+            @Override public void shed() {
+                normalLimit = powerLimit;
+                powerLimit = Math.min(normalLimit, limit);
+            }
+
+            @Override public void restore() {
+                powerLimit = normalLimit;
+            }
+        };
+    }
+
+    /** power scaled for the battery, and within the current power limit. */
+    public double compensate(double power) {
+        return Range.clip(power * scale, -powerLimit, powerLimit);
+    }
+
+    /**
+     * Scales a set of powers for the battery in place, e.g. a drivetrain's wheels, and then, if any is
+     * beyond the power limit, scales them all down together until the largest is at the limit.
+     * Clipping each wheel on its own would change the ratios between them, and so the direction the
+     * robot drives in.
+     */
+    public void compensate(double[] powers) {
+        double s = scale;
+        double limit = powerLimit;
+        double max = 0;
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] *= s;
+            max = Math.max(max, Math.abs(powers[i]));
+        }
+        if (max > limit) {
+            for (int i = 0; i < powers.length; i++) {
+                powers[i] *= limit / max;
+            }
+        }
+    }
+
+    /** The motor power that applies the given voltage, e.g. for a feedforward term, within the power limit. */
+    public double voltsToPower(double volts) {
+        double battery = filteredVolts > 0 ? filteredVolts : policy.nominalVolts;
+        return Range.clip(volts / battery, -powerLimit, powerLimit);
+    }
+
+    /** nominal / filtered voltage; 1 before the first sample. */
+    public double getScale() {
+        return scale;
+    }
+
+    public double getPowerLimit() {
+        return powerLimit;
+    }
+
+    public double getFilteredVolts() {
+        return filteredVolts;
+    }
+
+    /** The latest raw sample. */
+    public double getVolts() {
+        return volts;
+    }
+
+    /** The lowest raw sample seen. */
+    public double getMinVolts() {
+        return minVolts;
+    }
+
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /** Number of samples below the brownout voltage. */
+    public long getDipCount() {
+        return dips;
+    }
+
+    /** Number of shedders currently applied. */
+    public int getLevel() {
+        return level;
+    }
+
+    public void addTo(Telemetry telemetry) {
+        telemetry.addData("Battery", "%.2f V (filtered %.2f, min %.2f)", volts, filteredVolts, minVolts);
+        telemetry.addData("Compensation", "x%.3f, limit %.2f", scale, powerLimit);
+        telemetry.addData("Brownout", "%d dips, shed level %d of %d", dips, level, shedders.size());
+    }
+}
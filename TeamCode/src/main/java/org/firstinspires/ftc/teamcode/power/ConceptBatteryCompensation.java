@@ -0,0 +1,89 @@
+package org.firstinspires.ftc.teamcode.power;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+/*
+ * This OpMode illustrates compensating every motor command for the battery voltage, and backing off
+ * when the battery browns out.
+ *
+ * A BatteryMonitor samples the hubs' voltage sensors twenty times a second on its own thread, so the
+ * loop never waits on a voltage read.  The mecanum drive's powers go through compensate(), which
+ * scales them to what they would do on a 12 V battery, so the robot drives the same on a fresh
+ * battery as on a tired one.  The four wheels are compensated together, so that if one reaches the
+ * power limit they are all scaled back alike and the robot keeps driving in the same direction.  The arm holds itself up with a feedforward worked out in volts, turned
+ * into power with voltsToPower().
+ *
+ * If a sample drops below 9 V, the monitor first caps every compensated power at 0.7, then at 0.4 if
+ * the dips go on, and lifts the caps once the battery has recovered.  The Driver Station shows the
+ * voltage, the compensation and the shed level.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Battery Compensation", group = "Concept")
+@Disabled
+public class ConceptBatteryCompensation extends LinearOpMode {
+
+    private static final double ARM_HOLD_VOLTS = 1.2;      // Feedforward to hold the arm level
+    private static final double ARM_VOLTS_PER_INPUT = 6;
+
+    private DcMotor leftFront, rightFront, leftBack, rightBack;
+    private final double[] power = new double[4];
+
+    @Override
+    public void runOpMode() {
+        leftFront = hardwareMap.get(DcMotor.class, "left_front_drive");
+        rightFront = hardwareMap.get(DcMotor.class, "right_front_drive");
+        leftBack = hardwareMap.get(DcMotor.class, "left_back_drive");
+        rightBack = hardwareMap.get(DcMotor.class, "right_back_drive");
+        leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
+        leftBack.setDirection(DcMotorSimple.Direction.REVERSE);
+        DcMotor arm = hardwareMap.get(DcMotor.class, "arm");
+
+        BatteryMonitor battery = new BatteryMonitor(new HubVoltageSource(hardwareMap), new BatteryMonitor.Policy()
+                .setSamplePeriodMs(50)
+                .setNominalVolts(12)
+                .setBrownoutVolts(9));
+        battery.addShedder(battery.limitPower(0.7))
+                .addShedder(battery.limitPower(0.4));
+        battery.start();
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        while (opModeIsActive()) {
+            battery.update();
+
+            double drive = -gamepad1.left_stick_y;
+            double strafe = -gamepad1.left_stick_x;
+            double turn = -gamepad1.right_stick_x;
+            power[0] = drive - strafe - turn;
+            power[1] = drive + strafe + turn;
+            power[2] = drive + strafe - turn;
+            power[3] = drive - strafe + turn;
+            double max = Math.max(1, Math.max(Math.max(Math.abs(power[0]), Math.abs(power[1])),
+                    Math.max(Math.abs(power[2]), Math.abs(power[3]))));
+            for (int i = 0; i < 4; i++) {
+                power[i] /= max;
+            }
+            battery.compensate(power);
+            leftFront.setPower(power[0]);
+            rightFront.setPower(power[1]);
+            leftBack.setPower(power[2]);
+            rightBack.setPower(power[3]);
+
+            arm.setPower(battery.voltsToPower(ARM_HOLD_VOLTS - gamepad1.right_stick_y * ARM_VOLTS_PER_INPUT));
+
+            battery.addTo(telemetry);
+            telemetry.update();
+        }
+
+        battery.stop();
+        battery.restoreAll();
+    }
+}
@@ -0,0 +1,37 @@
+package org.firstinspires.ftc.teamcode.power;
+
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * The battery voltage as the hubs measure it: the lowest positive reading among the voltage sensors
+ * in the hardware map, as in ConceptTelemetry.  The sensors are looked up once, here, rather than on
+ * every read.  Each read is a separate command to each hub, a few milliseconds in all.
+ */
+public class HubVoltageSource implements VoltageSource {
+
+    private final VoltageSensor[] sensors;
+
+    public HubVoltageSource(HardwareMap hardwareMap) {
+        List<VoltageSensor> found = new ArrayList<>();
+        for (VoltageSensor sensor : hardwareMap.voltageSensor) {
+            found.add(sensor);
+        }
+        this.sensors = found.toArray(new VoltageSensor[0]);
+    }
+
+    @Override
+    public double getVoltage() {
+        double result = Double.POSITIVE_INFINITY;
+        for (VoltageSensor sensor : sensors) {
+            double voltage = sensor.getVoltage();
+            if (voltage > 0) {
+                result = Math.min(result, voltage);
+            }
+        }
+        return result == Double.POSITIVE_INFINITY ? 0 : result;
+    }
+}
@@ -0,0 +1,275 @@
+package org.firstinspires.ftc.teamcode.power;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.teamcode.governor.LoadShedder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/*
+ * This OpMode exercises BatteryMonitor against a simulated battery discharging over a match, with
+ * no hardware needed.
+ *
+ * A drivetrain of four simulated motors repeats the same move, power 0.5 for 1.5 seconds then a
+ * rest, while the battery runs down from full to nearly flat.  The battery's voltage follows its
+ * discharge curve and sags with the current the motors draw through its internal resistance, and
+ * the sensor reads it with a little noise.  Once, the robot drives at full power into a wall while
+ * its lift is stalled, which drags the battery below the brownout voltage.
+ *
+ * The simulation runs twice: once sending the raw power, once through compensate().  Uncompensated,
+ * the same move covers noticeably less ground as the battery drains; compensated, the distance should
+ * hold steady.  The brownout should be caught and shed within a couple of sample periods, lifting
+ * the voltage back above the brownout level, and restored after the robot backs off.  The monitor is
+ * sampled at its own rate, not every loop.  Everything runs on a virtual clock, sampling by hand
+ * rather than on the monitor's thread, so the simulation completes instantly.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Battery Simulation", group = "Utility")
+@Disabled
+public class UtilityBatterySimulation extends LinearOpMode {
+
+    static final double STEP_SECONDS = 0.001;
+    static final double LOOP_SECONDS = 0.010;
+    static final int MOVES = 20;
+    static final int WALL_MOVE = 8;
+    static final double DRIVE_SECONDS = 1.5;
+    static final double REST_SECONDS = 1.5;
+    static final double MOVE_POWER = 0.5;
+
+    static final double MAX_COMPENSATED_SPREAD = 0.02;
+    static final double MIN_UNCOMPENSATED_SPREAD = 0.06;
+    static final double MAX_SHED_DELAY_MS = 100;
+
+    /** A battery whose open-circuit voltage falls with its charge, behind an internal resistance. */
+    static class SimulatedBattery implements VoltageSource {
+        private static final double[] CHARGE = { 0.0, 0.1, 0.3, 0.6, 0.9, 1.0 };
+        private static final double[] OPEN_CIRCUIT_VOLTS = { 11.2, 11.9, 12.3, 12.7, 13.2, 13.7 };
+        static final double RESISTANCE_OHMS = 0.08;
+        static final double NOISE_VOLTS = 0.03;
+
+        final Random noise = new Random(1);
+        double charge = 1;
+        double amps = 0;
+        long reads = 0;
+
+        double openCircuitVolts() {
+            for (int i = 1; i < CHARGE.length; i++) {
+                if (charge <= CHARGE[i]) {
+                    double t = (charge - CHARGE[i - 1]) / (CHARGE[i] - CHARGE[i - 1]);
+                    return OPEN_CIRCUIT_VOLTS[i - 1] + t * (OPEN_CIRCUIT_VOLTS[i] - OPEN_CIRCUIT_VOLTS[i - 1]);
+                }
+            }
+            return OPEN_CIRCUIT_VOLTS[OPEN_CIRCUIT_VOLTS.length - 1];
+        }
+
+        double terminalVolts() {
+            return openCircuitVolts() - amps * RESISTANCE_OHMS;
+        }
+
+        @Override public double getVoltage() {
+            reads++;
+            return terminalVolts() + (noise.nextDouble() * 2 - 1) * NOISE_VOLTS;
+        }
+    }
+
+    /** A brushed DC motor with a first-order speed response; speed 1 is free speed at 12 V. */
+    static class SimulatedMotor {
+        static final double RESISTANCE_OHMS = 1.2;
+        static final double TIME_CONSTANT_SECONDS = 0.2;
+
+        double speed = 0;
+
+        /** The current the motor draws from the battery at the given duty cycle. */
+        double amps(double power, double batteryVolts) {
+            double motorAmps = Math.max(0, (power * batteryVolts - 12 * speed) / RESISTANCE_OHMS);
+            return Math.abs(power) * motorAmps;
+        }
+
+        void step(double power, double batteryVolts, boolean stalled) {
+            if (stalled) {
+                speed = 0;
+            } else {
+                speed += (power * batteryVolts / 12 - speed) * STEP_SECONDS / TIME_CONSTANT_SECONDS;
+            }
+        }
+    }
+
+    /** The outcome of one run over the discharge. */
+    public static class Run {
+        public final double[] distances = new double[MOVES];
+        public double firstDipMs = -1;
+        public double shedMs = -1;
+        public double minVoltsBeforeShed = Double.POSITIVE_INFINITY;
+        public double minVoltsAfterShed = Double.POSITIVE_INFINITY;
+        public int maxLevel;
+        public int levelAtEnd;
+        public long loops;
+        public long reads;
+        public final List<String> actions = new ArrayList<>();
+
+        /** (max - min) / mean of the move distances, leaving out the move into the wall. */
+        public double spread() {
+            double min = Double.POSITIVE_INFINITY, max = 0, sum = 0;
+            for (int i = 0; i < MOVES; i++) {
+                if (i != WALL_MOVE) {
+                    min = Math.min(min, distances[i]);
+                    max = Math.max(max, distances[i]);
+                    sum += distances[i];
+                }
+            }
+            return (max - min) / (sum / (MOVES - 1));
+        }
+
+        public double shedDelayMs() {
+            return shedMs - firstDipMs;
+        }
+    }
+
+    public static class Result {
+        public Run uncompensated;
+        public Run compensated;
+        public double brownoutVolts;
+
+        public boolean passed() {
+            return compensated.spread() <= MAX_COMPENSATED_SPREAD
+                    && uncompensated.spread() >= MIN_UNCOMPENSATED_SPREAD
+                    && compensated.firstDipMs >= 0 && compensated.shedMs >= 0
+                    && compensated.shedDelayMs() <= MAX_SHED_DELAY_MS
+                    && compensated.minVoltsAfterShed > brownoutVolts
+                    && compensated.levelAtEnd == 0
+                    && compensated.reads * 4 <= compensated.loops;
+        }
+    }
+
+    public static Result simulate() {
+        BatteryMonitor.Policy policy = new BatteryMonitor.Policy();
+        Result result = new Result();
+        result.brownoutVolts = policy.brownoutVolts;
+        result.uncompensated = run(policy, false);
+        result.compensated = run(policy, true);
+        return result;
+    }
+
+    static Run run(BatteryMonitor.Policy policy, boolean compensate) {
+        final Run run = new Run();
+        SimulatedBattery battery = new SimulatedBattery();
+        SimulatedMotor[] drive = { new SimulatedMotor(), new SimulatedMotor(), new SimulatedMotor(), new SimulatedMotor() };
+        SimulatedMotor[] lift = { new SimulatedMotor(), new SimulatedMotor(), new SimulatedMotor() };
+
+        final BatteryMonitor monitor = new BatteryMonitor(battery, policy);
+        monitor.addShedder(monitor.limitPower(0.5));
+        monitor.setListener(new BatteryMonitor.Listener() {
+            @Override public void onShed(LoadShedder shedder, int level, double volts) {
+                run.actions.add(String.format(Locale.US, "shed %s -> level %d (%.2f V)", shedder.getName(), level, volts));
+            }
+
+            @Override public void onRestore(LoadShedder shedder, int level, double volts) {
+                run.actions.add(String.format(Locale.US, "restore %s -> level %d (%.2f V)", shedder.getName(), level, volts));
+            }
+        });
+
+        double moveSeconds = DRIVE_SECONDS + REST_SECONDS;
+        double totalSeconds = MOVES * moveSeconds;
+        int steps = (int) Math.round(totalSeconds / STEP_SECONDS);
+        int stepsPerLoop = (int) Math.round(LOOP_SECONDS / STEP_SECONDS);
+        int stepsPerSample = (int) Math.round(policy.samplePeriodMs / 1000 / STEP_SECONDS);
+        double power = 0;
+        double drivePower = 0;
+        boolean wall = false;
+
+        for (int step = 0; step < steps; step++) {
+            double t = step * STEP_SECONDS;
+            long nowNanos = (long) (t * 1e9) + 1;
+            int move = (int) (t / moveSeconds);
+            boolean driving = t - move * moveSeconds < DRIVE_SECONDS;
+            battery.charge = 1 - 0.85 * t / totalSeconds;
+
+            // The sampler thread, at its own rate
+            if (step % stepsPerSample == 0) {
+                monitor.sample(nowNanos);
+                if (monitor.getVolts() < policy.brownoutVolts && run.firstDipMs < 0) {
+                    run.firstDipMs = t * 1000;
+                }
+            }
+
+            // The control loop
+            if (step % stepsPerLoop == 0) {
+                monitor.update(nowNanos);
+                run.loops++;
+                wall = driving && move == WALL_MOVE;
+                power = !driving ? 0 : wall ? 1 : MOVE_POWER;
+                drivePower = compensate ? monitor.compensate(power) : power;
+                if (monitor.getLevel() > 0 && run.shedMs < 0) {
+                    run.shedMs = t * 1000;
+                }
+                run.maxLevel = Math.max(run.maxLevel, monitor.getLevel());
+            }
+
+            // The battery voltage and the motors' current depend on each other; settle them
+            double volts = battery.terminalVolts();
+            for (int i = 0; i < 10; i++) {
+                double amps = 0;
+                for (SimulatedMotor motor : drive) {
+                    amps += motor.amps(drivePower, volts);
+                }
+                for (SimulatedMotor motor : lift) {
+                    amps += motor.amps(wall ? 1 : 0, volts);
+                }
+                battery.amps = amps;
+                volts = battery.terminalVolts();
+            }
+            for (SimulatedMotor motor : drive) {
+                motor.step(drivePower, volts, wall);
+            }
+
+            if (wall) {
+                if (run.shedMs < 0) {
+                    run.minVoltsBeforeShed = Math.min(run.minVoltsBeforeShed, volts);
+                } else {
+                    run.minVoltsAfterShed = Math.min(run.minVoltsAfterShed, volts);
+                }
+            } else if (driving) {
+                run.distances[move] += drive[0].speed * STEP_SECONDS;
+            }
+        }
+
+        run.levelAtEnd = monitor.getLevel();
+        run.reads = battery.reads;
+        return run;
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the simulation");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        Run compensated = result.compensated;
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Move spread, raw power", "%.1f%% (expected >= %.0f%%)",
+                result.uncompensated.spread() * 100, MIN_UNCOMPENSATED_SPREAD * 100);
+        telemetry.addData("Move spread, compensated", "%.1f%% (expected <= %.0f%%)",
+                compensated.spread() * 100, MAX_COMPENSATED_SPREAD * 100);
+        telemetry.addData("Brownout", "first dip %.0f ms, shed %.0f ms later", compensated.firstDipMs,
+                compensated.shedDelayMs());
+        telemetry.addData("Lowest voltage", "%.2f V before shedding, %.2f V after (brownout %.1f V)",
+                compensated.minVoltsBeforeShed, compensated.minVoltsAfterShed, result.brownoutVolts);
+        telemetry.addData("Level at end", "%d (expected 0)", compensated.levelAtEnd);
+        telemetry.addData("Voltage reads", "%d over %d loops", compensated.reads, compensated.loops);
+        for (String action : compensated.actions) {
+            telemetry.addLine(action);
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
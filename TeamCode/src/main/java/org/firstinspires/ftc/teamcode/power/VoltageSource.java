@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.power;
+
+/*
+ * Supplies the battery voltage, in volts; zero or less when there is no reading.
+ */
+public interface VoltageSource {
+    double getVoltage();
+}
@@ -0,0 +1,133 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * This OpMode illustrates splitting an OpMode across a RealtimeExecutor's threads.
+ *
+ * An arm motor, configured as "arm", holds one of two positions chosen with gamepad1 A and B:
+ *
+ *   - the I/O thread clears the bulk cache, reads the arm encoder and applies the latest power
+ *   - the control thread runs a proportional controller at a steady 200 Hz
+ *   - the logging thread writes the controller's position and power to a CSV file in the FIRST
+ *     folder, off both time-critical threads
+ *
+ * Encoder readings go from the I/O thread to the control thread through an SpscQueue of reused
+ * samples; the motor command goes back through a volatile field.  The OpMode thread only shows
+ * telemetry.  When the OpMode is stopped the executor shuts itself down, flushing the log.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Realtime Executor", group = "Concept")
+@Disabled
+public class ConceptRealtimeExecutor extends LinearOpMode {
+
+    private static final double PERIOD_MS = 5;
+    private static final double KP = 0.005;
+
+    static class Sample {
+        int position;
+    }
+
+    private volatile double power = 0;
+    private volatile int target = 0;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        final DcMotorEx arm = hardwareMap.get(DcMotorEx.class, "arm");
+        arm.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+        arm.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        final List<LynxModule> hubs = hardwareMap.getAll(LynxModule.class);
+        for (LynxModule hub : hubs) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+
+        final SpscQueue<Sample> samples = new SpscQueue<>(8);
+        final SpscQueue<Sample> freeSamples = new SpscQueue<>(8);
+        for (int i = 0; i < samples.capacity(); i++) {
+            freeSamples.offer(new Sample());
+        }
+        final LogChannel[] log = new LogChannel[1];
+
+        PeriodicTask io = new PeriodicTask() {
+            @Override public void run(long deadlineNanos) {
+                for (LynxModule hub : hubs) {
+                    hub.clearBulkCache();
+                }
+                Sample sample = freeSamples.poll();
+                if (sample != null) {
+                    sample.position = arm.getCurrentPosition();
+                    samples.offer(sample);
+                }
+                arm.setPower(power);
+            }
+        };
+        PeriodicTask control = new PeriodicTask() {
+            private int position = 0;
+
+            @Override public void run(long deadlineNanos) {
+                Sample sample;
+                while ((sample = samples.poll()) != null) {
+                    position = sample.position;
+                    freeSamples.offer(sample);
+                }
+                double output = Math.max(-1, Math.min(1, KP * (target - position)));
+                power = output;
+                log[0].log("arm", target, position, output);
+            }
+        };
+
+        RealtimeExecutor executor;
+        try {
+            executor = new RealtimeExecutor.Builder()
+                    .setControlTask(control, PERIOD_MS)
+                    .setIoTask(io, PERIOD_MS)
+                    .setLogSink(new CsvLogSink(new File(AppUtil.FIRST_FOLDER, "realtime_log.csv")))
+                    .setStopCondition(new OpModeStopCondition(this))
+                    .build();
+        } catch (IOException e) {
+            telemetry.addData("Error", "can't open log file: " + e.getMessage());
+            telemetry.update();
+            waitForStart();
+            return;
+        }
+        log[0] = executor.newLogChannel("control", 512);
+
+        telemetry.addData(">", "Touch START, then A and B move the arm");
+        telemetry.update();
+        waitForStart();
+        executor.start();
+
+        while (opModeIsActive() && executor.isRunning()) {
+            if (gamepad1.aWasPressed()) {
+                target = 0;
+            }
+            if (gamepad1.bWasPressed()) {
+                target = 500;
+            }
+            telemetry.addData("Target", target);
+            executor.addTo(telemetry);
+            telemetry.update();
+            sleep(50);
+        }
+
+        executor.stop(500);
+        arm.setPower(0);
+        if (executor.getFailure() != null) {
+            telemetry.addData("Failure", executor.getFailure().toString());
+            telemetry.update();
+        }
+    }
+}
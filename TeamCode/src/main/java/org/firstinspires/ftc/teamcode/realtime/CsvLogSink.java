@@ -0,0 +1,47 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/*
+ * Writes log records to a CSV file: timestamp in milliseconds, channel, label, values.
+ *
+ * Each line is built in a reused StringBuilder rather than with String.format, so writing doesn't
+ * allocate per record beyond what the writer itself does.
+ */
+public class CsvLogSink implements LogSink {
+
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder(128);
+    private final long originNanos = System.nanoTime();
+
+    public CsvLogSink(File file) throws IOException {
+        writer = new BufferedWriter(new FileWriter(file));
+        writer.write("time_ms,channel,label,values\n");
+    }
+
+    @Override
+    public void write(LogRecord record) throws IOException {
+        line.setLength(0);
+        line.append((record.timestampNanos - originNanos) / 1000000.0)
+            .append(',').append(record.channel)
+            .append(',').append(record.label);
+        for (int i = 0; i < record.count; i++) {
+            line.append(',').append(record.values[i]);
+        }
+        line.append('\n');
+        writer.append(line);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,70 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Wakes a thread at fixed-rate deadlines with as little jitter as the platform allows.
+ *
+ * Deadlines are absolute (start + n * period), so lateness in one cycle never shifts the cycles
+ * after it.  Waiting happens in two phases: the thread parks until shortly before the deadline,
+ * then yields in a short spin until the deadline arrives.  The scheduler learns how late park()
+ * typically wakes up and parks that much earlier, so the spin window can stay small.
+ *
+ * If a cycle overruns by more than a whole period, the missed deadlines are skipped and counted
+ * rather than run back to back to catch up.
+ */
+class DeadlineScheduler {
+
+    private static final double OVERSHOOT_SMOOTHING = 0.1;
+
+    private final long periodNanos;
+    private final long spinNanos;
+    private long nextDeadline;
+    private double overshootNanos = 0;
+    private long lastMissed = 0;
+
+    DeadlineScheduler(long periodNanos, long spinNanos) {
+        this.periodNanos = periodNanos;
+        this.spinNanos = spinNanos;
+    }
+
+    void start(long nowNanos) {
+        nextDeadline = nowNanos + periodNanos;
+    }
+
+    /** Block until the next deadline and return it. */
+    long awaitNext() throws InterruptedException {
+        long now = System.nanoTime();
+        lastMissed = 0;
+        if (now - nextDeadline >= periodNanos) {
+            lastMissed = (now - nextDeadline) / periodNanos;
+            nextDeadline += lastMissed * periodNanos;
+        }
+
+        long wakeAt = nextDeadline - spinNanos - (long) overshootNanos;
+        if (wakeAt - now > 0) {
+            LockSupport.parkNanos(wakeAt - now);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long overshoot = Math.max(0, System.nanoTime() - wakeAt);
+            overshootNanos += OVERSHOOT_SMOOTHING * (Math.min(overshoot, periodNanos / 2) - overshootNanos);
+        }
+        while (System.nanoTime() - nextDeadline < 0) {
+            Thread.yield();
+        }
+
+        long deadline = nextDeadline;
+        nextDeadline += periodNanos;
+        return deadline;
+    }
+
+    /** Deadlines skipped by the last awaitNext(). */
+    long getLastMissed() {
+        return lastMissed;
+    }
+
+    double getOvershootMs() {
+        return overshootNanos / 1e6;
+    }
+}
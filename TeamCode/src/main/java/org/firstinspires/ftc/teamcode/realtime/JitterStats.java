@@ -0,0 +1,101 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/*
+ * Timing statistics for one periodic thread: how late each cycle started relative to its deadline,
+ * how long the work took, and how many deadlines were missed outright.
+ *
+ * Written by the owning thread only.  Other threads may read the getters at any time; individual
+ * values are always consistent, though a reader may see them from slightly different cycles.
+ */
+public class JitterStats {
+
+    private static final long BUCKET_NANOS = 50000;
+    private static final int BUCKETS = 200;
+
+    private final String name;
+    private final long[] latenessHistogram = new long[BUCKETS + 1];
+    private volatile long cycles = 0;
+    private volatile long missed = 0;
+    private volatile long maxLatenessNanos = 0;
+    private volatile long maxWorkNanos = 0;
+    private volatile double meanLatenessNanos = 0;
+    private volatile double meanWorkNanos = 0;
+
+    public JitterStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Record one cycle.  Call from the owning thread only. */
+    void record(long latenessNanos, long workNanos) {
+        long n = cycles + 1;
+        meanLatenessNanos += (latenessNanos - meanLatenessNanos) / n;
+        meanWorkNanos += (workNanos - meanWorkNanos) / n;
+        if (latenessNanos > maxLatenessNanos) {
+            maxLatenessNanos = latenessNanos;
+        }
+        if (workNanos > maxWorkNanos) {
+            maxWorkNanos = workNanos;
+        }
+        int bucket = (int) Math.min(BUCKETS, Math.max(0, latenessNanos) / BUCKET_NANOS);
+        latenessHistogram[bucket]++;
+        cycles = n;
+    }
+
+    /** Record deadlines skipped because the previous cycle overran.  Call from the owning thread only. */
+    void recordMissed(long count) {
+        missed += count;
+    }
+
+    public long getCycleCount() {
+        return cycles;
+    }
+
+    /** Deadlines skipped entirely because a cycle overran by more than a whole period. */
+    public long getMissedCount() {
+        return missed;
+    }
+
+    public double getMeanLatenessMs() {
+        return meanLatenessNanos / 1e6;
+    }
+
+    public double getMaxLatenessMs() {
+        return maxLatenessNanos / 1e6;
+    }
+
+    /** Lateness below which the given fraction of cycles started, to the nearest 0.05 ms. */
+    public double getLatenessPercentileMs(double fraction) {
+        long total = cycles;
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += latenessHistogram[i];
+            if (seen >= target) {
+                return (i + 1) * BUCKET_NANOS / 1e6;
+            }
+        }
+        return BUCKETS * BUCKET_NANOS / 1e6;
+    }
+
+    public double getMeanWorkMs() {
+        return meanWorkNanos / 1e6;
+    }
+
+    public double getMaxWorkMs() {
+        return maxWorkNanos / 1e6;
+    }
+
+    public void addTo(Telemetry telemetry) {
+        telemetry.addData(name, "late %.2f avg, %.2f p99, %.2f max ms; work %.2f avg ms; %d missed",
+                getMeanLatenessMs(), getLatenessPercentileMs(0.99), getMaxLatenessMs(), getMeanWorkMs(), missed);
+    }
+}
@@ -0,0 +1,103 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+/*
+ * A logging path from one producer thread to the executor's logging thread.
+ *
+ * Records come from a fixed pool: obtain() takes one from the free queue, commit() passes it to the
+ * logging thread, which writes it and returns it to the free queue.  Nothing allocates.  If the
+ * pool runs dry because the logging thread is behind, the record is dropped and counted instead
+ * of blocking the producer.
+ *
+ * A channel has exactly one producer thread.  Give each thread that logs its own channel.
+ */
+public class LogChannel {
+
+    private final String name;
+    private final SpscQueue<LogRecord> filled;
+    private final SpscQueue<LogRecord> free;
+    private volatile long dropped = 0;
+
+    LogChannel(String name, int capacity) {
+        this.name = name;
+        this.filled = new SpscQueue<>(capacity);
+        this.free = new SpscQueue<>(capacity);
+        for (int i = 0; i < free.capacity(); i++) {
+            free.offer(new LogRecord());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Records dropped because the pool was empty. */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /** Take an empty record to fill, or null if none are free.  Producer thread only. */
+    public LogRecord obtain(String label) {
+        LogRecord record = free.poll();
+        if (record == null) {
+            dropped++;
+            return null;
+        }
+        record.timestampNanos = System.nanoTime();
+        record.channel = name;
+        record.label = label;
+        record.count = 0;
+        return record;
+    }
+
+    /** Hand a filled record to the logging thread.  Producer thread only. */
+    public void commit(LogRecord record) {
+        // The pool and both queues are the same size, so this can't fail
+        filled.offer(record);
+    }
+
+    public boolean log(String label, double a) {
+        LogRecord record = obtain(label);
+        if (record == null) {
+            return false;
+        }
+        commit(record.add(a));
+        return true;
+    }
+
+    public boolean log(String label, double a, double b) {
+        LogRecord record = obtain(label);
+        if (record == null) {
+            return false;
+        }
+        commit(record.add(a).add(b));
+        return true;
+    }
+
+    public boolean log(String label, double a, double b, double c) {
+        LogRecord record = obtain(label);
+        if (record == null) {
+            return false;
+        }
+        commit(record.add(a).add(b).add(c));
+        return true;
+    }
+
+    public boolean log(String label, double a, double b, double c, double d) {
+        LogRecord record = obtain(label);
+        if (record == null) {
+            return false;
+        }
+        commit(record.add(a).add(b).add(c).add(d));
+        return true;
+    }
+
+    // Logging thread side
+
+    LogRecord poll() {
+        return filled.poll();
+    }
+
+    void recycle(LogRecord record) {
+        free.offer(record);
+    }
+}
@@ -0,0 +1,24 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+/*
+ * One pooled log entry: a label and up to MAX_VALUES numbers.  Records are reused, so sinks must
+ * copy out anything they keep.
+ */
+public class LogRecord {
+
+    public static final int MAX_VALUES = 8;
+
+    public long timestampNanos;
+    public String channel;
+    public String label;
+    public final double[] values = new double[MAX_VALUES];
+    public int count;
+
+    /** Append a value; values past MAX_VALUES are ignored. */
+    public LogRecord add(double value) {
+        if (count < MAX_VALUES) {
+            values[count++] = value;
+        }
+        return this;
+    }
+}
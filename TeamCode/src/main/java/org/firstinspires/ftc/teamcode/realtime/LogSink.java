@@ -0,0 +1,17 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import java.io.IOException;
+
+/*
+ * Where the executor's logging thread writes records.  Only ever called from that thread.
+ */
+public interface LogSink {
+
+    void write(LogRecord record) throws IOException;
+
+    /** Called after each batch of records. */
+    void flush() throws IOException;
+
+    /** Called once, after the final records at shutdown. */
+    void close() throws IOException;
+}
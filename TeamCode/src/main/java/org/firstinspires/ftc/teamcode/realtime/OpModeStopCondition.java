@@ -0,0 +1,20 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+
+/*
+ * Stops a RealtimeExecutor when the Driver Station stops the OpMode.
+ */
+public class OpModeStopCondition implements StopCondition {
+
+    private final LinearOpMode opMode;
+
+    public OpModeStopCondition(LinearOpMode opMode) {
+        this.opMode = opMode;
+    }
+
+    @Override
+    public boolean shouldStop() {
+        return opMode.isStopRequested();
+    }
+}
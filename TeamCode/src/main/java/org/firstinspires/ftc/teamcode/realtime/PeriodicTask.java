@@ -0,0 +1,15 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+/*
+ * One cycle of work for a RealtimeExecutor thread.
+ */
+public interface PeriodicTask {
+
+    /**
+     * Do one cycle.  Throwing stops the whole executor; the exception is available from
+     * RealtimeExecutor.getFailure().
+     *
+     * @param deadlineNanos the System.nanoTime() at which this cycle was scheduled to start
+     */
+    void run(long deadlineNanos) throws Exception;
+}
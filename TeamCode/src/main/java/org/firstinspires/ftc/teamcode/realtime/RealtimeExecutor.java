@@ -0,0 +1,328 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Runs an OpMode's work on separate threads, so a slow step in one doesn't delay the others:
+ *
+ *   - control: a fixed-rate thread for the control math, woken by a DeadlineScheduler
+ *   - I/O:     an optional fixed-rate thread for hardware reads and writes (bulk reads, motor
+ *              powers, I2C sensors), which are the steps most likely to stall
+ *   - logging: a low-priority thread that drains LogChannels into a LogSink
+ *
+ * The threads exchange data through SpscQueues (or SnapshotBuffers), never through locks, so the
+ * control thread never waits on a slow I2C read.  Each thread's lateness and work time are tracked
+ * in a JitterStats.
+ *
+ *     RealtimeExecutor executor = new RealtimeExecutor.Builder()
+ *             .setControlTask(control, 5)
+ *             .setIoTask(io, 5)
+ *             .setLogSink(new CsvLogSink(file))
+ *             .setStopCondition(new OpModeStopCondition(this))
+ *             .build();
+ *     LogChannel log = executor.newLogChannel("control", 256);
+ *     waitForStart();
+ *     executor.start();
+ *     while (opModeIsActive() && executor.isRunning()) {
+ *         executor.addTo(telemetry);
+ *         telemetry.update();
+ *         sleep(100);
+ *     }
+ *     executor.stop(500);
+ *
+ * Priorities are Java thread priorities, which Android maps onto Linux nice levels.  If any task
+ * throws, the executor stops all threads; the exception is available from getFailure().
+ */
+public class RealtimeExecutor {
+
+    public static class Builder {
+        private PeriodicTask controlTask;
+        private long controlPeriodNanos;
+        private PeriodicTask ioTask;
+        private long ioPeriodNanos;
+        private LogSink logSink;
+        private long logPeriodNanos = TimeUnit.MILLISECONDS.toNanos(20);
+        private int controlPriority = Thread.MAX_PRIORITY;
+        private int ioPriority = Thread.NORM_PRIORITY + 2;
+        private int logPriority = Thread.MIN_PRIORITY;
+        private long spinNanos = TimeUnit.MICROSECONDS.toNanos(200);
+        private StopCondition stopCondition;
+
+        /** The control step, run every periodMs. */
+        public Builder setControlTask(PeriodicTask task, double periodMs) {
+            this.controlTask = task;
+            this.controlPeriodNanos = (long) (periodMs * 1e6);
+            return this;
+        }
+
+        /** An optional hardware step, run every periodMs on its own thread. */
+        public Builder setIoTask(PeriodicTask task, double periodMs) {
+            this.ioTask = task;
+            this.ioPeriodNanos = (long) (periodMs * 1e6);
+            return this;
+        }
+
+        /** Where LogChannel records go.  Without a sink, records are discarded. */
+        public Builder setLogSink(LogSink sink) {
+            this.logSink = sink;
+            return this;
+        }
+
+        /** How often the logging thread drains the channels. */
+        public Builder setLogPeriodMs(double periodMs) {
+            this.logPeriodNanos = (long) (periodMs * 1e6);
+            return this;
+        }
+
+        /** Java thread priorities, from Thread.MIN_PRIORITY to Thread.MAX_PRIORITY. */
+        public Builder setPriorities(int control, int io, int log) {
+            this.controlPriority = control;
+            this.ioPriority = io;
+            this.logPriority = log;
+            return this;
+        }
+
+        /**
+         * How long before each deadline the periodic threads stop parking and start yielding.  Larger
+         * values reduce jitter at the cost of CPU; 0 parks right up to the deadline.
+         */
+        public Builder setSpinMs(double ms) {
+            this.spinNanos = (long) (ms * 1e6);
+            return this;
+        }
+
+        /** Checked every cycle; typically new OpModeStopCondition(this). */
+        public Builder setStopCondition(StopCondition condition) {
+            this.stopCondition = condition;
+            return this;
+        }
+
+        public RealtimeExecutor build() {
+            if (controlTask == null || controlPeriodNanos <= 0) {
+                throw new IllegalArgumentException("a control task with a positive period is required");
+            }
+            if (ioTask != null && ioPeriodNanos <= 0) {
+                throw new IllegalArgumentException("the I/O task needs a positive period");
+            }
+            return new RealtimeExecutor(this);
+        }
+    }
+
+    private final Builder config;
+    private final JitterStats controlStats = new JitterStats("Control");
+    private final JitterStats ioStats = new JitterStats("I/O");
+    private final List<LogChannel> channels = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private volatile boolean running = false;
+    private boolean started = false;
+    private Thread controlThread;
+    private Thread ioThread;
+    private Thread logThread;
+    private volatile long logErrors = 0;
+
+    private RealtimeExecutor(Builder builder) {
+        this.config = builder;
+    }
+
+    /** Create a log channel for one producer thread.  Must be called before start(). */
+    public LogChannel newLogChannel(String name, int capacity) {
+        if (started) {
+            throw new IllegalStateException("log channels must be created before start()");
+        }
+        LogChannel channel = new LogChannel(name, capacity);
+        channels.add(channel);
+        return channel;
+    }
+
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("executor already started");
+        }
+        started = true;
+        running = true;
+
+        long origin = System.nanoTime();
+        controlThread = periodicThread("Control", config.controlTask, config.controlPeriodNanos, controlStats, origin);
+        controlThread.setPriority(config.controlPriority);
+        if (config.ioTask != null) {
+            ioThread = periodicThread("IO", config.ioTask, config.ioPeriodNanos, ioStats, origin);
+            ioThread.setPriority(config.ioPriority);
+        }
+        logThread = new Thread(new Runnable() {
+            @Override public void run() {
+                logLoop();
+            }
+        }, "Log");
+        logThread.setDaemon(true);
+        logThread.setPriority(config.logPriority);
+
+        if (ioThread != null) {
+            ioThread.start();
+        }
+        controlThread.start();
+        logThread.start();
+    }
+
+    /**
+     * Stop every thread and wait up to timeoutMs for them to exit, flushing the remaining log
+     * records.  Returns true if all threads exited in time.  Safe to call more than once.
+     */
+    public boolean stop(long timeoutMs) throws InterruptedException {
+        running = false;
+        if (!started) {
+            return true;
+        }
+        // Wake the threads early rather than waiting out their current period
+        LockSupport.unpark(controlThread);
+        if (ioThread != null) {
+            LockSupport.unpark(ioThread);
+        }
+        LockSupport.unpark(logThread);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        boolean clean = join(controlThread, deadline);
+        clean &= join(ioThread, deadline);
+        clean &= join(logThread, deadline);
+        return clean;
+    }
+
+    /** False once the executor has been stopped, by stop(), the stop condition, or a failing task. */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** The first exception thrown by a task, or null. */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    public void throwIfFailed() {
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new RuntimeException("realtime task failed", t);
+        }
+    }
+
+    public JitterStats getControlStats() {
+        return controlStats;
+    }
+
+    public JitterStats getIoStats() {
+        return ioStats;
+    }
+
+    /** Records dropped across all log channels because the logging thread fell behind. */
+    public long getDroppedLogCount() {
+        long dropped = 0;
+        for (LogChannel channel : channels) {
+            dropped += channel.getDroppedCount();
+        }
+        return dropped;
+    }
+
+    public void addTo(Telemetry telemetry) {
+        controlStats.addTo(telemetry);
+        if (config.ioTask != null) {
+            ioStats.addTo(telemetry);
+        }
+        telemetry.addData("Log", "%d dropped, %d write errors", getDroppedLogCount(), logErrors);
+    }
+
+    private Thread periodicThread(final String name, final PeriodicTask task, final long periodNanos,
+                                  final JitterStats stats, final long origin) {
+        Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+                DeadlineScheduler scheduler = new DeadlineScheduler(periodNanos, config.spinNanos);
+                scheduler.start(origin);
+                try {
+                    while (running) {
+                        if (config.stopCondition != null && config.stopCondition.shouldStop()) {
+                            running = false;
+                            break;
+                        }
+                        long deadline = scheduler.awaitNext();
+                        long start = System.nanoTime();
+                        task.run(deadline);
+                        stats.record(start - deadline, System.nanoTime() - start);
+                        if (scheduler.getLastMissed() > 0) {
+                            stats.recordMissed(scheduler.getLastMissed());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    running = false;
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void logLoop() {
+        LogSink sink = config.logSink;
+        while (running) {
+            drain(sink);
+            LockSupport.parkNanos(config.logPeriodNanos);
+        }
+        // Let the producers finish their last cycle before the final drain
+        try {
+            join(controlThread, System.nanoTime() + config.controlPeriodNanos * 4);
+            join(ioThread, System.nanoTime() + config.ioPeriodNanos * 4);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain(sink);
+        if (sink != null) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                logErrors++;
+            }
+        }
+    }
+
+    private void drain(LogSink sink) {
+        boolean wrote = false;
+        for (LogChannel channel : channels) {
+            LogRecord record;
+            while ((record = channel.poll()) != null) {
+                if (sink != null) {
+                    try {
+                        sink.write(record);
+                        wrote = true;
+                    } catch (IOException e) {
+                        logErrors++;
+                    }
+                }
+                channel.recycle(record);
+            }
+        }
+        if (wrote) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                logErrors++;
+            }
+        }
+    }
+
+    private static boolean join(Thread thread, long deadlineNanos) throws InterruptedException {
+        if (thread == null || thread == Thread.currentThread()) {
+            return true;
+        }
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.timedJoin(thread, remaining);
+        }
+        return !thread.isAlive();
+    }
+}
@@ -0,0 +1,73 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * A bounded, lock-free, single-producer / single-consumer queue of object references.
+ *
+ * Neither side ever blocks or allocates: offer() returns false when the queue is full and poll()
+ * returns null when it is empty.  Exactly one thread may offer and exactly one other thread may
+ * poll.  To pass data without allocating, pair two queues: one carrying filled objects to the
+ * consumer and one returning them to the producer for reuse (see LogChannel).
+ */
+public class SpscQueue<T> {
+
+    private final int mask;
+    private final Object[] items;
+
+    private final AtomicLong head = new AtomicLong(0);  // next slot to read; written by the consumer
+    private final AtomicLong tail = new AtomicLong(0);  // next slot to write; written by the producer
+    private long cachedHead = 0;                        // producer's last view of head
+    private long cachedTail = 0;                        // consumer's last view of tail
+
+    /** @param capacity maximum number of queued items; rounded up to a power of two */
+    public SpscQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mask = size - 1;
+        items = new Object[size];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Add an item.  Returns false if the queue was full.  Call from the producer thread only. */
+    public boolean offer(T item) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            // Only touch the consumer's counter when the cached view says we're full
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                return false;
+            }
+        }
+        items[(int) (t & mask)] = item;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Remove the oldest item, or return null if there are none.  Call from the consumer thread only. */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+        int slot = (int) (h & mask);
+        T item = (T) items[slot];
+        items[slot] = null;
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,8 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+/*
+ * Polled by the executor threads every cycle; once it returns true, the executor shuts down.
+ */
+public interface StopCondition {
+    boolean shouldStop();
+}
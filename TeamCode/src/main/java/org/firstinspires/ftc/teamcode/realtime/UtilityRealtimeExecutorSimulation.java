@@ -0,0 +1,262 @@
+package org.firstinspires.ftc.teamcode.realtime;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import java.io.IOException;
+import java.util.Random;
+
+/*
+ * This OpMode checks RealtimeExecutor against a simulated hardware backend, so no robot hardware
+ * needs to be configured.
+ *
+ * The simulated robot is one motor driving an arm, with an encoder read that usually takes 2-3 ms
+ * but occasionally stalls for 20 ms, like a slow I2C transaction.  The same position controller is
+ * run twice for the same length of time:
+ *
+ *   - serially, reading the encoder, computing and logging inline on one thread, as runOpMode()
+ *     loops usually do;
+ *   - on a RealtimeExecutor, with the encoder read on the I/O thread, the controller on a 5 ms
+ *     control thread, samples passed between them through SpscQueues, and logging on the logging
+ *     thread.
+ *
+ * For each, how late the controller ran relative to its 5 ms deadline is reported.  In the serial
+ * loop every encoder stall delays the controller; on the executor it only delays the I/O thread.
+ * The executor run passes if its control thread is typically on time and its 99th percentile
+ * lateness beats the serial loop's, no log records are dropped, every control cycle is logged, and
+ * it shuts down cleanly once its stop condition fires.  Percentiles rather than the maximum are
+ * compared because a single scheduling hiccup on a busy Robot Controller can delay any thread.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Realtime Executor Simulation", group = "Utility")
+@Disabled
+public class UtilityRealtimeExecutorSimulation extends LinearOpMode {
+
+    static final double PERIOD_MS = 5;
+    static final long RUN_MS = 3000;
+    static final double MAX_MEDIAN_LATENESS_MS = 0.5;
+
+    /** A motor and encoder whose reads are slow and occasionally stall. */
+    static class SimulatedArm {
+        private final Random random = new Random(7);
+        private final long origin = System.nanoTime();
+        private double position = 0;
+        private double velocity = 0;
+        private double power = 0;
+        private long lastNanos = origin;
+
+        /** Advance the physics to now and return the encoder count, taking as long as a real read. */
+        synchronized int readEncoder() throws InterruptedException {
+            long latencyMicros = random.nextInt(100) == 0 ? 20000 : 2000 + random.nextInt(1000);
+            Thread.sleep(latencyMicros / 1000, (int) (latencyMicros % 1000) * 1000);
+            step();
+            return (int) Math.round(position);
+        }
+
+        synchronized void setPower(double power) {
+            step();
+            this.power = Math.max(-1, Math.min(1, power));
+        }
+
+        private void step() {
+            long now = System.nanoTime();
+            double dt = (now - lastNanos) / 1e9;
+            lastNanos = now;
+            // First-order motor: 3000 ticks/s at full power, 50 ms time constant
+            velocity += (3000 * power - velocity) * Math.min(1, dt / 0.05);
+            position += velocity * dt;
+        }
+    }
+
+    /** One encoder reading, passed from the I/O thread to the control thread. */
+    static class Sample {
+        long timeNanos;
+        int position;
+    }
+
+    /** The latest motor command, passed from the control thread to the I/O thread. */
+    static class Command {
+        volatile double power;
+    }
+
+    /** Counts records instead of writing them anywhere. */
+    static class CountingSink implements LogSink {
+        volatile long records = 0;
+        volatile boolean closed = false;
+
+        @Override public void write(LogRecord record) {
+            records++;
+        }
+
+        @Override public void flush() {
+        }
+
+        @Override public void close() throws IOException {
+            closed = true;
+        }
+    }
+
+    /** The outcome of both runs. */
+    public static class Result {
+        public double serialMedianLatenessMs;
+        public double serialP99LatenessMs;
+        public double serialMaxLatenessMs;
+        public long serialMissed;
+        public double controlMedianLatenessMs;
+        public double controlP99LatenessMs;
+        public double controlMaxLatenessMs;
+        public long controlCycles;
+        public long controlMissed;
+        public long ioCycles;
+        public long ioMissed;
+        public long logged;
+        public long dropped;
+        public boolean stoppedCleanly;
+        public Throwable failure;
+
+        public boolean passed() {
+            return failure == null
+                    && stoppedCleanly
+                    && controlMedianLatenessMs < MAX_MEDIAN_LATENESS_MS
+                    && controlP99LatenessMs < serialP99LatenessMs
+                    && dropped == 0
+                    && logged == controlCycles;
+        }
+    }
+
+    public static Result simulate() throws InterruptedException {
+        Result result = new Result();
+        runSerial(result);
+        runExecutor(result);
+        return result;
+    }
+
+    // The usual single-threaded loop: read, compute, write, log, sleep until the next period
+    private static void runSerial(Result result) throws InterruptedException {
+        SimulatedArm arm = new SimulatedArm();
+        JitterStats stats = new JitterStats("Serial");
+        DeadlineScheduler scheduler = new DeadlineScheduler((long) (PERIOD_MS * 1e6), 200000);
+        long start = System.nanoTime();
+        scheduler.start(start);
+        StringBuilder log = new StringBuilder();
+        while (System.nanoTime() - start < RUN_MS * 1000000L) {
+            long deadline = scheduler.awaitNext();
+            long begin = System.nanoTime();
+            int position = arm.readEncoder();
+            // The controller only runs once the read returns
+            long controlStart = System.nanoTime();
+            double power = control(position, controlStart);
+            arm.setPower(power);
+            log.setLength(0);
+            log.append(position).append(',').append(power);
+            stats.record(controlStart - deadline, System.nanoTime() - begin);
+            stats.recordMissed(scheduler.getLastMissed());
+        }
+        result.serialMedianLatenessMs = stats.getLatenessPercentileMs(0.5);
+        result.serialP99LatenessMs = stats.getLatenessPercentileMs(0.99);
+        result.serialMaxLatenessMs = stats.getMaxLatenessMs();
+        result.serialMissed = stats.getMissedCount();
+    }
+
+    private static void runExecutor(Result result) throws InterruptedException {
+        final SimulatedArm arm = new SimulatedArm();
+        final SpscQueue<Sample> samples = new SpscQueue<>(8);
+        final SpscQueue<Sample> freeSamples = new SpscQueue<>(8);
+        for (int i = 0; i < samples.capacity(); i++) {
+            freeSamples.offer(new Sample());
+        }
+        final Command command = new Command();
+        final CountingSink sink = new CountingSink();
+        final long start = System.nanoTime();
+
+        final LogChannel[] log = new LogChannel[1];
+        PeriodicTask io = new PeriodicTask() {
+            @Override public void run(long deadlineNanos) throws InterruptedException {
+                arm.setPower(command.power);
+                int position = arm.readEncoder();
+                Sample sample = freeSamples.poll();
+                if (sample != null) {
+                    sample.timeNanos = System.nanoTime();
+                    sample.position = position;
+                    samples.offer(sample);
+                }
+            }
+        };
+        PeriodicTask control = new PeriodicTask() {
+            private int position = 0;
+
+            @Override public void run(long deadlineNanos) {
+                Sample sample;
+                while ((sample = samples.poll()) != null) {
+                    position = sample.position;
+                    freeSamples.offer(sample);
+                }
+                double power = control(position, deadlineNanos);
+                command.power = power;
+                log[0].log("arm", position, power);
+            }
+        };
+
+        RealtimeExecutor executor = new RealtimeExecutor.Builder()
+                .setControlTask(control, PERIOD_MS)
+                .setIoTask(io, PERIOD_MS)
+                .setLogSink(sink)
+                .setStopCondition(new StopCondition() {
+                    @Override public boolean shouldStop() {
+                        return System.nanoTime() - start > RUN_MS * 1000000L;
+                    }
+                })
+                .build();
+        log[0] = executor.newLogChannel("control", 256);
+        executor.start();
+        while (executor.isRunning()) {
+            Thread.sleep(10);
+        }
+        result.stoppedCleanly = executor.stop(500) && sink.closed;
+
+        JitterStats controlStats = executor.getControlStats();
+        result.controlMedianLatenessMs = controlStats.getLatenessPercentileMs(0.5);
+        result.controlP99LatenessMs = controlStats.getLatenessPercentileMs(0.99);
+        result.controlMaxLatenessMs = controlStats.getMaxLatenessMs();
+        result.controlCycles = controlStats.getCycleCount();
+        result.controlMissed = controlStats.getMissedCount();
+        result.ioCycles = executor.getIoStats().getCycleCount();
+        result.ioMissed = executor.getIoStats().getMissedCount();
+        result.logged = sink.records;
+        result.dropped = executor.getDroppedLogCount();
+        result.failure = executor.getFailure();
+    }
+
+    // Drive the arm back and forth between two targets with a proportional controller
+    private static double control(int position, long nowNanos) {
+        int target = (nowNanos / 1000000000L) % 2 == 0 ? 1000 : -1000;
+        return 0.004 * (target - position);
+    }
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        telemetry.addData(">", "Touch START to run the simulation (about %d s)", 2 * RUN_MS / 1000);
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Serial loop", "late %.2f median, %.2f p99, %.2f max ms; %d missed",
+                result.serialMedianLatenessMs, result.serialP99LatenessMs, result.serialMaxLatenessMs, result.serialMissed);
+        telemetry.addData("Control thread", "late %.2f median, %.2f p99, %.2f max ms; %d missed",
+                result.controlMedianLatenessMs, result.controlP99LatenessMs, result.controlMaxLatenessMs, result.controlMissed);
+        telemetry.addData("I/O thread", "%d cycles, %d missed", result.ioCycles, result.ioMissed);
+        telemetry.addData("Log", "%d of %d cycles logged, %d dropped", result.logged, result.controlCycles, result.dropped);
+        telemetry.addData("Clean stop", result.stoppedCleanly);
+        if (result.failure != null) {
+            telemetry.addData("Failure", result.failure.toString());
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import org.firstinspires.ftc.teamcode.realtime.SpscQueue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * An OutputStream that passes its bytes to a writer thread, so the thread writing to it never
+ * waits on the file.
+ *
+ * Bytes collect in one of a fixed pool of buffers.  When it is full, it goes to the writer thread
+ * and an empty one comes back, through a pair of SpscQueues in the same way as LogChannel's records,
+ * so nothing allocates.  flush() does nothing; the bytes reach the stream a buffer at a time.
+ *
+ * If the writer thread falls so far behind that every buffer is full, write() fails rather than
+ * wait, as it does once the stream has failed.  Only close() waits: it passes on the last partial
+ * buffer, then waits for the writer thread to write everything and close the stream.
+ *
+ * Exactly one thread may write to it.
+ */
+class BackgroundWriter extends OutputStream {
+
+    private static class Buffer {
+        final byte[] bytes;
+        int length = 0;
+
+        Buffer(int size) {
+            bytes = new byte[size];
+        }
+    }
+
+    private final OutputStream stream;
+    private final SpscQueue<Buffer> filled;
+    private final SpscQueue<Buffer> free;
+    private final Thread thread;
+    private Buffer current;
+    private volatile boolean closing = false;
+    private volatile IOException error;
+
+    BackgroundWriter(OutputStream stream, int bufferSize, int buffers) {
+        this.stream = stream;
+        this.filled = new SpscQueue<>(buffers);
+        this.free = new SpscQueue<>(buffers);
+        for (int i = 0; i < free.capacity(); i++) {
+            free.offer(new Buffer(bufferSize));
+        }
+        current = free.poll();
+        thread = new Thread(new Runnable() {
+            @Override public void run() {
+                writeLoop();
+            }
+        }, "ReplayWriter");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (current.length == current.bytes.length) {
+            handOff();
+        }
+        current.bytes[current.length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (current.length == current.bytes.length) {
+                handOff();
+            }
+            int n = Math.min(len, current.bytes.length - current.length);
+            System.arraycopy(b, off, current.bytes, current.length, n);
+            current.length += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    private void handOff() throws IOException {
+        if (error != null) {
+            throw error;
+        }
+        // The pool and both queues are the same size, so this can't fail
+        filled.offer(current);
+        LockSupport.unpark(thread);
+        current = free.poll();
+        if (current == null) {
+            error = new IOException("The replay log writer fell behind");
+            throw error;
+        }
+    }
+
+    /** Writes what is left, waits for the writer thread to finish, and closes the stream. */
+    @Override
+    public void close() throws IOException {
+        if (closing) {
+            return;
+        }
+        if (current != null && current.length > 0 && error == null) {
+            filled.offer(current);
+            current = null;
+        }
+        closing = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted closing the replay log");
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /** Stops the writer thread and closes the stream once it is done, without waiting for it. */
+    void abandon() {
+        closing = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void writeLoop() {
+        try {
+            while (error == null) {
+                // Read the flag first: buffers handed off before close() set it are visible by then
+                boolean last = closing;
+                Buffer buffer = filled.poll();
+                if (buffer == null) {
+                    if (last) {
+                        break;
+                    }
+                    LockSupport.park(this);
+                    continue;
+                }
+                stream.write(buffer.bytes, 0, buffer.length);
+                buffer.length = 0;
+                free.offer(buffer);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+    }
+}
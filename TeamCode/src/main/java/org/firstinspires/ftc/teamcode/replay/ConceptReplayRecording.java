@@ -0,0 +1,174 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.hardware.rev.RevHubOrientationOnRobot;
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.IMU;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.odometry.EncoderSource;
+import org.firstinspires.ftc.teamcode.odometry.HeadingSource;
+import org.firstinspires.ftc.teamcode.odometry.ImuHeadingSource;
+import org.firstinspires.ftc.teamcode.odometry.MotorEncoderSource;
+import org.firstinspires.ftc.teamcode.odometry.ThreeWheelOdometry;
+import org.firstinspires.ftc.teamcode.odometry.TwoWheelImuOdometry;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+
+import java.util.List;
+
+/*
+ * This OpMode illustrates a TeleOp written so that every match it plays can be replayed off the
+ * robot.
+ *
+ * All of its inputs go through a ReplaySession: the odometry's encoders and IMU, the battery
+ * voltage, the AprilTag detections, the gamepads (session.getGamepad1() instead of gamepad1) and
+ * the time (session.newElapsedTime() instead of new ElapsedTime()).  Its start and stop go through
+ * the session too, and so do the motor powers, via ReplayOutput.  On the robot, each run is
+ * recorded to FIRST/replay.  To replay one, pull the file off the Robot Controller and, from a
+ * desktop JVM:
+ *     ReplayReport report = ReplayRunner.replay(new ConceptReplayRecording(), file);
+ * which runs this same class against the recorded inputs in a fraction of the match time, and
+ * reports whether every motor power came out the same.  Change a gain and replay again to see
+ * exactly how the robot would have driven differently.
+ *
+ * While replaying there is no hardware map, so the hardware is only set up when the session is
+ * live; everything else runs the same either way.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Replay Recording", group = "Concept")
+@Disabled
+public class ConceptReplayRecording extends LinearOpMode {
+
+    private static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+    private static final double PARALLEL_OFFSET_MM = 168;
+    private static final double PERP_OFFSET_MM = -84;
+    private static final double TAG_SLOW_RANGE = 24;    // Inches
+    private static final double NOMINAL_VOLTAGE = 12;
+
+    @Override
+    public void runOpMode() {
+        ReplaySession session = ReplaySession.forOpMode(this);
+
+        DcMotor leftFront = null, rightFront = null, leftBack = null, rightBack = null;
+        List<LynxModule> hubs = null;
+        EncoderSource liveEncoders = null;
+        HeadingSource liveImu = null;
+        ReplaySession.ValueSource liveVoltage = null;
+        AprilTagProcessor aprilTag = null;
+        VisionPortal visionPortal = null;
+        if (!session.isReplaying()) {
+            leftFront = hardwareMap.get(DcMotor.class, "left_front_drive");
+            rightFront = hardwareMap.get(DcMotor.class, "right_front_drive");
+            leftBack = hardwareMap.get(DcMotor.class, "left_back_drive");
+            rightBack = hardwareMap.get(DcMotor.class, "right_back_drive");
+            leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
+            leftBack.setDirection(DcMotorSimple.Direction.REVERSE);
+
+            hubs = hardwareMap.getAll(LynxModule.class);
+            MotorEncoderSource.enableBulkCaching(hardwareMap);
+            liveEncoders = MotorEncoderSource.fromNames(hardwareMap, "odo_parallel", "odo_perp");
+
+            IMU imu = hardwareMap.get(IMU.class, "imu");
+            imu.initialize(new IMU.Parameters(new RevHubOrientationOnRobot(
+                    RevHubOrientationOnRobot.LogoFacingDirection.UP,
+                    RevHubOrientationOnRobot.UsbFacingDirection.FORWARD)));
+            liveImu = new ImuHeadingSource(imu);
+
+            final VoltageSensor battery = hardwareMap.voltageSensor.iterator().next();
+            liveVoltage = new ReplaySession.ValueSource() {
+                @Override public double read() {
+                    return battery.getVoltage();
+                }
+            };
+
+            aprilTag = new AprilTagProcessor.Builder().build();
+            visionPortal = new VisionPortal.Builder()
+                    .setCamera(hardwareMap.get(WebcamName.class, "Webcam 1"))
+                    .addProcessor(aprilTag)
+                    .build();
+        }
+
+        // From here on, the OpMode only sees what the session gives it
+        EncoderSource encoders = session.encoders("odometry", liveEncoders);
+        HeadingSource heading = session.heading("imu", liveImu);
+        ReplaySession.ValueSource voltage = session.value("battery", liveVoltage);
+        ReplaySession.DetectionSource tags = session.detections("apriltag", aprilTag);
+        ReplayOutput[] wheels = {
+                session.motor("left_front", leftFront), session.motor("right_front", rightFront),
+                session.motor("left_back", leftBack), session.motor("right_back", rightBack)
+        };
+        TwoWheelImuOdometry odometry = new TwoWheelImuOdometry(encoders, heading, TICKS_PER_MM, DistanceUnit.MM,
+                PARALLEL_OFFSET_MM, PERP_OFFSET_MM);
+        ElapsedTime sinceTag = session.newElapsedTime();
+        double[] power = new double[4];
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        session.waitForStart();
+
+        while (session.isActive()) {
+            if (hubs != null) {
+                for (LynxModule hub : hubs) {
+                    hub.clearBulkCache();
+                }
+            }
+            odometry.update(session.getTimeNanos());
+
+            // Slow down for a second after seeing a tag up close
+            for (AprilTagDetection detection : tags.getDetections()) {
+                if (detection.ftcPose != null && detection.ftcPose.range < TAG_SLOW_RANGE) {
+                    sinceTag.reset();
+                }
+            }
+            double scale = sinceTag.seconds() < 1 ? 0.5 : 1.0;
+
+            // Field-centric drive, compensated for battery sag
+            Gamepad gamepad = session.getGamepad1();
+            if (gamepad.backWasPressed()) {
+                odometry.setPose(0, 0, DistanceUnit.MM, 0, AngleUnit.RADIANS);
+            }
+            double robotHeading = odometry.getHeading(AngleUnit.RADIANS);
+            double fieldForward = -gamepad.left_stick_y * scale;
+            double fieldLeft = -gamepad.left_stick_x * scale;
+            double forward = fieldForward * Math.cos(robotHeading) + fieldLeft * Math.sin(robotHeading);
+            double left = -fieldForward * Math.sin(robotHeading) + fieldLeft * Math.cos(robotHeading);
+            double turn = -gamepad.right_stick_x * scale;
+            double compensation = NOMINAL_VOLTAGE / Math.max(8, voltage.read());
+            power[0] = forward - left - turn;
+            power[1] = forward + left + turn;
+            power[2] = forward + left - turn;
+            power[3] = forward - left + turn;
+            double max = Math.max(1, Math.max(Math.max(Math.abs(power[0]), Math.abs(power[1])),
+                    Math.max(Math.abs(power[2]), Math.abs(power[3]))) * compensation);
+            for (int i = 0; i < 4; i++) {
+                wheels[i].set(power[i] * compensation / max);
+            }
+
+            telemetry.addData("Replay", session.isReplaying() ? "replaying" : "recording");
+            telemetry.addData("Runtime", "%.1f s", session.getRuntime());
+            odometry.addTo(telemetry);
+            telemetry.update();
+        }
+
+        for (ReplayOutput wheel : wheels) {
+            wheel.set(0);
+        }
+        session.close();
+        if (visionPortal != null) {
+            visionPortal.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+
+/*
+ * The gamepad an OpMode sees for one frame of a ReplaySession.
+ *
+ * Gamepad.copy() goes through toByteArray() and fromByteArray(), which allocate on every call, so
+ * the session copies the fields across one by one instead.  That bypasses the SDK's own edge
+ * detection, so this class keeps its own: each of the *WasPressed() and *WasReleased() methods
+ * reports whether that button went down (or up) in any frame since the method was last called,
+ * and then clears it, just as the SDK's do.  The PlayStation aliases (cross, circle, share, ...) are
+ * filled from the buttons they alias and have edges of their own.
+ */
+class FrameGamepad extends Gamepad {
+
+    // One bit per button the SDK detects edges on
+    private static final int DPAD_UP = 1;
+    private static final int DPAD_DOWN = 1 << 1;
+    private static final int DPAD_LEFT = 1 << 2;
+    private static final int DPAD_RIGHT = 1 << 3;
+    private static final int A = 1 << 4;
+    private static final int B = 1 << 5;
+    private static final int X = 1 << 6;
+    private static final int Y = 1 << 7;
+    private static final int GUIDE = 1 << 8;
+    private static final int START = 1 << 9;
+    private static final int BACK = 1 << 10;
+    private static final int LEFT_BUMPER = 1 << 11;
+    private static final int RIGHT_BUMPER = 1 << 12;
+    private static final int LEFT_STICK_BUTTON = 1 << 13;
+    private static final int RIGHT_STICK_BUTTON = 1 << 14;
+    private static final int CIRCLE = 1 << 15;
+    private static final int CROSS = 1 << 16;
+    private static final int TRIANGLE = 1 << 17;
+    private static final int SQUARE = 1 << 18;
+    private static final int SHARE = 1 << 19;
+    private static final int OPTIONS = 1 << 20;
+    private static final int TOUCHPAD = 1 << 21;
+    private static final int PS = 1 << 22;
+
+    private int down = 0;
+    private int pressed = 0;
+    private int released = 0;
+
+    /** Copies the state of from, without allocating, and updates the aliases and edges. */
+    void copyFrom(Gamepad from) {
+        type = from.type;
+        id = from.id;
+        timestamp = from.timestamp;
+        left_stick_x = from.left_stick_x;
+        left_stick_y = from.left_stick_y;
+        right_stick_x = from.right_stick_x;
+        right_stick_y = from.right_stick_y;
+        left_trigger = from.left_trigger;
+        right_trigger = from.right_trigger;
+        touchpad_finger_1_x = from.touchpad_finger_1_x;
+        touchpad_finger_1_y = from.touchpad_finger_1_y;
+        touchpad_finger_2_x = from.touchpad_finger_2_x;
+        touchpad_finger_2_y = from.touchpad_finger_2_y;
+        dpad_up = from.dpad_up;
+        dpad_down = from.dpad_down;
+        dpad_left = from.dpad_left;
+        dpad_right = from.dpad_right;
+        a = from.a;
+        b = from.b;
+        x = from.x;
+        y = from.y;
+        guide = from.guide;
+        start = from.start;
+        back = from.back;
+        left_bumper = from.left_bumper;
+        right_bumper = from.right_bumper;
+        left_stick_button = from.left_stick_button;
+        right_stick_button = from.right_stick_button;
+        touchpad = from.touchpad;
+        touchpad_finger_1 = from.touchpad_finger_1;
+        touchpad_finger_2 = from.touchpad_finger_2;
+        buttonsChanged();
+    }
+
+    /** Call once the button fields have been set directly, to update the aliases and edges. */
+    void buttonsChanged() {
+        updateButtonAliases();
+        int now = 0;
+        if (dpad_up)            now |= DPAD_UP;
+        if (dpad_down)          now |= DPAD_DOWN;
+        if (dpad_left)          now |= DPAD_LEFT;
+        if (dpad_right)         now |= DPAD_RIGHT;
+        if (a)                  now |= A;
+        if (b)                  now |= B;
+        if (x)                  now |= X;
+        if (y)                  now |= Y;
+        if (guide)              now |= GUIDE;
+        if (start)              now |= START;
+        if (back)               now |= BACK;
+        if (left_bumper)        now |= LEFT_BUMPER;
+        if (right_bumper)       now |= RIGHT_BUMPER;
+        if (left_stick_button)  now |= LEFT_STICK_BUTTON;
+        if (right_stick_button) now |= RIGHT_STICK_BUTTON;
+        if (circle)             now |= CIRCLE;
+        if (cross)              now |= CROSS;
+        if (triangle)           now |= TRIANGLE;
+        if (square)             now |= SQUARE;
+        if (share)              now |= SHARE;
+        if (options)            now |= OPTIONS;
+        if (touchpad)           now |= TOUCHPAD;
+        if (ps)                 now |= PS;
+        pressed |= now & ~down;
+        released |= down & ~now;
+        down = now;
+    }
+
+    private boolean takePressed(int button) {
+        boolean was = (pressed & button) != 0;
+        pressed &= ~button;
+        return was;
+    }
+
+    private boolean takeReleased(int button) {
+        boolean was = (released & button) != 0;
+        released &= ~button;
+        return was;
+    }
+
+    @Override public void resetEdgeDetection() {
+        down = 0;
+        pressed = 0;
+        released = 0;
+    }
+
+    @Override public boolean dpadUpWasPressed()            { return takePressed(DPAD_UP); }
+    @Override public boolean dpadUpWasReleased()           { return takeReleased(DPAD_UP); }
+    @Override public boolean dpadDownWasPressed()          { return takePressed(DPAD_DOWN); }
+    @Override public boolean dpadDownWasReleased()         { return takeReleased(DPAD_DOWN); }
+    @Override public boolean dpadLeftWasPressed()          { return takePressed(DPAD_LEFT); }
+    @Override public boolean dpadLeftWasReleased()         { return takeReleased(DPAD_LEFT); }
+    @Override public boolean dpadRightWasPressed()         { return takePressed(DPAD_RIGHT); }
+    @Override public boolean dpadRightWasReleased()        { return takeReleased(DPAD_RIGHT); }
+    @Override public boolean aWasPressed()                 { return takePressed(A); }
+    @Override public boolean aWasReleased()                { return takeReleased(A); }
+    @Override public boolean bWasPressed()                 { return takePressed(B); }
+    @Override public boolean bWasReleased()                { return takeReleased(B); }
+    @Override public boolean xWasPressed()                 { return takePressed(X); }
+    @Override public boolean xWasReleased()                { return takeReleased(X); }
+    @Override public boolean yWasPressed()                 { return takePressed(Y); }
+    @Override public boolean yWasReleased()                { return takeReleased(Y); }
+    @Override public boolean guideWasPressed()             { return takePressed(GUIDE); }
+    @Override public boolean guideWasReleased()            { return takeReleased(GUIDE); }
+    @Override public boolean startWasPressed()             { return takePressed(START); }
+    @Override public boolean startWasReleased()            { return takeReleased(START); }
+    @Override public boolean backWasPressed()              { return takePressed(BACK); }
+    @Override public boolean backWasReleased()             { return takeReleased(BACK); }
+    @Override public boolean leftBumperWasPressed()        { return takePressed(LEFT_BUMPER); }
+    @Override public boolean leftBumperWasReleased()       { return takeReleased(LEFT_BUMPER); }
+    @Override public boolean rightBumperWasPressed()       { return takePressed(RIGHT_BUMPER); }
+    @Override public boolean rightBumperWasReleased()      { return takeReleased(RIGHT_BUMPER); }
+    @Override public boolean leftStickButtonWasPressed()   { return takePressed(LEFT_STICK_BUTTON); }
+    @Override public boolean leftStickButtonWasReleased()  { return takeReleased(LEFT_STICK_BUTTON); }
+    @Override public boolean rightStickButtonWasPressed()  { return takePressed(RIGHT_STICK_BUTTON); }
+    @Override public boolean rightStickButtonWasReleased() { return takeReleased(RIGHT_STICK_BUTTON); }
+    @Override public boolean circleWasPressed()            { return takePressed(CIRCLE); }
+    @Override public boolean circleWasReleased()           { return takeReleased(CIRCLE); }
+    @Override public boolean crossWasPressed()             { return takePressed(CROSS); }
+    @Override public boolean crossWasReleased()            { return takeReleased(CROSS); }
+    @Override public boolean triangleWasPressed()          { return takePressed(TRIANGLE); }
+    @Override public boolean triangleWasReleased()         { return takeReleased(TRIANGLE); }
+    @Override public boolean squareWasPressed()            { return takePressed(SQUARE); }
+    @Override public boolean squareWasReleased()           { return takeReleased(SQUARE); }
+    @Override public boolean shareWasPressed()             { return takePressed(SHARE); }
+    @Override public boolean shareWasReleased()            { return takeReleased(SHARE); }
+    @Override public boolean optionsWasPressed()           { return takePressed(OPTIONS); }
+    @Override public boolean optionsWasReleased()          { return takeReleased(OPTIONS); }
+    @Override public boolean touchpadWasPressed()          { return takePressed(TOUCHPAD); }
+    @Override public boolean touchpadWasReleased()         { return takeReleased(TOUCHPAD); }
+    @Override public boolean psWasPressed()                { return takePressed(PS); }
+    @Override public boolean psWasReleased()               { return takeReleased(PS); }
+}
@@ -0,0 +1,23 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+/*
+ * Thrown during replay when the OpMode asks for something other than what the log has next: a
+ * different input, or an input where the log has a new frame.  The OpMode's control flow no longer
+ * matches the recording, so nothing after that point can be compared.
+ */
+public class ReplayDivergenceException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int frame;
+
+    public ReplayDivergenceException(int frame, String message) {
+        super("Frame " + frame + ": " + message);
+        this.frame = frame;
+    }
+
+    /** The number of frames replayed before the divergence. */
+    public int getFrame() {
+        return frame;
+    }
+}
@@ -0,0 +1,38 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+/*
+ * One output of an OpMode under replay, such as a motor power.
+ *
+ * While recording, set() logs the value and passes it on to the motor, if there is one.  While
+ * replaying, it compares the value with the one logged at the same point on the robot, and counts
+ * any difference in the session's ReplayReport.
+ */
+public class ReplayOutput {
+
+    private final ReplaySession session;
+    private final int channel;
+    private final String name;
+    private final DcMotorSimple motor;
+
+    ReplayOutput(ReplaySession session, int channel, String name, DcMotorSimple motor) {
+        this.session = session;
+        this.channel = channel;
+        this.name = name;
+        this.motor = motor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Logs or checks value, sets it as the motor's power if there is a motor, and returns it. */
+    public double set(double value) {
+        session.output(channel, value);
+        if (motor != null) {
+            motor.setPower(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+/*
+ * What a ReplaySession saw: how much was recorded or replayed and, for a replay, how the outputs
+ * compared with the recording.
+ */
+public class ReplayReport {
+    public int frames;
+    public long inputs;
+    public long outputs;
+    public long mismatches;
+    public double maxError;
+    /** A description of the first output that didn't match, or null. */
+    public String firstMismatch;
+    /** Why the replay stopped early, or null; see ReplayDivergenceException. */
+    public String divergence;
+    /** Time covered by the log, from the session's creation to its last frame. */
+    public double recordedSeconds;
+    /** Wall-clock time the OpMode took to run, as measured by ReplayRunner. */
+    public double runMs;
+
+    public boolean passed() {
+        return frames > 0 && outputs > 0 && mismatches == 0 && divergence == null;
+    }
+
+    /** How many times faster than real time the OpMode ran. */
+    public double getSpeedup() {
+        return runMs > 0 ? recordedSeconds * 1000 / runMs : 0;
+    }
+}
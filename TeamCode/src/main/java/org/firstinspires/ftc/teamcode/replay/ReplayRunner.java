@@ -0,0 +1,67 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+
+import java.io.File;
+import java.io.IOException;
+
+/*
+ * Runs an OpMode off the robot under a ReplaySession, as fast as it will go.
+ *
+ * The session is installed so that the OpMode's call to ReplaySession.forOpMode() picks it up, and
+ * when replaying, the OpMode's gamepad1/gamepad2 are pointed at the session's copies.  A LinearOpMode has its
+ * runOpMode() called directly: it runs until its isActive() loop sees the end of the log.  An
+ * iterative OpMode has init() and start() called, then loop() until the log is used up, then
+ * stop(); init_loop() isn't called, so it shouldn't start frames.  Anything that waits in real time
+ * (sleep(), or polling an ElapsedTime that isn't the session's) slows the replay down to match.
+ *
+ * The runner has no Android dependencies, so a log pulled off the Robot Controller can be replayed
+ * into the OpMode from a desktop JVM:
+ *     ReplayReport report = ReplayRunner.replay(new MyTeleOp(), new File("MyTeleOp-20260101-120000.replay"));
+ */
+public final class ReplayRunner {
+
+    private ReplayRunner() {
+    }
+
+    /** Replays the log in file into opMode. */
+    public static ReplayReport replay(OpMode opMode, File file) throws IOException {
+        return run(opMode, ReplaySession.replay(file));
+    }
+
+    /**
+     * Runs opMode under session, which may be replaying, or recording a simulation (in which case it
+     * needs a stop condition).
+     */
+    public static ReplayReport run(OpMode opMode, ReplaySession session) {
+        ReplayReport report = session.getReport();
+        if (session.isReplaying()) {
+            opMode.gamepad1 = session.getGamepad1();
+            opMode.gamepad2 = session.getGamepad2();
+        }
+        ReplaySession.install(session);
+        long start = System.nanoTime();
+        try {
+            if (opMode instanceof LinearOpMode) {
+                ((LinearOpMode) opMode).runOpMode();
+            } else {
+                opMode.init();
+                opMode.start();
+                do {
+                    opMode.loop();
+                } while (!session.isFinished());
+                opMode.stop();
+            }
+        } catch (ReplayDivergenceException e) {
+            report.divergence = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ReplaySession.uninstall();
+            session.close();
+        }
+        report.runMs = (System.nanoTime() - start) / 1e6;
+        return report;
+    }
+}
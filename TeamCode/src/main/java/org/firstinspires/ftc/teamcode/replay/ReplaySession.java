@@ -0,0 +1,902 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.Pose3D;
+import org.firstinspires.ftc.robotcore.external.navigation.Position;
+import org.firstinspires.ftc.robotcore.external.navigation.YawPitchRollAngles;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.input.GamepadButton;
+import org.firstinspires.ftc.teamcode.input.LiveGamepadFeed;
+import org.firstinspires.ftc.teamcode.odometry.EncoderSource;
+import org.firstinspires.ftc.teamcode.odometry.HeadingSource;
+import org.firstinspires.ftc.teamcode.realtime.OpModeStopCondition;
+import org.firstinspires.ftc.teamcode.realtime.StopCondition;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagGameDatabase;
+import org.firstinspires.ftc.vision.apriltag.AprilTagLibrary;
+import org.firstinspires.ftc.vision.apriltag.AprilTagPoseFtc;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.opencv.core.Point;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * Records every input an OpMode reads during a match, and plays them back into the same OpMode on
+ * a desktop JVM, comparing its outputs against the ones it produced on the robot.
+ *
+ * The OpMode reads its inputs through the session instead of straight from hardware: encoders,
+ * heading and other sensor values through wrapped sources, AprilTag detections through a wrapped
+ * processor, the gamepads through getGamepad1()/getGamepad2(), and the time through getRuntime()
+ * and newElapsedTime().  Its control flow goes through the session too: waitForStart(), inInit()
+ * and isActive() replace the LinearOpMode methods of the same names.  Each call to inInit() or
+ * isActive() starts a frame: it samples the clock and takes a copy of both gamepads, which the
+ * OpMode sees for the rest of the loop.  Outputs (motor powers and anything else worth checking)
+ * are set through ReplayOutput.
+ *
+ * While recording, each of these calls does the live read and appends the value to the log.  While
+ * replaying, nothing touches hardware (the hardware map is not available off the robot, so the
+ * OpMode skips its hardware setup when isReplaying()); the calls return the recorded values in the
+ * order they were recorded, and each output is compared with the recorded one.  If the OpMode reads
+ * its inputs in a different order than it did on the robot, its control flow has changed and no
+ * further comparison is meaningful, so a ReplayDivergenceException is thrown.
+ *
+ * The log is a binary stream collected in 64 KB buffers, which a background thread writes to the
+ * file (see BackgroundWriter), so the loop never waits on storage.  Recording does not allocate
+ * per loop except for AprilTag detections (which the processor allocates anyway); the gamepads are
+ * copied field by field into FrameGamepads rather than with Gamepad.copy(), which allocates.  If
+ * writing fails, or the writer thread falls too far behind, recording stops quietly and getError()
+ * reports why: losing the log must never stop the robot.  Call close() at the end of the OpMode to
+ * write the last of it.
+ *
+ * forOpMode() is all an OpMode needs: on the robot it records to FIRST/replay, named after the
+ * OpMode class and the time; under ReplayRunner it returns the session the runner installed.
+ */
+public class ReplaySession {
+
+    static final int MAGIC = 0x4654524C;   // "FTRL"
+    static final int VERSION = 1;
+
+    // Record tags
+    private static final int OPMODE = 1;
+    private static final int DECLARE = 2;
+    private static final int FRAME = 3;
+    private static final int INPUT = 4;
+    private static final int OUTPUT = 5;
+
+    // Channel kinds
+    private static final int ENCODERS = 0;
+    private static final int HEADING = 1;
+    private static final int VALUE = 2;
+    private static final int DETECTIONS = 3;
+    private static final int OUT = 4;
+    private static final String[] KIND_NAMES = { "encoders", "heading", "value", "detections", "output" };
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int WRITE_BUFFERS = 8;
+    private static final ThreadLocal<ReplaySession> installed = new ThreadLocal<>();
+
+    /** The time source while recording. */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    /** A single recorded sensor value, such as a voltage or a distance. */
+    public interface ValueSource {
+        double read();
+    }
+
+    /** The detections from an AprilTag processor. */
+    public interface DetectionSource {
+        List<AprilTagDetection> getDetections();
+    }
+
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final boolean replaying;
+    private BackgroundWriter writer;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private IOException error;
+    private boolean finished = false;
+
+    private Clock clock = SYSTEM_CLOCK;
+    private StopCondition stopCondition;
+    private LinearOpMode linearOpMode;
+    private AprilTagLibrary tagLibrary;
+    private double tolerance = 1e-9;
+
+    private final long originNanos;
+    private long nowNanos;
+    private final List<String> channelNames = new ArrayList<>();
+    private final List<Integer> channelKinds = new ArrayList<>();
+
+    private Gamepad liveGamepad1;
+    private Gamepad liveGamepad2;
+    private final FrameGamepad gamepad1 = new FrameGamepad();
+    private final FrameGamepad gamepad2 = new FrameGamepad();
+
+    private final ReplayReport report = new ReplayReport();
+
+    private ReplaySession(OutputStream stream, Clock clock) throws IOException {
+        this.replaying = false;
+        this.clock = clock;
+        this.writer = new BackgroundWriter(stream, BUFFER_SIZE, WRITE_BUFFERS);
+        this.out = new DataOutputStream(writer);
+        this.originNanos = clock.nanoTime();
+        this.nowNanos = originNanos;
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(originNanos);
+    }
+
+    private ReplaySession(InputStream stream) throws IOException {
+        this.replaying = true;
+        this.in = new DataInputStream(new BufferedInputStream(stream, BUFFER_SIZE));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay log");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Replay log version " + version + " is not supported");
+        }
+        this.originNanos = in.readLong();
+        this.nowNanos = originNanos;
+    }
+
+    /** Records to stream, timed by the system clock. */
+    public static ReplaySession record(OutputStream stream) throws IOException {
+        return new ReplaySession(stream, SYSTEM_CLOCK);
+    }
+
+    /** Records to stream, timed by clock (e.g. a simulation's). */
+    public static ReplaySession record(OutputStream stream, Clock clock) throws IOException {
+        return new ReplaySession(stream, clock);
+    }
+
+    public static ReplaySession replay(InputStream stream) throws IOException {
+        return new ReplaySession(stream);
+    }
+
+    public static ReplaySession replay(File file) throws IOException {
+        return new ReplaySession(new FileInputStream(file));
+    }
+
+    /**
+     * The session for this OpMode: the one installed by ReplayRunner if there is one, otherwise a
+     * new recording in FIRST/replay.  If the log file can't be created, the session still works
+     * but records nothing, and getError() says why.
+     */
+    public static ReplaySession forOpMode(OpMode opMode) {
+        ReplaySession session = installed.get();
+        installed.remove();
+        if (session == null) {
+            String name = opMode.getClass().getSimpleName() + "-"
+                    + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date()) + ".replay";
+            File folder = new File(AppUtil.FIRST_FOLDER, "replay");
+            try {
+                folder.mkdirs();
+                session = record(new FileOutputStream(new File(folder, name)));
+            } catch (IOException e) {
+                session = notRecording(e);
+            }
+        }
+        session.attach(opMode);
+        return session;
+    }
+
+    // A recording session that has already failed, so it passes live values through and writes nothing
+    private static ReplaySession notRecording(IOException e) {
+        try {
+            ReplaySession session = new ReplaySession(new DiscardingStream(), SYSTEM_CLOCK);
+            session.fail(e);
+            return session;
+        } catch (IOException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    private static class DiscardingStream extends OutputStream {
+        @Override public void write(int b) {
+        }
+    }
+
+    static void install(ReplaySession session) {
+        installed.set(session);
+    }
+
+    static void uninstall() {
+        installed.remove();
+    }
+
+    private void attach(OpMode opMode) {
+        // Unless a simulation has taken over with its own stop condition, recording follows the
+        // OpMode's start and stop
+        if (opMode instanceof LinearOpMode && stopCondition == null && !replaying) {
+            linearOpMode = (LinearOpMode) opMode;
+            stopCondition = new OpModeStopCondition(linearOpMode);
+        }
+        if (!replaying && liveGamepad1 == null && opMode.gamepad1 != null) {
+            setGamepads(opMode.gamepad1, opMode.gamepad2);
+        }
+
+        // The log starts with the OpMode it was recorded from, so replaying it into another one fails early
+        String name = opMode.getClass().getName();
+        if (replaying) {
+            if (next(OPMODE)) {
+                String recorded = readUtf();
+                if (!recorded.equals(name)) {
+                    throw new ReplayDivergenceException(0, "The log was recorded from " + recorded + ", not " + name);
+                }
+            }
+        } else if (out != null) {
+            try {
+                out.writeByte(OPMODE);
+                out.writeUTF(name);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * While recording, the session is active until this says to stop.  forOpMode() stops with a
+     * LinearOpMode, and passes waitForStart() and inInit() on to it, unless one has been set here.
+     */
+    public ReplaySession setStopCondition(StopCondition stopCondition) {
+        this.stopCondition = stopCondition;
+        return this;
+    }
+
+    /** The gamepads to copy each frame while recording.  forOpMode() sets the OpMode's own. */
+    public ReplaySession setGamepads(Gamepad gamepad1, Gamepad gamepad2) {
+        this.liveGamepad1 = gamepad1;
+        this.liveGamepad2 = gamepad2;
+        return this;
+    }
+
+    /** The library replayed AprilTag detections take their metadata from; the current game's by default. */
+    public ReplaySession setTagLibrary(AprilTagLibrary tagLibrary) {
+        this.tagLibrary = tagLibrary;
+        return this;
+    }
+
+    /**
+     * How far a replayed output may be from the recorded one and still match.  Not quite zero by
+     * default: Math.sin() and friends may differ in the last bit between Android and a desktop JVM.
+     */
+    public ReplaySession setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    /** True once a replay has reached the end of the log, or a recording's stop condition is met. */
+    public boolean isFinished() {
+        if (replaying) {
+            return finished;
+        }
+        return stopCondition != null && stopCondition.shouldStop();
+    }
+
+    /** The write error that stopped recording, or null. */
+    public IOException getError() {
+        return error;
+    }
+
+    public ReplayReport getReport() {
+        return report;
+    }
+
+    // --- Control flow ---
+
+    /** Replaces LinearOpMode.waitForStart(). */
+    public void waitForStart() {
+        if (linearOpMode != null) {
+            linearOpMode.waitForStart();
+        }
+    }
+
+    /** Replaces LinearOpMode.opModeInInit(), and starts a frame. */
+    public boolean inInit() {
+        return frame(linearOpMode != null && linearOpMode.opModeInInit());
+    }
+
+    /** Replaces LinearOpMode.opModeIsActive(), and starts a frame. */
+    public boolean isActive() {
+        return frame(!isFinished());
+    }
+
+    /** Starts a frame; for an iterative OpMode, call this at the top of loop() and return if it is false. */
+    public boolean frame() {
+        return frame(true);
+    }
+
+    private boolean frame(boolean active) {
+        if (replaying) {
+            if (!next(FRAME)) {
+                return false;
+            }
+            try {
+                nowNanos = in.readLong();
+                active = in.readBoolean();
+                int pads = in.readByte();
+                if ((pads & 1) != 0) {
+                    readGamepad(gamepad1);
+                }
+                if ((pads & 2) != 0) {
+                    readGamepad(gamepad2);
+                }
+            } catch (IOException e) {
+                end();
+                return false;
+            }
+            report.frames++;
+            report.recordedSeconds = getRuntime();
+            return active;
+        }
+
+        nowNanos = clock.nanoTime();
+        if (liveGamepad1 != null) {
+            gamepad1.copyFrom(liveGamepad1);
+        }
+        if (liveGamepad2 != null) {
+            gamepad2.copyFrom(liveGamepad2);
+        }
+        report.frames++;
+        report.recordedSeconds = getRuntime();
+        if (out != null) {
+            try {
+                out.writeByte(FRAME);
+                out.writeLong(nowNanos);
+                out.writeBoolean(active);
+                out.writeByte((liveGamepad1 != null ? 1 : 0) | (liveGamepad2 != null ? 2 : 0));
+                if (liveGamepad1 != null) {
+                    writeGamepad(gamepad1);
+                }
+                if (liveGamepad2 != null) {
+                    writeGamepad(gamepad2);
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return active;
+    }
+
+    // --- Time ---
+
+    /** The time at the start of the current frame. */
+    public long getTimeNanos() {
+        return nowNanos;
+    }
+
+    /** Replaces OpMode.getRuntime(): seconds from the creation of the session to the current frame. */
+    public double getRuntime() {
+        return (nowNanos - originNanos) / 1e9;
+    }
+
+    /** An ElapsedTime that reads the frame time. */
+    public ElapsedTime newElapsedTime() {
+        return new FrameElapsedTime();
+    }
+
+    private class FrameElapsedTime extends ElapsedTime {
+        @Override protected long nsNow() {
+            return nowNanos;
+        }
+    }
+
+    // --- Gamepads ---
+
+    /** gamepad1 as it was at the start of the current frame. */
+    public Gamepad getGamepad1() {
+        return gamepad1;
+    }
+
+    /** gamepad2 as it was at the start of the current frame. */
+    public Gamepad getGamepad2() {
+        return gamepad2;
+    }
+
+    private void writeGamepad(Gamepad g) throws IOException {
+        out.writeInt(LiveGamepadFeed.packButtons(g));
+        out.writeFloat(g.left_stick_x);
+        out.writeFloat(g.left_stick_y);
+        out.writeFloat(g.right_stick_x);
+        out.writeFloat(g.right_stick_y);
+        out.writeFloat(g.left_trigger);
+        out.writeFloat(g.right_trigger);
+        out.writeFloat(g.touchpad_finger_1_x);
+        out.writeFloat(g.touchpad_finger_1_y);
+        out.writeFloat(g.touchpad_finger_2_x);
+        out.writeFloat(g.touchpad_finger_2_y);
+        out.writeLong(g.timestamp);
+    }
+
+    // Fills the frame's gamepad the same way the live one is copied, so the was-pressed/was-released
+    // edges and PlayStation aliases come out the same
+    private void readGamepad(FrameGamepad g) throws IOException {
+        int buttons = in.readInt();
+        g.a = GamepadButton.A.isSet(buttons);
+        g.b = GamepadButton.B.isSet(buttons);
+        g.x = GamepadButton.X.isSet(buttons);
+        g.y = GamepadButton.Y.isSet(buttons);
+        g.dpad_up = GamepadButton.DPAD_UP.isSet(buttons);
+        g.dpad_down = GamepadButton.DPAD_DOWN.isSet(buttons);
+        g.dpad_left = GamepadButton.DPAD_LEFT.isSet(buttons);
+        g.dpad_right = GamepadButton.DPAD_RIGHT.isSet(buttons);
+        g.left_bumper = GamepadButton.LEFT_BUMPER.isSet(buttons);
+        g.right_bumper = GamepadButton.RIGHT_BUMPER.isSet(buttons);
+        g.left_stick_button = GamepadButton.LEFT_STICK_BUTTON.isSet(buttons);
+        g.right_stick_button = GamepadButton.RIGHT_STICK_BUTTON.isSet(buttons);
+        g.back = GamepadButton.BACK.isSet(buttons);
+        g.start = GamepadButton.START.isSet(buttons);
+        g.guide = GamepadButton.GUIDE.isSet(buttons);
+        g.touchpad = GamepadButton.TOUCHPAD.isSet(buttons);
+        g.touchpad_finger_1 = GamepadButton.TOUCHPAD_FINGER_1.isSet(buttons);
+        g.touchpad_finger_2 = GamepadButton.TOUCHPAD_FINGER_2.isSet(buttons);
+        g.left_stick_x = in.readFloat();
+        g.left_stick_y = in.readFloat();
+        g.right_stick_x = in.readFloat();
+        g.right_stick_y = in.readFloat();
+        g.left_trigger = in.readFloat();
+        g.right_trigger = in.readFloat();
+        g.touchpad_finger_1_x = in.readFloat();
+        g.touchpad_finger_1_y = in.readFloat();
+        g.touchpad_finger_2_x = in.readFloat();
+        g.touchpad_finger_2_y = in.readFloat();
+        g.timestamp = in.readLong();
+        g.buttonsChanged();
+    }
+
+    // --- Inputs ---
+
+    /** Records or replays an encoder source.  Pass null for live while replaying. */
+    public EncoderSource encoders(String name, final EncoderSource live) {
+        final int size = declare(name, ENCODERS, live == null ? 0 : live.size());
+        final int channel = channelNames.size() - 1;
+        return new EncoderSource() {
+            @Override public int size() {
+                return size;
+            }
+
+            @Override public boolean read(int[] positions) {
+                if (replaying) {
+                    if (!next(INPUT, channel)) {
+                        return false;
+                    }
+                    try {
+                        boolean ok = in.readBoolean();
+                        if (ok) {
+                            for (int i = 0; i < size; i++) {
+                                positions[i] = in.readInt();
+                            }
+                        }
+                        return ok;
+                    } catch (IOException e) {
+                        end();
+                        return false;
+                    }
+                }
+                boolean ok = live.read(positions);
+                if (startInput(channel)) {
+                    try {
+                        out.writeBoolean(ok);
+                        if (ok) {
+                            for (int i = 0; i < size; i++) {
+                                out.writeInt(positions[i]);
+                            }
+                        }
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                return ok;
+            }
+        };
+    }
+
+    /** Records or replays a heading source.  Pass null for live while replaying. */
+    public HeadingSource heading(String name, final HeadingSource live) {
+        declare(name, HEADING, 1);
+        final int channel = channelNames.size() - 1;
+        return new HeadingSource() {
+            private double last;
+
+            @Override public double getHeadingRadians() {
+                last = replaying ? readDouble(channel, last) : writeDouble(channel, live.getHeadingRadians());
+                return last;
+            }
+        };
+    }
+
+    /** Records or replays any other sensor value.  Pass null for live while replaying. */
+    public ValueSource value(String name, final ValueSource live) {
+        declare(name, VALUE, 1);
+        final int channel = channelNames.size() - 1;
+        return new ValueSource() {
+            private double last;
+
+            @Override public double read() {
+                last = replaying ? readDouble(channel, last) : writeDouble(channel, live.read());
+                return last;
+            }
+        };
+    }
+
+    /**
+     * Records or replays an AprilTag processor's detections.  Pass null for live while replaying.
+     * Replayed detections carry everything but rawPose, with metadata looked up by id; the same list
+     * is refilled on every call.
+     */
+    public DetectionSource detections(String name, final AprilTagProcessor live) {
+        return detections(name, live == null ? null : new DetectionSource() {
+            @Override public List<AprilTagDetection> getDetections() {
+                return live.getDetections();
+            }
+        });
+    }
+
+    /** As detections(String, AprilTagProcessor), for any source of detections. */
+    public DetectionSource detections(String name, final DetectionSource live) {
+        declare(name, DETECTIONS, 1);
+        final int channel = channelNames.size() - 1;
+        return new DetectionSource() {
+            private final List<AprilTagDetection> replayed = new ArrayList<>();
+
+            @Override public List<AprilTagDetection> getDetections() {
+                if (replaying) {
+                    replayed.clear();
+                    if (next(INPUT, channel)) {
+                        try {
+                            readDetections(replayed);
+                        } catch (IOException e) {
+                            end();
+                        }
+                    }
+                    return replayed;
+                }
+                List<AprilTagDetection> detections = live.getDetections();
+                if (startInput(channel)) {
+                    try {
+                        writeDetections(detections);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                return detections;
+            }
+        };
+    }
+
+    private void writeDetections(List<AprilTagDetection> detections) throws IOException {
+        out.writeShort(detections.size());
+        for (AprilTagDetection d : detections) {
+            out.writeInt(d.id);
+            out.writeInt(d.hamming);
+            out.writeFloat(d.decisionMargin);
+            out.writeLong(d.frameAcquisitionNanoTime);
+            out.writeDouble(d.center.x);
+            out.writeDouble(d.center.y);
+            int corners = d.corners == null ? 0 : d.corners.length;
+            out.writeByte(corners);
+            for (int i = 0; i < corners; i++) {
+                out.writeDouble(d.corners[i].x);
+                out.writeDouble(d.corners[i].y);
+            }
+            out.writeBoolean(d.ftcPose != null);
+            if (d.ftcPose != null) {
+                AprilTagPoseFtc p = d.ftcPose;
+                out.writeDouble(p.x);
+                out.writeDouble(p.y);
+                out.writeDouble(p.z);
+                out.writeDouble(p.yaw);
+                out.writeDouble(p.pitch);
+                out.writeDouble(p.roll);
+                out.writeDouble(p.range);
+                out.writeDouble(p.bearing);
+                out.writeDouble(p.elevation);
+            }
+            out.writeBoolean(d.robotPose != null);
+            if (d.robotPose != null) {
+                Position position = d.robotPose.getPosition();
+                YawPitchRollAngles orientation = d.robotPose.getOrientation();
+                out.writeByte(position.unit.ordinal());
+                out.writeDouble(position.x);
+                out.writeDouble(position.y);
+                out.writeDouble(position.z);
+                out.writeLong(position.acquisitionTime);
+                out.writeDouble(orientation.getYaw(AngleUnit.DEGREES));
+                out.writeDouble(orientation.getPitch(AngleUnit.DEGREES));
+                out.writeDouble(orientation.getRoll(AngleUnit.DEGREES));
+                out.writeLong(orientation.getAcquisitionTime());
+            }
+        }
+    }
+
+    private void readDetections(List<AprilTagDetection> into) throws IOException {
+        if (tagLibrary == null) {
+            tagLibrary = AprilTagGameDatabase.getCurrentGameTagLibrary();
+        }
+        int count = in.readShort();
+        for (int n = 0; n < count; n++) {
+            int id = in.readInt();
+            int hamming = in.readInt();
+            float decisionMargin = in.readFloat();
+            long acquired = in.readLong();
+            Point center = new Point(in.readDouble(), in.readDouble());
+            Point[] corners = new Point[in.readByte()];
+            for (int i = 0; i < corners.length; i++) {
+                corners[i] = new Point(in.readDouble(), in.readDouble());
+            }
+            AprilTagPoseFtc ftcPose = null;
+            if (in.readBoolean()) {
+                ftcPose = new AprilTagPoseFtc(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+            }
+            Pose3D robotPose = null;
+            if (in.readBoolean()) {
+                DistanceUnit unit = DistanceUnit.values()[in.readByte()];
+                Position position = new Position(unit, in.readDouble(), in.readDouble(), in.readDouble(), in.readLong());
+                YawPitchRollAngles orientation = new YawPitchRollAngles(AngleUnit.DEGREES,
+                        in.readDouble(), in.readDouble(), in.readDouble(), in.readLong());
+                robotPose = new Pose3D(position, orientation);
+            }
+            into.add(new AprilTagDetection(id, hamming, decisionMargin, center, corners, tagLibrary.lookupTag(id),
+                    ftcPose, null, robotPose, acquired));
+        }
+    }
+
+    // --- Outputs ---
+
+    /** An output that is only logged and compared. */
+    public ReplayOutput output(String name) {
+        return motor(name, null);
+    }
+
+    /** An output that also sets the power of motor (which is null while replaying). */
+    public ReplayOutput motor(String name, DcMotorSimple motor) {
+        declare(name, OUT, 1);
+        return new ReplayOutput(this, channelNames.size() - 1, name, motor);
+    }
+
+    void output(int channel, double value) {
+        if (!replaying) {
+            if (startOutput(channel)) {
+                try {
+                    out.writeDouble(value);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            report.outputs++;
+            return;
+        }
+        if (!next(OUTPUT, channel)) {
+            return;
+        }
+        double expected;
+        try {
+            expected = in.readDouble();
+        } catch (IOException e) {
+            end();
+            return;
+        }
+        report.outputs++;
+        double error = Math.abs(value - expected);
+        if (Double.isNaN(value) != Double.isNaN(expected) || error > tolerance) {
+            report.mismatches++;
+            if (report.firstMismatch == null) {
+                report.firstMismatch = String.format(Locale.US, "Frame %d: %s was %s on the robot, %s in replay",
+                        report.frames, channelNames.get(channel), expected, value);
+            }
+        }
+        if (!Double.isNaN(error)) {
+            report.maxError = Math.max(report.maxError, error);
+        }
+    }
+
+    // --- Log plumbing ---
+
+    // Declares a channel; while replaying, checks it against the log and returns the recorded size
+    private int declare(String name, int kind, int size) {
+        channelNames.add(name);
+        channelKinds.add(kind);
+        if (replaying) {
+            if (!next(DECLARE)) {
+                return size;
+            }
+            try {
+                int recordedKind = in.readByte();
+                String recordedName = in.readUTF();
+                int recordedSize = in.readInt();
+                if (recordedKind != kind || !recordedName.equals(name)) {
+                    throw new ReplayDivergenceException(report.frames, "The OpMode created " + KIND_NAMES[kind]
+                            + " '" + name + "' but the log has " + KIND_NAMES[recordedKind] + " '" + recordedName + "'");
+                }
+                return recordedSize;
+            } catch (IOException e) {
+                end();
+                return size;
+            }
+        }
+        if (out != null) {
+            try {
+                out.writeByte(DECLARE);
+                out.writeByte(kind);
+                out.writeUTF(name);
+                out.writeInt(size);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return size;
+    }
+
+    private boolean startInput(int channel) {
+        report.inputs++;
+        return start(INPUT, channel);
+    }
+
+    private boolean startOutput(int channel) {
+        return start(OUTPUT, channel);
+    }
+
+    private boolean start(int tag, int channel) {
+        if (out == null) {
+            return false;
+        }
+        try {
+            out.writeByte(tag);
+            out.writeShort(channel);
+            return true;
+        } catch (IOException e) {
+            fail(e);
+            return false;
+        }
+    }
+
+    private double writeDouble(int channel, double value) {
+        if (startInput(channel)) {
+            try {
+                out.writeDouble(value);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return value;
+    }
+
+    private double readDouble(int channel, double last) {
+        if (!next(INPUT, channel)) {
+            return last;
+        }
+        try {
+            return in.readDouble();
+        } catch (IOException e) {
+            end();
+            return last;
+        }
+    }
+
+    private String readUtf() {
+        try {
+            return in.readUTF();
+        } catch (IOException e) {
+            end();
+            return "";
+        }
+    }
+
+    private boolean next(int tag) {
+        return next(tag, -1);
+    }
+
+    // Reads the next record's header, checking it is the one the OpMode is asking for.  Returns false
+    // at the end of the log, after which every read returns its last value and outputs aren't checked.
+    private boolean next(int tag, int channel) {
+        if (finished) {
+            return false;
+        }
+        try {
+            int recordedTag = in.readByte();
+            int recordedChannel = recordedTag == INPUT || recordedTag == OUTPUT ? in.readShort() : -1;
+            if (recordedTag != tag || recordedChannel != channel) {
+                throw new ReplayDivergenceException(report.frames, "The OpMode asked for " + describe(tag, channel)
+                        + " but the log has " + describe(recordedTag, recordedChannel));
+            }
+        } catch (EOFException e) {
+            end();
+            return false;
+        } catch (IOException e) {
+            error = e;
+            end();
+            return false;
+        }
+        if (tag == INPUT) {
+            report.inputs++;
+        }
+        return true;
+    }
+
+    private String describe(int tag, int channel) {
+        switch (tag) {
+            case OPMODE:  return "the OpMode name";
+            case DECLARE: return "a new channel";
+            case FRAME:   return "a new frame";
+            case INPUT:
+            case OUTPUT:
+                return channel >= 0 && channel < channelNames.size()
+                        ? KIND_NAMES[channelKinds.get(channel)] + " '" + channelNames.get(channel) + "'"
+                        : "channel " + channel;
+            default:      return "record type " + tag;
+        }
+    }
+
+    private void end() {
+        finished = true;
+    }
+
+    // Stops recording without waiting for the writer thread, which may be stuck on the file
+    private void fail(IOException e) {
+        error = e;
+        if (writer != null) {
+            writer.abandon();
+            writer = null;
+        }
+        out = null;
+    }
+
+    /** Flushes and closes the log. */
+    public void close() {
+        try {
+            if (out != null) {
+                DataOutputStream stream = out;
+                out = null;
+                writer = null;
+                stream.close();
+            }
+            if (in != null) {
+                in.close();
+                in = null;
+                finished = true;
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /** The names of the channels declared so far, in order. */
+    public List<String> getChannelNames() {
+        return Collections.unmodifiableList(channelNames);
+    }
+}
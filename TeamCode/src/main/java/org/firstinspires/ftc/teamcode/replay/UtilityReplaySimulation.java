@@ -0,0 +1,286 @@
+package org.firstinspires.ftc.teamcode.replay;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.firstinspires.ftc.teamcode.odometry.EncoderSource;
+import org.firstinspires.ftc.teamcode.odometry.HeadingSource;
+import org.firstinspires.ftc.teamcode.odometry.ThreeWheelOdometry;
+import org.firstinspires.ftc.teamcode.odometry.TwoWheelImuOdometry;
+import org.firstinspires.ftc.teamcode.realtime.StopCondition;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagPoseFtc;
+import org.opencv.core.Point;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * This OpMode checks ReplaySession and ReplayRunner end to end, with no hardware needed.
+ *
+ * A field-centric mecanum TeleOp (DriveOpMode below) is written the way a real one would be for
+ * replay: odometry from two dead wheels and the IMU, the driver's sticks and buttons, AprilTag
+ * detections that slow the robot near a tag, and the frame clock, all read through the session.
+ * It is first run against a simulated robot with a scripted driver and uneven loop times, for 30
+ * seconds of simulated match, recording to memory.  The log is then replayed three times, into:
+ *
+ *   - the same OpMode: every motor power must match the recording exactly
+ *   - the OpMode with its heading gain changed by 10%: the replay must find the mismatch
+ *   - the OpMode with an extra IMU read in its loop: the replay must report the divergence
+ *
+ * and the unchanged replay must run at least 10 times faster than real time.
+ *
+ * The recording side uses the same simulated robot as its hardware, so the whole check runs
+ * wherever ReplayRunner itself does, including the desktop JVM replays are meant for.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Replay Simulation", group = "Utility")
+@Disabled
+public class UtilityReplaySimulation extends LinearOpMode {
+
+    static final double DURATION_SECONDS = 30;
+    static final double HEADING_GAIN = 1.5;
+    static final double MIN_SPEEDUP = 10;
+    static final double TICKS_PER_MM = ThreeWheelOdometry.ticksPerMm(2000, 32);
+
+    /**
+     * A mecanum robot with two dead wheels, an IMU, a camera seeing one tag, and a scripted driver.
+     * Its clock advances the simulation by one loop of 8 to 14 ms each time a frame starts.
+     */
+    static class SimulatedRobot implements ReplaySession.Clock, StopCondition {
+        static final double MAX_SPEED = 1500;       // mm/s at full power
+        static final double MAX_TURN = Math.PI;     // rad/s at full power
+        static final double TAG_X = 1500;           // A tag on the far wall, facing the robot
+        static final double TAG_Y = 0;
+
+        final Gamepad gamepad = new Gamepad();
+        final Random random = new Random(37);
+        final double[] power = new double[4];
+        long nanos = 1000000000L;
+        long steps = 0;
+        double x, y, heading;
+        double parallel, perp;
+
+        final EncoderSource encoders = new EncoderSource() {
+            @Override public int size() {
+                return 2;
+            }
+
+            @Override public boolean read(int[] positions) {
+                positions[0] = (int) parallel;
+                positions[1] = (int) perp;
+                return true;
+            }
+        };
+
+        final HeadingSource imu = new HeadingSource() {
+            @Override public double getHeadingRadians() {
+                return AngleUnit.normalizeRadians(heading);
+            }
+        };
+
+        final ReplaySession.DetectionSource camera = new ReplaySession.DetectionSource() {
+            private final List<AprilTagDetection> detections = new ArrayList<>();
+
+            @Override public List<AprilTagDetection> getDetections() {
+                detections.clear();
+                double dx = TAG_X - x;
+                double dy = TAG_Y - y;
+                double bearing = AngleUnit.normalizeRadians(Math.atan2(dy, dx) - heading);
+                if (steps % 3 == 0 && Math.abs(bearing) < Math.toRadians(35)) {
+                    double range = Math.hypot(dx, dy) / 25.4;
+                    AprilTagPoseFtc pose = new AprilTagPoseFtc(-range * Math.sin(bearing), range * Math.cos(bearing), 0,
+                            Math.toDegrees(bearing), 0, 0, range, Math.toDegrees(bearing), 0);
+                    detections.add(new AprilTagDetection(20, 0, 50, new Point(320, 240), null, null, pose, null, null,
+                            nanos));
+                }
+                return detections;
+            }
+        };
+
+        void setPowers(double[] powers) {
+            System.arraycopy(powers, 0, power, 0, 4);
+        }
+
+        @Override public long nanoTime() {
+            double dt = (8 + random.nextInt(7)) / 1000.0;
+            nanos += (long) (dt * 1e9);
+            steps++;
+
+            double forward = (power[0] + power[1] + power[2] + power[3]) / 4 * MAX_SPEED * dt;
+            double left = (-power[0] + power[1] + power[2] - power[3]) / 4 * MAX_SPEED * dt;
+            double turn = (-power[0] + power[1] - power[2] + power[3]) / 4 * MAX_TURN * dt;
+            x += forward * Math.cos(heading) - left * Math.sin(heading);
+            y += forward * Math.sin(heading) + left * Math.cos(heading);
+            heading += turn;
+            parallel += forward * TICKS_PER_MM;
+            perp += left * TICKS_PER_MM;
+
+            // The driver weaves around, turns 90 degrees every 7 seconds, and slows down for a while
+            double t = steps * 0.011;
+            gamepad.left_stick_y = (float) (-0.8 * Math.sin(t * 0.5));
+            gamepad.left_stick_x = (float) (0.5 * Math.cos(t * 0.3));
+            gamepad.right_stick_x = (float) (0.3 * Math.sin(t * 0.7));
+            gamepad.a = t % 7 < 0.2;
+            gamepad.right_bumper = t > 10 && t < 15;
+            gamepad.timestamp = steps;
+            return nanos;
+        }
+
+        @Override public boolean shouldStop() {
+            return steps * 0.011 >= DURATION_SECONDS;
+        }
+    }
+
+    /**
+     * The OpMode under test.  On the robot, robot would be its hardware; it is null while replaying,
+     * as the hardware would be.
+     */
+    public static class DriveOpMode extends LinearOpMode {
+        private final SimulatedRobot robot;
+        private final double headingGain;
+        private final boolean extraImuRead;
+
+        DriveOpMode(SimulatedRobot robot, double headingGain, boolean extraImuRead) {
+            this.robot = robot;
+            this.headingGain = headingGain;
+            this.extraImuRead = extraImuRead;
+        }
+
+        @Override
+        public void runOpMode() {
+            ReplaySession session = ReplaySession.forOpMode(this);
+            EncoderSource encoders = session.encoders("odometry", robot == null ? null : robot.encoders);
+            HeadingSource imu = session.heading("imu", robot == null ? null : robot.imu);
+            ReplaySession.DetectionSource camera = session.detections("camera", robot == null ? null : robot.camera);
+            ReplayOutput[] wheels = {
+                    session.output("left_front"), session.output("right_front"),
+                    session.output("left_back"), session.output("right_back")
+            };
+            TwoWheelImuOdometry odometry = new TwoWheelImuOdometry(encoders, imu, TICKS_PER_MM, DistanceUnit.MM, 0, 0);
+            ElapsedTime sinceTag = session.newElapsedTime();
+            double[] power = new double[4];
+            double targetHeading = 0;
+            boolean tagSeen = false;
+
+            session.waitForStart();
+            while (session.isActive()) {
+                odometry.update(session.getTimeNanos());
+                if (extraImuRead) {
+                    imu.getHeadingRadians();
+                }
+                for (AprilTagDetection detection : camera.getDetections()) {
+                    if (detection.ftcPose != null && detection.ftcPose.range < 40) {
+                        sinceTag.reset();
+                        tagSeen = true;
+                    }
+                }
+
+                Gamepad gamepad = session.getGamepad1();
+                if (gamepad.aWasPressed()) {
+                    targetHeading += Math.PI / 2;
+                }
+                targetHeading -= gamepad.right_stick_x * 0.02;
+                double scale = gamepad.right_bumper ? 0.4 : 1.0;
+                if (tagSeen && sinceTag.milliseconds() < 500) {
+                    scale *= 0.7;
+                }
+
+                // Field-centric: rotate the stick into the robot's frame
+                double heading = odometry.getHeading(AngleUnit.RADIANS);
+                double fieldForward = -gamepad.left_stick_y * scale;
+                double fieldLeft = -gamepad.left_stick_x * scale;
+                double forward = fieldForward * Math.cos(heading) + fieldLeft * Math.sin(heading);
+                double left = -fieldForward * Math.sin(heading) + fieldLeft * Math.cos(heading);
+                double turn = headingGain * AngleUnit.normalizeRadians(targetHeading - heading);
+                power[0] = forward - left - turn;
+                power[1] = forward + left + turn;
+                power[2] = forward + left - turn;
+                power[3] = forward - left + turn;
+                double max = Math.max(1, Math.max(Math.max(Math.abs(power[0]), Math.abs(power[1])),
+                        Math.max(Math.abs(power[2]), Math.abs(power[3]))));
+                for (int i = 0; i < 4; i++) {
+                    power[i] = wheels[i].set(power[i] / max);
+                }
+                if (robot != null) {
+                    robot.setPowers(power);
+                }
+            }
+            for (ReplayOutput wheel : wheels) {
+                wheel.set(0);
+            }
+            session.close();
+        }
+    }
+
+    public static class Result {
+        public ReplayReport recording;
+        public int logBytes;
+        public ReplayReport replay;
+        public ReplayReport modified;
+        public ReplayReport misordered;
+
+        public boolean passed() {
+            return recording.frames > 0
+                    && replay.passed() && replay.frames == recording.frames && replay.getSpeedup() >= MIN_SPEEDUP
+                    && modified.mismatches > 0
+                    && misordered.divergence != null;
+        }
+    }
+
+    public static Result simulate() {
+        Result result = new Result();
+        try {
+            SimulatedRobot robot = new SimulatedRobot();
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            ReplaySession recording = ReplaySession.record(log, robot).setStopCondition(robot)
+                    .setGamepads(robot.gamepad, null);
+            result.recording = ReplayRunner.run(new DriveOpMode(robot, HEADING_GAIN, false), recording);
+            byte[] bytes = log.toByteArray();
+            result.logBytes = bytes.length;
+
+            result.replay = ReplayRunner.run(new DriveOpMode(null, HEADING_GAIN, false),
+                    ReplaySession.replay(new ByteArrayInputStream(bytes)));
+            result.modified = ReplayRunner.run(new DriveOpMode(null, HEADING_GAIN * 1.1, false),
+                    ReplaySession.replay(new ByteArrayInputStream(bytes)));
+            result.misordered = ReplayRunner.run(new DriveOpMode(null, HEADING_GAIN, true),
+                    ReplaySession.replay(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            // In-memory streams don't fail
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void runOpMode() {
+        telemetry.addData(">", "Touch START to run the simulation");
+        telemetry.update();
+        waitForStart();
+
+        Result result = simulate();
+        telemetry.addData("Result", result.passed() ? "PASS" : "FAIL");
+        telemetry.addData("Recorded", "%d frames, %.1f s, %d KB (%d bytes/frame)", result.recording.frames,
+                result.recording.recordedSeconds, result.logBytes / 1024, result.logBytes / Math.max(1, result.recording.frames));
+        telemetry.addData("Replay", "%d outputs, %d mismatches, %.0f ms (%.0fx real time)", result.replay.outputs,
+                result.replay.mismatches, result.replay.runMs, result.replay.getSpeedup());
+        telemetry.addData("Changed gain", "%d mismatches, first: %s", result.modified.mismatches,
+                result.modified.firstMismatch);
+        telemetry.addData("Extra IMU read", "%s", result.misordered.divergence);
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.videoio.VideoWriter;
+import org.opencv.videoio.Videoio;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/*
+ * A VisionProcessor that keeps the last few seconds of camera frames, so that when vision goes
+ * wrong in a match the moments leading up to it can be saved and watched afterwards.
+ *
+ * Frames are kept in a ring of Mats allocated once, when the camera starts: the ring holds
+ * seconds * fps frames, each downscaled, and the oldest is overwritten as each new one arrives.
+ * Keeping a frame costs one resize into its slot on the vision thread; nothing is encoded or
+ * written while recording, and the memory used never grows past getMemoryBytes().
+ *
+ * When trigger() is called (from any thread), the recorder keeps recording for the post-trigger
+ * time, then freezes the ring and encodes it to a Motion-JPEG AVI in FIRST/camera on a minimum
+ * priority thread.  While it encodes, new frames are not kept, so the vision thread does no extra
+ * work; once the file is written the ring starts over.  If the video writer is not available, the
+ * frames are written as JPEGs to a folder instead.  Call save() at the end of the OpMode to encode
+ * whatever is in the ring.  If encoding fails, the ring still starts over, and getFailure() says
+ * why.
+ *
+ * Each saved frame is stamped with its time and sequence number, and can carry annotations: boxes
+ * around the AprilTags and blobs found in that same frame.  recordTags() and recordBlobs() subscribe
+ * to VisionPublishers for these; annotate() adds others.  Annotations are matched to frames by
+ * capture time, so add the recorder to the VisionPortal after the processors it annotates, and
+ * call annotate() only from the vision thread, i.e. from a VisionPublisher.Listener.
+ *
+ *     CameraRecorder recorder = new CameraRecorder.Builder().setSeconds(10).setFps(10).build();
+ *     recorder.recordTags(tagPublisher);
+ *     visionPortal = new VisionPortal.Builder().setCamera(...).addProcessors(tagPublisher, recorder).build();
+ */
+public class CameraRecorder implements VisionProcessor {
+
+    private static final int MAX_ANNOTATIONS = 16;
+    private static final Scalar TEXT_COLOR = new Scalar(255, 255, 255);
+
+    public static final Scalar TAG_COLOR = new Scalar(0, 255, 0);
+    public static final Scalar BLOB_COLOR = new Scalar(255, 0, 255);
+
+    public static class Builder {
+        private double seconds = 10;
+        private double fps = 10;
+        private int downscale = 2;
+        private double postTriggerSeconds = 2;
+        private File folder = new File(AppUtil.FIRST_FOLDER, "camera");
+
+        /** How much history the ring holds. */
+        public Builder setSeconds(double seconds) {
+            this.seconds = seconds;
+            return this;
+        }
+
+        /** How many frames per second are kept; the camera's others are skipped. */
+        public Builder setFps(double fps) {
+            this.fps = fps;
+            return this;
+        }
+
+        /** Keep frames at 1/factor of the camera's width and height. */
+        public Builder setDownscale(int factor) {
+            this.downscale = Math.max(1, factor);
+            return this;
+        }
+
+        /** How long to keep recording after trigger() before saving. */
+        public Builder setPostTriggerSeconds(double seconds) {
+            this.postTriggerSeconds = seconds;
+            return this;
+        }
+
+        public Builder setFolder(File folder) {
+            this.folder = folder;
+            return this;
+        }
+
+        public CameraRecorder build() {
+            if (seconds <= 0 || fps <= 0) {
+                throw new IllegalArgumentException("seconds and fps must be positive");
+            }
+            return new CameraRecorder(this);
+        }
+    }
+
+    private enum State { RECORDING, POST_TRIGGER, ENCODING }
+
+    private final int capacity;
+    private final int downscale;
+    private final long periodNanos;
+    private final long postTriggerNanos;
+    private final double fps;
+    private final File folder;
+    private final Object lock = new Object();
+
+    // The ring, allocated in init()
+    private Mat[] frames;
+    private Size frameSize;
+    private final long[] captureNanos;
+    private final long[] sequence;
+    private final int[] annotationCount;
+    private final int[] annotationLabel;
+    private final double[] annotationBox;
+    private final Scalar[] annotationColor;
+    private int head = 0;
+    private int count = 0;
+    private long framesSeen = 0;
+    private long lastKeptNanos = 0;
+    private long firstCaptureNanos = 0;
+
+    // Annotations for the frame the other processors are working on, waiting for processFrame()
+    private int pendingCount = 0;
+    private long pendingNanos = 0;
+    private final int[] pendingLabel = new int[MAX_ANNOTATIONS];
+    private final double[] pendingBox = new double[MAX_ANNOTATIONS * 4];
+    private final Scalar[] pendingColor = new Scalar[MAX_ANNOTATIONS];
+
+    private State state = State.RECORDING;
+    private volatile String triggerReason;
+    private long stopAtNanos;
+    private volatile File lastFile;
+    private volatile double lastEncodeMs;
+    private volatile Throwable failure;
+    private volatile int savedCount = 0;
+    private volatile boolean encoding = false;
+
+    private CameraRecorder(Builder builder) {
+        this.capacity = Math.max(1, (int) Math.ceil(builder.seconds * builder.fps));
+        this.downscale = builder.downscale;
+        this.fps = builder.fps;
+        this.periodNanos = (long) (1e9 / builder.fps);
+        this.postTriggerNanos = (long) (builder.postTriggerSeconds * 1e9);
+        this.folder = builder.folder;
+        captureNanos = new long[capacity];
+        sequence = new long[capacity];
+        annotationCount = new int[capacity];
+        annotationLabel = new int[capacity * MAX_ANNOTATIONS];
+        annotationBox = new double[capacity * MAX_ANNOTATIONS * 4];
+        annotationColor = new Scalar[capacity * MAX_ANNOTATIONS];
+    }
+
+    /** Outlines every AprilTag the publisher reports, labelled with its id. */
+    public CameraRecorder recordTags(VisionPublisher<AprilTagDetection> tags) {
+        tags.addListener(new VisionPublisher.Listener<AprilTagDetection>() {
+            @Override public void onFrame(VisionFrame<AprilTagDetection> frame) {
+                for (int i = 0; i < frame.size(); i++) {
+                    AprilTagDetection detection = frame.get(i);
+                    double left = Double.MAX_VALUE, top = Double.MAX_VALUE;
+                    double right = -Double.MAX_VALUE, bottom = -Double.MAX_VALUE;
+                    for (Point corner : detection.corners) {
+                        left = Math.min(left, corner.x);
+                        top = Math.min(top, corner.y);
+                        right = Math.max(right, corner.x);
+                        bottom = Math.max(bottom, corner.y);
+                    }
+                    annotate(frame.getCaptureTimeNanos(), detection.id, left, top, right, bottom, TAG_COLOR);
+                }
+            }
+        });
+        return this;
+    }
+
+    /** Outlines every blob the publisher reports. */
+    public CameraRecorder recordBlobs(VisionPublisher<ColorBlobLocatorProcessor.Blob> blobs) {
+        blobs.addListener(new VisionPublisher.Listener<ColorBlobLocatorProcessor.Blob>() {
+            @Override public void onFrame(VisionFrame<ColorBlobLocatorProcessor.Blob> frame) {
+                for (int i = 0; i < frame.size(); i++) {
+                    RotatedRect box = frame.get(i).getBoxFit();
+                    double halfWidth = box.size.width / 2;
+                    double halfHeight = box.size.height / 2;
+                    annotate(frame.getCaptureTimeNanos(), -1, box.center.x - halfWidth, box.center.y - halfHeight,
+                            box.center.x + halfWidth, box.center.y + halfHeight, BLOB_COLOR);
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Draws a box, in full-resolution frame pixels, on the saved frame captured at captureTimeNanos,
+     * labelled with label unless it is negative.  Vision thread only.
+     */
+    public void annotate(long captureTimeNanos, int label, double left, double top, double right, double bottom,
+                         Scalar color) {
+        if (captureTimeNanos != pendingNanos) {
+            pendingNanos = captureTimeNanos;
+            pendingCount = 0;
+        }
+        if (pendingCount == MAX_ANNOTATIONS) {
+            return;
+        }
+        int i = pendingCount++;
+        pendingLabel[i] = label;
+        pendingBox[i * 4] = left;
+        pendingBox[i * 4 + 1] = top;
+        pendingBox[i * 4 + 2] = right;
+        pendingBox[i * 4 + 3] = bottom;
+        pendingColor[i] = color;
+    }
+
+    /** Save the ring once the post-trigger time has passed.  Ignored while already saving. */
+    public void trigger(String reason) {
+        if (!encoding) {
+            triggerReason = reason;
+        }
+    }
+
+    /** Save whatever is in the ring now, e.g. at the end of the OpMode.  Returns false if there is nothing to save. */
+    public boolean save(String reason) {
+        synchronized (lock) {
+            if (state == State.ENCODING || count == 0) {
+                return false;
+            }
+            triggerReason = null;
+            startEncoding(reason);
+            return true;
+        }
+    }
+
+    /** Waits for the file being written, if any, to be finished.  Returns false on timeout. */
+    public boolean awaitSaved(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (lock) {
+            while (encoding) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+        synchronized (lock) {
+            if (frames != null) {
+                return;
+            }
+            frames = new Mat[capacity];
+            for (int i = 0; i < capacity; i++) {
+                frames[i] = new Mat(height / downscale, width / downscale, CvType.CV_8UC3);
+            }
+            frameSize = frames[0].size();
+        }
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        framesSeen++;
+        synchronized (lock) {
+            if (state == State.ENCODING) {
+                return null;
+            }
+            String reason = triggerReason;
+            if (state == State.RECORDING && reason != null) {
+                state = State.POST_TRIGGER;
+                stopAtNanos = captureTimeNanos + postTriggerNanos;
+            }
+            if (count > 0 && captureTimeNanos - lastKeptNanos < periodNanos) {
+                return null;
+            }
+            if (frames == null) {
+                init(frame.cols(), frame.rows(), null);
+            }
+
+            int slot = head;
+            if (downscale > 1) {
+                Imgproc.resize(frame, frames[slot], frameSize, 0, 0, Imgproc.INTER_AREA);
+            } else {
+                frame.copyTo(frames[slot]);
+            }
+            captureNanos[slot] = captureTimeNanos;
+            sequence[slot] = framesSeen;
+            lastKeptNanos = captureTimeNanos;
+            if (count == 0) {
+                firstCaptureNanos = captureTimeNanos;
+            }
+
+            int n = captureTimeNanos == pendingNanos ? pendingCount : 0;
+            annotationCount[slot] = n;
+            System.arraycopy(pendingLabel, 0, annotationLabel, slot * MAX_ANNOTATIONS, n);
+            System.arraycopy(pendingBox, 0, annotationBox, slot * MAX_ANNOTATIONS * 4, n * 4);
+            System.arraycopy(pendingColor, 0, annotationColor, slot * MAX_ANNOTATIONS, n);
+
+            head = (head + 1) % capacity;
+            count = Math.min(count + 1, capacity);
+
+            if (state == State.POST_TRIGGER && captureTimeNanos >= stopAtNanos) {
+                triggerReason = null;
+                startEncoding(reason);
+            }
+        }
+        return null;
+    }
+
+    // Called holding the lock
+    private void startEncoding(final String reason) {
+        state = State.ENCODING;
+        encoding = true;
+        final int oldest = (head - count + capacity) % capacity;
+        final int frameCount = count;
+        Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+                encode(reason, oldest, frameCount);
+            }
+        }, "CameraRecorder");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    // Runs on the encoder thread.  The vision thread leaves the ring alone until the state changes back.
+    private void encode(String reason, int oldest, int frameCount) {
+        long start = System.nanoTime();
+        VideoWriter writer = null;
+        Mat bgr = new Mat();
+        try {
+            folder.mkdirs();
+            String name = "camera-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date())
+                    + (reason == null || reason.isEmpty() ? "" : "-" + reason.replaceAll("[^A-Za-z0-9_-]", "_"));
+            File file = new File(folder, name + ".avi");
+            Mat first = frames[oldest];
+            Size size = first.size();
+            writer = new VideoWriter(file.getAbsolutePath(), Videoio.CAP_OPENCV_MJPEG,
+                    VideoWriter.fourcc('M', 'J', 'P', 'G'), fps, size, true);
+            File jpegFolder = null;
+            if (!writer.isOpened()) {
+                writer.release();
+                writer = null;
+                jpegFolder = new File(folder, name);
+                jpegFolder.mkdirs();
+                file = jpegFolder;
+            }
+
+            double scale = 1.0 / downscale;
+            double textScale = size.height / 480.0;
+            for (int k = 0; k < frameCount; k++) {
+                int slot = (oldest + k) % capacity;
+                Imgproc.cvtColor(frames[slot], bgr, Imgproc.COLOR_RGB2BGR);
+                for (int a = 0; a < annotationCount[slot]; a++) {
+                    int i = slot * MAX_ANNOTATIONS + a;
+                    Point topLeft = new Point(annotationBox[i * 4] * scale, annotationBox[i * 4 + 1] * scale);
+                    Point bottomRight = new Point(annotationBox[i * 4 + 2] * scale, annotationBox[i * 4 + 3] * scale);
+                    Scalar rgb = annotationColor[i];
+                    Scalar color = new Scalar(rgb.val[2], rgb.val[1], rgb.val[0]);
+                    Imgproc.rectangle(bgr, topLeft, bottomRight, color, 2);
+                    if (annotationLabel[i] >= 0) {
+                        Imgproc.putText(bgr, Integer.toString(annotationLabel[i]), topLeft,
+                                Imgproc.FONT_HERSHEY_SIMPLEX, textScale, color, 1);
+                    }
+                }
+                String stamp = String.format(Locale.US, "%.2f s  #%d",
+                        (captureNanos[slot] - firstCaptureNanos) / 1e9, sequence[slot]);
+                Imgproc.putText(bgr, stamp, new Point(4, size.height - 6), Imgproc.FONT_HERSHEY_SIMPLEX, textScale,
+                        TEXT_COLOR, 1);
+                if (writer != null) {
+                    writer.write(bgr);
+                } else {
+                    Imgcodecs.imwrite(new File(jpegFolder, String.format(Locale.US, "%05d.jpg", k)).getAbsolutePath(),
+                            bgr);
+                }
+            }
+            if (writer != null) {
+                writer.release();
+                writer = null;
+            }
+            lastFile = file;
+            lastEncodeMs = (System.nanoTime() - start) / 1e6;
+            failure = null;
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            bgr.release();
+            if (writer != null) {
+                writer.release();
+            }
+            // However encoding ended, the ring starts over; triggers that came while saving are dropped
+            synchronized (lock) {
+                if (failure == null) {
+                    savedCount++;
+                }
+                count = 0;
+                head = 0;
+                triggerReason = null;
+                state = State.RECORDING;
+                encoding = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    public boolean isSaving() {
+        return encoding;
+    }
+
+    /** The last video (or folder of JPEGs) written, or null. */
+    public File getLastFile() {
+        return lastFile;
+    }
+
+    public double getLastEncodeMs() {
+        return lastEncodeMs;
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    /** What went wrong with the last save, or null if it succeeded (or nothing has been saved). */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /** Number of frames the ring holds. */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Frames in the ring now. */
+    public int getCount() {
+        synchronized (lock) {
+            return count;
+        }
+    }
+
+    /** Pixel memory held by the ring: fixed once the camera has started. */
+    public long getMemoryBytes() {
+        synchronized (lock) {
+            if (frames == null) {
+                return 0;
+            }
+            long bytes = 0;
+            for (Mat frame : frames) {
+                bytes += frame.total() * frame.elemSize();
+            }
+            return bytes;
+        }
+    }
+
+    /** Frees the ring.  Call once the recorder is finished with, after awaitSaved(). */
+    public void release() {
+        synchronized (lock) {
+            if (frames != null && !encoding) {
+                for (Mat frame : frames) {
+                    frame.release();
+                }
+                frames = null;
+            }
+        }
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx,
+                            float scaleCanvasDensity, Object userContext) {
+    }
+}
@@ -0,0 +1,367 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * A VisionProcessor that finds blobs of several colors at once.
+ *
+ * ColorBlobLocatorProcessor handles one ColorRange per instance, so looking for both artifact
+ * colors means two processors, each converting the frame, thresholding, blurring, eroding,
+ * dilating and running findContours.  This processor instead:
+ *
+ *   1. optionally downscales the frame, then converts it to YCrCb once;
+ *   2. labels every pixel with its class through a precomputed YCrCb lookup table (first
+ *      matching class wins);
+ *   3. runs a single two-pass connected-components labelling over the class image, merging
+ *      4-connected pixels of the same class;
+ *   4. reports area, centroid, bounding box and density for every component of every class.
+ *
+ * Instead of morphological cleanup, components smaller than the minimum area are discarded,
+ * which removes the same speckle noise far more cheaply.  All working buffers are allocated on the
+ * first frame and reused.
+ *
+ * Build one with the Builder, as with the SDK processors:
+ *
+ *     ColorSegmentationProcessor segmenter = new ColorSegmentationProcessor.Builder()
+ *             .addClass(SegmentationClass.ARTIFACT_GREEN)
+ *             .addClass(SegmentationClass.ARTIFACT_PURPLE)
+ *             .setDownscale(2)
+ *             .build();
+ */
+public class ColorSegmentationProcessor implements VisionProcessor {
+
+    private static final int LUT_BITS = 6;
+    private static final int LUT_SHIFT = 8 - LUT_BITS;
+
+    public static class Builder {
+        private final List<SegmentationClass> classes = new ArrayList<>();
+        private int downscale = 1;
+        private int minArea = 50;
+        private int maxBlobs = 32;
+        private boolean drawBlobs = true;
+
+        /** Add a color class.  Where classes overlap, the one added first wins. */
+        public Builder addClass(SegmentationClass colorClass) {
+            classes.add(colorClass);
+            return this;
+        }
+
+        /** Process every nth pixel in each direction.  2 quarters the per-frame work. */
+        public Builder setDownscale(int factor) {
+            this.downscale = Math.max(1, factor);
+            return this;
+        }
+
+        /** Smallest blob to report, in full-resolution pixels. */
+        public Builder setMinArea(int pixels) {
+            this.minArea = pixels;
+            return this;
+        }
+
+        /** Largest number of blobs kept per frame, across all classes; the largest are kept. */
+        public Builder setMaxBlobs(int maxBlobs) {
+            this.maxBlobs = maxBlobs;
+            return this;
+        }
+
+        /** Outline blobs on the camera stream preview. */
+        public Builder setDrawBlobs(boolean draw) {
+            this.drawBlobs = draw;
+            return this;
+        }
+
+        public ColorSegmentationProcessor build() {
+            if (classes.isEmpty()) {
+                throw new IllegalArgumentException("at least one color class is required");
+            }
+            if (classes.size() > 127) {
+                throw new IllegalArgumentException("at most 127 color classes are supported");
+            }
+            return new ColorSegmentationProcessor(this);
+        }
+    }
+
+    private final SegmentationClass[] classes;
+    private final int downscale;
+    private final int minArea;
+    private final boolean drawBlobs;
+    private final byte[] lut;
+
+    private final Mat scaled = new Mat();
+    private final Mat ycrcb = new Mat();
+    private byte[] pixels;
+    private byte[] classImage;
+    private int[] labels;
+    private int unlabeledPixels;
+    private int[] parent;
+    private byte[] labelClass;
+    private int[] area;
+    private long[] sumX;
+    private long[] sumY;
+    private int[] minX, maxX, minY, maxY;
+    private int width;
+    private int height;
+
+    private SegmentationResult working;
+    private SegmentationResult latest;
+    private long frameNumber = 0;
+    private final Object lock = new Object();
+    private final Paint paint = new Paint();
+
+    private ColorSegmentationProcessor(Builder builder) {
+        classes = builder.classes.toArray(new SegmentationClass[0]);
+        downscale = builder.downscale;
+        minArea = builder.minArea;
+        drawBlobs = builder.drawBlobs;
+        working = new SegmentationResult(builder.maxBlobs);
+        latest = new SegmentationResult(builder.maxBlobs);
+        lut = buildLut(classes);
+
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(4);
+    }
+
+    private static byte[] buildLut(SegmentationClass[] classes) {
+        int levels = 1 << LUT_BITS;
+        byte[] table = new byte[levels * levels * levels];
+        int half = (1 << LUT_SHIFT) / 2;
+        for (int y = 0; y < levels; y++) {
+            for (int cr = 0; cr < levels; cr++) {
+                for (int cb = 0; cb < levels; cb++) {
+                    // Classify each cell by its center value
+                    int vy = (y << LUT_SHIFT) + half;
+                    int vcr = (cr << LUT_SHIFT) + half;
+                    int vcb = (cb << LUT_SHIFT) + half;
+                    for (int c = 0; c < classes.length; c++) {
+                        if (classes[c].contains(vy, vcr, vcb)) {
+                            table[(y << (2 * LUT_BITS)) | (cr << LUT_BITS) | cb] = (byte) (c + 1);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        Mat source = frame;
+        if (downscale > 1) {
+            Imgproc.resize(frame, scaled, new Size(frame.cols() / downscale, frame.rows() / downscale), 0, 0, Imgproc.INTER_NEAREST);
+            source = scaled;
+        }
+        Imgproc.cvtColor(source, ycrcb, Imgproc.COLOR_RGB2YCrCb);
+        allocate(ycrcb.cols(), ycrcb.rows());
+        ycrcb.get(0, 0, pixels);
+
+        classify();
+        int componentCount = label();
+        collect(componentCount, captureTimeNanos);
+
+        synchronized (lock) {
+            SegmentationResult swap = latest;
+            latest = working;
+            working = swap;
+        }
+        return null;
+    }
+
+    /** The blobs from the most recent frame, copied into the caller's result without allocating. */
+    public void getResult(SegmentationResult into) {
+        synchronized (lock) {
+            latest.copyTo(into);
+        }
+    }
+
+    /** The blobs from the most recent frame, in a newly allocated result. */
+    public SegmentationResult getResult() {
+        SegmentationResult result = new SegmentationResult(latest.capacity());
+        getResult(result);
+        return result;
+    }
+
+    public List<SegmentationClass> getClasses() {
+        List<SegmentationClass> list = new ArrayList<>();
+        for (SegmentationClass c : classes) {
+            list.add(c);
+        }
+        return list;
+    }
+
+    private void allocate(int w, int h) {
+        if (w == width && h == height) {
+            return;
+        }
+        width = w;
+        height = h;
+        int n = w * h;
+        pixels = new byte[n * 3];
+        classImage = new byte[n];
+        labels = new int[n];
+        // With one class, 4-connected labelling can't produce more than one provisional label per two
+        // pixels.  Two classes in a checkerboard need one per pixel; rather than double this memory for
+        // an image no camera produces, label() drops pixels past the limit and counts them
+        int maxLabels = n / 2 + 2;
+        parent = new int[maxLabels];
+        labelClass = new byte[maxLabels];
+        area = new int[maxLabels];
+        sumX = new long[maxLabels];
+        sumY = new long[maxLabels];
+        minX = new int[maxLabels];
+        maxX = new int[maxLabels];
+        minY = new int[maxLabels];
+        maxY = new int[maxLabels];
+    }
+
+    private void classify() {
+        int n = width * height;
+        for (int i = 0, p = 0; i < n; i++, p += 3) {
+            int y = (pixels[p] & 0xFF) >>> LUT_SHIFT;
+            int cr = (pixels[p + 1] & 0xFF) >>> LUT_SHIFT;
+            int cb = (pixels[p + 2] & 0xFF) >>> LUT_SHIFT;
+            classImage[i] = lut[(y << (2 * LUT_BITS)) | (cr << LUT_BITS) | cb];
+        }
+    }
+
+    // First pass of two-pass connected components; returns the number of provisional labels used
+    private int label() {
+        int next = 1;
+        unlabeledPixels = 0;
+        for (int y = 0, i = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) {
+                byte c = classImage[i];
+                if (c == 0) {
+                    labels[i] = 0;
+                    continue;
+                }
+                int left = (x > 0 && classImage[i - 1] == c) ? labels[i - 1] : 0;
+                int up = (y > 0 && classImage[i - width] == c) ? labels[i - width] : 0;
+
+                if (left == 0 && up == 0) {
+                    if (next >= parent.length) {
+                        // Only reachable with pathological checkerboard input; treat the pixel as background
+                        labels[i] = 0;
+                        unlabeledPixels++;
+                        continue;
+                    }
+                    parent[next] = next;
+                    labelClass[next] = c;
+                    labels[i] = next++;
+                } else if (left == 0 || up == 0) {
+                    labels[i] = left != 0 ? left : up;
+                } else {
+                    labels[i] = union(left, up);
+                }
+            }
+        }
+
+        // Parents always point to smaller labels, so one forward sweep resolves every label to its root
+        for (int l = 1; l < next; l++) {
+            parent[l] = parent[parent[l]];
+            area[l] = 0;
+        }
+        return next;
+    }
+
+    private int find(int l) {
+        while (parent[l] != l) {
+            parent[l] = parent[parent[l]];
+            l = parent[l];
+        }
+        return l;
+    }
+
+    private int union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra < rb) {
+            parent[rb] = ra;
+            return ra;
+        } else {
+            parent[ra] = rb;
+            return rb;
+        }
+    }
+
+    private void collect(int labelCount, long captureTimeNanos) {
+        for (int y = 0, i = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) {
+                int l = labels[i];
+                if (l == 0) {
+                    continue;
+                }
+                int root = parent[l];
+                if (area[root]++ == 0) {
+                    sumX[root] = 0;
+                    sumY[root] = 0;
+                    minX[root] = x;
+                    maxX[root] = x;
+                    minY[root] = y;
+                    maxY[root] = y;
+                } else {
+                    if (x < minX[root]) minX[root] = x;
+                    if (x > maxX[root]) maxX[root] = x;
+                    maxY[root] = y;
+                }
+                sumX[root] += x;
+                sumY[root] += y;
+            }
+        }
+
+        working.reset(captureTimeNanos, ++frameNumber, unlabeledPixels * downscale * downscale);
+        int scale = downscale;
+        int minScaledArea = Math.max(1, minArea / (scale * scale));
+        for (int l = 1; l < labelCount; l++) {
+            if (parent[l] != l || area[l] < minScaledArea) {
+                continue;
+            }
+            int fullArea = area[l] * scale * scale;
+            SegmentedBlob blob = working.add();
+            if (blob == null) {
+                blob = working.replaceSmallest(fullArea);
+                if (blob == null) {
+                    continue;
+                }
+            }
+            blob.colorClass = classes[labelClass[l] - 1];
+            blob.area = fullArea;
+            blob.centroidX = ((double) sumX[l] / area[l] + 0.5) * scale;
+            blob.centroidY = ((double) sumY[l] / area[l] + 0.5) * scale;
+            blob.left = minX[l] * scale;
+            blob.right = (maxX[l] + 1) * scale;
+            blob.top = minY[l] * scale;
+            blob.bottom = (maxY[l] + 1) * scale;
+        }
+        working.sortByAreaDescending();
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext) {
+        if (!drawBlobs) {
+            return;
+        }
+        synchronized (lock) {
+            for (int i = 0; i < latest.size(); i++) {
+                SegmentedBlob blob = latest.get(i);
+                paint.setColor(blob.colorClass.drawColor);
+                canvas.drawRect(blob.left * scaleBmpPxToCanvasPx, blob.top * scaleBmpPxToCanvasPx,
+                        blob.right * scaleBmpPxToCanvasPx, blob.bottom * scaleBmpPxToCanvasPx, paint);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorRange;
+
+/*
+ * This OpMode illustrates keeping the last ten seconds of camera frames during a match, and saving
+ * them when something goes wrong.
+ *
+ * A CameraRecorder is added to the VisionPortal after the AprilTag and color locator publishers,
+ * and outlines the tags and blobs they find on each frame it keeps.  The recording is saved to
+ * FIRST/camera, as a Motion-JPEG AVI, when the driver presses X, two seconds after the tag the robot
+ * has been seeing for a while is lost, and at the end of the OpMode.  Saving happens on a background
+ * thread, so the loop and the vision pipeline carry on at full rate while the file is written.
+ *
+ * The Driver Station shows how many frames the ring holds, the memory it uses, and the last file
+ * saved.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Camera Recorder", group = "Concept")
+@Disabled
+public class ConceptCameraRecorder extends LinearOpMode {
+
+    private static final double LOST_TAG_MS = 500;
+    private static final int SEEN_FRAMES = 10;      // Frames in a row before losing the tag counts
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        VisionPublisher<AprilTagDetection> tagPublisher =
+                VisionPublisher.forAprilTags(new AprilTagProcessor.Builder().build());
+        VisionPublisher<ColorBlobLocatorProcessor.Blob> blobPublisher =
+                VisionPublisher.forBlobs(new ColorBlobLocatorProcessor.Builder()
+                        .setTargetColorRange(ColorRange.ARTIFACT_PURPLE)
+                        .setContourMode(ColorBlobLocatorProcessor.ContourMode.EXTERNAL_ONLY)
+                        .setBlurSize(5)
+                        .build());
+        CameraRecorder recorder = new CameraRecorder.Builder()
+                .setSeconds(10)
+                .setFps(10)
+                .setDownscale(2)
+                .setPostTriggerSeconds(2)
+                .build();
+        recorder.recordTags(tagPublisher).recordBlobs(blobPublisher);
+
+        // The recorder goes last, so the publishers have annotated each frame before it keeps it
+        VisionPortal visionPortal = new VisionPortal.Builder()
+                .setCamera(hardwareMap.get(WebcamName.class, "Webcam 1"))
+                .addProcessors(tagPublisher, blobPublisher, recorder)
+                .build();
+
+        VisionPublisher.Subscription<AprilTagDetection> tagSubscription = tagPublisher.subscribe();
+        VisionFrame<AprilTagDetection> tags = tagPublisher.newFrame();
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        int seenFrames = 0;
+        long seenNanos = 0;
+        while (opModeIsActive()) {
+            if (tagSubscription.poll(tags)) {
+                if (tags.isEmpty()) {
+                    if (seenFrames >= SEEN_FRAMES && (System.nanoTime() - seenNanos) / 1e6 > LOST_TAG_MS) {
+                        recorder.trigger("lost-tag");
+                        seenFrames = 0;
+                    }
+                } else {
+                    seenFrames++;
+                    seenNanos = tags.getCaptureTimeNanos();
+                }
+            }
+            if (gamepad1.xWasPressed()) {
+                recorder.trigger("driver");
+            }
+
+            telemetry.addData("Recorder", "%s, %d of %d frames, %.1f MB",
+                    recorder.isSaving() ? "saving" : "recording", recorder.getCount(), recorder.getCapacity(),
+                    recorder.getMemoryBytes() / 1e6);
+            telemetry.addData("Saved", "%d, last %s (%.0f ms)", recorder.getSavedCount(), recorder.getLastFile(),
+                    recorder.getLastEncodeMs());
+            if (recorder.getFailure() != null) {
+                telemetry.addData("Save failed", recorder.getFailure().toString());
+            }
+            telemetry.addData(">", "Press X to save the last 10 seconds");
+            telemetry.update();
+        }
+
+        // Stop the camera first, so the ring holds still, then save what it has
+        visionPortal.stopStreaming();
+        recorder.awaitSaved(5000);
+        recorder.save("stop");
+        recorder.awaitSaved(5000);
+        visionPortal.close();
+        recorder.release();
+    }
+}
@@ -0,0 +1,147 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.util.Range;
+
+import org.firstinspires.ftc.robotcore.external.hardware.camera.WebcamName;
+import org.firstinspires.ftc.vision.VisionPortal;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorRange;
+
+/*
+ * This OpMode illustrates driving to an AprilTag from results delivered once per camera frame,
+ * rather than polling getDetections() on every loop.
+ *
+ * The AprilTag and color locator processors are wrapped in VisionPublishers, which are added to the
+ * VisionPortal in their place.  Each loop polls both subscriptions.  Only when a new frame of tags
+ * has arrived does the OpMode recompute its drive command from the tag's range, bearing and yaw, as
+ * in RobotAutoDriveToAprilTagOmni; on the loops in between it keeps driving on that command.  If no
+ * frame has shown the tag for STALE_MS, as measured from the frame's capture time, the robot stops
+ * rather than keep acting on an old sighting.  The color locator's blobs are counted the same way,
+ * once per frame.
+ *
+ * Hold the left bumper to drive to tag DESIRED_TAG_ID; otherwise drive with the left and right
+ * sticks.  The Driver Station shows how many frames each subscription received and missed, and how
+ * many loops went by with nothing new.
+ *
+ * Use Android Studio to Copy this Class, and Paste it into your team's code folder with a new name.
+ * Remove or comment out the @Disabled line to add this OpMode to the Driver Station OpMode list.
+ */
+@TeleOp(name = "Concept: Vision Subscription", group = "Concept")
+@Disabled
+public class ConceptVisionSubscription extends LinearOpMode {
+
+    private static final int DESIRED_TAG_ID = -1;       // -1 for any tag
+    private static final double DESIRED_DISTANCE = 12;  // Inches
+    private static final double SPEED_GAIN = 0.02;
+    private static final double STRAFE_GAIN = 0.015;
+    private static final double TURN_GAIN = 0.01;
+    private static final double MAX_AUTO_SPEED = 0.5;
+    private static final double STALE_MS = 250;
+
+    private DcMotor leftFront, rightFront, leftBack, rightBack;
+
+    @Override
+    public void runOpMode() {
+        leftFront = hardwareMap.get(DcMotor.class, "left_front_drive");
+        rightFront = hardwareMap.get(DcMotor.class, "right_front_drive");
+        leftBack = hardwareMap.get(DcMotor.class, "left_back_drive");
+        rightBack = hardwareMap.get(DcMotor.class, "right_back_drive");
+        leftFront.setDirection(DcMotorSimple.Direction.REVERSE);
+        leftBack.setDirection(DcMotorSimple.Direction.REVERSE);
+
+        VisionPublisher<AprilTagDetection> tagPublisher =
+                VisionPublisher.forAprilTags(new AprilTagProcessor.Builder().build());
+        VisionPublisher<ColorBlobLocatorProcessor.Blob> blobPublisher =
+                VisionPublisher.forBlobs(new ColorBlobLocatorProcessor.Builder()
+                        .setTargetColorRange(ColorRange.ARTIFACT_PURPLE)
+                        .setContourMode(ColorBlobLocatorProcessor.ContourMode.EXTERNAL_ONLY)
+                        .setBlurSize(5)
+                        .build());
+        VisionPortal visionPortal = new VisionPortal.Builder()
+                .setCamera(hardwareMap.get(WebcamName.class, "Webcam 1"))
+                .addProcessors(tagPublisher, blobPublisher)
+                .build();
+
+        VisionPublisher.Subscription<AprilTagDetection> tagSubscription = tagPublisher.subscribe();
+        VisionPublisher.Subscription<ColorBlobLocatorProcessor.Blob> blobSubscription = blobPublisher.subscribe();
+        VisionFrame<AprilTagDetection> tags = tagPublisher.newFrame();
+        VisionFrame<ColorBlobLocatorProcessor.Blob> blobs = blobPublisher.newFrame();
+
+        telemetry.addData(">", "Touch START to start OpMode");
+        telemetry.update();
+        waitForStart();
+
+        double drive = 0, strafe = 0, turn = 0;
+        long seenNanos = 0;
+        long idleLoops = 0;
+        int lastBlobCount = 0;
+        while (opModeIsActive()) {
+            boolean freshTags = tagSubscription.poll(tags);
+            if (blobSubscription.poll(blobs)) {
+                lastBlobCount = blobs.size();
+            }
+            if (!freshTags) {
+                idleLoops++;
+            }
+
+            if (gamepad1.left_bumper) {
+                if (freshTags) {
+                    // React to each frame once: recompute the command only from new detections
+                    for (int i = 0; i < tags.size(); i++) {
+                        AprilTagDetection detection = tags.get(i);
+                        if (detection.metadata != null && (DESIRED_TAG_ID < 0 || detection.id == DESIRED_TAG_ID)) {
+                            drive = Range.clip((detection.ftcPose.range - DESIRED_DISTANCE) * SPEED_GAIN,
+                                    -MAX_AUTO_SPEED, MAX_AUTO_SPEED);
+                            turn = Range.clip(detection.ftcPose.bearing * TURN_GAIN, -MAX_AUTO_SPEED, MAX_AUTO_SPEED);
+                            strafe = Range.clip(-detection.ftcPose.yaw * STRAFE_GAIN, -MAX_AUTO_SPEED, MAX_AUTO_SPEED);
+                            seenNanos = tags.getCaptureTimeNanos();
+                            break;
+                        }
+                    }
+                }
+                if ((System.nanoTime() - seenNanos) / 1e6 > STALE_MS) {
+                    drive = 0;
+                    strafe = 0;
+                    turn = 0;
+                }
+            } else {
+                drive = -gamepad1.left_stick_y / 2.0;
+                strafe = -gamepad1.left_stick_x / 2.0;
+                turn = -gamepad1.right_stick_x / 3.0;
+            }
+            moveRobot(drive, strafe, turn);
+
+            telemetry.addData("Tag frame", "#%d, %d tags, %.0f ms old (%.0f ms to process)",
+                    tags.getSequence(), tags.size(), tags.getAgeMs(), tags.getLatencyMs());
+            telemetry.addData("Tag frames", "%d received, %d missed", tagSubscription.getReceived(),
+                    tagSubscription.getMissed());
+            telemetry.addData("Blob frames", "%d received, %d blobs in the last", blobSubscription.getReceived(),
+                    lastBlobCount);
+            telemetry.addData("Loops with no new tags", idleLoops);
+            telemetry.update();
+        }
+
+        moveRobot(0, 0, 0);
+        visionPortal.close();
+    }
+
+    // Robot-relative mecanum drive: positive drive is forward, strafe is left, turn is counter-clockwise
+    private void moveRobot(double drive, double strafe, double turn) {
+        double lf = drive - strafe - turn;
+        double rf = drive + strafe + turn;
+        double lb = drive + strafe - turn;
+        double rb = drive - strafe + turn;
+        double max = Math.max(1, Math.max(Math.max(Math.abs(lf), Math.abs(rf)), Math.max(Math.abs(lb), Math.abs(rb))));
+        leftFront.setPower(lf / max);
+        rightFront.setPower(rf / max);
+        leftBack.setPower(lb / max);
+        rightBack.setPower(rb / max);
+    }
+}
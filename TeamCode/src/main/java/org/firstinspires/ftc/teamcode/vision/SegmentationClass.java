@@ -0,0 +1,53 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Color;
+
+/*
+ * One color class for the ColorSegmentationProcessor: a named box in YCrCb space.
+ *
+ * The predefined classes use the same bounds as the SDK's ColorRange constants of the same name, so
+ * results are directly comparable with ColorBlobLocatorProcessor.
+ */
+public class SegmentationClass {
+
+    public static final SegmentationClass ARTIFACT_GREEN = new SegmentationClass("ARTIFACT_GREEN",
+            32, 50, 118, 255, 105, 145, Color.GREEN);
+
+    public static final SegmentationClass ARTIFACT_PURPLE = new SegmentationClass("ARTIFACT_PURPLE",
+            32, 135, 135, 255, 155, 169, Color.MAGENTA);
+
+    public static final SegmentationClass BLUE = new SegmentationClass("BLUE",
+            16, 0, 155, 255, 127, 255, Color.BLUE);
+
+    public static final SegmentationClass RED = new SegmentationClass("RED",
+            32, 176, 0, 255, 255, 132, Color.RED);
+
+    public static final SegmentationClass YELLOW = new SegmentationClass("YELLOW",
+            32, 128, 0, 255, 170, 120, Color.YELLOW);
+
+    public final String name;
+    public final int minY, minCr, minCb;
+    public final int maxY, maxCr, maxCb;
+    /** The color used to outline this class's blobs on the camera stream. */
+    public final int drawColor;
+
+    public SegmentationClass(String name, int minY, int minCr, int minCb, int maxY, int maxCr, int maxCb, int drawColor) {
+        this.name = name;
+        this.minY = minY;
+        this.minCr = minCr;
+        this.minCb = minCb;
+        this.maxY = maxY;
+        this.maxCr = maxCr;
+        this.maxCb = maxCb;
+        this.drawColor = drawColor;
+    }
+
+    boolean contains(int y, int cr, int cb) {
+        return y >= minY && y <= maxY && cr >= minCr && cr <= maxCr && cb >= minCb && cb <= maxCb;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
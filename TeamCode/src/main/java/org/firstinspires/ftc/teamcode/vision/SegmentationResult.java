@@ -0,0 +1,120 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+/*
+ * The blobs found in one frame, largest first, held in a fixed pool of reusable SegmentedBlobs.
+ */
+public class SegmentationResult {
+
+    private final SegmentedBlob[] blobs;
+    private int count = 0;
+    private long captureTimeNanos = 0;
+    private long frameNumber = 0;
+    private int unlabeledPixels = 0;
+
+    public SegmentationResult(int capacity) {
+        blobs = new SegmentedBlob[capacity];
+        for (int i = 0; i < capacity; i++) {
+            blobs[i] = new SegmentedBlob();
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public SegmentedBlob get(int index) {
+        if (index >= count) {
+            throw new IndexOutOfBoundsException("blob " + index + " of " + count);
+        }
+        return blobs[index];
+    }
+
+    /** The largest blob of the given class, or null if there is none. */
+    public SegmentedBlob largest(SegmentationClass colorClass) {
+        for (int i = 0; i < count; i++) {
+            if (blobs[i].colorClass == colorClass) {
+                return blobs[i];
+            }
+        }
+        return null;
+    }
+
+    public int count(SegmentationClass colorClass) {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (blobs[i].colorClass == colorClass) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public long getCaptureTimeNanos() {
+        return captureTimeNanos;
+    }
+
+    /** Incremented for every frame the processor finishes. */
+    public long getFrameNumber() {
+        return frameNumber;
+    }
+
+    /**
+     * Pixels (at full resolution) of a target class left out of every blob because the frame had more
+     * separate regions than the processor has labels for.  Zero for any real camera image; nonzero
+     * means the blobs are incomplete.
+     */
+    public int getUnlabeledPixels() {
+        return unlabeledPixels;
+    }
+
+    public int capacity() {
+        return blobs.length;
+    }
+
+    /** Copy into another result without allocating.  Blobs beyond its capacity are dropped. */
+    public void copyTo(SegmentationResult other) {
+        int n = Math.min(count, other.blobs.length);
+        for (int i = 0; i < n; i++) {
+            other.blobs[i].copyFrom(blobs[i]);
+        }
+        other.count = n;
+        other.captureTimeNanos = captureTimeNanos;
+        other.frameNumber = frameNumber;
+        other.unlabeledPixels = unlabeledPixels;
+    }
+
+    void reset(long captureTimeNanos, long frameNumber, int unlabeledPixels) {
+        this.count = 0;
+        this.captureTimeNanos = captureTimeNanos;
+        this.frameNumber = frameNumber;
+        this.unlabeledPixels = unlabeledPixels;
+    }
+
+    /** Take the next free blob slot, or null if the pool is full. */
+    SegmentedBlob add() {
+        return count < blobs.length ? blobs[count++] : null;
+    }
+
+    /** Replace the smallest blob if the given area beats it; used once the pool is full. */
+    SegmentedBlob replaceSmallest(int area) {
+        int smallest = 0;
+        for (int i = 1; i < count; i++) {
+            if (blobs[i].area < blobs[smallest].area) {
+                smallest = i;
+            }
+        }
+        return count > 0 && blobs[smallest].area < area ? blobs[smallest] : null;
+    }
+
+    void sortByAreaDescending() {
+        for (int i = 1; i < count; i++) {
+            SegmentedBlob blob = blobs[i];
+            int j = i - 1;
+            while (j >= 0 && blobs[j].area < blob.area) {
+                blobs[j + 1] = blobs[j];
+                j--;
+            }
+            blobs[j + 1] = blob;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import java.util.Locale;
+
+/*
+ * One connected region of a single color class, in full-resolution frame pixel coordinates.
+ * Instances are owned by a SegmentationResult and reused from frame to frame.
+ */
+public class SegmentedBlob {
+
+    public SegmentationClass colorClass;
+    /** Number of pixels in the region. */
+    public int area;
+    public double centroidX;
+    public double centroidY;
+    /** Bounding box; right and bottom are exclusive. */
+    public int left, top, right, bottom;
+
+    public int getWidth() {
+        return right - left;
+    }
+
+    public int getHeight() {
+        return bottom - top;
+    }
+
+    /** Fraction of the bounding box covered by the region: near 0.785 for a ball, 1.0 for a solid rectangle. */
+    public double getDensity() {
+        int box = getWidth() * getHeight();
+        return box == 0 ? 0 : (double) area / box;
+    }
+
+    void copyFrom(SegmentedBlob other) {
+        colorClass = other.colorClass;
+        area = other.area;
+        centroidX = other.centroidX;
+        centroidY = other.centroidY;
+        left = other.left;
+        top = other.top;
+        right = other.right;
+        bottom = other.bottom;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s area=%d center=(%.0f,%.0f) box=%dx%d density=%.2f",
+                colorClass, area, centroidX, centroidY, getWidth(), getHeight(), getDensity());
+    }
+}
@@ -0,0 +1,190 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.teamcode.geometry.AllocationCounter;
+import org.opencv.core.Mat;
+
+import java.io.File;
+import java.util.List;
+
+/*
+ * This OpMode measures what a CameraRecorder costs the vision pipeline, without needing a camera.
+ *
+ * It feeds the frames saved by UtilityCameraFrameCapture (or, if there are none, the synthetic
+ * frame from UtilityColorSegmentationBenchmark) through a ColorSegmentationProcessor, stamped as if
+ * from a 30 FPS camera, and times it three ways: on its own; with a recorder after it, keeping
+ * 10 seconds at 10 FPS; and with the recorder writing its file on the background thread.  It also
+ * counts the bytes the vision thread allocates, alone and with the recorder, over several times
+ * the ring's worth of frames: the recorder must add nothing per frame once its ring is allocated
+ * (a new Mat per frame would show up here, as would any other garbage).  Last, it checks that the
+ * file was written.
+ *
+ * benchmark() has no Android dependencies beyond OpenCV, so it can equally be called from a
+ * desktop JVM with the OpenCV natives loaded.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Camera Recorder Benchmark", group = "Utility")
+@Disabled
+public class UtilityCameraRecorderBenchmark extends LinearOpMode {
+
+    private static final int WARMUP_FRAMES = 20;
+    private static final int TIMED_FRAMES = 300;
+    private static final long CAMERA_PERIOD_NANOS = 33333333;
+    private static final double ALLOWED_OVERHEAD = 0.15;    // Of the pipeline's own time per frame
+    private static final double ALLOWED_OVERHEAD_MS = 1;    // Or this, whichever is more
+    private static final double ALLOWED_BYTES_PER_FRAME = 32;   // Counter readings and rounding
+
+    public static class Result {
+        public int frames;
+        public double baselineMsPerFrame;
+        public double recordingMsPerFrame;
+        public double encodingMsPerFrame;
+        public int encodingFrames;
+        public long memoryBytes;
+        public double baselineBytesPerFrame;
+        public double recordingBytesPerFrame;
+        public double encodeMs;
+        public File file;
+        public Throwable failure;
+
+        public double allowedMsPerFrame() {
+            return baselineMsPerFrame + Math.max(ALLOWED_OVERHEAD_MS, baselineMsPerFrame * ALLOWED_OVERHEAD);
+        }
+
+        /** Bytes the recorder adds to each frame; -1 where allocation counting is unsupported. */
+        public double recorderBytesPerFrame() {
+            return baselineBytesPerFrame < 0 || recordingBytesPerFrame < 0 ? -1
+                    : recordingBytesPerFrame - baselineBytesPerFrame;
+        }
+
+        public boolean passed() {
+            return recordingMsPerFrame <= allowedMsPerFrame()
+                    && (encodingFrames == 0 || encodingMsPerFrame <= allowedMsPerFrame())
+                    && recorderBytesPerFrame() >= 0 && recorderBytesPerFrame() <= ALLOWED_BYTES_PER_FRAME
+                    && failure == null && file != null && file.exists();
+        }
+    }
+
+    public static Result benchmark(List<Mat> frames, File folder) throws InterruptedException {
+        ColorSegmentationProcessor segmenter = new ColorSegmentationProcessor.Builder()
+                .addClass(SegmentationClass.ARTIFACT_GREEN)
+                .addClass(SegmentationClass.ARTIFACT_PURPLE)
+                .setDrawBlobs(false)
+                .build();
+        CameraRecorder recorder = new CameraRecorder.Builder()
+                .setSeconds(10)
+                .setFps(10)
+                .setFolder(folder)
+                .build();
+
+        Mat first = frames.get(0);
+        segmenter.init(first.cols(), first.rows(), null);
+        recorder.init(first.cols(), first.rows(), null);
+
+        Result result = new Result();
+        result.frames = TIMED_FRAMES;
+        result.memoryBytes = recorder.getMemoryBytes();
+        long captureNanos = 0;
+        AllocationCounter counter = new AllocationCounter();
+
+        // The pipeline on its own
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            segmenter.processFrame(frames.get(i % frames.size()), captureNanos += CAMERA_PERIOD_NANOS);
+        }
+        long bytes = counter.bytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_FRAMES; i++) {
+            segmenter.processFrame(frames.get(i % frames.size()), captureNanos += CAMERA_PERIOD_NANOS);
+        }
+        result.baselineMsPerFrame = (System.nanoTime() - start) / 1e6 / TIMED_FRAMES;
+        result.baselineBytesPerFrame = bytesPerFrame(counter, bytes, TIMED_FRAMES);
+
+        // With the recorder filling its ring; several times over, to show memory doesn't grow
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            process(frames.get(i % frames.size()), segmenter, recorder, captureNanos += CAMERA_PERIOD_NANOS);
+        }
+        // The recorder keeps one camera frame in three, so this overwrites the whole ring three times
+        int recorded = Math.max(TIMED_FRAMES, recorder.getCapacity() * 3 * 3);
+        bytes = counter.bytes();
+        start = System.nanoTime();
+        for (int i = 0; i < recorded; i++) {
+            process(frames.get(i % frames.size()), segmenter, recorder, captureNanos += CAMERA_PERIOD_NANOS);
+        }
+        result.recordingMsPerFrame = (System.nanoTime() - start) / 1e6 / recorded;
+        result.recordingBytesPerFrame = bytesPerFrame(counter, bytes, recorded);
+
+        // While the file is written in the background
+        recorder.save("benchmark");
+        start = System.nanoTime();
+        int i = 0;
+        while (recorder.isSaving() && i < TIMED_FRAMES * 10) {
+            process(frames.get(i % frames.size()), segmenter, recorder, captureNanos += CAMERA_PERIOD_NANOS);
+            i++;
+        }
+        result.encodingFrames = i;
+        result.encodingMsPerFrame = i == 0 ? 0 : (System.nanoTime() - start) / 1e6 / i;
+        recorder.awaitSaved(60000);
+
+        counter.close();
+        result.encodeMs = recorder.getLastEncodeMs();
+        result.file = recorder.getLastFile();
+        result.failure = recorder.getFailure();
+        recorder.release();
+        return result;
+    }
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        List<Mat> frames = UtilityColorSegmentationBenchmark.loadCapturedFrames(AppUtil.ROOT_FOLDER);
+        String source = frames.size() + " captured frames";
+        if (frames.isEmpty()) {
+            frames.add(UtilityColorSegmentationBenchmark.syntheticFrame());
+            source = "synthetic frame";
+        }
+
+        telemetry.addData("Frames", source);
+        telemetry.addData(">", "Touch START to run the benchmark");
+        telemetry.update();
+        waitForStart();
+
+        telemetry.addData(">", "Running...");
+        telemetry.update();
+        Result result = benchmark(frames, new File(AppUtil.FIRST_FOLDER, "camera"));
+
+        telemetry.addData("Result", result.passed() ? "PASSED" : "FAILED");
+        telemetry.addData("Frames", "%s, %d timed", source, result.frames);
+        telemetry.addData("Segmenter", "%.2f ms/frame", result.baselineMsPerFrame);
+        telemetry.addData("+ recorder", "%.2f ms/frame (allowed %.2f)", result.recordingMsPerFrame,
+                result.allowedMsPerFrame());
+        telemetry.addData("+ recorder saving", "%.2f ms/frame over %d frames", result.encodingMsPerFrame,
+                result.encodingFrames);
+        telemetry.addData("Ring memory", "%.1f MB", result.memoryBytes / 1e6);
+        telemetry.addData("Allocated", "%.0f bytes/frame alone, %.0f with the recorder (allowed +%.0f)",
+                result.baselineBytesPerFrame, result.recordingBytesPerFrame, ALLOWED_BYTES_PER_FRAME);
+        telemetry.addData("Saved", "%s in %.0f ms", result.file, result.encodeMs);
+        if (result.failure != null) {
+            telemetry.addData("Save failed", result.failure.toString());
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+
+    private static double bytesPerFrame(AllocationCounter counter, long before, int frames) {
+        long after = counter.bytes();
+        return before < 0 || after < 0 ? -1 : (double) (after - before) / frames;
+    }
+
+    private static void process(Mat frame, ColorSegmentationProcessor segmenter, CameraRecorder recorder,
+                                long captureNanos) {
+        segmenter.processFrame(frame, captureNanos);
+        recorder.processFrame(frame, captureNanos);
+    }
+}
@@ -0,0 +1,168 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import com.qualcomm.robotcore.eventloop.opmode.Disabled;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorRange;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * This OpMode compares the per-frame cost of ColorSegmentationProcessor against the two
+ * ColorBlobLocatorProcessors it replaces, without needing a camera.
+ *
+ * It runs both pipelines over the frames saved by UtilityCameraFrameCapture (any PNG in /sdcard
+ * whose name contains "CameraFrameCapture").  If there are none, it uses a synthetic 640x480
+ * frame with green and purple discs on a grey field.  Each pipeline is warmed up, then timed over
+ * the same frames, and the average time per frame is shown along with the blobs each one found.
+ *
+ * To use the tool, comment out the @Disabled annotation and build the App.
+ */
+@TeleOp(name = "Utility: Color Segmentation Benchmark", group = "Utility")
+@Disabled
+public class UtilityColorSegmentationBenchmark extends LinearOpMode {
+
+    private static final int WARMUP_FRAMES = 20;
+    private static final int TIMED_FRAMES = 200;
+
+    /** Timing for both pipelines over the same frames. */
+    public static class Result {
+        public int frames;
+        public double locatorMsPerFrame;
+        public double segmenterMsPerFrame;
+        public int locatorBlobs;
+        public int segmenterBlobs;
+
+        public double speedup() {
+            return locatorMsPerFrame / segmenterMsPerFrame;
+        }
+    }
+
+    public static Result benchmark(List<Mat> frames, int downscale) {
+        ColorBlobLocatorProcessor green = locator(ColorRange.ARTIFACT_GREEN);
+        ColorBlobLocatorProcessor purple = locator(ColorRange.ARTIFACT_PURPLE);
+        ColorSegmentationProcessor segmenter = new ColorSegmentationProcessor.Builder()
+                .addClass(SegmentationClass.ARTIFACT_GREEN)
+                .addClass(SegmentationClass.ARTIFACT_PURPLE)
+                .setDownscale(downscale)
+                .setDrawBlobs(false)
+                .build();
+
+        Mat first = frames.get(0);
+        green.init(first.cols(), first.rows(), null);
+        purple.init(first.cols(), first.rows(), null);
+        segmenter.init(first.cols(), first.rows(), null);
+
+        Result result = new Result();
+        result.frames = TIMED_FRAMES;
+        result.locatorMsPerFrame = time(frames, green, purple);
+        result.segmenterMsPerFrame = time(frames, segmenter, null);
+        result.locatorBlobs = green.getBlobs().size() + purple.getBlobs().size();
+        result.segmenterBlobs = segmenter.getResult().size();
+        return result;
+    }
+
+    /** A 640x480 RGB frame with three green and two purple artifacts, for when no captures exist. */
+    public static Mat syntheticFrame() {
+        Mat frame = new Mat(480, 640, CvType.CV_8UC3, new Scalar(110, 110, 110));
+        Scalar green = new Scalar(40, 170, 70);
+        Scalar purple = new Scalar(130, 60, 170);
+        Imgproc.circle(frame, new Point(120, 300), 45, green, -1);
+        Imgproc.circle(frame, new Point(330, 260), 60, green, -1);
+        Imgproc.circle(frame, new Point(560, 380), 30, green, -1);
+        Imgproc.circle(frame, new Point(220, 140), 50, purple, -1);
+        Imgproc.circle(frame, new Point(470, 150), 40, purple, -1);
+        return frame;
+    }
+
+    /** Load the frames saved by UtilityCameraFrameCapture, converted to RGB as the camera delivers them. */
+    public static List<Mat> loadCapturedFrames(File folder) {
+        List<Mat> frames = new ArrayList<>();
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return frames;
+        }
+        for (File file : files) {
+            if (file.getName().contains("CameraFrameCapture") && file.getName().endsWith(".png")) {
+                Mat bgr = Imgcodecs.imread(file.getAbsolutePath());
+                if (!bgr.empty()) {
+                    Mat rgb = new Mat();
+                    Imgproc.cvtColor(bgr, rgb, Imgproc.COLOR_BGR2RGB);
+                    frames.add(rgb);
+                }
+                bgr.release();
+            }
+        }
+        return frames;
+    }
+
+    @Override
+    public void runOpMode() {
+        List<Mat> frames = loadCapturedFrames(AppUtil.ROOT_FOLDER);
+        String source = frames.size() + " captured frames";
+        if (frames.isEmpty()) {
+            frames.add(syntheticFrame());
+            source = "synthetic frame";
+        }
+
+        telemetry.addData("Frames", source);
+        telemetry.addData(">", "Touch START to run the benchmark");
+        telemetry.update();
+        waitForStart();
+
+        telemetry.addData(">", "Running...");
+        telemetry.update();
+        Result full = benchmark(frames, 1);
+        Result half = benchmark(frames, 2);
+
+        telemetry.addData("Frames", "%s, %d timed", source, full.frames);
+        telemetry.addData("2x ColorBlobLocator", "%.2f ms/frame, %d blobs", full.locatorMsPerFrame, full.locatorBlobs);
+        telemetry.addData("Segmenter", "%.2f ms/frame, %d blobs (%.1fx)", full.segmenterMsPerFrame, full.segmenterBlobs, full.speedup());
+        telemetry.addData("Segmenter, downscale 2", "%.2f ms/frame, %d blobs (%.1fx)", half.segmenterMsPerFrame, half.segmenterBlobs, half.speedup());
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            sleep(100);
+        }
+    }
+
+    private static ColorBlobLocatorProcessor locator(ColorRange range) {
+        return new ColorBlobLocatorProcessor.Builder()
+                .setTargetColorRange(range)
+                .setContourMode(ColorBlobLocatorProcessor.ContourMode.EXTERNAL_ONLY)
+                .setDrawContours(false)
+                .setBlurSize(5)
+                .build();
+    }
+
+    private static double time(List<Mat> frames, VisionProcessor a, VisionProcessor b) {
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            process(frames.get(i % frames.size()), a, b);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_FRAMES; i++) {
+            process(frames.get(i % frames.size()), a, b);
+        }
+        return (System.nanoTime() - start) / 1e6 / TIMED_FRAMES;
+    }
+
+    private static void process(Mat frame, VisionProcessor a, VisionProcessor b) {
+        long now = System.nanoTime();
+        a.processFrame(frame, now);
+        if (b != null) {
+            b.processFrame(frame, now);
+        }
+    }
+}
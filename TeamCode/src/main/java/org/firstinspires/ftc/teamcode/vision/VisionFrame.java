@@ -0,0 +1,105 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import java.util.List;
+
+/*
+ * The results of one processed camera frame, as delivered by a VisionPublisher: the detections or
+ * blobs, the frame's sequence number and when it was captured.
+ *
+ * A frame holds references to the processor's result objects in a fixed-size array, so filling or
+ * copying one never allocates.  Frames are owned by whoever created them with
+ * VisionPublisher.newFrame() and refilled on every poll; results beyond the capacity are dropped
+ * and counted.
+ */
+public class VisionFrame<T> {
+
+    private final Object[] items;
+    private int count = 0;
+    private int dropped = 0;
+    private long sequence = 0;
+    private long captureTimeNanos = 0;
+    private long publishTimeNanos = 0;
+
+    VisionFrame(int capacity) {
+        items = new Object[capacity];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index >= count) {
+            throw new IndexOutOfBoundsException("result " + index + " of " + count);
+        }
+        return (T) items[index];
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    /** Results the processor reported for this frame that didn't fit. */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /** 1 for the first frame the publisher delivered, counting up by one for every frame after; 0 before any. */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /** When the camera captured the frame, on the System.nanoTime() clock. */
+    public long getCaptureTimeNanos() {
+        return captureTimeNanos;
+    }
+
+    /** When the processor finished with the frame. */
+    public long getPublishTimeNanos() {
+        return publishTimeNanos;
+    }
+
+    /** Milliseconds from capture to the results being available. */
+    public double getLatencyMs() {
+        return (publishTimeNanos - captureTimeNanos) / 1e6;
+    }
+
+    /** Milliseconds since the frame was captured. */
+    public double getAgeMs() {
+        return (System.nanoTime() - captureTimeNanos) / 1e6;
+    }
+
+    void set(List<? extends T> results, long sequence, long captureTimeNanos, long publishTimeNanos) {
+        int n = Math.min(results.size(), items.length);
+        for (int i = 0; i < n; i++) {
+            items[i] = results.get(i);
+        }
+        // Drop references to the previous frame's results so they can be collected
+        for (int i = n; i < count; i++) {
+            items[i] = null;
+        }
+        this.count = n;
+        this.dropped = results.size() - n;
+        this.sequence = sequence;
+        this.captureTimeNanos = captureTimeNanos;
+        this.publishTimeNanos = publishTimeNanos;
+    }
+
+    void copyFrom(VisionFrame<T> other) {
+        int n = Math.min(other.count, items.length);
+        System.arraycopy(other.items, 0, items, 0, n);
+        for (int i = n; i < count; i++) {
+            items[i] = null;
+        }
+        count = n;
+        dropped = other.dropped + other.count - n;
+        sequence = other.sequence;
+        captureTimeNanos = other.captureTimeNanos;
+        publishTimeNanos = other.publishTimeNanos;
+    }
+}
@@ -0,0 +1,232 @@
+package org.firstinspires.ftc.teamcode.vision;
+
+import android.graphics.Canvas;
+
+import org.firstinspires.ftc.robotcore.internal.camera.calibration.CameraCalibration;
+import org.firstinspires.ftc.vision.VisionProcessor;
+import org.firstinspires.ftc.vision.apriltag.AprilTagDetection;
+import org.firstinspires.ftc.vision.apriltag.AprilTagProcessor;
+import org.firstinspires.ftc.vision.opencv.ColorBlobLocatorProcessor;
+import org.opencv.core.Mat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Delivers a processor's results once per camera frame, instead of the control loop polling
+ * getDetections() or getBlobs() and getting a fresh copy of the same frame's results every time.
+ *
+ * The publisher wraps the processor and is added to the VisionPortal in its place.  On the vision
+ * thread, right after the processor finishes a frame, its results are put in a VisionFrame stamped
+ * with a sequence number and the capture time, and published.  Control code then either:
+ *
+ *   - subscribes, and calls poll() each loop: it returns true, and fills the caller's frame, only
+ *     when a frame newer than the last one it returned has arrived, so the loop reacts to each
+ *     detection exactly once and skips its vision work on every other iteration;
+ *   - calls await() to sleep until the next frame arrives, for a thread that does nothing else;
+ *   - or adds a Listener, called on the vision thread as each frame is published.
+ *
+ * Publishing swaps between two preallocated frames under a lock, and polling copies references
+ * into the subscriber's own frame, so neither side allocates.  Each subscription counts the frames
+ * it missed by polling too slowly.
+ *
+ *     AprilTagProcessor aprilTag = new AprilTagProcessor.Builder().build();
+ *     VisionPublisher<AprilTagDetection> tags = VisionPublisher.forAprilTags(aprilTag);
+ *     visionPortal = new VisionPortal.Builder().setCamera(...).addProcessor(tags).build();
+ *
+ * Enable and disable the publisher through the VisionPortal rather than the wrapped processor.
+ * The AprilTag publisher takes the processor's fresh detections, so don't also call
+ * aprilTag.getFreshDetections() elsewhere.
+ */
+public class VisionPublisher<T> implements VisionProcessor {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /** Called on the vision thread with each new frame; must return quickly, and not keep the frame. */
+    public interface Listener<T> {
+        void onFrame(VisionFrame<T> frame);
+    }
+
+    /** Supplies the wrapped processor's results for the frame it has just processed, or null if none. */
+    interface ResultSource<T> {
+        List<? extends T> results();
+    }
+
+    /** One consumer's position in the stream of frames. */
+    public static class Subscription<T> {
+        private final VisionPublisher<T> publisher;
+        private long lastSequence = 0;
+        private long missed = 0;
+        private long received = 0;
+
+        private Subscription(VisionPublisher<T> publisher) {
+            this.publisher = publisher;
+        }
+
+        /**
+         * If a frame newer than the last one returned has been published, copies it into frame and
+         * returns true; otherwise leaves frame alone and returns false.
+         */
+        public boolean poll(VisionFrame<T> frame) {
+            synchronized (publisher.lock) {
+                return take(frame);
+            }
+        }
+
+        /**
+         * As poll(), but waits up to timeoutMs for a new frame.  Returns false if none arrived in
+         * time.
+         */
+        public boolean await(VisionFrame<T> frame, long timeoutMs) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutMs * 1000000;
+            synchronized (publisher.lock) {
+                while (publisher.ready.getSequence() == lastSequence) {
+                    long remainingMs = (deadline - System.nanoTime()) / 1000000;
+                    if (remainingMs <= 0) {
+                        return false;
+                    }
+                    publisher.lock.wait(remainingMs);
+                }
+                return take(frame);
+            }
+        }
+
+        private boolean take(VisionFrame<T> frame) {
+            long sequence = publisher.ready.getSequence();
+            if (sequence == lastSequence) {
+                return false;
+            }
+            if (lastSequence > 0) {
+                missed += sequence - lastSequence - 1;
+            }
+            frame.copyFrom(publisher.ready);
+            lastSequence = sequence;
+            received++;
+            return true;
+        }
+
+        /** The sequence number of the last frame returned, or 0. */
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        /** Frames published since subscribing that this subscription never returned. */
+        public long getMissed() {
+            return missed;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+    }
+
+    private final VisionProcessor processor;
+    private final ResultSource<T> source;
+    private final int capacity;
+    private final Object lock = new Object();
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+    private VisionFrame<T> back;
+    private VisionFrame<T> ready;
+    private long sequence = 0;
+
+    VisionPublisher(VisionProcessor processor, ResultSource<T> source, int capacity) {
+        this.processor = processor;
+        this.source = source;
+        this.capacity = capacity;
+        this.back = new VisionFrame<>(capacity);
+        this.ready = new VisionFrame<>(capacity);
+    }
+
+    /** Publishes an AprilTagProcessor's detections, up to DEFAULT_CAPACITY per frame. */
+    public static VisionPublisher<AprilTagDetection> forAprilTags(AprilTagProcessor processor) {
+        return forAprilTags(processor, DEFAULT_CAPACITY);
+    }
+
+    public static VisionPublisher<AprilTagDetection> forAprilTags(final AprilTagProcessor processor, int capacity) {
+        return new VisionPublisher<>(processor, new ResultSource<AprilTagDetection>() {
+            @Override public List<AprilTagDetection> results() {
+                return processor.getFreshDetections();
+            }
+        }, capacity);
+    }
+
+    /** Publishes a ColorBlobLocatorProcessor's blobs, after its filters and sort, up to DEFAULT_CAPACITY per frame. */
+    public static VisionPublisher<ColorBlobLocatorProcessor.Blob> forBlobs(ColorBlobLocatorProcessor processor) {
+        return forBlobs(processor, DEFAULT_CAPACITY);
+    }
+
+    public static VisionPublisher<ColorBlobLocatorProcessor.Blob> forBlobs(final ColorBlobLocatorProcessor processor,
+                                                                          int capacity) {
+        return new VisionPublisher<>(processor, new ResultSource<ColorBlobLocatorProcessor.Blob>() {
+            @Override public List<ColorBlobLocatorProcessor.Blob> results() {
+                return processor.getBlobs();
+            }
+        }, capacity);
+    }
+
+    public VisionProcessor getProcessor() {
+        return processor;
+    }
+
+    /** A frame sized for this publisher's results, to poll into. */
+    public VisionFrame<T> newFrame() {
+        return new VisionFrame<>(capacity);
+    }
+
+    public Subscription<T> subscribe() {
+        return new Subscription<>(this);
+    }
+
+    public void addListener(Listener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /** Frames published so far. */
+    public long getSequence() {
+        synchronized (lock) {
+            return sequence;
+        }
+    }
+
+    @Override
+    public void init(int width, int height, CameraCalibration calibration) {
+        processor.init(width, height, calibration);
+    }
+
+    @Override
+    public Object processFrame(Mat frame, long captureTimeNanos) {
+        Object context = processor.processFrame(frame, captureTimeNanos);
+        List<? extends T> results = source.results();
+        if (results != null) {
+            publish(results, captureTimeNanos);
+        }
+        return context;
+    }
+
+    void publish(List<? extends T> results, long captureTimeNanos) {
+        // Subscribers only ever copy from the ready frame, so the back one can be filled without the lock
+        VisionFrame<T> published = back;
+        published.set(results, sequence + 1, captureTimeNanos, System.nanoTime());
+        synchronized (lock) {
+            sequence++;
+            back = ready;
+            ready = published;
+            lock.notifyAll();
+        }
+        // Only this thread swaps the frames, so the one just published is stable until the next frame
+        for (Listener<T> listener : listeners) {
+            listener.onFrame(published);
+        }
+    }
+
+    @Override
+    public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx,
+                            float scaleCanvasDensity, Object userContext) {
+        processor.onDrawFrame(canvas, onscreenWidth, onscreenHeight, scaleBmpPxToCanvasPx, scaleCanvasDensity,
+                userContext);
+    }
+}